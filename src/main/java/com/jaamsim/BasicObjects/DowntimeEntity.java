@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016-2019 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,7 @@ import com.jaamsim.input.Output;
 import com.jaamsim.states.DowntimeUser;
 import com.jaamsim.states.StateEntity;
 import com.jaamsim.states.StateEntityListener;
+import com.jaamsim.states.StateHandle;
 import com.jaamsim.states.StateRecord;
 import com.jaamsim.units.TimeUnit;
 
@@ -88,6 +89,7 @@ public class DowntimeEntity extends StateEntity implements StateEntityListener {
 	private double endTime;          // the end time of the latest downtime event
 
 	private static final String STATE_DOWNTIME = "Downtime";
+	private static final StateHandle DOWNTIME_HANDLE = StateHandle.get(STATE_DOWNTIME);
 
 	{
 		workingStateListInput.setHidden(true);
@@ -398,9 +400,9 @@ public class DowntimeEntity extends StateEntity implements StateEntityListener {
 	private void setDown(boolean b) {
 		down = b;
 		if (down)
-			setPresentState(STATE_DOWNTIME);
+			setPresentState(DOWNTIME_HANDLE);
 		else
-			setPresentState(STATE_WORKING);
+			setPresentState(WORKING_HANDLE);
 	}
 
 	final void endDowntime() {
@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,7 +46,7 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 	private int lastSample;  // the index that was selected most recently
 	private int totalCount;  // the total number of samples that have been selected
 	private int[] sampleCount;  // number of times each index has been selected
-	private double[] sampleDifference;  // (actual number of samples) - (expected number)
+	private double[] proportions;  // proportion for each index
 
 	{
 		proportionList = new ValueListInput("ProportionList", KEY_INPUTS, null);
@@ -56,7 +57,7 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 
 	public EntitlementSelector() {
 		sampleCount = new int[0];
-		sampleDifference = new double[0];
+		proportions = new double[0];
 	}
 
 	@Override
@@ -76,7 +77,7 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 		lastSample = -1;
 		totalCount = 0;
 		sampleCount = new int[proportionList.getValue().size()];
-		sampleDifference = new double[proportionList.getValue().size()];
+		proportions = proportionList.getValue().toArray();
 	}
 
 	/**
@@ -95,12 +96,11 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 		}
 
 		// Make the next selection
-		DoubleVector probList = proportionList.getValue();
 		int index = 0;
 		double maxDiff = Double.NEGATIVE_INFINITY;
 		totalCount++;
-		for (int i=0; i<probList.size(); i++) {
-			double diff = totalCount * probList.get(i) - sampleCount[i];
+		for (int i=0; i<proportions.length; i++) {
+			double diff = totalCount * proportions[i] - sampleCount[i];
 			if (diff > maxDiff) {
 				maxDiff = diff;
 				index = i;
@@ -110,9 +110,6 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 
 		// Collect statistics on the sampled values
 		sampleCount[index]++;
-		for(int i=0; i<sampleCount.length; i++) {
-			sampleDifference[i] = sampleCount[i] - totalCount*proportionList.getValue().get(i);
-		}
 
 		return lastSample;
 	}
@@ -160,9 +157,9 @@ public class EntitlementSelector extends DisplayEntity implements SampleProvider
 	             + "expected number.",
 	    sequence = 3)
 	public DoubleVector getSampleDifference(double simTime) {
-		DoubleVector ret = new DoubleVector(sampleDifference.length);
-		for (int i=0; i<sampleDifference.length; i++) {
-			ret.add(sampleDifference[i]);
+		DoubleVector ret = new DoubleVector(sampleCount.length);
+		for (int i=0; i<sampleCount.length; i++) {
+			ret.add(sampleCount[i] - totalCount*proportions[i]);
 		}
 		return ret;
 	}
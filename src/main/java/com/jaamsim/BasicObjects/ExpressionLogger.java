@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2015 Ausenco Engineering Canada Inc.
- * Copyright (C) 2015-2019 JaamSim Software Inc.
+ * Copyright (C) 2015-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import com.jaamsim.StringProviders.StringProvListInput;
 import com.jaamsim.StringProviders.StringProvider;
 import com.jaamsim.basicsim.EntityTarget;
-import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.LogWriter;
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
@@ -133,11 +133,11 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 	}
 
 	@Override
-	protected void printColumnTitles(FileEntity file) {
+	protected void addColumnTitles(ArrayList<String> titles) {
 
 		// Traced entities
 		for (StateEntity ent : stateTraceList.getValue()) {
-			file.format("\t[%s].State", ent.getName());
+			titles.add(String.format("[%s].State", ent.getName()));
 		}
 
 		// Traced values
@@ -146,7 +146,7 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 		for (String str : valToks) {
 			if (str.equals("{") || str.equals("}"))
 				continue;
-			file.format("\t%s", str);
+			titles.add(str);
 		}
 	}
 
@@ -184,18 +184,19 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 	}
 
 	@Override
-	protected void recordEntry(FileEntity file, double simTime) {
+	protected void recordEntry(LogWriter log, double simTime) {
 
 		// Write the state values
 		for (StateEntity ent : stateTraceList.getValue()) {
-			file.format("\t%s", ent.getPresentState(simTime));
+			log.append('\t');
+			log.append(ent.getPresentState(simTime));
 		}
 
 		try {
 			// Write the traced expression values
 			for (int i=0; i<valueTraceList.getListSize(); i++) {
-				String str = valueTraceList.getValue().get(i).getNextString(simTime);
-				file.format("\t%s", str);
+				log.append('\t');
+				valueTraceList.getValue().get(i).appendNextString(simTime, log);
 			}
 		}
 		catch (Exception e) {
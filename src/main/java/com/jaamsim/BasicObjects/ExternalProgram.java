@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.jaamsim.BasicObjects;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
@@ -26,6 +27,11 @@ import java.util.concurrent.TimeUnit;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.ProcessFlow.LinkedComponent;
 import com.jaamsim.StringProviders.StringProvListInput;
+import com.jaamsim.basicsim.EntityTarget;
+import com.jaamsim.events.EventHandle;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.ExpCollections;
 import com.jaamsim.input.ExpResult;
 import com.jaamsim.input.FileInput;
@@ -66,8 +72,42 @@ public class ExternalProgram extends LinkedComponent {
 	         exampleList = {"2000"})
 	private final IntegerInput timeOut;
 
+	@Keyword(description = "If TRUE, the external program is started once for each simulation "
+	                     + "run and is kept running until the run ends. "
+	                     + "The values for each entity are written to the program's standard "
+	                     + "input as a single line, separated by tab characters, and the program "
+	                     + "must respond by writing a single line to its standard output. "
+	                     + "If FALSE, the program is started for each entity and the values are "
+	                     + "passed on its command line.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput persistentMode;
+
+	@Keyword(description = "In persistent mode, the maximum number of requests that can be "
+	                     + "sent to the external program before its first response is read. "
+	                     + "Entities that arrive at the same simulation time are sent together "
+	                     + "and are released once their responses have been received. "
+	                     + "The external program must respond to its requests in order.",
+	         exampleList = {"10"})
+	private final IntegerInput maxOutstandingRequests;
+
+	@Keyword(description = "In persistent mode, the number of times the external program is "
+	                     + "restarted if it terminates or does not respond within the TimeOut "
+	                     + "period. Any requests that were outstanding are sent again to the "
+	                     + "restarted program.",
+	         exampleList = {"3"})
+	private final IntegerInput maxRestarts;
+
 	private ExpResult value;  // outputs returned by the external program
 
+	private ExternalProgramWorker worker;  // program that is kept running in persistent mode
+	private final ArrayList<DisplayEntity> pendingEntities = new ArrayList<>();  // waiting for a response
+	private final ArrayList<String> pendingRequests = new ArrayList<>();  // sent but not answered
+	private int numRestarts;  // number of times the program has been restarted in this run
+	private IOException startException;  // reason the program could not be started
+
+	private final ProcessTarget receiveTarget = new ReceiveResponsesTarget(this);
+	private final EventHandle receiveHandle = new EventHandle();
+
 	{
 		programFile = new FileInput("ProgramFile", KEY_INPUTS, null);
 		programFile.setRequired(true);
@@ -85,6 +125,17 @@ public class ExternalProgram extends LinkedComponent {
 		timeOut = new IntegerInput("TimeOut", KEY_INPUTS, 1000);
 		timeOut.setValidRange(1, Integer.MAX_VALUE);
 		this.addInput(timeOut);
+
+		persistentMode = new BooleanInput("PersistentMode", KEY_INPUTS, false);
+		this.addInput(persistentMode);
+
+		maxOutstandingRequests = new IntegerInput("MaxOutstandingRequests", KEY_INPUTS, 1);
+		maxOutstandingRequests.setValidRange(1, Integer.MAX_VALUE);
+		this.addInput(maxOutstandingRequests);
+
+		maxRestarts = new IntegerInput("MaxRestarts", KEY_INPUTS, 1);
+		maxRestarts.setValidRange(0, Integer.MAX_VALUE);
+		this.addInput(maxRestarts);
 	}
 
 	public ExternalProgram() {
@@ -118,11 +169,36 @@ public class ExternalProgram extends LinkedComponent {
 	public void earlyInit() {
 		super.earlyInit();
 		value = getInitialValue();
+
+		// Stop a program left running by a previous run that did not end normally
+		stopWorker();
+		pendingEntities.clear();
+		pendingRequests.clear();
+		numRestarts = 0;
+		startException = null;
+	}
+
+	@Override
+	public void doEnd() {
+		super.doEnd();
+		stopWorker();
+	}
+
+	@Override
+	public void kill() {
+		stopWorker();
+		super.kill();
 	}
 
 	@Override
 	public void addEntity(DisplayEntity ent) {
 		super.addEntity(ent);
+
+		if (persistentMode.getValue()) {
+			addRequest(ent);
+			return;
+		}
+
 		double simTime = getSimTime();
 
 		// Build the command to launch the external program
@@ -192,6 +268,156 @@ public class ExternalProgram extends LinkedComponent {
 		sendToNextComponent(ent);
 	}
 
+	/**
+	 * Returns the command to launch the external program in persistent mode.
+	 */
+	private String[] getWorkerCommand() {
+		if (inFile.isDefault())
+			return new String[] { programFile.getValue().getPath() };
+		File file = new File(inFile.getValue());
+		return new String[] { programFile.getValue().getPath(), file.getPath() };
+	}
+
+	/**
+	 * Sends the request for the specified entity to the persistent external program.
+	 * The entity is held until the response has been received.
+	 */
+	private void addRequest(DisplayEntity ent) {
+		double simTime = getSimTime();
+
+		// Build the request line
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < dataSource.getListSize(); i++) {
+			if (i > 0)
+				sb.append("\t");
+			sb.append(dataSource.getValue().get(i).getNextString(simTime));
+		}
+		String request = sb.toString();
+		if (request.indexOf('\n') >= 0 || request.indexOf('\r') >= 0)
+			error("The values provided to the external program cannot contain a new line "
+					+ "character in persistent mode: %s", request);
+
+		pendingEntities.add(ent);
+		pendingRequests.add(request);
+		if (worker == null)
+			startWorker();
+		try {
+			if (worker != null)
+				worker.send(request);
+		}
+		catch (IOException e) {
+			// The program is restarted when the response is read
+		}
+
+		// Read the responses once the maximum number of requests are outstanding
+		if (pendingRequests.size() >= maxOutstandingRequests.getValue()) {
+			if (receiveHandle.isScheduled())
+				EventManager.killEvent(receiveHandle);
+			receiveResponses();
+			return;
+		}
+
+		// Otherwise, read them after the other entities arriving at this time have been sent
+		if (!receiveHandle.isScheduled())
+			EventManager.scheduleTicks(0L, 10, true, receiveTarget, receiveHandle);
+	}
+
+	private static class ReceiveResponsesTarget extends EntityTarget<ExternalProgram> {
+		ReceiveResponsesTarget(ExternalProgram ent) {
+			super(ent, "receiveResponses");
+		}
+
+		@Override
+		public void process() {
+			ent.receiveResponses();
+		}
+	}
+
+	/**
+	 * Reads the responses to the outstanding requests in the order they were sent, and passes
+	 * each entity to the next component as its response is received.
+	 */
+	void receiveResponses() {
+		while (!pendingEntities.isEmpty()) {
+			String line = receive();
+			ArrayList<String> list = new ArrayList<>();
+			Parser.tokenize(list, line, false);
+			ArrayList<ExpResult> resList = FileToArray.getExpResultList(list, this, getSimTime());
+			value = ExpCollections.wrapCollection(resList, DimensionlessUnit.class);
+
+			pendingRequests.remove(0);
+			DisplayEntity ent = pendingEntities.remove(0);
+			sendToNextComponent(ent);
+		}
+	}
+
+	/**
+	 * Returns the response to the first outstanding request. If the program has terminated or
+	 * does not respond in time, it is restarted and sent the outstanding requests again.
+	 */
+	private String receive() {
+		while (true) {
+			try {
+				if (worker == null) {
+					if (startException != null)
+						throw new IOException("Unable to start the external program: "
+								+ startException.getMessage());
+					throw new IOException("External program is not running");
+				}
+				return worker.receive(timeOut.getValue());
+			}
+			catch (IOException e) {
+				String errorText = worker == null ? "" : worker.getErrorText();
+				stopWorker();
+				if (numRestarts >= maxRestarts.getValue()) {
+					if (!errorText.isEmpty())
+						error("%s%n%s", e.getMessage(), errorText);
+					error(e.getMessage());
+				}
+				numRestarts++;
+				restartWorker();
+			}
+		}
+	}
+
+	/**
+	 * Starts the external program. If it cannot be started, the exception is kept so that it
+	 * can be reported when the response is read.
+	 */
+	private void startWorker() {
+		try {
+			worker = new ExternalProgramWorker(getWorkerCommand());
+			startException = null;
+		}
+		catch (IOException e) {
+			startException = e;
+		}
+	}
+
+	/**
+	 * Starts the external program and sends it the outstanding requests.
+	 */
+	private void restartWorker() {
+		startWorker();
+		if (worker == null)
+			return;
+		try {
+			for (String request : pendingRequests) {
+				worker.send(request);
+			}
+		}
+		catch (IOException e) {
+			// Treated as a failure when the response is read
+		}
+	}
+
+	private void stopWorker() {
+		if (worker == null)
+			return;
+		worker.stop(timeOut.getValue());
+		worker = null;
+	}
+
 	@Output(name = "Value",
 	 description = "An array of values returned by the external program after parsing. "
 	             + "Returned strings are converted automatically to numbers, times, or entities, "
@@ -0,0 +1,169 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * External program that is kept running and exchanges one line of text for each request.
+ * <p>
+ * Requests are written to the program's standard input, each terminated by a new line. The
+ * lines written by the program to its standard output are read by a separate thread and held
+ * until they are received, so that several requests can be sent before the first response is
+ * read. The last lines written to standard error are kept so that they can be reported if the
+ * program fails.
+ */
+class ExternalProgramWorker {
+
+	private static final String END = new String("END");  // marks the end of the output
+	private static final int MAX_ERROR_TEXT = 4096;  // number of characters of standard error kept
+
+	private final Process process;
+	private final BufferedWriter writer;
+	private final LinkedBlockingQueue<String> responses = new LinkedBlockingQueue<>();
+	private final StringBuffer errorText = new StringBuffer();
+
+	/**
+	 * Starts the external program.
+	 * @param command - program executable followed by its command line arguments
+	 * @throws IOException if the program cannot be started
+	 */
+	ExternalProgramWorker(String[] command) throws IOException {
+		process = new ProcessBuilder(command).start();
+		writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		Thread outThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					while (true) {
+						String line = reader.readLine();
+						if (line == null)
+							break;
+						responses.add(line);
+					}
+				}
+				catch (IOException e) {}
+				finally {
+					responses.add(END);
+				}
+			}
+		}, "ExternalProgram-out");
+		outThread.setDaemon(true);
+		outThread.start();
+
+		final InputStream es = process.getErrorStream();
+		Thread errThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				BufferedReader er = new BufferedReader(new InputStreamReader(es));
+				try {
+					while (true) {
+						String line = er.readLine();
+						if (line == null)
+							break;
+						if (errorText.length() > 0)
+							errorText.append("\n");
+						errorText.append(line);
+
+						// Keep only the end of the text, which normally contains the error
+						if (errorText.length() > MAX_ERROR_TEXT)
+							errorText.delete(0, errorText.length() - MAX_ERROR_TEXT);
+					}
+				}
+				catch (IOException e) {}
+			}
+		}, "ExternalProgram-err");
+		errThread.setDaemon(true);
+		errThread.start();
+	}
+
+	/**
+	 * Sends a request to the program.
+	 * @param request - one line of text without a line terminator
+	 * @throws IOException if the program is no longer accepting input
+	 */
+	void send(String request) throws IOException {
+		writer.write(request);
+		writer.newLine();
+		writer.flush();
+	}
+
+	/**
+	 * Waits for the next line of output from the program.
+	 * @param timeout - maximum time to wait in milliseconds
+	 * @return line of output
+	 * @throws IOException if the program has terminated or has not responded in time
+	 */
+	String receive(long timeout) throws IOException {
+		String ret;
+		try {
+			ret = responses.poll(timeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the external program");
+		}
+
+		if (ret == null)
+			throw new IOException(String.format(
+					"External program did not respond within %s milliseconds", timeout));
+
+		if (ret == END) {
+			responses.add(END);
+			throw new IOException("External program terminated unexpectedly");
+		}
+		return ret;
+	}
+
+	/**
+	 * Returns the last text written by the program to standard error.
+	 */
+	String getErrorText() {
+		return errorText.toString();
+	}
+
+	/**
+	 * Closes the program's standard input and waits for it to finish. The program is terminated
+	 * if it has not finished within the specified time.
+	 * @param timeout - maximum time to wait in milliseconds
+	 */
+	void stop(long timeout) {
+		try {
+			writer.close();
+		}
+		catch (IOException e) {}
+
+		try {
+			if (!process.waitFor(timeout, TimeUnit.MILLISECONDS))
+				process.destroyForcibly();
+		}
+		catch (InterruptedException e) {
+			process.destroyForcibly();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2017-2019 JaamSim Software Inc.
+ * Copyright (C) 2017-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import com.jaamsim.input.ExpResult;
 import com.jaamsim.input.FileInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.Keyword;
+import com.jaamsim.input.NumericTable;
 import com.jaamsim.input.Output;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.TimeUnit;
@@ -109,12 +110,39 @@ public abstract class FileToArray extends LinkedComponent {
 	}
 
 	private void setValueForURI(URI uri, double simTime) {
+
+		// Files containing only numbers are read directly into arrays
+		NumericTable table = NumericTable.read(uri, isKeyed());
+		if (table != null) {
+			ExpResult val = getValueForTable(table, simTime);
+			if (val != null) {
+				value = val;
+				return;
+			}
+		}
+
 		ArrayList<ArrayList<String>> tokens = FileInput.getTokensFromURI(uri);
 		value = getValueForTokens(tokens, simTime);
 	}
 
 	protected abstract ExpResult getValueForTokens(ArrayList<ArrayList<String>> tokens, double simTime);
 
+	/**
+	 * Returns whether the first entry in each record is a key that is not part of the data.
+	 */
+	protected boolean isKeyed() {
+		return false;
+	}
+
+	/**
+	 * Returns the value for a file that contains only numbers, or null if the file must be
+	 * read by getValueForTokens.
+	 * @param table - numbers read from the file
+	 * @param simTime - present simulation time
+	 * @return value for the file
+	 */
+	protected abstract ExpResult getValueForTable(NumericTable table, double simTime);
+
 	public static ExpResult getExpResult(String str, Entity thisEnt, double simTime) {
 		JaamSimModel simModel = thisEnt.getJaamSimModel();
 
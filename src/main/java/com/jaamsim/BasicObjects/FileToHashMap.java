@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import com.jaamsim.input.ExpCollections;
 import com.jaamsim.input.ExpError;
 import com.jaamsim.input.ExpResType;
 import com.jaamsim.input.ExpResult;
+import com.jaamsim.input.NumericTable;
 import com.jaamsim.units.DimensionlessUnit;
 
 public class FileToHashMap extends FileToArray {
@@ -53,6 +54,48 @@ public class FileToHashMap extends FileToArray {
 		return ExpCollections.wrapCollection(ret, DimensionlessUnit.class);
 	}
 
+	@Override
+	protected boolean isKeyed() {
+		return true;
+	}
+
+	@Override
+	protected ExpResult getValueForTable(NumericTable table, double simTime) {
+		String[] keys = table.getKeys();
+		LinkedHashMap<String, Integer> rowMap = new LinkedHashMap<>(keys.length);
+		for (int i = 0; i < keys.length; i++) {
+			String key = keys[i];
+
+			// Keys that could be interpreted as something other than a string are checked in
+			// the same way as the other entries
+			if (!isPlainKey(key)) {
+				ExpResult res = getExpResult(key, this, simTime);
+				if (res.type != ExpResType.STRING)
+					error("Key is not a string in record: %s", key);
+				key = res.stringVal;
+			}
+			rowMap.put(key, i);
+		}
+		return ExpCollections.wrapDoubleRowMap(rowMap, table.getValues(), table.getRowStart(),
+				DimensionlessUnit.class);
+	}
+
+	/**
+	 * Returns true if the specified key is a name that cannot be an expression or an entity.
+	 */
+	private boolean isPlainKey(String key) {
+		if (!Character.isLetter(key.charAt(0)) && key.charAt(0) != '_')
+			return false;
+		for (int i = 1; i < key.length(); i++) {
+			char c = key.charAt(i);
+			if (!Character.isLetterOrDigit(c) && c != '_')
+				return false;
+		}
+		if (key.equals("this") || key.equals("parent") || key.equals("sub"))
+			return false;
+		return getJaamSimModel().getNamedEntity(key) == null;
+	}
+
 	/**
 	 * Sets the data for the FileToMatrix directly from a Java data structure, without the use
 	 * of the DataFile input which can be left blank. The hashmap input can contain the following
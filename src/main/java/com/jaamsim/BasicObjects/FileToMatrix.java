@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2017-2018 JaamSim Software Inc.
+ * Copyright (C) 2017-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import com.jaamsim.input.ExpCollections;
 import com.jaamsim.input.ExpError;
 import com.jaamsim.input.ExpResult;
+import com.jaamsim.input.NumericTable;
 import com.jaamsim.units.DimensionlessUnit;
 
 public class FileToMatrix extends FileToArray {
@@ -38,6 +39,12 @@ public class FileToMatrix extends FileToArray {
 		return ExpCollections.wrapCollection(ret, DimensionlessUnit.class);
 	}
 
+	@Override
+	protected ExpResult getValueForTable(NumericTable table, double simTime) {
+		return ExpCollections.wrapDoubleRows(table.getValues(), table.getRowStart(),
+				DimensionlessUnit.class);
+	}
+
 	/**
 	 * Sets the data for the FileToMatrix directly from a Java data structure, without the use
 	 * of the DataFile input which can be left blank. The matrix input can contain the following
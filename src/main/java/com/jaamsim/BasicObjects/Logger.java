@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2016-2019 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,10 @@ import java.util.ArrayList;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.StringProviders.StringProvListInput;
 import com.jaamsim.StringProviders.StringProvider;
+import com.jaamsim.basicsim.ColumnFileWriter;
 import com.jaamsim.basicsim.FileEntity;
 import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.LogWriter;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
@@ -63,7 +65,18 @@ public abstract class Logger extends DisplayEntity {
 	         exampleList = { "8760.0 h" })
 	private final ValueInput endTime;
 
+	@Keyword(description = "If TRUE, the log entries are written to a compressed binary file "
+	                     + "<configuration file name>-<Logger name>.jcol instead of a text file. "
+	                     + "The values are stored by column with numbers and entities kept in "
+	                     + "binary form. If multiple runs are performed, the first column is the "
+	                     + "run number. The file can be converted to tab-separated text using "
+	                     + "com.jaamsim.basicsim.ColumnFileReader.",
+	         exampleList = { "TRUE" })
+	private final BooleanInput binaryFormat;
+
 	private FileEntity file;
+	private ColumnFileWriter columnFile;
+	private LogWriter log;  // writes the log entries on a separate thread
 	private double logTime;
 
 	{
@@ -89,6 +102,9 @@ public abstract class Logger extends DisplayEntity {
 		endTime.setUnitType(TimeUnit.class);
 		endTime.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(endTime);
+
+		binaryFormat = new BooleanInput("BinaryFormat", KEY_INPUTS, false);
+		this.addInput(binaryFormat);
 	}
 
 	public Logger() {}
@@ -101,23 +117,54 @@ public abstract class Logger extends DisplayEntity {
 
 		// Close the file if it is already open
 		JaamSimModel simModel = getJaamSimModel();
-		if (file != null && simModel.isFirstRun()) {
-			file.close();
-			file = null;
+		if (log != null && simModel.isFirstRun()) {
+			closeLog();
 		}
 
 		if (!isActive())
 			return;
 
+		// Column titles
+		// (a) Simulation time
+		ArrayList<String> titles = new ArrayList<>();
+		String unit = Unit.getDisplayedUnit(TimeUnit.class);
+		titles.add(String.format("this.SimTime/1[%s]", unit));
+
+		// (b) Titles for any additional columns
+		this.addColumnTitles(titles);
+
+		// (c) The mathematical expressions to be logged
+		ArrayList<String> toks = new ArrayList<>();
+		dataSource.getValueTokens(toks);
+		for (String str : toks) {
+			if (str.equals("{") || str.equals("}"))
+				continue;
+			titles.add(str);
+		}
+
 		// Create the report file
-		if (file == null) {
+		if (log == null) {
 			StringBuilder tmp = new StringBuilder(
 					simModel.getReportFileName(simModel.getRunName()));
 			tmp.append("-").append(this.getName());
-			tmp.append(".log");
-			file = new FileEntity(tmp.toString());
+			if (binaryFormat.getValue()) {
+				tmp.append(ColumnFileWriter.EXTENSION);
+				if (simModel.isMultipleRuns())
+					titles.add(0, "RunNumber");
+				columnFile = new ColumnFileWriter(tmp.toString(), titles);
+				log = new LogWriter(columnFile, this.getName());
+			}
+			else {
+				tmp.append(".log");
+				file = new FileEntity(tmp.toString());
+				log = new LogWriter(file, this.getName());
+			}
 		}
 
+		// A binary file contains only the log entries
+		if (file == null)
+			return;
+
 		// Print the detailed run information to the file
 		if (getJaamSimModel().isFirstRun())
 			InputAgent.printReport(getSimulation(), file, 0.0d);
@@ -131,20 +178,9 @@ public abstract class Logger extends DisplayEntity {
 		}
 
 		// Print the title for each column
-		// (a) Simulation time
-		String unit = Unit.getDisplayedUnit(TimeUnit.class);
-		file.format("%nthis.SimTime/1[%s]", unit);
-
-		// (b) Print at titles for any additional columns
-		this.printColumnTitles(file);
-
-		// (c) Print the mathematical expressions to be logged
-		ArrayList<String> toks = new ArrayList<>();
-		dataSource.getValueTokens(toks);
-		for (String str : toks) {
-			if (str.equals("{") || str.equals("}"))
-				continue;
-			file.format("\t%s", str);
+		file.format("%n%s", titles.get(0));
+		for (int i = 1; i < titles.size(); i++) {
+			file.format("\t%s", titles.get(i));
 		}
 
 		// Empty the output buffer
@@ -160,7 +196,7 @@ public abstract class Logger extends DisplayEntity {
 			return;
 
 		// Skip the log entry if the log file has been closed at the end of the run duration
-		if (file == null)
+		if (log == null)
 			return;
 
 		// Skip the log entry if the run is still initializing
@@ -176,27 +212,32 @@ public abstract class Logger extends DisplayEntity {
 
 		// Write the time for the log entry
 		double factor = Unit.getDisplayedUnitFactor(TimeUnit.class);
-		file.format("%n%s", simTime/factor);
+		log.newLine();
+		if (columnFile != null && getJaamSimModel().isMultipleRuns()) {
+			log.append((long) getJaamSimModel().getRunNumber());
+			log.append('\t');
+		}
+		log.append(simTime/factor);
 
 		// Write any additional columns for the log entry
-		this.recordEntry(file, simTime);
+		this.recordEntry(log, simTime);
 
 		// Write the expression values
 		for (int i=0; i<dataSource.getListSize(); i++) {
-			String str;
+			log.append('\t');
 			try {
 				StringProvider samp = dataSource.getValue().get(i);
-				str = samp.getNextString(simTime);
+				samp.appendNextString(simTime, log);
 			}
 			catch (Exception e) {
-				str = e.getMessage();
+				log.append(e.getMessage());
 			}
-			file.format("\t%s", str);
 		}
+		log.endRecord();
 
 		// If running in real time mode, empty the file buffer after each entity is logged
-		if (!getJaamSimModel().isBatchRun() && getSimulation().isRealTime())
-			file.flush();
+		if (file != null && !getJaamSimModel().isBatchRun() && getSimulation().isRealTime())
+			log.flush();
 	}
 
 	protected double getStartTime() {
@@ -207,22 +248,41 @@ public abstract class Logger extends DisplayEntity {
 		return endTime.getValue();
 	}
 
-	protected abstract void printColumnTitles(FileEntity file);
+	/**
+	 * Adds the titles for any additional columns.
+	 * @param titles - list of column titles
+	 */
+	protected abstract void addColumnTitles(ArrayList<String> titles);
 
-	protected abstract void recordEntry(FileEntity file, double simTime);
+	/**
+	 * Appends any additional columns for a log entry.
+	 * @param log - log to which the columns are appended, each preceded by a tab
+	 * @param simTime - present simulation time
+	 */
+	protected abstract void recordEntry(LogWriter log, double simTime);
 
 	@Override
 	public void doEnd() {
 		super.doEnd();
-		file.flush();
+		log.flush();
 
 		// Close the report file
 		if (getJaamSimModel().isLastRun()) {
-			file.close();
-			file = null;
+			closeLog();
 		}
 	}
 
+	private void closeLog() {
+		log.close();
+		if (file != null)
+			file.close();
+		if (columnFile != null)
+			columnFile.close();
+		file = null;
+		columnFile = null;
+		log = null;
+	}
+
 	@Output(name = "LogTime",
 	 description = "The simulation time at which the last log entry was made.",
 	    unitType = TimeUnit.class)
@@ -34,7 +34,6 @@ public class EntityProvInput<T extends Entity> extends Input<EntityProvider<T>>
 	public EntityProvInput(Class<T> aClass, String key, String cat, EntityProvider<T> def) {
 		super(key, cat, def);
 		entClass = aClass;
-		invalidClasses = new ArrayList<>();
 	}
 
 	@Override
@@ -84,11 +83,16 @@ public class EntityProvInput<T extends Entity> extends Input<EntityProvider<T>>
 	}
 
 	public void addInvalidClass(Class<? extends Entity> aClass) {
+		if (invalidClasses == null)
+			invalidClasses = new ArrayList<>(1);
 		invalidClasses.add(aClass);
 	}
 
 	private boolean isValid(T ent) {
 
+		if (invalidClasses == null)
+			return true;
+
 		for (Class<? extends Entity> cls : invalidClasses) {
 			if (cls.isAssignableFrom(ent.getClass())) {
 				return false;
@@ -0,0 +1,113 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProbabilityDistributions;
+
+import com.jaamsim.rng.MRG1999a;
+
+/**
+ * Selects an index at random from a discrete probability distribution in constant time using
+ * Walker's alias method, as constructed by the algorithm of Vose (1991).
+ * <p>
+ * The table consists of one column for each index. Each column has a probability of being
+ * selected of 1/n and contains its own index together with at most one alias. The first
+ * random number selects the column and the second selects between the index and its alias.
+ */
+public class AliasTable {
+
+	private final double[] prob;  // probability of selecting the column's own index
+	private final int[] alias;    // index selected otherwise
+
+	/**
+	 * Creates an alias table for the specified probabilities.
+	 * @param p - probability for each index, which must sum to 1.0
+	 */
+	public AliasTable(double[] p) {
+		int n = p.length;
+		prob = new double[n];
+		alias = new int[n];
+
+		// Divide the scaled probabilities into those less than one and those greater
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int numSmall = 0;
+		int numLarge = 0;
+		double[] scaled = new double[n];
+		for (int i = 0; i < n; i++) {
+			scaled[i] = p[i] * n;
+			if (scaled[i] < 1.0d)
+				small[numSmall++] = i;
+			else
+				large[numLarge++] = i;
+		}
+
+		// Fill each small column with an alias taken from a large one
+		while (numSmall > 0 && numLarge > 0) {
+			int s = small[--numSmall];
+			int l = large[--numLarge];
+			prob[s] = scaled[s];
+			alias[s] = l;
+			scaled[l] = (scaled[l] + scaled[s]) - 1.0d;
+			if (scaled[l] < 1.0d)
+				small[numSmall++] = l;
+			else
+				large[numLarge++] = l;
+		}
+
+		// Any remaining columns are full, apart from rounding error
+		while (numLarge > 0) {
+			int l = large[--numLarge];
+			prob[l] = 1.0d;
+			alias[l] = l;
+		}
+		while (numSmall > 0) {
+			int s = small[--numSmall];
+			prob[s] = 1.0d;
+			alias[s] = s;
+		}
+	}
+
+	public int size() {
+		return prob.length;
+	}
+
+	/**
+	 * Returns a randomly selected index.
+	 * @param rng - random number generator
+	 * @return index from 0 to n-1
+	 */
+	public int nextIndex(MRG1999a rng) {
+		int col = Math.min((int)(rng.nextUniform() * prob.length), prob.length - 1);
+		if (rng.nextUniform() < prob[col])
+			return col;
+		return alias[col];
+	}
+
+	/**
+	 * Returns the probability that the specified index is selected by the table.
+	 * @param i - index
+	 * @return probability of selection
+	 */
+	public double getProbability(int i) {
+		double ret = prob[i];
+		for (int j = 0; j < prob.length; j++) {
+			if (alias[j] == i && j != i)
+				ret += 1.0d - prob[j];
+		}
+		return ret/prob.length;
+	}
+
+}
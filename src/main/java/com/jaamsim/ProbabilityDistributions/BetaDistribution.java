@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,8 @@ public class BetaDistribution extends Distribution {
 
 	{
 		minValueInput.setDefaultValue(new SampleConstant(0.0d));
+		exactTruncationInput.setHidden(false);
+		fastSamplingInput.setHidden(false);
 
 		alphaInput = new SampleInput("AlphaParam", KEY_INPUTS, new SampleConstant(1.0d));
 		alphaInput.setUnitType(DimensionlessUnit.class);
@@ -77,13 +79,59 @@ public class BetaDistribution extends Distribution {
 
 	@Override
 	protected double getSample(double simTime) {
+		if (fastSamplingInput.getValue()) {
+			double alpha = alphaInput.getValue().getNextSample(simTime);
+			double beta = betaInput.getValue().getNextSample(simTime);
+			double scale = scaleInput.getValue().getNextSample(simTime);
+
+			// X/(X + Y) has a beta distribution when X and Y have gamma distributions
+			double x = Ziggurat.nextGamma(alpha, rng, rng);
+			double y = Ziggurat.nextGamma(beta, rng, rng);
+			if (x + y == 0.0d) {
+				// Both samples underflow for very small parameters, where the distribution
+				// is concentrated at zero and one
+				return rng.nextUniform() < alpha/(alpha + beta) ? scale : 0.0d;
+			}
+			return x/(x + y) * scale;
+		}
+
 		// Effectively calculate the inverse CDF
 		double val = rng.nextUniform();
+		return getInverseCDF(val, getParameters(simTime));
+	}
 
+	@Override
+	protected double[] getParameters(double simTime) {
 		double alpha = alphaInput.getValue().getNextSample(simTime);
 		double beta = betaInput.getValue().getNextSample(simTime);
 		double scale = scaleInput.getValue().getNextSample(simTime);
+		return new double[]{alpha, beta, scale};
+	}
+
+	@Override
+	protected double getCDF(double x, double[] params) {
+		if (x <= 0.0d)
+			return 0.0d;
+		if (x >= params[2])
+			return 1.0d;
+		return regularizedBeta(x / params[2], params[0], params[1], 1E-14, Integer.MAX_VALUE);
+	}
+
+	@Override
+	protected double getInverseCDF(double p, double[] params) {
+		return inverseRegularizedBeta(p, params[0], params[1]) * params[2];
+	}
 
+	@Override
+	protected double getNextUniform() {
+		return rng.nextUniform();
+	}
+
+	/**
+	 * Returns the value x for which the regularized beta function I(x; a, b) is equal to the
+	 * specified probability, using the method of false position.
+	 */
+	private static double inverseRegularizedBeta(double val, double alpha, double beta) {
 		double low = 0;
 		double high = 1;
 		double guess = 0.5;
@@ -96,7 +144,7 @@ public class BetaDistribution extends Distribution {
 					Integer.MAX_VALUE);
 
 			if (near(val, attempt, 1E-9)) {
-				return guess * scale;
+				return guess;
 			}
 
 			if (val < attempt) {
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ package com.jaamsim.ProbabilityDistributions;
 import java.util.Arrays;
 
 import com.jaamsim.datatypes.DoubleVector;
+import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
@@ -50,10 +51,21 @@ public class DiscreteDistribution extends Distribution {
 	         exampleList = {"0.3  0.7"})
 	private final ValueListInput probabilityListInput;
 
+	@Keyword(description = "If TRUE, the values are selected using the alias method, which "
+	                     + "requires the same time per sample regardless of the number of "
+	                     + "values. Two random numbers are used for each sample, so the "
+	                     + "sequence of samples differs from the one obtained when this input is "
+	                     + "FALSE. "
+	                     + "If FALSE, the values are selected by searching the cumulative "
+	                     + "probabilities.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput useAliasMethod;
+
 	private final MRG1999a rng = new MRG1999a();
 	private int[] sampleCount;  // number of times each index has been selected
 	private double[] valueList;
 	private double[] cumProbList;
+	private AliasTable aliasTable;  // null unless the alias method is used
 
 	{
 		valueListInput = new ValueListInput( "ValueList", KEY_INPUTS, null);
@@ -67,6 +79,9 @@ public class DiscreteDistribution extends Distribution {
 		probabilityListInput.setValidRange(0.0d, 1.0d);
 		probabilityListInput.setRequired(true);
 		this.addInput( probabilityListInput);
+
+		useAliasMethod = new BooleanInput("UseAliasMethod", KEY_INPUTS, false);
+		this.addInput(useAliasMethod);
 	}
 
 	public DiscreteDistribution() {
@@ -102,6 +117,19 @@ public class DiscreteDistribution extends Distribution {
 			cumProbList[i] = total;
 		}
 		cumProbList[n-1] = 1.0d;
+
+		// Build the alias table from the probabilities used by the binary search
+		aliasTable = null;
+		if (useAliasMethod.getValue()) {
+			double[] probs = new double[n];
+			double last = 0.0d;
+			for (int i=0; i<n; i++) {
+				double cum = Math.min(cumProbList[i], 1.0d);
+				probs[i] = cum - last;
+				last = cum;
+			}
+			aliasTable = new AliasTable(probs);
+		}
 	}
 
 	@Override
@@ -113,6 +141,13 @@ public class DiscreteDistribution extends Distribution {
 	@Override
 	protected double getSample(double simTime) {
 
+		// Alias method
+		if (aliasTable != null) {
+			int index = aliasTable.nextIndex(rng);
+			sampleCount[index]++;
+			return valueList[index];
+		}
+
 		double rand = rng.nextUniform();
 		int index = -1;
 
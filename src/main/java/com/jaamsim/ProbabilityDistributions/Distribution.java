@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016-2019 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.Statistics.SampleStatistics;
 import com.jaamsim.events.EventManager;
+import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
@@ -58,15 +59,39 @@ implements SampleProvider, RandomStreamUser {
 	private final IntegerInput randomSeedInput;
 
 	@Keyword(description = "Minimum value that can be returned. "
-	                     + "Smaller values are rejected and resampled.",
+	                     + "Smaller values are rejected and resampled, unless the "
+	                     + "ExactTruncation input is TRUE.",
 	         exampleList = {"0.0", "InputValue1", "'2 * [InputValue1].Value'"})
 	protected final SampleInput minValueInput;
 
 	@Keyword(description = "Maximum value that can be returned. "
-	                     + "Larger values are rejected and resampled.",
+	                     + "Larger values are rejected and resampled, unless the "
+	                     + "ExactTruncation input is TRUE.",
 	         exampleList = {"200.0", "InputValue1", "'2 * [InputValue1].Value'"})
 	protected final SampleInput maxValueInput;
 
+	@Keyword(description = "If TRUE, a sample that lies between the MinValue and MaxValue "
+	                     + "inputs is generated directly by applying the inverse of the "
+	                     + "cumulative distribution function to a random number between the "
+	                     + "cumulative probabilities for these limits. "
+	                     + "If FALSE, samples that lie outside the limits are rejected and "
+	                     + "resampled. "
+	                     + "Exact truncation requires only one random number per sample, no "
+	                     + "matter how small the probability of a value between the limits. "
+	                     + "Rejection sampling falls back to exact truncation if a value "
+	                     + "within the limits cannot be found after 1000 attempts.",
+	         exampleList = {"TRUE"})
+	protected final BooleanInput exactTruncationInput;
+
+	@Keyword(description = "If TRUE, samples are generated by faster algorithms: the ziggurat "
+	                     + "method for the normal and exponential distributions, and the method "
+	                     + "of Marsaglia and Tsang for the gamma distribution and the "
+	                     + "distributions derived from it. "
+	                     + "The samples have the same distribution, but the sequence of values "
+	                     + "differs from the one generated when this input is FALSE.",
+	         exampleList = {"TRUE"})
+	protected final BooleanInput fastSamplingInput;
+
 	private final SampleStatistics stats = new SampleStatistics();
 	private double lastSample = 0;
 
@@ -92,6 +117,16 @@ implements SampleProvider, RandomStreamUser {
 		maxValueInput = new SampleInput("MaxValue", KEY_INPUTS, posInf);
 		maxValueInput.setUnitType(UserSpecifiedUnit.class);
 		this.addInput(maxValueInput);
+
+		// Shown only for the distributions that provide an inverse cumulative distribution
+		exactTruncationInput = new BooleanInput("ExactTruncation", KEY_INPUTS, false);
+		exactTruncationInput.setHidden(true);
+		this.addInput(exactTruncationInput);
+
+		// Shown only for the distributions that provide a faster algorithm
+		fastSamplingInput = new BooleanInput("FastSampling", KEY_INPUTS, false);
+		fastSamplingInput.setHidden(true);
+		this.addInput(fastSamplingInput);
 	}
 
 	public Distribution() {}
@@ -144,6 +179,70 @@ implements SampleProvider, RandomStreamUser {
 	 */
 	protected abstract double getSample(double simTime);
 
+	/**
+	 * Returns the present values of the distribution's parameters for use with the cumulative
+	 * distribution function and its inverse. A parameter that is itself random is sampled
+	 * once, so that every function used to generate a sample sees the same value.
+	 * @param simTime - present simulation time
+	 * @return parameter values, or null if the distribution does not provide these functions
+	 */
+	protected double[] getParameters(double simTime) {
+		return null;
+	}
+
+	/**
+	 * Returns the cumulative distribution function for the specified value, i.e. the
+	 * probability that a sample is less than or equal to the value.
+	 * @param x - value
+	 * @param params - parameter values returned by getParameters
+	 * @return cumulative probability, or NaN if the distribution does not provide it
+	 */
+	protected double getCDF(double x, double[] params) {
+		return Double.NaN;
+	}
+
+	/**
+	 * Returns the probability that a sample is greater than the specified value. Distributions
+	 * with long upper tails should override this method to avoid the loss of precision in
+	 * the expression 1 - CDF.
+	 * @param x - value
+	 * @param params - parameter values returned by getParameters
+	 * @return complementary cumulative probability, or NaN if not provided
+	 */
+	protected double getSurvival(double x, double[] params) {
+		return 1.0d - getCDF(x, params);
+	}
+
+	/**
+	 * Returns the value whose cumulative distribution function is equal to the specified
+	 * probability.
+	 * @param p - cumulative probability
+	 * @param params - parameter values returned by getParameters
+	 * @return value, or NaN if the distribution does not provide it
+	 */
+	protected double getInverseCDF(double p, double[] params) {
+		return Double.NaN;
+	}
+
+	/**
+	 * Returns the value whose survival function is equal to the specified probability.
+	 * @param q - complementary cumulative probability
+	 * @param params - parameter values returned by getParameters
+	 * @return value, or NaN if the distribution does not provide it
+	 */
+	protected double getInverseSurvival(double q, double[] params) {
+		return getInverseCDF(1.0d - q, params);
+	}
+
+	/**
+	 * Returns the next random number from the distribution's random stream for use with the
+	 * inverse cumulative distribution function.
+	 * @return random number between 0 and 1, or NaN if exact truncation is not supported
+	 */
+	protected double getNextUniform() {
+		return Double.NaN;
+	}
+
 	@Override
 	public Class<? extends Unit> getUnitType() {
 		return unitType.getUnitType();
@@ -185,13 +284,21 @@ implements SampleProvider, RandomStreamUser {
 			return lastSample;
 		}
 
-		// Loop until the select sample falls within the desired min and max values
-		double nextSample;
 		double minVal = this.minValueInput.getValue().getNextSample(simTime);
 		double maxVal = this.maxValueInput.getValue().getNextSample(simTime);
+		double nextSample = Double.NaN;
+		if (exactTruncationInput.getValue()
+				&& (minVal > Double.NEGATIVE_INFINITY || maxVal < Double.POSITIVE_INFINITY)) {
+			nextSample = this.getTruncatedSample(minVal, maxVal, simTime);
+		}
+
+		// Loop until the select sample falls within the desired min and max values
 		int n = 0;
-		do {
+		while (Double.isNaN(nextSample) || nextSample < minVal || nextSample > maxVal) {
 			if (n > MAX_ATTEMPTS) {
+				nextSample = this.getTruncatedSample(minVal, maxVal, simTime);
+				if (!Double.isNaN(nextSample))
+					break;
 				this.error("Could not find a sample value that was within the range specified by "
 						+ "the MinValue and MaxValue inputs.%n"
 						+ "Number of samples tested = %s", MAX_ATTEMPTS);
@@ -199,14 +306,51 @@ implements SampleProvider, RandomStreamUser {
 			nextSample = this.getSample(simTime);
 			n++;
 		}
-		while (nextSample < minVal ||
-		       nextSample > maxVal);
 
 		lastSample = nextSample;
 		stats.addValue(nextSample);
 		return nextSample;
 	}
 
+	/**
+	 * Returns a sample between the specified limits by applying the inverse of the cumulative
+	 * distribution function to a random number between the cumulative probabilities for the
+	 * limits. The upper tail is inverted using the survival function to retain precision. The
+	 * distribution's parameters are sampled once for the limits and the inverse.
+	 * @param minVal - smallest value to be returned
+	 * @param maxVal - largest value to be returned
+	 * @param simTime - present simulation time
+	 * @return truncated sample, or NaN if the distribution does not support inversion
+	 */
+	private double getTruncatedSample(double minVal, double maxVal, double simTime) {
+		double[] params = getParameters(simTime);
+		if (params == null)
+			return Double.NaN;
+
+		double pMin = minVal == Double.NEGATIVE_INFINITY ? 0.0d : getCDF(minVal, params);
+		double pMax = maxVal == Double.POSITIVE_INFINITY ? 1.0d : getCDF(maxVal, params);
+		if (Double.isNaN(pMin) || Double.isNaN(pMax))
+			return Double.NaN;
+
+		double rand = getNextUniform();
+		double ret;
+		if (pMin > 0.5d) {
+			double qMin = getSurvival(minVal, params);
+			double qMax = maxVal == Double.POSITIVE_INFINITY ? 0.0d : getSurvival(maxVal, params);
+			if (!(qMax < qMin))
+				return Double.NaN;
+			ret = getInverseSurvival(qMin - rand*(qMin - qMax), params);
+		}
+		else {
+			if (!(pMin < pMax))
+				return Double.NaN;
+			ret = getInverseCDF(pMin + rand*(pMax - pMin), params);
+		}
+		if (Double.isNaN(ret))
+			return Double.NaN;
+		return Math.min(Math.max(ret, minVal), maxVal);
+	}
+
 	@Override
 	public double getMinValue() {
 		return minValueInput.getValue().getMinValue();
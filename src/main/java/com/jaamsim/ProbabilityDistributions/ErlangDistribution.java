@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,7 @@ public class ErlangDistribution extends Distribution {
 
 	{
 		minValueInput.setDefaultValue(new SampleConstant(0.0d));
+		fastSamplingInput.setHidden(false);
 
 		meanInput = new SampleInput("Mean", KEY_INPUTS, new SampleConstant(1.0d));
 		meanInput.setUnitType(UserSpecifiedUnit.class);
@@ -72,10 +73,14 @@ public class ErlangDistribution extends Distribution {
 
 	@Override
 	protected double getSample(double simTime) {
+		int k = shapeInput.getValue();
+		if (fastSamplingInput.getValue()) {
+			double mean = meanInput.getValue().getNextSample(simTime);
+			return Ziggurat.nextGamma(k, rng, rng) * mean / k;
+		}
 
 		// Calculate the product of k random values
 		double u = 1.0;
-		int k = shapeInput.getValue();
 		for( int i=0; i<k; i++) {
 			u *= rng.nextUniform();
 		}
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,8 @@ public class ExponentialDistribution extends Distribution {
 
 	{
 		minValueInput.setDefaultValue(new SampleConstant(0.0d));
+		exactTruncationInput.setHidden(false);
+		fastSamplingInput.setHidden(false);
 
 		meanInput = new SampleInput("Mean", KEY_INPUTS, new SampleConstant(1.0d));
 		meanInput.setUnitType(UserSpecifiedUnit.class);
@@ -62,11 +64,48 @@ public class ExponentialDistribution extends Distribution {
 	@Override
 	protected double getSample(double simTime) {
 
-		// Inverse transform method
 		double mean = meanInput.getValue().getNextSample(simTime);
+		if (fastSamplingInput.getValue())
+			return mean * Ziggurat.nextExponential(rng);
+
+		// Inverse transform method
 		return (-mean * Math.log(rng.nextUniform()));
 	}
 
+	@Override
+	protected double[] getParameters(double simTime) {
+		return new double[]{meanInput.getValue().getNextSample(simTime)};
+	}
+
+	@Override
+	protected double getCDF(double x, double[] params) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return -Math.expm1(-x/params[0]);
+	}
+
+	@Override
+	protected double getSurvival(double x, double[] params) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return Math.exp(-x/params[0]);
+	}
+
+	@Override
+	protected double getInverseCDF(double p, double[] params) {
+		return -params[0] * Math.log1p(-p);
+	}
+
+	@Override
+	protected double getInverseSurvival(double q, double[] params) {
+		return -params[0] * Math.log(q);
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng.nextUniform();
+	}
+
 	@Override
 	protected double getMean(double simTime) {
 		return meanInput.getValue().getNextSample(simTime);
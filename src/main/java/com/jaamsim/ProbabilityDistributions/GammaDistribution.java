@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.input.Keyword;
+import com.jaamsim.math.Erf;
+import com.jaamsim.math.Gamma;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
@@ -44,8 +46,13 @@ public class GammaDistribution extends Distribution {
 	private final MRG1999a rng1 = new MRG1999a();
 	private final MRG1999a rng2 = new MRG1999a();
 
+	private static final double EPSILON = 1.0e-15d;
+	private static final int MAX_ITERATIONS = 10000;
+
 	{
 		minValueInput.setDefaultValue(new SampleConstant(0.0d));
+		exactTruncationInput.setHidden(false);
+		fastSamplingInput.setHidden(false);
 
 		meanInput = new SampleInput("Mean", KEY_INPUTS, new SampleConstant(1.0d));
 		meanInput.setUnitType(UserSpecifiedUnit.class);
@@ -80,6 +87,9 @@ public class GammaDistribution extends Distribution {
 		double mean = meanInput.getValue().getNextSample(simTime);
 		double shape = shapeInput.getValue().getNextSample(simTime);
 
+		if (fastSamplingInput.getValue())
+			return Ziggurat.nextGamma(shape, rng1, rng2) * mean / shape;
+
 		// Case 1 - Shape parameter < 1
 		if( shape < 1.0 ) {
 			double threshold;
@@ -121,6 +131,100 @@ public class GammaDistribution extends Distribution {
 		return sample * mean / shape;
 	}
 
+	@Override
+	protected double[] getParameters(double simTime) {
+		double mean = meanInput.getValue().getNextSample(simTime);
+		double shape = shapeInput.getValue().getNextSample(simTime);
+		return new double[]{mean, shape};
+	}
+
+	@Override
+	protected double getCDF(double x, double[] params) {
+		if (x <= 0.0d)
+			return 0.0d;
+		double shape = params[1];
+		return Gamma.regularizedGammaP(shape, x * shape / params[0], EPSILON, MAX_ITERATIONS);
+	}
+
+	@Override
+	protected double getSurvival(double x, double[] params) {
+		if (x <= 0.0d)
+			return 1.0d;
+		double shape = params[1];
+		return Gamma.regularizedGammaQ(shape, x * shape / params[0], EPSILON, MAX_ITERATIONS);
+	}
+
+	@Override
+	protected double getInverseCDF(double p, double[] params) {
+		double shape = params[1];
+		return inverseRegularizedGamma(shape, p, false) * params[0] / shape;
+	}
+
+	@Override
+	protected double getInverseSurvival(double q, double[] params) {
+		double shape = params[1];
+		return inverseRegularizedGamma(shape, q, true) * params[0] / shape;
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng1.nextUniform();
+	}
+
+	/**
+	 * Returns the value x for which the regularized gamma function P(a, x), or Q(a, x) for the
+	 * upper tail, is equal to the specified probability. Newton's method is used, starting
+	 * from the Wilson-Hilferty approximation, with bisection as a safeguard.
+	 * @param a - shape parameter
+	 * @param prob - target value for P(a, x), or for Q(a, x) if upper is true
+	 * @param upper - true if the probability is for the upper tail
+	 * @return value x
+	 */
+	public static double inverseRegularizedGamma(double a, double prob, boolean upper) {
+		if (prob <= 0.0d)
+			return upper ? Double.POSITIVE_INFINITY : 0.0d;
+		if (prob >= 1.0d)
+			return upper ? 0.0d : Double.POSITIVE_INFINITY;
+
+		// Initial estimate
+		double z = upper ? -Erf.normalQuantile(prob) : Erf.normalQuantile(prob);
+		double c = 1.0d/(9.0d*a);
+		double x = a * Math.pow(1.0d - c + z*Math.sqrt(c), 3.0d);
+		if (!(x > 0.0d) || a < 1.0d) {
+			// For small values of x, P(a, x) is approximately x^a / Gamma(a + 1)
+			double p = upper ? 1.0d - prob : prob;
+			double xSmall = Math.exp((Math.log(p) + Gamma.logGamma(a + 1.0d))/a);
+			if (!(x > 0.0d) || xSmall < x)
+				x = xSmall;
+		}
+
+		// Refine the estimate, keeping a bracket that contains the root
+		double lo = 0.0d;
+		double hi = Double.POSITIVE_INFINITY;
+		double logGammaA = Gamma.logGamma(a);
+		for (int i = 0; i < 200; i++) {
+			double f = upper
+					? prob - Gamma.regularizedGammaQ(a, x, EPSILON, MAX_ITERATIONS)
+					: Gamma.regularizedGammaP(a, x, EPSILON, MAX_ITERATIONS) - prob;
+			if (f == 0.0d)
+				return x;
+			if (f < 0.0d)
+				lo = x;
+			else
+				hi = x;
+
+			double density = Math.exp((a - 1.0d)*Math.log(x) - x - logGammaA);
+			double next = x - f/density;
+			if (!(next > lo && next < hi)) {
+				next = (hi == Double.POSITIVE_INFINITY) ? 2.0d*x : 0.5d*(lo + hi);
+			}
+			if (Math.abs(next - x) <= 1.0e-14d*x)
+				return next;
+			x = next;
+		}
+		return x;
+	}
+
 	@Override
 	protected double getMean(double simTime) {
 		return meanInput.getValue().getNextSample(simTime);
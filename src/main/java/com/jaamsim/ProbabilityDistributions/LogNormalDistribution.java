@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.input.Keyword;
+import com.jaamsim.math.Erf;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
@@ -49,6 +50,8 @@ public class LogNormalDistribution extends Distribution {
 
 	{
 		minValueInput.setDefaultValue(new SampleConstant(0.0d));
+		exactTruncationInput.setHidden(false);
+		fastSamplingInput.setHidden(false);
 
 		scaleInput = new SampleInput("Scale", KEY_INPUTS, new SampleConstant(1.0d));
 		scaleInput.setValidRange(0.0, Double.POSITIVE_INFINITY);
@@ -84,18 +87,23 @@ public class LogNormalDistribution extends Distribution {
 
 	@Override
 	protected double getSample(double simTime) {
-
-		// Loop until we have a random x-y coordinate in the unit circle
-		double w, v1, v2, sample;
-		do {
-			v1 = 2.0 * rng1.nextUniform() - 1.0;
-			v2 = 2.0 * rng2.nextUniform() - 1.0;
-			w = ( v1 * v1 ) + ( v2 * v2 );
-		} while( w > 1.0 || w == 0.0 );
-
-		// Calculate the normalised random sample
-		// (normally distributed with mode = 0 and standard deviation = 1)
-		sample = v1 * Math.sqrt( -2.0 * Math.log( w ) / w );
+		double sample;
+		if (fastSamplingInput.getValue()) {
+			sample = Ziggurat.nextNormal(rng1);
+		}
+		else {
+			// Loop until we have a random x-y coordinate in the unit circle
+			double w, v1, v2;
+			do {
+				v1 = 2.0 * rng1.nextUniform() - 1.0;
+				v2 = 2.0 * rng2.nextUniform() - 1.0;
+				w = ( v1 * v1 ) + ( v2 * v2 );
+			} while( w > 1.0 || w == 0.0 );
+
+			// Calculate the normalised random sample
+			// (normally distributed with mode = 0 and standard deviation = 1)
+			sample = v1 * Math.sqrt( -2.0 * Math.log( w ) / w );
+		}
 
 		// Adjust for the desired mode and standard deviation
 		double mean = normalMeanInput.getValue().getNextSample(simTime);
@@ -107,6 +115,51 @@ public class LogNormalDistribution extends Distribution {
 		return scale * Math.exp(sample);
 	}
 
+	@Override
+	protected double[] getParameters(double simTime) {
+		double mean = normalMeanInput.getValue().getNextSample(simTime);
+		double sd = normalStandardDeviationInput.getValue().getNextSample(simTime);
+		double scale = scaleInput.getValue().getNextSample(simTime);
+		return new double[]{mean, sd, scale};
+	}
+
+	@Override
+	protected double getCDF(double x, double[] params) {
+		if (x <= 0.0d)
+			return 0.0d;
+		return Erf.normalCDF(getStandardValue(x, params));
+	}
+
+	@Override
+	protected double getSurvival(double x, double[] params) {
+		if (x <= 0.0d)
+			return 1.0d;
+		return Erf.normalCDF(-getStandardValue(x, params));
+	}
+
+	private static double getStandardValue(double x, double[] params) {
+		return (Math.log(x/params[2]) - params[0])/params[1];
+	}
+
+	@Override
+	protected double getInverseCDF(double p, double[] params) {
+		return getValue(Erf.normalQuantile(p), params);
+	}
+
+	@Override
+	protected double getInverseSurvival(double q, double[] params) {
+		return getValue(-Erf.normalQuantile(q), params);
+	}
+
+	private static double getValue(double z, double[] params) {
+		return params[2] * Math.exp(params[0] + z*params[1]);
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng1.nextUniform();
+	}
+
 	@Override
 	protected double getMean(double simTime) {
 		double mean = normalMeanInput.getValue().getNextSample(simTime);
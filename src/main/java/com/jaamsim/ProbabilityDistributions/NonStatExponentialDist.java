@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2015 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016-2018 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,18 +18,27 @@
 package com.jaamsim.ProbabilityDistributions;
 
 import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleInput;
+import com.jaamsim.Samples.TSPoint;
 import com.jaamsim.Samples.TimeSeries;
+import com.jaamsim.Samples.TimeSeriesSearch;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.TimeSeriesInput;
+import com.jaamsim.input.ValueInput;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.RateUnit;
 import com.jaamsim.units.TimeUnit;
 
 /**
  * Non-Stationary Exponential Distribution.
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 5th Edition", page 479.
+ * <p>
+ * The arrival process can be specified either by the expected cumulative number of arrivals,
+ * which is inverted directly, or by an arrival rate function, which is sampled by the thinning
+ * method of Lewis and Shedler (1979).
  */
 public class NonStatExponentialDist extends Distribution {
 
@@ -38,8 +47,31 @@ public class NonStatExponentialDist extends Distribution {
 			exampleList = {"TimeSeries1"})
 	private final TimeSeriesInput expectedArrivals;
 
+	@Keyword(description = "The arrival rate as a function of simulation time. This input can "
+	                     + "be used instead of ExpectedArrivals when the rate is given by an "
+	                     + "expression. The MaxArrivalRate input must also be specified.",
+	         exampleList = {"'this.SimTime < 8[h] ? 10/1[h] : 2/1[h]'"})
+	private final SampleInput arrivalRate;
+
+	@Keyword(description = "An upper bound on the arrival rate given by the ArrivalRate input. "
+	                     + "Arrivals are generated at this rate and are then accepted with a "
+	                     + "probability equal to the ratio of the arrival rate to the upper bound. "
+	                     + "The bound should be as small as possible for efficiency.",
+	         exampleList = {"10 /h"})
+	private final ValueInput maxArrivalRate;
+
 	private final MRG1999a rng = new MRG1999a();
 
+	// Search for the ExpectedArrivals time series, fixed for the run so that its inputs are
+	// not read for each arrival
+	private TimeSeriesSearch search;
+
+	// Position of the last lookup in the ExpectedArrivals time series
+	private final TSPoint cursor = new TSPoint();
+
+	// Maximum number of arrivals that can be rejected by the thinning method
+	private static final int MAX_REJECTIONS = 1000000;
+
 	{
 		minValueInput.setDefaultValue(new SampleConstant(0.0d));
 
@@ -49,8 +81,17 @@ public class NonStatExponentialDist extends Distribution {
 
 		expectedArrivals = new TimeSeriesInput("ExpectedArrivals", KEY_INPUTS, null);
 		expectedArrivals.setUnitType(DimensionlessUnit.class);
-		expectedArrivals.setRequired(true);
 		this.addInput(expectedArrivals);
+
+		arrivalRate = new SampleInput("ArrivalRate", KEY_INPUTS, null);
+		arrivalRate.setUnitType(RateUnit.class);
+		arrivalRate.setValidRange(0.0d, Double.POSITIVE_INFINITY);
+		this.addInput(arrivalRate);
+
+		maxArrivalRate = new ValueInput("MaxArrivalRate", KEY_INPUTS, null);
+		maxArrivalRate.setUnitType(RateUnit.class);
+		maxArrivalRate.setValidRange(1.0e-20d, Double.POSITIVE_INFINITY);
+		this.addInput(maxArrivalRate);
 	}
 
 	public NonStatExponentialDist() {}
@@ -59,6 +100,21 @@ public class NonStatExponentialDist extends Distribution {
 	public void validate() {
 		super.validate();
 
+		if (expectedArrivals.getValue() == null && arrivalRate.getValue() == null)
+			throw new InputErrorException("Either the ExpectedArrivals or the ArrivalRate input "
+					+ "must be specified.");
+
+		if (expectedArrivals.getValue() != null && arrivalRate.getValue() != null)
+			throw new InputErrorException("The ExpectedArrivals and ArrivalRate inputs cannot "
+					+ "both be specified.");
+
+		if (arrivalRate.getValue() != null) {
+			if (maxArrivalRate.getValue() == null)
+				throw new InputErrorException("The MaxArrivalRate input must be specified when "
+						+ "the ArrivalRate input is used.");
+			return;
+		}
+
 		if (!(expectedArrivals.getValue() instanceof TimeSeries))
 			throw new InputErrorException("The ExpectedArrivals input must be a TimeSeries, "
 					+ "not a constant.");
@@ -78,16 +134,32 @@ public class NonStatExponentialDist extends Distribution {
 	public void earlyInit() {
 		super.earlyInit();
 		rng.setSeedStream(getStreamNumber(), getSubstreamNumber());
+
+		search = null;
+		cursor.index = -1;
+		cursor.numberOfCycles = 0L;
+		if (expectedArrivals.getValue() instanceof TimeSeries) {
+			TimeSeries ts = (TimeSeries) expectedArrivals.getValue();
+			search = new TimeSeriesSearch(ts, ts.getData(), ts.getCycleTime());
+		}
 	}
 
 	@Override
 	protected double getSample(double simTime) {
 
+		if (arrivalRate.getValue() != null)
+			return getThinningSample();
+
+		// The cursor keeps the position of the last arrival, so that each search is made in
+		// constant time on average
 		long ticksNow = getSimTicks();  // ignore the simTime passed as an argument
-		double valueNow = expectedArrivals.getValue().getInterpolatedCumulativeValueForTicks(ticksNow);
+		double valueNow = search.getInterpolatedCumulativeValueForTicks(ticksNow, cursor);
 		double valueNext = valueNow - Math.log(rng.nextUniform());
-		long ticksNext = expectedArrivals.getValue().getInterpolatedTicksForValue(valueNext);
+		long ticksNext = search.getInterpolatedTicksForValue(valueNext, cursor);
+		return getTimeAdvance(ticksNow, ticksNext);
+	}
 
+	private double getTimeAdvance(long ticksNow, long ticksNext) {
 		if (ticksNext == Long.MAX_VALUE)
 			return Double.POSITIVE_INFINITY;
 
@@ -97,8 +169,33 @@ public class NonStatExponentialDist extends Distribution {
 		return EventManager.ticksToSecs(ticksNext - ticksNow);
 	}
 
+	/**
+	 * Returns the time to the next arrival using the thinning method. Candidate arrivals are
+	 * generated at the maximum rate and each one is accepted with probability equal to the
+	 * ratio of the arrival rate at its time to the maximum rate.
+	 */
+	private double getThinningSample() {
+		double simTime = getSimTime();  // ignore the simTime passed as an argument
+		double maxRate = maxArrivalRate.getValue();
+		double t = simTime;
+		for (int n = 0; n < MAX_REJECTIONS; n++) {
+			t -= Math.log(rng.nextUniform())/maxRate;
+			double rate = arrivalRate.getValue().getNextSample(t);
+			if (rate > maxRate)
+				error("The arrival rate exceeds the MaxArrivalRate input at time %s s.%n"
+						+ "ArrivalRate = %s /s, MaxArrivalRate = %s /s", t, rate, maxRate);
+			if (rng.nextUniform()*maxRate < rate)
+				return t - simTime;
+		}
+		error("No arrival was accepted by the thinning method.%n"
+				+ "Number of candidate arrivals tested = %s", MAX_REJECTIONS);
+		return Double.POSITIVE_INFINITY;
+	}
+
 	@Override
 	protected double getMean(double simTime) {
+		if (arrivalRate.getValue() != null)
+			return 1.0d/arrivalRate.getValue().getMeanValue(simTime);
 		if (expectedArrivals.getValue() == null)
 			return Double.NaN;
 		double arrivals = expectedArrivals.getValue().getMaxValue();
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ package com.jaamsim.ProbabilityDistributions;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.input.Keyword;
+import com.jaamsim.math.Erf;
 import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
@@ -45,6 +46,9 @@ public class NormalDistribution extends Distribution {
 	private final MRG1999a rng2 = new MRG1999a();
 
 	{
+		exactTruncationInput.setHidden(false);
+		fastSamplingInput.setHidden(false);
+
 		meanInput = new SampleInput("Mean", KEY_INPUTS, new SampleConstant(0.0d));
 		meanInput.setUnitType(UserSpecifiedUnit.class);
 		this.addInput(meanInput);
@@ -75,6 +79,17 @@ public class NormalDistribution extends Distribution {
 
 	@Override
 	protected double getSample(double simTime) {
+		double sample = getStandardNormalSample();
+
+		// Adjust for the desired mode and standard deviation
+		double mean = meanInput.getValue().getNextSample(simTime);
+		double sdev = standardDeviationInput.getValue().getNextSample(simTime);
+		return mean + sample*sdev;
+	}
+
+	private double getStandardNormalSample() {
+		if (fastSamplingInput.getValue())
+			return Ziggurat.nextNormal(rng1);
 
 		// Loop until we have a random x-y coordinate in the unit circle
 		double w, v1, v2, sample;
@@ -87,11 +102,39 @@ public class NormalDistribution extends Distribution {
 		// Calculate the normalised random sample
 		// (normally distributed with mode = 0 and standard deviation = 1)
 		sample = v1 * Math.sqrt( -2.0 * Math.log( w ) / w );
+		return sample;
+	}
 
-		// Adjust for the desired mode and standard deviation
+	@Override
+	protected double[] getParameters(double simTime) {
 		double mean = meanInput.getValue().getNextSample(simTime);
 		double sdev = standardDeviationInput.getValue().getNextSample(simTime);
-		return mean + sample*sdev;
+		return new double[]{mean, sdev};
+	}
+
+	@Override
+	protected double getCDF(double x, double[] params) {
+		return Erf.normalCDF((x - params[0])/params[1]);
+	}
+
+	@Override
+	protected double getSurvival(double x, double[] params) {
+		return Erf.normalCDF(-(x - params[0])/params[1]);
+	}
+
+	@Override
+	protected double getInverseCDF(double p, double[] params) {
+		return params[0] + Erf.normalQuantile(p)*params[1];
+	}
+
+	@Override
+	protected double getInverseSurvival(double q, double[] params) {
+		return params[0] - Erf.normalQuantile(q)*params[1];
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng1.nextUniform();
 	}
 
 	@Override
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,7 @@ public class WeibullDistribution extends Distribution {
 
 	{
 		minValueInput.setDefaultValue(new SampleConstant(0.0d));
+		exactTruncationInput.setHidden(false);
 
 		scaleInput = new SampleInput("Scale", KEY_INPUTS, new SampleConstant(1.0d));
 		scaleInput.setValidRange(0.0d, Double.POSITIVE_INFINITY);
@@ -90,6 +91,49 @@ public class WeibullDistribution extends Distribution {
 		return  scale * Math.pow( - Math.log(rng.nextUniform()), 1.0/shape ) + loc;
 	}
 
+	@Override
+	protected double[] getParameters(double simTime) {
+		double scale = scaleInput.getValue().getNextSample(simTime);
+		double shape = shapeInput.getValue().getNextSample(simTime);
+		double loc = locationInput.getValue().getNextSample(simTime);
+		return new double[]{scale, shape, loc};
+	}
+
+	@Override
+	protected double getCDF(double x, double[] params) {
+		return -Math.expm1(-getCumulativeHazard(x, params));
+	}
+
+	@Override
+	protected double getSurvival(double x, double[] params) {
+		return Math.exp(-getCumulativeHazard(x, params));
+	}
+
+	private static double getCumulativeHazard(double x, double[] params) {
+		if (x <= params[2])
+			return 0.0d;
+		return Math.pow((x - params[2])/params[0], params[1]);
+	}
+
+	@Override
+	protected double getInverseCDF(double p, double[] params) {
+		return getInverseCumulativeHazard(-Math.log1p(-p), params);
+	}
+
+	@Override
+	protected double getInverseSurvival(double q, double[] params) {
+		return getInverseCumulativeHazard(-Math.log(q), params);
+	}
+
+	private static double getInverseCumulativeHazard(double h, double[] params) {
+		return params[0] * Math.pow(h, 1.0/params[1]) + params[2];
+	}
+
+	@Override
+	protected double getNextUniform() {
+		return rng.nextUniform();
+	}
+
 	@Override
 	protected double getMean(double simTime) {
 		double scale = scaleInput.getValue().getNextSample(simTime);
@@ -0,0 +1,197 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProbabilityDistributions;
+
+import com.jaamsim.rng.MRG1999a;
+
+/**
+ * Generates samples from the standard normal and exponential distributions using the ziggurat
+ * method of Marsaglia and Tsang (2000), in the form given by Doornik (2005) for uniform random
+ * numbers in floating point.
+ * <p>
+ * The area under the density function is covered by a stack of horizontal layers of equal
+ * area. A layer is selected at random and, in about 99% of cases, the sample lies inside the
+ * rectangular part of the layer and is returned after a single multiplication. Otherwise, the
+ * sample is tested against the density function, or is taken from the tail of the
+ * distribution.
+ * <p>
+ * Following Doornik, the layer is selected using a separate random number from the one that
+ * gives the horizontal position within the layer. Taking both from the same 32-bit uniform
+ * would leave only 24 or 25 bits for the position and would correlate the position with the
+ * layer.
+ */
+public class Ziggurat {
+
+	private static final int NORMAL_LAYERS = 128;
+	private static final double NORMAL_R = 3.442619855899d;
+	private static final double NORMAL_V = 9.91256303526217e-3d;
+
+	private static final int EXP_LAYERS = 256;
+	private static final double EXP_R = 7.69711747013104972d;
+	private static final double EXP_V = 3.949659822581572e-3d;
+
+	private static final double[] normX = new double[NORMAL_LAYERS + 1];  // right edge of each layer
+	private static final double[] normF = new double[NORMAL_LAYERS + 1];  // density at normX
+	private static final double[] normRatio = new double[NORMAL_LAYERS];  // normX[i+1]/normX[i]
+
+	private static final double[] expX = new double[EXP_LAYERS + 1];
+	private static final double[] expF = new double[EXP_LAYERS + 1];
+	private static final double[] expRatio = new double[EXP_LAYERS];
+
+	static {
+		// Normal distribution, using the unnormalised density exp(-x^2/2)
+		double f = Math.exp(-0.5d*NORMAL_R*NORMAL_R);
+		normX[0] = NORMAL_V/f;  // the bottom layer includes the tail
+		normX[1] = NORMAL_R;
+		for (int i = 2; i < NORMAL_LAYERS; i++) {
+			normX[i] = Math.sqrt(-2.0d*Math.log(NORMAL_V/normX[i - 1] + f));
+			f = Math.exp(-0.5d*normX[i]*normX[i]);
+		}
+		normX[NORMAL_LAYERS] = 0.0d;
+		for (int i = 0; i <= NORMAL_LAYERS; i++) {
+			normF[i] = Math.exp(-0.5d*normX[i]*normX[i]);
+		}
+		for (int i = 0; i < NORMAL_LAYERS; i++) {
+			normRatio[i] = normX[i + 1]/normX[i];
+		}
+
+		// Exponential distribution, using the density exp(-x)
+		f = Math.exp(-EXP_R);
+		expX[0] = EXP_V/f;
+		expX[1] = EXP_R;
+		for (int i = 2; i < EXP_LAYERS; i++) {
+			expX[i] = -Math.log(EXP_V/expX[i - 1] + f);
+			f = Math.exp(-expX[i]);
+		}
+		expX[EXP_LAYERS] = 0.0d;
+		for (int i = 0; i <= EXP_LAYERS; i++) {
+			expF[i] = Math.exp(-expX[i]);
+		}
+		for (int i = 0; i < EXP_LAYERS; i++) {
+			expRatio[i] = expX[i + 1]/expX[i];
+		}
+	}
+
+	private Ziggurat() {}
+
+	/**
+	 * Returns a sample from the normal distribution with mean 0 and standard deviation 1.
+	 * @param rng - random number generator
+	 * @return normally distributed value
+	 */
+	public static double nextNormal(MRG1999a rng) {
+		while (true) {
+			// The layer and sign are taken from a separate random number to the position
+			int j = (int) (rng.nextUniform() * (2*NORMAL_LAYERS));
+			int i = j & (NORMAL_LAYERS - 1);
+			double u = rng.nextUniform();
+			if (j >= NORMAL_LAYERS)
+				u = -u;
+
+			// Rectangular part of the layer
+			if (Math.abs(u) < normRatio[i])
+				return u * normX[i];
+
+			// Bottom layer: sample from the tail beyond R
+			if (i == 0)
+				return u < 0.0d ? -getNormalTail(rng) : getNormalTail(rng);
+
+			// Wedge between the rectangle and the density function
+			double x = u * normX[i];
+			double y = normF[i] + rng.nextUniform()*(normF[i + 1] - normF[i]);
+			if (y < Math.exp(-0.5d*x*x))
+				return x;
+		}
+	}
+
+	/**
+	 * Returns a sample from the tail of the normal distribution beyond NORMAL_R using the
+	 * method of Marsaglia (1964).
+	 */
+	private static double getNormalTail(MRG1999a rng) {
+		double x, y;
+		do {
+			x = -Math.log(rng.nextUniform())/NORMAL_R;
+			y = -Math.log(rng.nextUniform());
+		} while (2.0d*y < x*x);
+		return NORMAL_R + x;
+	}
+
+	/**
+	 * Returns a sample from the exponential distribution with mean 1.
+	 * @param rng - random number generator
+	 * @return exponentially distributed value
+	 */
+	public static double nextExponential(MRG1999a rng) {
+		while (true) {
+			// The layer is taken from a separate random number to the position
+			int i = (int) (rng.nextUniform() * EXP_LAYERS);
+			double u = rng.nextUniform();
+
+			// Rectangular part of the layer
+			if (u < expRatio[i])
+				return u * expX[i];
+
+			// Bottom layer: the tail beyond R is itself exponential
+			if (i == 0)
+				return EXP_R - Math.log(rng.nextUniform());
+
+			// Wedge between the rectangle and the density function
+			double x = u * expX[i];
+			double y = expF[i] + rng.nextUniform()*(expF[i + 1] - expF[i]);
+			if (y < Math.exp(-x))
+				return x;
+		}
+	}
+
+	/**
+	 * Returns a sample from the gamma distribution with the specified shape parameter and a
+	 * scale parameter of 1 using the method of Marsaglia and Tsang (2000). For shape parameters
+	 * less than one, the sample is generated for a shape parameter one larger and then scaled
+	 * by U^(1/shape).
+	 * @param shape - shape parameter
+	 * @param rng1 - random number generator for the normal samples
+	 * @param rng2 - random number generator for the acceptance test
+	 * @return gamma distributed value
+	 */
+	public static double nextGamma(double shape, MRG1999a rng1, MRG1999a rng2) {
+		if (shape < 1.0d) {
+			double sample = nextGamma(shape + 1.0d, rng1, rng2);
+			return sample * Math.pow(rng2.nextUniform(), 1.0d/shape);
+		}
+
+		double d = shape - 1.0d/3.0d;
+		double c = 1.0d/Math.sqrt(9.0d*d);
+		while (true) {
+			double x, v;
+			do {
+				x = nextNormal(rng1);
+				v = 1.0d + c*x;
+			} while (v <= 0.0d);
+			v = v*v*v;
+			double u = rng2.nextUniform();
+			double x2 = x*x;
+
+			// Squeeze test avoids the logarithms in about 98% of cases
+			if (u < 1.0d - 0.0331d*x2*x2)
+				return d*v;
+			if (Math.log(u) < 0.5d*x2 + d*(1.0d - v + Math.log(v)))
+				return d*v;
+		}
+	}
+
+}
@@ -23,6 +23,7 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.math.Color4d;
 import com.jaamsim.states.StateEntity;
+import com.jaamsim.states.StateHandle;
 import com.jaamsim.states.StateRecord;
 
 public abstract class AbstractStateUserEntity extends StateEntity {
@@ -42,6 +43,11 @@ public abstract class AbstractStateUserEntity extends StateEntity {
 	public static final String STATE_BLOCKED = "Blocked";
 	public static final String STATE_SETUP = "Setup";
 
+	protected static final StateHandle MAINTENANCE_HANDLE = StateHandle.get(STATE_MAINTENANCE);
+	protected static final StateHandle BREAKDOWN_HANDLE = StateHandle.get(STATE_BREAKDOWN);
+	protected static final StateHandle STOPPED_HANDLE = StateHandle.get(STATE_STOPPED);
+	protected static final StateHandle SETUP_HANDLE = StateHandle.get(STATE_SETUP);
+
 	protected static final Color4d COL_MAINTENANCE = ColourInput.RED;
 	protected static final Color4d COL_BREAKDOWN = ColourInput.RED;
 	protected static final Color4d COL_STOPPED = ColourInput.getColorWithName("gray25");
@@ -119,38 +125,38 @@ public abstract class AbstractStateUserEntity extends StateEntity {
 
 		// Inactive
 		if (!this.isActive()) {
-			this.setPresentState(STATE_INACTIVE);
+			this.setPresentState(INACTIVE_HANDLE);
 			return;
 		}
 
 		// Working (Busy)
 		if (this.isBusy()) {
-			this.setPresentState(STATE_WORKING);
+			this.setPresentState(WORKING_HANDLE);
 			return;
 		}
 
 		// Not working because of maintenance or a closure (UnableToWork)
 		if (this.isMaintenance()) {
-			this.setPresentState(STATE_MAINTENANCE);
+			this.setPresentState(MAINTENANCE_HANDLE);
 			return;
 		}
 		if (this.isBreakdown()) {
-			this.setPresentState(STATE_BREAKDOWN);
+			this.setPresentState(BREAKDOWN_HANDLE);
 			return;
 		}
 		if (this.isStopped()) {
-			this.setPresentState(STATE_STOPPED);
+			this.setPresentState(STOPPED_HANDLE);
 			return;
 		}
 
 		// Setup
 		if (this.isSetup()) {
-			this.setPresentState(STATE_SETUP);
+			this.setPresentState(SETUP_HANDLE);
 			return;
 		}
 
 		// Not working because there is nothing to do (Idle)
-		this.setPresentState(STATE_IDLE);
+		this.setPresentState(IDLE_HANDLE);
 		return;
 	}
 
@@ -64,6 +64,16 @@ public class Assemble extends LinkedService implements EntityGen {
 	         exampleList = {"TRUE"})
 	private final BooleanInput matchRequired;
 
+	@Keyword(description = "If TRUE, the match value that was the first to have sufficient entities "
+	                     + "in each queue is selected. The selection is made from an index that is "
+	                     + "updated as entities enter and leave the queues, which is much faster "
+	                     + "when the queues hold many different match values.\n"
+	                     + "If FALSE, the queues are searched for a suitable match value each time "
+	                     + "one is needed. The value selected depends on the order in which the "
+	                     + "queues store their match values.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput selectFirstReadyMatch;
+
 	@Keyword(description = "The prototype for entities representing the assembled part.",
 	         exampleList = {"Proto"})
 	private final EntityInput<DisplayEntity> prototypeEntity;
@@ -75,6 +85,7 @@ public class Assemble extends LinkedService implements EntityGen {
 
 	private DisplayEntity assembledEntity;	// the generated entity representing the assembled part
 	private int numberGenerated = 0;  // Number of entities generated so far
+	private MatchValueIndex matchIndex;  // match value counts for the queues in WaitQueueList
 
 	{
 		waitQueue.setHidden(true);
@@ -99,6 +110,9 @@ public class Assemble extends LinkedService implements EntityGen {
 		matchRequired = new BooleanInput("MatchRequired", KEY_INPUTS, false);
 		this.addInput(matchRequired);
 
+		selectFirstReadyMatch = new BooleanInput("SelectFirstReadyMatch", KEY_INPUTS, false);
+		this.addInput(selectFirstReadyMatch);
+
 		prototypeEntity = new EntityInput<>(DisplayEntity.class, "PrototypeEntity", KEY_INPUTS, null);
 		prototypeEntity.setRequired(true);
 		prototypeEntity.addInvalidClass(TextBasics.class);
@@ -118,6 +132,7 @@ public class Assemble extends LinkedService implements EntityGen {
 
 		assembledEntity = null;
 		numberGenerated = 0;
+		matchIndex = null;
 	}
 
 	@Override
@@ -155,7 +170,7 @@ public class Assemble extends LinkedService implements EntityGen {
 		// Do the queues have enough entities?
 		ArrayList<Queue> queueList = waitQueueList.getValue();
 		if (matchRequired.getValue()) {
-			String m = Queue.selectMatchValue(queueList, numList);
+			String m = selectMatchValue(queueList, numList);
 			if (m == null) {
 				return false;
 			}
@@ -205,6 +220,23 @@ public class Assemble extends LinkedService implements EntityGen {
 		return true;
 	}
 
+	private String selectMatchValue(ArrayList<Queue> queueList, IntegerVector numList) {
+		if (!selectFirstReadyMatch.getValue()) {
+			if (matchIndex != null) {
+				matchIndex.unregister();
+				matchIndex = null;
+			}
+			return Queue.selectMatchValue(queueList, numList);
+		}
+
+		if (matchIndex == null || !matchIndex.isIndexFor(queueList)) {
+			if (matchIndex != null)
+				matchIndex.unregister();
+			matchIndex = new MatchValueIndex(queueList);
+		}
+		return matchIndex.selectMatchValue(numList);
+	}
+
 	@Override
 	protected void processStep(double simTime) {
 
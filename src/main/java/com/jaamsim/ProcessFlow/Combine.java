@@ -23,6 +23,7 @@ import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
+import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.EntityListInput;
 import com.jaamsim.input.InputAgent;
@@ -45,7 +46,18 @@ public class Combine extends LinkedService {
 	         exampleList = {"TRUE"})
 	private final BooleanInput retainAll;
 
+	@Keyword(description = "If TRUE, the match value that was the first to have sufficient entities "
+	                     + "in each queue is selected. The selection is made from an index that is "
+	                     + "updated as entities enter and leave the queues, which is much faster "
+	                     + "when the queues hold many different match values.\n"
+	                     + "If FALSE, the queues are searched for a suitable match value each time "
+	                     + "one is needed. The value selected depends on the order in which the "
+	                     + "queues store their match values.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput selectFirstReadyMatch;
+
 	private DisplayEntity[] processedEntityList;  // entities being processed
+	private MatchValueIndex matchIndex;  // match value counts for the queues in WaitQueueList
 
 	{
 		waitQueue.setHidden(true);
@@ -62,6 +74,9 @@ public class Combine extends LinkedService {
 
 		retainAll = new BooleanInput("RetainAll", KEY_INPUTS, false);
 		this.addInput(retainAll);
+
+		selectFirstReadyMatch = new BooleanInput("SelectFirstReadyMatch", KEY_INPUTS, false);
+		this.addInput(selectFirstReadyMatch);
 	}
 
 	public Combine() {
@@ -72,6 +87,7 @@ public class Combine extends LinkedService {
 	public void earlyInit() {
 		super.earlyInit();
 		processedEntityList = new DisplayEntity[waitQueueList.getListSize()];
+		matchIndex = null;
 	}
 
 	@Override
@@ -98,7 +114,7 @@ public class Combine extends LinkedService {
 
 		// Do the queues have enough entities?
 		ArrayList<Queue> queueList = waitQueueList.getValue();
-		String m = Queue.selectMatchValue(queueList, null);
+		String m = selectMatchValue(queueList, null);
 		if (m == null) {
 			return false;
 		}
@@ -125,6 +141,23 @@ public class Combine extends LinkedService {
 		return true;
 	}
 
+	private String selectMatchValue(ArrayList<Queue> queueList, IntegerVector numList) {
+		if (!selectFirstReadyMatch.getValue()) {
+			if (matchIndex != null) {
+				matchIndex.unregister();
+				matchIndex = null;
+			}
+			return Queue.selectMatchValue(queueList, numList);
+		}
+
+		if (matchIndex == null || !matchIndex.isIndexFor(queueList)) {
+			if (matchIndex != null)
+				matchIndex.unregister();
+			matchIndex = new MatchValueIndex(queueList);
+		}
+		return matchIndex.selectMatchValue(numList);
+	}
+
 	@Override
 	protected void processStep(double simTime) {
 
@@ -220,10 +220,10 @@ public class EntityDelay extends LinkedComponent implements LineEntity {
 
 	public void setPresentState() {
 		if (this.getNumberInProgress() > 0) {
-			this.setPresentState("Working");
+			this.setPresentState(WORKING_HANDLE);
 		}
 		else {
-			this.setPresentState("Idle");
+			this.setPresentState(IDLE_HANDLE);
 		}
 	}
 
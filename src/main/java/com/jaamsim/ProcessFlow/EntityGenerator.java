@@ -69,6 +69,7 @@ public class EntityGenerator extends LinkedService implements EntityGen {
 
 	private int numberGenerated = 0;  // Number of entities generated so far
 	private double presentIAT;
+	private String entityBaseName;  // Base name for the generated entities
 
 	{
 		defaultEntity.setHidden(true);
@@ -118,6 +119,35 @@ public class EntityGenerator extends LinkedService implements EntityGen {
 		super.earlyInit();
 		numberGenerated = 0;
 		presentIAT = 0.0d;
+		setEntityBaseName();
+	}
+
+	@Override
+	public void updateForInput(Input<?> in) {
+		super.updateForInput(in);
+
+		if (in == baseName) {
+			setEntityBaseName();
+			return;
+		}
+	}
+
+	@Override
+	public void setLocalName(String newName) {
+		super.setLocalName(newName);
+		setEntityBaseName();
+	}
+
+	/**
+	 * Sets the name for the generated entities. The name is refreshed when the generator is
+	 * renamed or the BaseName input is changed, including while the run is paused.
+	 */
+	private void setEntityBaseName() {
+		entityBaseName = baseName.getValue();
+		if (entityBaseName == null) {
+			entityBaseName = this.getName() + "_";
+			entityBaseName = entityBaseName.replace(".", "_");
+		}
 	}
 
 	@Override
@@ -161,21 +191,13 @@ public class EntityGenerator extends LinkedService implements EntityGen {
 			return;
 		}
 
-		// Set the name for the entities
-		String name = baseName.getValue();
-		if (name == null) {
-			name = this.getName() + "_";
-			name = name.replace(".", "_");
-		}
-
 		// Create the new entities
 		int num = (int) entitiesPerArrival.getValue().getNextSample(getSimTime());
 		for (int i=0; i<num; i++) {
 			numberGenerated++;
 			DisplayEntity proto = prototypeEntity.getValue().getNextEntity(simTime);
-			StringBuilder sb = new StringBuilder();
-			sb.append(name).append(numberGenerated);
-			DisplayEntity ent = InputAgent.generateEntityWithName(getJaamSimModel(), proto.getClass(), sb.toString());
+			String name = entityBaseName + numberGenerated;
+			DisplayEntity ent = InputAgent.generateEntityWithName(getJaamSimModel(), proto.getClass(), name);
 			Entity.fastCopyInputs(proto, ent);
 			ent.earlyInit();
 
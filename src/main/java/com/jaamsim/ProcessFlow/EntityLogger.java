@@ -23,7 +23,7 @@ import com.jaamsim.BasicObjects.Logger;
 import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Graphics.LinkDisplayable;
-import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.LogWriter;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InterfaceEntityInput;
 import com.jaamsim.input.Keyword;
@@ -65,13 +65,14 @@ public class EntityLogger extends Logger implements Linkable, LinkDisplayable {
 	}
 
 	@Override
-	protected void printColumnTitles(FileEntity file) {
-		file.format("\t%s", "this.obj");
+	protected void addColumnTitles(ArrayList<String> titles) {
+		titles.add("this.obj");
 	}
 
 	@Override
-	protected void recordEntry(FileEntity file, double simTime) {
-		file.format("\t%s", receivedEntity);
+	protected void recordEntry(LogWriter log, double simTime) {
+		log.append('\t');
+		log.append(receivedEntity);
 	}
 
 	@Override
@@ -0,0 +1,207 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map.Entry;
+
+import com.jaamsim.datatypes.IntegerVector;
+
+/**
+ * Maintains the number of entities for each match value across a group of queues, together with
+ * the set of match values that have sufficient entities in every queue. The index is updated
+ * by the queues as entities are added and removed, so that a match value can be selected
+ * without scanning the contents of the queues.
+ * <p>
+ * When several match values are ready, the one that became ready first is selected. This order
+ * differs from that of Queue.selectMatchValue, which depends on the order in which the queues
+ * store their match values, so Assemble and Combine use the index only when their
+ * SelectFirstReadyMatch input is TRUE.
+ * @see Queue#selectMatchValue(ArrayList, IntegerVector)
+ */
+public class MatchValueIndex {
+
+	private final ArrayList<Queue> queueList;
+	private final int[] numberRequired;  // number of entities required from each queue
+	private final HashMap<String, MatchCounts> countsMap;  // entity counts for each match value
+	private final LinkedHashSet<String> readySet;  // match values in order of becoming ready
+
+	private static class MatchCounts {
+		final int[] counts;  // number of entities in each queue
+		int numSatisfied;    // number of queues that have sufficient entities
+
+		MatchCounts(int n) {
+			counts = new int[n];
+		}
+	}
+
+	/**
+	 * Creates an index for the specified queues and registers it with each queue.
+	 * The entities that are already present in the queues are included in the index.
+	 * @param queues - queues to be indexed.
+	 */
+	public MatchValueIndex(ArrayList<Queue> queues) {
+		queueList = new ArrayList<>(queues);
+		numberRequired = new int[queueList.size()];
+		countsMap = new HashMap<>();
+		readySet = new LinkedHashSet<>();
+
+		for (int i = 0; i < numberRequired.length; i++) {
+			numberRequired[i] = 1;
+		}
+
+		for (int i = 0; i < queueList.size(); i++) {
+			Queue que = queueList.get(i);
+			for (String m : que.getEntityTypes()) {
+				update(i, m, que.getMatchCount(m));
+			}
+			que.addMatchValueIndex(this);
+		}
+	}
+
+	/**
+	 * Removes this index from the queues it was registered with.
+	 */
+	public void unregister() {
+		for (Queue que : queueList) {
+			que.removeMatchValueIndex(this);
+		}
+	}
+
+	/**
+	 * Returns whether this index was created for the specified list of queues.
+	 * @param queues - list of queues
+	 * @return true if the queues are the same and in the same order.
+	 */
+	public boolean isIndexFor(ArrayList<Queue> queues) {
+		return queueList.equals(queues);
+	}
+
+	/**
+	 * Updates the index for an entity added to or removed from one of its queues.
+	 * @param que - queue whose contents have changed.
+	 * @param m - match value for the entity.
+	 * @param delta - change in the number of entities, +1 for an addition and -1 for a removal.
+	 */
+	void entityChanged(Queue que, String m, int delta) {
+		if (m == null)
+			return;
+		for (int i = 0; i < queueList.size(); i++) {
+			if (queueList.get(i) == que)
+				update(i, m, delta);
+		}
+	}
+
+	private void update(int ind, String m, int delta) {
+		MatchCounts mc = countsMap.get(m);
+		if (mc == null) {
+			mc = new MatchCounts(numberRequired.length);
+			for (int i = 0; i < numberRequired.length; i++) {
+				if (numberRequired[i] <= 0)
+					mc.numSatisfied++;
+			}
+			countsMap.put(m, mc);
+		}
+
+		boolean before = mc.counts[ind] >= numberRequired[ind];
+		mc.counts[ind] += delta;
+		boolean after = mc.counts[ind] >= numberRequired[ind];
+
+		if (before != after) {
+			mc.numSatisfied += after ? 1 : -1;
+			if (mc.numSatisfied == numberRequired.length)
+				readySet.add(m);
+			else
+				readySet.remove(m);
+		}
+
+		// Forget a match value that is no longer present in any queue
+		if (delta < 0 && isEmpty(mc)) {
+			countsMap.remove(m);
+			readySet.remove(m);
+		}
+	}
+
+	private static boolean isEmpty(MatchCounts mc) {
+		for (int n : mc.counts) {
+			if (n != 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Sets the number of entities required from each queue. If the numberList is too short,
+	 * then the last value is used. If the numberList is null, then one entity per queue is
+	 * required. The set of ready match values is rebuilt only if the numbers have changed.
+	 * @param numberList - number of matches required for each queue.
+	 */
+	public void setNumberRequired(IntegerVector numberList) {
+		boolean changed = false;
+		for (int i = 0; i < numberRequired.length; i++) {
+			int number = 1;
+			if (numberList != null) {
+				int ind = Math.min(i, numberList.size() - 1);
+				number = numberList.get(ind);
+			}
+			if (number != numberRequired[i]) {
+				numberRequired[i] = number;
+				changed = true;
+			}
+		}
+		if (!changed)
+			return;
+
+		readySet.clear();
+		for (Entry<String, MatchCounts> each : countsMap.entrySet()) {
+			MatchCounts mc = each.getValue();
+			mc.numSatisfied = 0;
+			for (int i = 0; i < numberRequired.length; i++) {
+				if (mc.counts[i] >= numberRequired[i])
+					mc.numSatisfied++;
+			}
+			if (mc.numSatisfied == numberRequired.length)
+				readySet.add(each.getKey());
+		}
+	}
+
+	/**
+	 * Returns a match value that has sufficient numbers of entities in each queue.
+	 * The match value that has been ready for the longest time is selected.
+	 * @param numberList - number of matches required for each queue.
+	 * @return match value, or null if none is ready.
+	 */
+	public String selectMatchValue(IntegerVector numberList) {
+		setNumberRequired(numberList);
+		Iterator<String> itr = readySet.iterator();
+		if (!itr.hasNext())
+			return null;
+		return itr.next();
+	}
+
+	/**
+	 * Returns the number of match values that have sufficient entities in each queue.
+	 * @return number of ready match values.
+	 */
+	public int getReadyCount() {
+		return readySet.size();
+	}
+
+}
@@ -28,6 +28,7 @@ import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.ProcessFlow.EntStorage.StorageEntry;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
+import com.jaamsim.Statistics.QuantileSketch;
 import com.jaamsim.Statistics.TimeBasedFrequency;
 import com.jaamsim.Statistics.TimeBasedStatistics;
 import com.jaamsim.StringProviders.StringProvInput;
@@ -44,6 +45,7 @@ import com.jaamsim.input.InterfaceEntityInput;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.input.ValueListInput;
 import com.jaamsim.math.Vec3d;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.DistanceUnit;
@@ -97,6 +99,13 @@ public class Queue extends LinkedComponent {
 	         exampleList = {"1 m"})
 	private final ValueInput spacing;
 
+	@Keyword(description = "The cumulative probabilities for which quantiles of the queue "
+	                     + "length and of the waiting time are to be estimated. For example, "
+	                     + "an input of 0.95 estimates the 95th percentile. "
+	                     + "Quantiles will not be estimated if the input is left blank.",
+	         exampleList = {"0.5 0.95 0.99"})
+	private final ValueListInput quantileList;
+
 	@Keyword(description = "The number of queuing entities in each row.",
 			exampleList = {"4"})
 	protected final IntegerInput maxPerLine; // maximum items per sub line-up of queue
@@ -111,8 +120,11 @@ public class Queue extends LinkedComponent {
 
 	private final EntStorage storage;  // stores the entities in the queue
 	private final ArrayList<QueueUser> userList;  // other objects that use this queue
+	private final ArrayList<MatchValueIndex> matchIndexList;  // indices that include this queue
 	private final TimeBasedStatistics stats;
 	private final TimeBasedFrequency freq;
+	private final QuantileSketch queueTimeSketch;  // waiting times for the entities removed
+	private final QuantileSketch allRunsSketch;    // waiting times for all runs
 	protected long numberReneged;  // number of entities that reneged from the queue
 
 	{
@@ -144,6 +156,11 @@ public class Queue extends LinkedComponent {
 		renegeDestination = new InterfaceEntityInput<>(Linkable.class, "RenegeDestination", KEY_INPUTS, null);
 		this.addInput(renegeDestination);
 
+		quantileList = new ValueListInput("Quantiles", KEY_INPUTS, null);
+		quantileList.setUnitType(DimensionlessUnit.class);
+		quantileList.setValidRange(0.0d, 1.0d);
+		this.addInput(quantileList);
+
 		spacing = new ValueInput("Spacing", FORMAT, 0.0d);
 		spacing.setUnitType(DistanceUnit.class);
 		this.addInput(spacing);
@@ -163,8 +180,11 @@ public class Queue extends LinkedComponent {
 	public Queue() {
 		storage = new EntStorage();
 		userList = new ArrayList<>();
+		matchIndexList = new ArrayList<>();
 		stats = new TimeBasedStatistics();
 		freq = new TimeBasedFrequency(0, 10);
+		queueTimeSketch = new QuantileSketch();
+		allRunsSketch = new QuantileSketch();
 	}
 
 	@Override
@@ -184,14 +204,23 @@ public class Queue extends LinkedComponent {
 
 		// Clear the entries in the queue
 		storage.clear();
+		matchIndexList.clear();
 
 		// Clear statistics
+		stats.setQuantilesEnabled(quantileList.getValue() != null);
 		stats.clear();
 		stats.addValue(0.0d, 0.0d);
 		freq.clear();
 		freq.addValue(0.0d, 0);
 		numberReneged = 0;
 
+		// Add the waiting times from the previous run to those for all runs
+		if (getJaamSimModel().isFirstRun())
+			allRunsSketch.clear();
+		else
+			allRunsSketch.merge(queueTimeSketch);
+		queueTimeSketch.clear();
+
 		// Identify the objects that use this queue
 		userList.clear();
 		for (Entity each : getJaamSimModel().getClonesOfIterator(Entity.class, QueueUser.class)) {
@@ -259,6 +288,9 @@ public class Queue extends LinkedComponent {
 
 		QueueEntry entry = new QueueEntry(ent, m, pri, n, simTime, rh);
 		storage.add(entry);
+		for (MatchValueIndex index : matchIndexList) {
+			index.entityChanged(this, m, 1);
+		}
 
 		// Notify the users of this queue
 		if (!userUpdateHandle.isScheduled())
@@ -320,11 +352,16 @@ public class Queue extends LinkedComponent {
 		// Update the queue statistics
 		stats.addValue(simTime, storage.size() - 1);
 		freq.addValue(simTime, storage.size() - 1);
+		if (quantileList.getValue() != null)
+			queueTimeSketch.addValue(simTime - entry.timeAdded);
 
 		// Remove the entity from the storage
 		boolean found = storage.remove(entry);
 		if (!found)
 			error("Cannot find the entry in itemSet.");
+		for (MatchValueIndex index : matchIndexList) {
+			index.entityChanged(this, entry.type, -1);
+		}
 
 		// Kill the renege event
 		if (entry.renegeHandle != null)
@@ -476,10 +513,21 @@ public class Queue extends LinkedComponent {
 		return storage.getTypes();
 	}
 
+	void addMatchValueIndex(MatchValueIndex index) {
+		matchIndexList.add(index);
+	}
+
+	void removeMatchValueIndex(MatchValueIndex index) {
+		matchIndexList.remove(index);
+	}
+
 	/**
 	 * Returns a match value that has sufficient numbers of entities in each
 	 * queue. The first match value that satisfies the criterion is selected.
 	 * If the numberList is too short, then the last value is used.
+	 * <p>
+	 * This method scans the contents of the queues. Objects that make repeated selections from
+	 * the same queues should use a MatchValueIndex instead.
 	 * @param queueList - list of queues to check.
 	 * @param numberList - number of matches required for each queue.
 	 * @return match value.
@@ -630,9 +678,16 @@ public class Queue extends LinkedComponent {
 		stats.addValue(simTime, storage.size());
 		freq.clear();
 		freq.addValue(simTime, storage.size());
+		queueTimeSketch.clear();
 		numberReneged = 0;
 	}
 
+	private double[] getProbabilities() {
+		if (quantileList.getValue() == null)
+			return new double[0];
+		return quantileList.getValue().toArray();
+	}
+
 	@Override
 	public void linkTo(DisplayEntity nextEnt) {
 		if (!(nextEnt instanceof LinkedService))
@@ -825,4 +880,37 @@ public class Queue extends LinkedComponent {
 		return pos;
 	}
 
+	@Output(name = "QueueLengthQuantiles",
+	 description = "The estimated quantiles of the number of entities in the queue, weighted "
+	             + "by the duration of each value, for each of the probabilities specified by "
+	             + "the Quantiles input.",
+	    unitType = DimensionlessUnit.class,
+	  reportable = true,
+	    sequence = 17)
+	public double[] getQueueLengthQuantiles(double simTime) {
+		return stats.getQuantiles(simTime, getProbabilities());
+	}
+
+	@Output(name = "QueueTimeQuantiles",
+	 description = "The estimated quantiles of the waiting time for the entities that have left "
+	             + "the queue, for each of the probabilities specified by the Quantiles input.",
+	    unitType = TimeUnit.class,
+	  reportable = true,
+	    sequence = 18)
+	public double[] getQueueTimeQuantiles(double simTime) {
+		return queueTimeSketch.getQuantiles(getProbabilities());
+	}
+
+	@Output(name = "QueueTimeQuantilesAllRuns",
+	 description = "The estimated quantiles of the waiting time for the entities that have left "
+	             + "the queue during the present simulation run and all the previous runs, for "
+	             + "each of the probabilities specified by the Quantiles input.",
+	    unitType = TimeUnit.class,
+	    sequence = 19)
+	public double[] getQueueTimeQuantilesAllRuns(double simTime) {
+		QuantileSketch sketch = new QuantileSketch(allRunsSketch);
+		sketch.merge(queueTimeSketch);
+		return sketch.getQuantiles(getProbabilities());
+	}
+
 }
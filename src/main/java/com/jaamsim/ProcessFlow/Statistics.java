@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,9 +22,12 @@ import java.util.Map;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Samples.SampleInput;
+import com.jaamsim.Statistics.BatchMeans;
+import com.jaamsim.Statistics.QuantileSketch;
 import com.jaamsim.Statistics.SampleFrequency;
 import com.jaamsim.Statistics.SampleStatistics;
 import com.jaamsim.Statistics.TimeBasedStatistics;
+import com.jaamsim.basicsim.PrecisionTarget;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.Input;
@@ -32,6 +35,7 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.UnitTypeInput;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.input.ValueListInput;
 import com.jaamsim.states.StateEntity;
 import com.jaamsim.states.StateRecord;
 import com.jaamsim.units.DimensionlessUnit;
@@ -44,7 +48,7 @@ import com.jaamsim.units.UserSpecifiedUnit;
  * @author Harry King
  *
  */
-public class Statistics extends LinkedComponent {
+public class Statistics extends LinkedComponent implements PrecisionTarget {
 
 	@Keyword(description = "The unit type for the variable whose statistics will be collected.",
 	         exampleList = {"DistanceUnit"})
@@ -70,10 +74,34 @@ public class Statistics extends LinkedComponent {
 	         exampleList = {"TRUE"})
 	private final BooleanInput resetEntityStateTimes;
 
+	@Keyword(description = "The cumulative probabilities for which quantiles of the recorded "
+	                     + "values are to be estimated. For example, an input of 0.95 estimates "
+	                     + "the 95th percentile. The quantiles are estimated using a fixed "
+	                     + "amount of memory, regardless of the number of values recorded. "
+	                     + "Quantiles will not be estimated if the input is left blank.",
+	         exampleList = {"0.5 0.95 0.99"})
+	private final ValueListInput quantileList;
+
+	@Keyword(description = "The confidence level for the confidence intervals on the steady-state "
+	                     + "means. The confidence intervals are estimated from a single run "
+	                     + "using the method of batch means. They are estimated only if this "
+	                     + "input or the TargetPrecision input is set.",
+	         exampleList = {"0.90"})
+	private final ValueInput confidenceLevel;
+
+	@Keyword(description = "The required half-width of the confidence interval for the "
+	                     + "steady-state mean of the recorded values, expressed as a fraction of "
+	                     + "the mean. If the StopAtTargetPrecision input to Simulation is TRUE, "
+	                     + "the run will be terminated once this precision has been reached.",
+	         exampleList = {"0.05"})
+	private final ValueInput targetPrecision;
+
 	private final SampleStatistics sampStats = new SampleStatistics();
 	private final TimeBasedStatistics timeStats = new TimeBasedStatistics();
 	private final SampleFrequency freq = new SampleFrequency(0, 10);
 	private final LinkedHashMap<String, SampleStatistics> stateStats = new LinkedHashMap<>();
+	private final QuantileSketch sampSketch = new QuantileSketch();
+	private final QuantileSketch allRunsSketch = new QuantileSketch();  // values for all runs
 
 	{
 		stateAssignment.setHidden(true);
@@ -95,6 +123,21 @@ public class Statistics extends LinkedComponent {
 
 		resetEntityStateTimes = new BooleanInput("ResetEntityStateTimes", KEY_INPUTS, false);
 		this.addInput(resetEntityStateTimes);
+
+		quantileList = new ValueListInput("Quantiles", KEY_INPUTS, null);
+		quantileList.setUnitType(DimensionlessUnit.class);
+		quantileList.setValidRange(0.0d, 1.0d);
+		this.addInput(quantileList);
+
+		confidenceLevel = new ValueInput("ConfidenceLevel", KEY_INPUTS, 0.95d);
+		confidenceLevel.setUnitType(DimensionlessUnit.class);
+		confidenceLevel.setValidRange(1.0e-6d, 1.0d - 1.0e-6d);
+		this.addInput(confidenceLevel);
+
+		targetPrecision = new ValueInput("TargetPrecision", KEY_INPUTS, null);
+		targetPrecision.setUnitType(DimensionlessUnit.class);
+		targetPrecision.setValidRange(0.0d, Double.POSITIVE_INFINITY);
+		this.addInput(targetPrecision);
 	}
 
 	public Statistics() {}
@@ -118,6 +161,16 @@ public class Statistics extends LinkedComponent {
 		timeStats.clear();
 		freq.clear();
 		stateStats.clear();
+		timeStats.setQuantilesEnabled(isQuantilesRequired());
+		sampStats.setBatchMeansEnabled(isBatchMeansRequired());
+		timeStats.setBatchMeansEnabled(isBatchMeansRequired(), getSimulation().getTickLength());
+
+		// Add the values from the previous run to those for all runs
+		if (getJaamSimModel().isFirstRun())
+			allRunsSketch.clear();
+		else
+			allRunsSketch.merge(sampSketch);
+		sampSketch.clear();
 	}
 
 	@Override
@@ -133,6 +186,9 @@ public class Statistics extends LinkedComponent {
 			if (!histogramBinWidth.isDefault()) {
 				freq.addValue((int) Math.round(val/histogramBinWidth.getValue()));
 			}
+			if (isQuantilesRequired()) {
+				sampSketch.addValue(val);
+			}
 		}
 
 		// Update the statistics for each of the entity's states
@@ -171,6 +227,36 @@ public class Statistics extends LinkedComponent {
 		timeStats.clear();
 		freq.clear();
 		stateStats.clear();
+		sampSketch.clear();
+	}
+
+	private boolean isQuantilesRequired() {
+		return quantileList.getValue() != null;
+	}
+
+	private boolean isBatchMeansRequired() {
+		return !confidenceLevel.isDefault() || targetPrecision.getValue() != null;
+	}
+
+	private double[] getProbabilities() {
+		if (quantileList.getValue() == null)
+			return new double[0];
+		return quantileList.getValue().toArray();
+	}
+
+	@Override
+	public boolean isTargetPrecisionSet() {
+		return targetPrecision.getValue() != null;
+	}
+
+	@Override
+	public boolean isTargetPrecisionReached(double simTime) {
+		if (targetPrecision.getValue() == null)
+			return true;
+		double hw = getSampleMeanHalfWidth(simTime);
+		if (Double.isNaN(hw))
+			return false;
+		return hw <= targetPrecision.getValue() * Math.abs(sampStats.getMean());
 	}
 
 	@Override
@@ -339,4 +425,79 @@ public class Statistics extends LinkedComponent {
 		return ret;
 	}
 
+	@Output(name = "SampleQuantiles",
+	 description = "The estimated quantiles of the values that were recorded, for each of the "
+	             + "probabilities specified by the Quantiles input.",
+	    unitType = UserSpecifiedUnit.class,
+	  reportable = true,
+	    sequence = 13)
+	public double[] getSampleQuantiles(double simTime) {
+		return sampSketch.getQuantiles(getProbabilities());
+	}
+
+	@Output(name = "TimeQuantiles",
+	 description = "The estimated quantiles of the values recorded, weighted by the duration "
+	             + "of each value, for each of the probabilities specified by the Quantiles "
+	             + "input.",
+	    unitType = UserSpecifiedUnit.class,
+	  reportable = true,
+	    sequence = 14)
+	public double[] getTimeQuantiles(double simTime) {
+		return timeStats.getQuantiles(simTime, getProbabilities());
+	}
+
+	@Output(name = "SampleQuantilesAllRuns",
+	 description = "The estimated quantiles of the values that were recorded during the "
+	             + "present simulation run and all the previous runs, for each of the "
+	             + "probabilities specified by the Quantiles input.",
+	    unitType = UserSpecifiedUnit.class,
+	    sequence = 15)
+	public double[] getSampleQuantilesAllRuns(double simTime) {
+		QuantileSketch sketch = new QuantileSketch(allRunsSketch);
+		sketch.merge(sampSketch);
+		return sketch.getQuantiles(getProbabilities());
+	}
+
+	@Output(name = "SampleMeanHalfWidth",
+	 description = "The half-width of the confidence interval for the steady-state mean of "
+	             + "the recorded values, estimated by the method of batch means. The batch "
+	             + "size is selected automatically. Returns NaN until sufficient values have "
+	             + "been recorded, or if neither ConfidenceLevel nor TargetPrecision is set.",
+	    unitType = UserSpecifiedUnit.class,
+	  reportable = true,
+	    sequence = 16)
+	public double getSampleMeanHalfWidth(double simTime) {
+		BatchMeans bm = sampStats.getBatchMeans();
+		if (bm == null)
+			return Double.NaN;
+		return bm.getHalfWidth(confidenceLevel.getValue());
+	}
+
+	@Output(name = "TimeAverageHalfWidth",
+	 description = "The half-width of the confidence interval for the steady-state time "
+	             + "average of the recorded values, estimated by the method of batch means. "
+	             + "Returns NaN until sufficient time has elapsed, or if neither "
+	             + "ConfidenceLevel nor TargetPrecision is set.",
+	    unitType = UserSpecifiedUnit.class,
+	  reportable = true,
+	    sequence = 17)
+	public double getTimeAverageHalfWidth(double simTime) {
+		BatchMeans bm = timeStats.getBatchMeans();
+		if (bm == null)
+			return Double.NaN;
+		return bm.getHalfWidth(confidenceLevel.getValue());
+	}
+
+	@Output(name = "NumberOfBatches",
+	 description = "The number of batches into which the recorded values have been grouped "
+	             + "for the estimation of the SampleMeanHalfWidth output.",
+	    unitType = DimensionlessUnit.class,
+	    sequence = 18)
+	public int getNumberOfBatches(double simTime) {
+		BatchMeans bm = sampStats.getBatchMeans();
+		if (bm == null)
+			return 0;
+		return bm.getNumberOfBatches();
+	}
+
 }
@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2015 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +17,22 @@
  */
 package com.jaamsim.Samples;
 
+/**
+ * A position in a time series. A TSPoint can also be used as a cursor that is passed to the
+ * TimeSeriesProvider methods by a caller that looks up a sequence of times or values. The
+ * cursor records the last position that was found, so that the next search can start from it.
+ */
 public class TSPoint {
 	public int index;            // index number for the time series point
 	public long numberOfCycles;  // number of passes through the time series data
 
+	/**
+	 * Creates a cursor that has not yet been positioned.
+	 */
+	public TSPoint() {
+		this(-1, 0);
+	}
+
 	public TSPoint(int ind, long n) {
 		index = ind;
 		numberOfCycles = n;
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018-2019 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,12 @@
  */
 package com.jaamsim.Samples;
 
-import java.util.Arrays;
-
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.EntityTarget;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.BooleanInput;
+import com.jaamsim.input.FileInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.Keyword;
@@ -59,10 +58,32 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	                        "{ '2010-01-01 00:00:00' 0.5 m } { '2010-01-01 03:00:00' 1.5 m }"} )
 	private final TimeSeriesDataInput value;
 
+	@Keyword(description = "A file containing the time series records, which can be used "
+	                     + "instead of the 'Value' input for a long time series. The file can "
+	                     + "be a text file with one record per line in the format used for "
+	                     + "the 'Value' input, or a binary series file with the extension "
+	                     + "'.tsb'. A text file is converted to a series file the first time "
+	                     + "it is used and the series file is saved next to it for later use. "
+	                     + "The series file is read in place without being loaded into memory.",
+	         exampleList = {"'c:/test/data.txt'"})
+	private final FileInput dataFile;
+
 	@Keyword(description = "The time at which the time series will repeat from the start.",
 	         exampleList = {"8760.0 h"})
 	private final ValueInput cycleTime;
 
+	private TimeSeriesData fileData;  // time series data read from the DataFile
+
+	// Inputs used to read the DataFile
+	private double fileTickLength;
+	private Class<? extends Unit> fileUnitType;
+	private boolean fileOffsetToFirst;
+
+	// Position of the last lookup made by the simulation thread without a cursor of its own
+	private final TSPoint simCursor = new TSPoint();
+
+	private TimeSeriesSearch search;  // search for the present data and cycle time
+
 	{
 		offsetToFirst = new BooleanInput("OffsetToFirst", KEY_INPUTS, true);
 		this.addInput(offsetToFirst);
@@ -74,9 +95,13 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		value = new TimeSeriesDataInput("Value", KEY_INPUTS, null);
 		value.setTickLength(getSimulation().getTickLength());
 		value.setUnitType(UserSpecifiedUnit.class);
-		value.setRequired(true);
 		this.addInput(value);
 
+		dataFile = new FileInput("DataFile", KEY_INPUTS, null);
+		dataFile.setFileType("Text");
+		dataFile.setValidFileExtensions("txt", "csv", TimeSeriesFile.FILE_EXTENSION);
+		this.addInput(dataFile);
+
 		cycleTime = new ValueInput("CycleTime", KEY_INPUTS, Double.POSITIVE_INFINITY);
 		cycleTime.setUnitType(TimeUnit.class);
 		this.addInput(cycleTime);
@@ -88,13 +113,23 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	public void validate() {
 		super.validate();
 
-		if (value.getTickLength() != getSimulation().getTickLength())
+		if (value.getValue() == null && dataFile.getValue() == null)
+			throw new InputErrorException("Either the Value or the DataFile input must be specified.");
+
+		if (value.getValue() != null && dataFile.getValue() != null)
+			throw new InputErrorException("The Value and DataFile inputs cannot both be specified.");
+
+		// Re-read the DataFile if the tick length or the other inputs have been changed
+		if (dataFile.getValue() != null && !isDataFileCurrent())
+			loadDataFile();
+
+		if (dataFile.getValue() == null && value.getTickLength() != getSimulation().getTickLength())
 			throw new InputErrorException("A new value was entered for the Simulation keyword TickLength " +
 					"after the TimeSeries data had been loaded.%n" +
 					"The configuration file must be saved and reloaded before the simulation can be executed.");
 
-		long[] ticksList = value.getValue().ticksList;
-		if (getTicks(cycleTime.getValue()) < ticksList[ticksList.length - 1] - ticksList[0])
+		TimeSeriesData data = getData();
+		if (getTicks(cycleTime.getValue()) < data.getTicks(data.size() - 1) - data.getTicks(0))
 			throw new InputErrorException( "CycleTime must be larger than the difference between "
 					+ "the first and last times in the series." );
 	}
@@ -105,8 +140,45 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 		if (in == unitType) {
 			value.setUnitType( unitType.getUnitType() );
+			fileData = null;
 			return;
 		}
+
+		if (in == dataFile) {
+			fileData = null;
+			if (dataFile.getValue() != null)
+				loadDataFile();
+			return;
+		}
+	}
+
+	private void loadDataFile() {
+		fileData = null;
+		fileTickLength = getSimulation().getTickLength();
+		fileUnitType = unitType.getUnitType();
+		fileOffsetToFirst = isOffsetToFirst();
+		fileData = TimeSeriesFile.load(getJaamSimModel(), dataFile.getValue(),
+				fileUnitType, fileTickLength, fileOffsetToFirst);
+	}
+
+	/**
+	 * Returns true if the data read from the DataFile is valid for the present inputs.
+	 */
+	private boolean isDataFileCurrent() {
+		return fileData != null
+				&& fileTickLength == getSimulation().getTickLength()
+				&& fileUnitType == unitType.getUnitType()
+				&& fileOffsetToFirst == isOffsetToFirst();
+	}
+
+	/**
+	 * Returns the time series data entered by the Value input or read from the DataFile.
+	 * @return time series data, or null if the data has not been entered.
+	 */
+	public TimeSeriesData getData() {
+		if (fileData != null)
+			return fileData;
+		return value.getValue();
 	}
 
 	@Override
@@ -119,6 +191,14 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		return offsetToFirst.getValue();
 	}
 
+	/**
+	 * Returns the time at which the time series repeats from the start.
+	 * @return cycle time in seconds, or infinity if the series does not repeat.
+	 */
+	public double getCycleTime() {
+		return cycleTime.getValue();
+	}
+
 	/**
 	 * Schedules an event when the TimeSeries' value changes.
 	 */
@@ -168,7 +248,14 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	 */
 	@Override
 	public double getValueForTicks(long ticks) {
-		return getValue(getTSPointForTicks(ticks));
+		return getValueForTicks(ticks, getCursor());
+	}
+
+	@Override
+	public double getValueForTicks(long ticks, TSPoint cursor) {
+		TimeSeriesSearch ts = getSearch();
+		ts.seekTicks(ticks, cursor);
+		return ts.getValue(cursor.index);
 	}
 
 	/**
@@ -179,7 +266,15 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	 */
 	@Override
 	public long getNextChangeAfterTicks(long ticks) {
-		return getTicks(getTSPointAfter(getTSPointForTicks(ticks)));
+		return getNextChangeAfterTicks(ticks, getCursor());
+	}
+
+	@Override
+	public long getNextChangeAfterTicks(long ticks, TSPoint cursor) {
+		TimeSeriesSearch ts = getSearch();
+		ts.seekTicks(ticks, cursor);
+		int ind = cursor.index;
+		return ts.getTicks(ts.getIndexAfter(ind), ts.getCyclesAfter(ind, cursor.numberOfCycles));
 	}
 
 	@Override
@@ -192,8 +287,8 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if (cycleTime.getValue() < Double.POSITIVE_INFINITY)
 			return getTicks(cycleTime.getValue());
 
-		long[] ticksList = value.getValue().ticksList;
-		return ticksList[ ticksList.length-1 ];
+		TimeSeriesData data = getData();
+		return data.getTicks(data.size() - 1);
 	}
 
 	@Override
@@ -203,12 +298,12 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 	@Override
 	public double getMaxValue() {
-		return value.getValue().getMaxValue();
+		return getData().getMaxValue();
 	}
 
 	@Override
 	public double getMinValue() {
-		return value.getValue().getMinValue();
+		return getData().getMinValue();
 	}
 
 	@Override
@@ -217,206 +312,57 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	}
 
 	public boolean isMonotonic(int dir) {
-		return value.getValue().isMonotonic(dir);
-	}
-
-	/**
-	 * Returns the position in the time series that corresponds to the specified
-	 * time in simulation clock ticks.
-	 * <p>
-	 * The position returned is the largest one whose ticks value is less than
-	 * or equal to the specified ticks.
-	 * @param ticks - simulation time in clock ticks.
-	 * @return position in the TimeSeries.
-	 */
-	private TSPoint getTSPointForTicks(long ticks) {
-		long[] ticksList = value.getValue().ticksList;
-
-		if (ticks == Long.MAX_VALUE) {
-			if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-				return new TSPoint(ticksList.length - 1, 0);
-			return new TSPoint(ticksList.length - 1, Long.MAX_VALUE);
-		}
-
-		// Find the time within the present cycle
-		final long cycleTicks = getTicks(cycleTime.getValue());
-		long numberOfCycles = (ticks - ticksList[0]) / cycleTicks;
-		long ticksInCycle = (ticks - ticksList[0]) % cycleTicks + ticksList[0];
-
-		// If the time in the cycle is greater than the last time, return the last value
-		if (ticksInCycle >= ticksList[ticksList.length - 1]) {
-			return new TSPoint(ticksList.length - 1, numberOfCycles);
-		}
-
-		// Find the index by binary search
-		int k = Arrays.binarySearch(ticksList, ticksInCycle);
-
-		// If the returned index is greater or equal to zero,
-		// then an exact match was found
-		if (k >= 0)
-			return new TSPoint(k, numberOfCycles);
-
-		if (k == -1)
-			error("No value found at time: %f", getSimTime(ticks));
-
-		// If the returned index is negative, then (insertion index) = -k-1
-		// Return the index before the insertion index
-		return new TSPoint(-k - 2, numberOfCycles);
-	}
-
-	/**
-	 * Returns the position in the time series that corresponds to the specified value.
-	 * <p>
-	 * The TimeSeries values must increase monotonically. The position returned
-	 * is the largest one whose value is less than or equal to the specified value.
-	 * @param val - specified value.
-	 * @return position in the TimeSeries.
-	 */
-	private TSPoint getTSPointForValue(double val) {
-
-		double[] valueList = value.getValue().valueList;
-		if (val > getMaxValue() && cycleTime.getValue() == Double.POSITIVE_INFINITY)
-			return new TSPoint(valueList.length - 1, 0);
-
-		// Find the value within the present cycle
-		double valInCycle = val % getMaxValue();
-		long numberOfCycles = Math.round((val - valInCycle) / getMaxValue());
-
-		// If the value in the cycle is greater than or equal to the last value, return the last index
-		if (valInCycle >= valueList[valueList.length - 1])
-			return new TSPoint(valueList.length - 1, numberOfCycles);
-
-		// Find the index by binary search
-		int k = Arrays.binarySearch(valueList, valInCycle);
-
-		// If the returned index is greater or equal to zero,
-		// then an exact match was found
-		if (k >= 0)
-			return new TSPoint(k, numberOfCycles);
-
-		if (k == -1)
-			error("No entry found for value: %f", val);
-
-		// If the returned index is negative, then (insertion index) = -k-1
-		// Return the index before the insertion index
-		return new TSPoint(-k - 2, numberOfCycles);
-	}
-
-	/**
-	 * Returns the simulation time in clock ticks for the specified position in
-	 * the time series.
-	 * @param pt - position in the time series.
-	 * @return simulation time in clock ticks.
-	 */
-	private long getTicks(TSPoint pt) {
-		if (pt.index == -1)
-			return Long.MAX_VALUE;
-		if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-			return value.getValue().ticksList[pt.index];
-		return value.getValue().ticksList[pt.index] + pt.numberOfCycles*getTicks(cycleTime.getValue());
-	}
-
-	/**
-	 * Returns the time series value for the specified position in the time
-	 * series.
-	 * @param pt - position in the time series.
-	 * @return value for the time series.
-	 */
-	private double getValue(TSPoint pt) {
-		double valueList[] = value.getValue().valueList;
-		if (pt.index == -1)
-			return valueList[ valueList.length - 1 ];
-		return valueList[pt.index];
+		return getData().isMonotonic(dir);
 	}
 
 	/**
-	 * Returns the total value for the time series at the specified position.
-	 * <p>
-	 * If a cycle time has been specified, then the total time increases
-	 * with each pass through the time series.
-	 * @param pt - position in the time series.
-	 * @return total value for the time series.
+	 * Returns the cursor to be used by a caller that does not supply its own. The simulation
+	 * thread shares a single cursor, while other threads, such as the one that displays the
+	 * outputs, use a new cursor for each lookup.
+	 * @return cursor for the lookup.
 	 */
-	private double getCumulativeValue(TSPoint pt) {
-		if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-			return getValue(pt);
-		return getValue(pt) + pt.numberOfCycles*getMaxValue();
+	private TSPoint getCursor() {
+		if (EventManager.hasCurrent())
+			return simCursor;
+		return new TSPoint();
 	}
 
 	/**
-	 * Returns the position in the time series that follows the specified
-	 * position.
-	 * <p>
-	 * An index of -1 is returned if the specified position is a the end
-	 * of the time series data and a cycle time is not specified.
-	 * @param pt - specified position in the time series.
-	 * @return next position in the time series.
+	 * Returns the search for the present data and cycle time.
 	 */
-	private TSPoint getTSPointAfter(TSPoint pt) {
-		if (pt.index == -1)
-			return new TSPoint(pt.index, pt.numberOfCycles);
-
-		if (pt.index == value.getValue().ticksList.length - 1) {
-			if (cycleTime.getValue() == Double.POSITIVE_INFINITY)
-				return new TSPoint(-1, pt.numberOfCycles);
-
-			return new TSPoint(0, pt.numberOfCycles + 1);
+	private TimeSeriesSearch getSearch() {
+		TimeSeriesSearch ret = search;
+		TimeSeriesData data = getData();
+		if (ret == null || !ret.isFor(data, cycleTime.getValue())) {
+			ret = new TimeSeriesSearch(this, data, cycleTime.getValue());
+			search = ret;
 		}
-
-		return new TSPoint(pt.index + 1, pt.numberOfCycles);
+		return ret;
 	}
 
 	@Override
 	public long getInterpolatedTicksForValue(double val) {
+		return getInterpolatedTicksForValue(val, getCursor());
+	}
 
-		TSPoint low = getTSPointForValue(val);
-		TSPoint high = getTSPointAfter(low);
-		if (high.index == -1)
-			return Long.MAX_VALUE;
-
-		long ticksLow = getTicks(low);
-		long ticksHigh = getTicks(high);
-		double valueLow = getCumulativeValue(low);
-		double valueHigh = getCumulativeValue(high);
-
-		// The value at the end of the cycle is equal to the value at the start of the next cycle
-		if (valueHigh == valueLow) {
-			high = getTSPointAfter(high);
-			ticksHigh = getTicks(high);
-			valueHigh = getCumulativeValue(high);
-		}
-
-		return ticksLow + Math.round((val - valueLow)*(ticksHigh - ticksLow)/(valueHigh - valueLow));
+	@Override
+	public long getInterpolatedTicksForValue(double val, TSPoint cursor) {
+		return getSearch().getInterpolatedTicksForValue(val, cursor);
 	}
 
 	@Override
 	public double getInterpolatedCumulativeValueForTicks(long ticks) {
+		return getInterpolatedCumulativeValueForTicks(ticks, getCursor());
+	}
 
-		TSPoint low = getTSPointForTicks(ticks);
-		TSPoint high = getTSPointAfter(low);
-		if (high.index == -1) {
-			double valueList[] = value.getValue().valueList;
-			return valueList[ valueList.length - 1 ];
-		}
-
-		long ticksLow = getTicks(low);
-		long ticksHigh = getTicks(high);
-		double valueLow = getCumulativeValue(low);
-		double valueHigh = getCumulativeValue(high);
-
-		// The value at the end of the cycle is equal to the value at the start of the next cycle
-		if (valueHigh == valueLow) {
-			high = getTSPointAfter(high);
-			ticksHigh = getTicks(high);
-			valueHigh = getCumulativeValue(high);
-		}
-
-		return valueLow + (ticks - ticksLow)*(valueHigh - valueLow)/(ticksHigh - ticksLow);
+	@Override
+	public double getInterpolatedCumulativeValueForTicks(long ticks, TSPoint cursor) {
+		return getSearch().getInterpolatedCumulativeValueForTicks(ticks, cursor);
 	}
 
 	@Override
 	public final double getNextSample(double simTime) {
-		return getValue(getTSPointForTicks(getTicks(simTime)));
+		return getValueForTicks(getTicks(simTime));
 	}
 
 	// ******************************************************************************************************
@@ -428,7 +374,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	    unitType = UserSpecifiedUnit.class,
 	    sequence = 1)
 	public final double getPresentValue(double simTime) {
-		if (value.getValue() == null)
+		if (getData() == null)
 			return Double.NaN;
 		return this.getNextSample(simTime);
 	}
@@ -438,7 +384,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	    unitType = TimeUnit.class,
 	    sequence = 2)
 	public final double getNextEventTime(double simTime) {
-		if (value.getValue() == null)
+		if (getData() == null)
 			return 0.0d;
 		return this.getNextTimeAfter(simTime);
 	}
@@ -448,7 +394,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	    unitType = UserSpecifiedUnit.class,
 	    sequence = 3)
 	public final double getNextValue(double simTime) {
-		if (value.getValue() == null)
+		if (getData() == null)
 			return Double.NaN;
 		long simTicks = EventManager.secsToNearestTick(simTime);
 		long nextTicks = getNextChangeAfterTicks(simTicks);
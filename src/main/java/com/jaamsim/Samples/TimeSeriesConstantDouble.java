@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -52,6 +53,11 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return val;
 	}
 
+	@Override
+	public double getValueForTicks(long ticks, TSPoint cursor) {
+		return val;
+	}
+
 	@Override
 	public double getNextTimeAfter(double simTime) {
 		return Double.POSITIVE_INFINITY;
@@ -62,6 +68,11 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return Long.MAX_VALUE;
 	}
 
+	@Override
+	public long getNextChangeAfterTicks(long ticks, TSPoint cursor) {
+		return Long.MAX_VALUE;
+	}
+
 	@Override
 	public double getMaxValue() {
 		return val;
@@ -96,8 +107,18 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return 0;
 	}
 
+	@Override
+	public long getInterpolatedTicksForValue(double val, TSPoint cursor) {
+		return 0;
+	}
+
 	@Override
 	public double getInterpolatedCumulativeValueForTicks(long ticks) {
 		return val;
 	}
+
+	@Override
+	public double getInterpolatedCumulativeValueForTicks(long ticks, TSPoint cursor) {
+		return val;
+	}
 }
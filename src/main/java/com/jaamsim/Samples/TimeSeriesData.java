@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,29 +17,153 @@
  */
 package com.jaamsim.Samples;
 
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
 import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.events.EventManager;
 
+/**
+ * Holds the times and values for a TimeSeries. The data is held either in memory, for a series
+ * entered by the Value input, or in a binary series file that has been memory-mapped, for a
+ * series read from a DataFile.
+ * @see TimeSeriesFile
+ */
 public class TimeSeriesData {
-	final long[] ticksList;   // time in clock ticks corresponding to each value
-	final double[] valueList;
+	private final LongBuffer ticksList;   // time in clock ticks corresponding to each value
+	private final DoubleBuffer valueList;
+	private final int size;
 	private double maxValue;  // The maximum value that occurs in valueList
 	private double minValue;  // The minimum value that occurs in valueList
+	private final int monotonic;  // 1 = increasing, -1 = decreasing, 2 = both, 0 = neither
 
 	public TimeSeriesData( DoubleVector times, DoubleVector values ) {
-		ticksList = new long[times.size()];
+		long[] ticks = new long[times.size()];
 		for (int i = 0; i < times.size(); i++) {
-			ticksList[i] = Math.round(times.get(i));
+			ticks[i] = Math.round(times.get(i));
 		}
 
-		valueList = new double[values.size()];
+		double[] vals = new double[values.size()];
 		maxValue = Double.NEGATIVE_INFINITY;
 		minValue = Double.POSITIVE_INFINITY;
 		for (int i = 0; i < values.size(); i++) {
-			valueList[i] = values.get(i);
-			maxValue = Math.max(maxValue, valueList[i]);
-			minValue = Math.min(minValue, valueList[i]);
+			vals[i] = values.get(i);
+			maxValue = Math.max(maxValue, vals[i]);
+			minValue = Math.min(minValue, vals[i]);
+		}
+
+		ticksList = LongBuffer.wrap(ticks);
+		valueList = DoubleBuffer.wrap(vals);
+		size = ticks.length;
+		monotonic = getMonotonic(vals);
+	}
+
+	/**
+	 * Creates a time series from data that is held in buffers, such as those mapped from a
+	 * binary series file. The statistics for the values are supplied so that the data does not
+	 * have to be read.
+	 * @param ticks - time in clock ticks for each entry, in increasing order
+	 * @param values - value for each entry
+	 * @param min - minimum value
+	 * @param max - maximum value
+	 * @param mono - 1 if the values increase monotonically, -1 if they decrease
+	 * monotonically, 2 if they are constant, and 0 otherwise
+	 */
+	TimeSeriesData(LongBuffer ticks, DoubleBuffer values, double min, double max, int mono) {
+		ticksList = ticks;
+		valueList = values;
+		size = ticks.limit();
+		minValue = min;
+		maxValue = max;
+		monotonic = mono;
+	}
+
+	static int getMonotonic(double[] vals) {
+		boolean inc = true;
+		boolean dec = true;
+		for (int i = 1; i < vals.length; i++) {
+			int comp = Double.compare(vals[i], vals[i - 1]);
+			inc = inc && comp >= 0;
+			dec = dec && comp <= 0;
 		}
+		return getMonotonic(inc, dec);
+	}
+
+	static int getMonotonic(boolean inc, boolean dec) {
+		if (inc && dec)
+			return 2;
+		if (inc)
+			return 1;
+		if (dec)
+			return -1;
+		return 0;
+	}
+
+	/**
+	 * Returns the number of entries in the time series.
+	 */
+	public final int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the time in clock ticks for the specified entry.
+	 */
+	public final long getTicks(int i) {
+		return ticksList.get(i);
+	}
+
+	/**
+	 * Returns the value for the specified entry.
+	 */
+	public final double getValue(int i) {
+		return valueList.get(i);
+	}
+
+	/**
+	 * Searches for the specified time using the binary search algorithm.
+	 * @param key - time in clock ticks
+	 * @return index of the entry, if found; otherwise, (-(insertion point) - 1)
+	 * @see java.util.Arrays#binarySearch(long[], long)
+	 */
+	public int binarySearchTicks(long key) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long midVal = ticksList.get(mid);
+			if (midVal < key)
+				low = mid + 1;
+			else if (midVal > key)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Searches for the specified value using the binary search algorithm.
+	 * The values must increase monotonically.
+	 * @param key - value
+	 * @return index of the entry, if found; otherwise, (-(insertion point) - 1)
+	 * @see java.util.Arrays#binarySearch(double[], double)
+	 */
+	public int binarySearchValue(double key) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			double midVal = valueList.get(mid);
+			int comp = Double.compare(midVal, key);
+			if (comp < 0)
+				low = mid + 1;
+			else if (comp > 0)
+				high = mid - 1;
+			else
+				return mid;
+		}
+		return -(low + 1);
 	}
 
 	public double getMaxValue() {
@@ -56,22 +180,21 @@ public class TimeSeriesData {
 	 * @return true if monotonic
 	 */
 	public boolean isMonotonic(int dir) {
-		for (int i = 1; i < valueList.length; i++) {
-			int comp = Double.compare(valueList[i], valueList[i - 1]);
-			if (dir * comp < 0)
-				return false;
-		}
+		if (dir > 0)
+			return monotonic == 1 || monotonic == 2;
+		if (dir < 0)
+			return monotonic == -1 || monotonic == 2;
 		return true;
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder("{");
-		for (int i = 0; i < ticksList.length; i++) {
+		for (int i = 0; i < size; i++) {
 			if (i > 0) {
 				sb.append(",");
 			}
-			String str = String.format(" {%s[s], %s}", EventManager.ticksToSecs(ticksList[i]), valueList[i]);
+			String str = String.format(" {%s[s], %s}", EventManager.ticksToSecs(getTicks(i)), getValue(i));
 			sb.append(str);
 		}
 		sb.append(" }");
@@ -0,0 +1,485 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.Samples;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.input.Input;
+import com.jaamsim.input.InputErrorException;
+import com.jaamsim.input.KeywordIndex;
+import com.jaamsim.input.Parser;
+import com.jaamsim.input.TimeSeriesDataInput;
+import com.jaamsim.units.Unit;
+
+/**
+ * Reads and writes binary series files, which hold the data for a TimeSeries in a form that can
+ * be memory-mapped and used in place without parsing.
+ * <p>
+ * A series file consists of a header followed by a column containing the time for each entry
+ * in clock ticks and a column containing the value for each entry in SI units. All numbers are
+ * stored in little-endian order. The header records the clock tick length and the unit type
+ * used to write the file so that it is not used with a model for which the data is invalid.
+ * <p>
+ * A text file of time series records is converted to a series file the first time it is used.
+ * The series file is saved next to the text file and is re-used until the text file is
+ * modified. Its name is formed from the name of the text file followed by a code for the
+ * text file's size and modification time and for the inputs used to convert it, so a new
+ * version of the data is always written to a new file. An existing series file is never
+ * overwritten, since it may still be memory-mapped by another TimeSeries or by an earlier
+ * load of the model.
+ */
+public class TimeSeriesFile {
+
+	public static final String FILE_EXTENSION = "tsb";
+
+	private static final int MAGIC = 0x5354534A;  // "JSTS" in little-endian order
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 56;
+	private static final int FLAG_OFFSET_TO_FIRST = 1;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private TimeSeriesFile() {}
+
+	/**
+	 * Returns the time series data for the specified DataFile input. A text file is converted
+	 * to a series file if a current one is not available.
+	 * @param simModel - simulation model used to parse the text file
+	 * @param uri - series file or text file of time series records
+	 * @param unitType - unit type for the values
+	 * @param tickLength - simulation clock tick length in seconds
+	 * @param offsetToFirst - true if the times are relative to the first record
+	 * @return memory-mapped time series data
+	 * @throws InputErrorException if the data cannot be read
+	 */
+	public static TimeSeriesData load(JaamSimModel simModel, URI uri, Class<? extends Unit> unitType,
+			double tickLength, boolean offsetToFirst) throws InputErrorException {
+
+		if (!"file".equals(uri.getScheme()))
+			throw new InputErrorException("The DataFile must be a file on the local file system.%n"
+					+ "Received: %s", uri);
+
+		File file = new File(uri);
+		try {
+			if (isSeriesFile(file))
+				return map(file, unitType, tickLength);
+
+			File cache = getCacheFile(file, unitType, tickLength, offsetToFirst);
+			if (!isCurrent(cache, unitType, tickLength, offsetToFirst)) {
+				deleteStaleCacheFiles(file);
+				convert(simModel, file, cache, unitType, tickLength, offsetToFirst, false);
+			}
+			return map(cache, unitType, tickLength);
+		}
+		catch (IOException e) {
+			throw new InputErrorException("Unable to read the DataFile: %s%n%s", file, e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns true if the specified file is a series file, as indicated by its extension.
+	 */
+	public static boolean isSeriesFile(File file) {
+		return file.getName().toLowerCase().endsWith("." + FILE_EXTENSION);
+	}
+
+	/**
+	 * Returns the series file used to cache the contents of the specified text file for the
+	 * specified inputs.
+	 * @param textFile - text file of time series records
+	 * @param unitType - unit type for the values
+	 * @param tickLength - simulation clock tick length in seconds
+	 * @param offsetToFirst - true if the times are relative to the first record
+	 * @return series file
+	 */
+	public static File getCacheFile(File textFile, Class<? extends Unit> unitType,
+			double tickLength, boolean offsetToFirst) {
+		CRC32 crc = new CRC32();
+		ByteBuffer buf = ByteBuffer.allocate(28);
+		buf.putLong(textFile.length());
+		buf.putLong(textFile.lastModified());
+		buf.putDouble(tickLength);
+		buf.putInt(offsetToFirst ? FLAG_OFFSET_TO_FIRST : 0);
+		crc.update(buf.array());
+		crc.update(unitType.getName().getBytes(StandardCharsets.UTF_8));
+		return new File(String.format("%s.%08x.%s", textFile.getPath(), crc.getValue(), FILE_EXTENSION));
+	}
+
+	/**
+	 * Deletes the series files that were written for earlier versions of the specified text
+	 * file. A file that cannot be deleted, for example because it is still memory-mapped, is
+	 * left in place.
+	 */
+	private static void deleteStaleCacheFiles(File textFile) {
+		File dir = textFile.getAbsoluteFile().getParentFile();
+		final String prefix = textFile.getName() + ".";
+		File[] files = dir.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File d, String name) {
+				return name.startsWith(prefix) && isSeriesFile(new File(d, name));
+			}
+		});
+		if (files == null)
+			return;
+		for (File f : files) {
+			if (f.lastModified() < textFile.lastModified())
+				f.delete();
+		}
+	}
+
+	private static int getUnitCode(Class<? extends Unit> unitType) {
+		return unitType.getSimpleName().hashCode();
+	}
+
+	private static ByteBuffer readHeader(FileChannel ch) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		while (header.hasRemaining()) {
+			if (ch.read(header) < 0)
+				throw new IOException("The file is not a series file.");
+		}
+		if (header.getInt(0) != MAGIC)
+			throw new IOException("The file is not a series file.");
+		if (header.getInt(4) != VERSION)
+			throw new IOException(String.format("Unsupported series file version: %s", header.getInt(4)));
+		return header;
+	}
+
+	/**
+	 * Returns true if the series file exists and was written with the specified inputs.
+	 */
+	private static boolean isCurrent(File file, Class<? extends Unit> unitType,
+			double tickLength, boolean offsetToFirst) {
+		if (!file.isFile())
+			return false;
+
+		try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = readHeader(ch);
+			int flags = offsetToFirst ? FLAG_OFFSET_TO_FIRST : 0;
+			return header.getDouble(16) == tickLength
+					&& header.getInt(44) == flags
+					&& header.getInt(48) == getUnitCode(unitType);
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Maps the specified series file into memory.
+	 * @param file - series file
+	 * @param unitType - unit type for the values
+	 * @param tickLength - simulation clock tick length in seconds
+	 * @return time series data for the file
+	 * @throws IOException if the file is invalid or was written for different inputs
+	 */
+	public static TimeSeriesData map(File file, Class<? extends Unit> unitType, double tickLength)
+	throws IOException {
+		try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = readHeader(ch);
+			long count = header.getLong(8);
+			if (header.getDouble(16) != tickLength)
+				throw new IOException(String.format("The file was written for a clock tick length "
+						+ "of %s seconds instead of %s seconds.", header.getDouble(16), tickLength));
+			if (header.getInt(48) != getUnitCode(unitType))
+				throw new IOException(String.format("The file was not written for the unit type %s.",
+						unitType.getSimpleName()));
+			if (count <= 0L)
+				throw new IOException("The file contains no entries.");
+			if (count > Integer.MAX_VALUE/8)
+				throw new IOException(String.format("The file contains too many entries: %s", count));
+			if (ch.size() != HEADER_SIZE + 16L*count)
+				throw new IOException("The file is incomplete.");
+
+			// The mappings remain valid after the channel is closed
+			MappedByteBuffer ticksBuf = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, 8L*count);
+			MappedByteBuffer valueBuf = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + 8L*count, 8L*count);
+			LongBuffer ticks = ticksBuf.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+			DoubleBuffer values = valueBuf.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+			return new TimeSeriesData(ticks, values, header.getDouble(24), header.getDouble(32),
+					header.getInt(40));
+		}
+	}
+
+	/**
+	 * Converts a text file of time series records to a series file. Each line of the text
+	 * file contains one record in the format used by the TimeSeries Value input, with or
+	 * without the enclosing braces. The text file is read one line at a time so that the full
+	 * series is never held in memory.
+	 * @param simModel - simulation model used to parse the records
+	 * @param textFile - text file to be converted
+	 * @param file - series file to be written
+	 * @param unitType - unit type for the values
+	 * @param tickLength - simulation clock tick length in seconds
+	 * @param offsetToFirst - true if the times are relative to the first record
+	 * @param replace - true if an existing series file is to be replaced. Otherwise, the
+	 * existing file is kept, since it may be memory-mapped by another TimeSeries.
+	 * @throws IOException if either file cannot be accessed
+	 * @throws InputErrorException if a record is invalid
+	 */
+	public static void convert(JaamSimModel simModel, File textFile, File file,
+			Class<? extends Unit> unitType, double tickLength, boolean offsetToFirst,
+			boolean replace) throws IOException, InputErrorException {
+
+		// Write to a temporary file so that an incomplete file is never used
+		File temp = File.createTempFile("jaamsim", "." + FILE_EXTENSION, file.getAbsoluteFile().getParentFile());
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				Files.newInputStream(textFile.toPath()), StandardCharsets.UTF_8));
+				Writer writer = new Writer(temp, unitType, tickLength, offsetToFirst)) {
+
+			long offset = offsetToFirst ? -1L : 0L;
+			long lastTime = Long.MIN_VALUE;
+			ArrayList<String> each = new ArrayList<>();
+			int lineNum = 0;
+			while (true) {
+				String line = reader.readLine();
+				if (line == null)
+					break;
+				lineNum++;
+
+				each.clear();
+				Parser.tokenize(each, line, true);
+				each.remove("{");
+				each.remove("}");
+				if (each.isEmpty())
+					continue;
+
+				try {
+					long recordus = TimeSeriesDataInput.parseRecordTime(simModel, each);
+					if (recordus <= lastTime)
+						throw new InputErrorException("The times must be given in increasing order.");
+					lastTime = recordus;
+					if (offset == -1L)
+						offset = recordus;
+
+					KeywordIndex valKw = new KeywordIndex("", each, null);
+					double val = Input.parseDoubles(simModel, valKw, Double.NEGATIVE_INFINITY,
+							Double.POSITIVE_INFINITY, unitType).get(0);
+
+					long ticks = Math.round((recordus - offset)/(1.0e6*tickLength));
+					if (writer.size() == 0L && ticks > 0L)
+						throw new InputErrorException("First simulation time must be less than or equal to "
+								+ "zero. Received %s seconds.", ticks*tickLength);
+					writer.add(ticks, val);
+				}
+				catch (InputErrorException e) {
+					throw new InputErrorException("Line %s of %s: %s", lineNum, textFile, e.getMessage());
+				}
+			}
+			if (writer.size() == 0L)
+				throw new InputErrorException("The file contains no records: %s", textFile);
+		}
+		catch (IOException | RuntimeException e) {
+			temp.delete();
+			throw e;
+		}
+
+		try {
+			if (replace)
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			else
+				Files.move(temp.toPath(), file.toPath());
+		}
+		catch (FileAlreadyExistsException e) {
+			temp.delete();
+		}
+		catch (IOException e) {
+			temp.delete();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes a series file one entry at a time. The values are held in a temporary file until
+	 * the series file is closed, at which point they are appended to the times and the header
+	 * is completed.
+	 */
+	public static class Writer implements Closeable {
+		private final FileChannel ticksChannel;
+		private final FileChannel valueChannel;
+		private final File valueFile;
+		private final ByteBuffer ticksBuf;
+		private final ByteBuffer valueBuf;
+		private final double tickLength;
+		private final int flags;
+		private final int unitCode;
+
+		private long count;
+		private double minValue;
+		private double maxValue;
+		private double lastValue;
+		private boolean increasing;
+		private boolean decreasing;
+
+		public Writer(File file, Class<? extends Unit> unitType, double tickLength, boolean offsetToFirst)
+		throws IOException {
+			this.tickLength = tickLength;
+			flags = offsetToFirst ? FLAG_OFFSET_TO_FIRST : 0;
+			unitCode = getUnitCode(unitType);
+
+			ticksChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			valueFile = File.createTempFile("jaamsim", ".tmp", file.getAbsoluteFile().getParentFile());
+			valueChannel = FileChannel.open(valueFile.toPath(), StandardOpenOption.READ,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+					StandardOpenOption.DELETE_ON_CLOSE);
+			ticksChannel.position(HEADER_SIZE);
+
+			ticksBuf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			valueBuf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			minValue = Double.POSITIVE_INFINITY;
+			maxValue = Double.NEGATIVE_INFINITY;
+			increasing = true;
+			decreasing = true;
+		}
+
+		/**
+		 * Returns the number of entries that have been written.
+		 */
+		public long size() {
+			return count;
+		}
+
+		/**
+		 * Writes an entry to the file. Entries must be written in order of increasing time.
+		 * @param ticks - time in clock ticks
+		 * @param val - value in SI units
+		 * @throws IOException if the entry cannot be written
+		 */
+		public void add(long ticks, double val) throws IOException {
+			if (count > 0L) {
+				int comp = Double.compare(val, lastValue);
+				increasing = increasing && comp >= 0;
+				decreasing = decreasing && comp <= 0;
+			}
+			minValue = Math.min(minValue, val);
+			maxValue = Math.max(maxValue, val);
+			lastValue = val;
+			count++;
+
+			ticksBuf.putLong(ticks);
+			valueBuf.putDouble(val);
+			if (!ticksBuf.hasRemaining()) {
+				write(ticksChannel, ticksBuf);
+				write(valueChannel, valueBuf);
+			}
+		}
+
+		private static void write(FileChannel ch, ByteBuffer buf) throws IOException {
+			buf.flip();
+			while (buf.hasRemaining()) {
+				ch.write(buf);
+			}
+			buf.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				write(ticksChannel, ticksBuf);
+				write(valueChannel, valueBuf);
+
+				// Append the values to the times
+				long pos = 0L;
+				long size = valueChannel.size();
+				while (pos < size) {
+					pos += valueChannel.transferTo(pos, size - pos, ticksChannel);
+				}
+
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				header.putInt(MAGIC);
+				header.putInt(VERSION);
+				header.putLong(count);
+				header.putDouble(tickLength);
+				header.putDouble(minValue);
+				header.putDouble(maxValue);
+				header.putInt(TimeSeriesData.getMonotonic(increasing, decreasing));
+				header.putInt(flags);
+				header.putInt(unitCode);
+				header.flip();
+				while (header.hasRemaining()) {
+					ticksChannel.write(header, header.position());
+				}
+			}
+			finally {
+				ticksChannel.close();
+				valueChannel.close();
+			}
+		}
+	}
+
+	/**
+	 * Converts a text file of time series records to a series file.
+	 * <p>
+	 * Usage: TimeSeriesFile textFile unitType [seriesFile [tickLength [offsetToFirst]]]
+	 * <p>
+	 * The unit type is given by its name, for example DistanceUnit, and the clock tick length
+	 * in seconds. By default, the series file is written next to the text file with the name
+	 * used by a TimeSeries, the default clock tick length is used, and the times are relative
+	 * to the first record. An existing series file is replaced.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2 || args.length > 5) {
+			System.out.println("Usage: TimeSeriesFile textFile unitType [seriesFile [tickLength [offsetToFirst]]]");
+			return;
+		}
+
+		JaamSimModel simModel = new JaamSimModel();
+		simModel.autoLoad();
+
+		File textFile = new File(args[0]);
+		try {
+			ObjectType t = Input.parseEntity(simModel, args[1], ObjectType.class);
+			Class<? extends Unit> unitType = Input.checkCast(t.getJavaClass(), Unit.class);
+			double tickLength = simModel.getSimulation().getTickLength();
+			if (args.length > 3)
+				tickLength = Double.parseDouble(args[3]);
+			boolean offsetToFirst = args.length <= 4 || Boolean.parseBoolean(args[4]);
+			File file = getCacheFile(textFile, unitType, tickLength, offsetToFirst);
+			if (args.length > 2)
+				file = new File(args[2]);
+
+			long t0 = System.nanoTime();
+			convert(simModel, textFile, file, unitType, tickLength, offsetToFirst, true);
+			System.out.format("Wrote %s in %.3f s%n", file, (System.nanoTime() - t0)*1.0e-9d);
+		}
+		catch (IOException | InputErrorException | NumberFormatException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+}
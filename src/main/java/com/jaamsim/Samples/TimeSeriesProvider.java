@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +24,25 @@ public interface TimeSeriesProvider extends SampleProvider {
 	public long getNextChangeAfterTicks(long ticks);
 	public long getMaxTicksValue();
 
+	/**
+	 * Returns the value at the specified simulation time in clock ticks. The search for the
+	 * time starts from the position held by the cursor, which is then updated.
+	 * @param ticks - simulation time in clock ticks.
+	 * @param cursor - position of the previous lookup by the caller.
+	 * @return value for the time series.
+	 */
+	public double getValueForTicks(long ticks, TSPoint cursor);
+
+	/**
+	 * Returns the first time that the value will be updated after the specified simulation
+	 * time in clock ticks. The search for the time starts from the position held by the
+	 * cursor, which is then updated.
+	 * @param ticks - simulation time in clock ticks.
+	 * @param cursor - position of the previous lookup by the caller.
+	 * @return simulation time in clock ticks at which the value will change.
+	 */
+	public long getNextChangeAfterTicks(long ticks, TSPoint cursor);
+
 	/**
 	 * Returns the simulation time in ticks corresponding to the specified
 	 * value that it interpolated from the time series entries.
@@ -33,6 +53,16 @@ public interface TimeSeriesProvider extends SampleProvider {
 	 */
 	public long getInterpolatedTicksForValue(double val);
 
+	/**
+	 * Returns the interpolated simulation time in ticks corresponding to the specified
+	 * value. The search for the value starts from the position held by the cursor,
+	 * which is then updated.
+	 * @param val - specified value.
+	 * @param cursor - position of the previous lookup by the caller.
+	 * @return interpolated simulation time in clock ticks.
+	 */
+	public long getInterpolatedTicksForValue(double val, TSPoint cursor);
+
 	/**
 	 * Returns the value corresponding to the specified simulation
 	 * time in simulation clock ticks that it interpolated from the
@@ -41,4 +71,14 @@ public interface TimeSeriesProvider extends SampleProvider {
 	 * @return interpolated value.
 	 */
 	public double getInterpolatedCumulativeValueForTicks(long ticks);
+
+	/**
+	 * Returns the interpolated value corresponding to the specified simulation time in
+	 * clock ticks. The search for the time starts from the position held by the cursor,
+	 * which is then updated.
+	 * @param ticks - simulation time in clock ticks.
+	 * @param cursor - position of the previous lookup by the caller.
+	 * @return interpolated value.
+	 */
+	public double getInterpolatedCumulativeValueForTicks(long ticks, TSPoint cursor);
 }
@@ -0,0 +1,324 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.Samples;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.events.EventManager;
+
+/**
+ * Finds the position of a time or a cumulative value in the data for a time series that may
+ * repeat after a cycle time, and interpolates between the entries on either side of it.
+ * <p>
+ * A search starts from the position recorded by a cursor, so that a sequence of increasing
+ * times or values is processed in constant time on average. A binary search is used if the
+ * time or value has moved backwards or more than a few entries forwards.
+ */
+public class TimeSeriesSearch {
+
+	private final Entity ent;
+	private final TimeSeriesData data;
+	private final double cycleTime;
+	private final boolean cyclic;
+	private final long cycleTicks;
+	private final int last;
+
+	// Number of entries that a cursor is advanced before a binary search is used instead
+	private static final int MAX_STEPS = 8;
+
+	/**
+	 * Creates a search for the specified time series data.
+	 * @param ent - entity that reports any errors
+	 * @param data - time series data
+	 * @param cycleTime - time in seconds at which the series repeats, or infinity
+	 */
+	public TimeSeriesSearch(Entity ent, TimeSeriesData data, double cycleTime) {
+		this.ent = ent;
+		this.data = data;
+		this.cycleTime = cycleTime;
+		cyclic = cycleTime != Double.POSITIVE_INFINITY;
+		cycleTicks = EventManager.secsToNearestTick(cycleTime);
+		last = data.size() - 1;
+	}
+
+	/**
+	 * Returns true if this search was created for the specified data and cycle time.
+	 */
+	public boolean isFor(TimeSeriesData dat, double ct) {
+		return dat == data && ct == cycleTime;
+	}
+
+	/**
+	 * Sets the cursor to the position in the time series that corresponds to the specified
+	 * time in simulation clock ticks.
+	 * <p>
+	 * The position is the largest one whose ticks value is less than or equal to the
+	 * specified ticks.
+	 * @param ticks - simulation time in clock ticks.
+	 * @param pt - cursor to be set to the position in the time series.
+	 */
+	public void seekTicks(long ticks, TSPoint pt) {
+		if (ticks == Long.MAX_VALUE) {
+			pt.index = last;
+			pt.numberOfCycles = cyclic ? Long.MAX_VALUE : 0L;
+			return;
+		}
+
+		// Find the time within the present cycle
+		long firstTicks = data.getTicks(0);
+		pt.numberOfCycles = (ticks - firstTicks) / cycleTicks;
+		long ticksInCycle = (ticks - firstTicks) % cycleTicks + firstTicks;
+
+		// Step forward from the previous position
+		int k = pt.index;
+		if (k >= 0 && k <= last && data.getTicks(k) <= ticksInCycle) {
+			for (int n = 0; k < last && data.getTicks(k + 1) <= ticksInCycle; n++) {
+				if (n == MAX_STEPS) {
+					k = findTicks(ticksInCycle, ticks);
+					break;
+				}
+				k++;
+			}
+			pt.index = k;
+			return;
+		}
+
+		pt.index = findTicks(ticksInCycle, ticks);
+	}
+
+	private int findTicks(long ticksInCycle, long ticks) {
+
+		// If the time in the cycle is greater than the last time, return the last value
+		if (ticksInCycle >= data.getTicks(last))
+			return last;
+
+		// Find the index by binary search
+		int k = data.binarySearchTicks(ticksInCycle);
+
+		// If the returned index is greater or equal to zero,
+		// then an exact match was found
+		if (k >= 0)
+			return k;
+
+		if (k == -1)
+			ent.error("No value found at time: %f", EventManager.ticksToSecs(ticks));
+
+		// If the returned index is negative, then (insertion index) = -k-1
+		// Return the index before the insertion index
+		return -k - 2;
+	}
+
+	/**
+	 * Sets the cursor to the position in the time series that corresponds to the specified
+	 * value.
+	 * <p>
+	 * The time series values must increase monotonically. The position is the largest one
+	 * whose value is less than or equal to the specified value.
+	 * @param val - specified value.
+	 * @param pt - cursor to be set to the position in the time series.
+	 */
+	public void seekValue(double val, TSPoint pt) {
+		double maxValue = data.getMaxValue();
+		if (val > maxValue && !cyclic) {
+			pt.index = last;
+			pt.numberOfCycles = 0L;
+			return;
+		}
+
+		// Find the value within the present cycle
+		double valInCycle = val % maxValue;
+		pt.numberOfCycles = Math.round((val - valInCycle) / maxValue);
+
+		// Step forward from the previous position
+		int k = pt.index;
+		if (k >= 0 && k <= last && data.getValue(k) <= valInCycle) {
+			for (int n = 0; k < last && data.getValue(k + 1) <= valInCycle; n++) {
+				if (n == MAX_STEPS) {
+					k = findValue(valInCycle, val);
+					break;
+				}
+				k++;
+			}
+			pt.index = k;
+			return;
+		}
+
+		pt.index = findValue(valInCycle, val);
+	}
+
+	private int findValue(double valInCycle, double val) {
+
+		// If the value in the cycle is greater than or equal to the last value, return the last index
+		if (valInCycle >= data.getValue(last))
+			return last;
+
+		// Find the index by binary search
+		int k = data.binarySearchValue(valInCycle);
+
+		// If the returned index is greater or equal to zero,
+		// then an exact match was found
+		if (k >= 0)
+			return k;
+
+		if (k == -1)
+			ent.error("No entry found for value: %f", val);
+
+		// If the returned index is negative, then (insertion index) = -k-1
+		// Return the index before the insertion index
+		return -k - 2;
+	}
+
+	/**
+	 * Returns the simulation time in clock ticks for the specified position in
+	 * the time series.
+	 * @param index - index for the position in the time series.
+	 * @param numberOfCycles - number of passes through the time series data.
+	 * @return simulation time in clock ticks.
+	 */
+	public long getTicks(int index, long numberOfCycles) {
+		if (index == -1)
+			return Long.MAX_VALUE;
+		if (!cyclic)
+			return data.getTicks(index);
+		return data.getTicks(index) + numberOfCycles*cycleTicks;
+	}
+
+	/**
+	 * Returns the time series value for the specified position in the time
+	 * series.
+	 * @param index - index for the position in the time series.
+	 * @return value for the time series.
+	 */
+	public double getValue(int index) {
+		if (index == -1)
+			return data.getValue(last);
+		return data.getValue(index);
+	}
+
+	/**
+	 * Returns the total value for the time series at the specified position.
+	 * <p>
+	 * If a cycle time has been specified, then the total time increases
+	 * with each pass through the time series.
+	 * @param index - index for the position in the time series.
+	 * @param numberOfCycles - number of passes through the time series data.
+	 * @return total value for the time series.
+	 */
+	public double getCumulativeValue(int index, long numberOfCycles) {
+		if (!cyclic)
+			return getValue(index);
+		return getValue(index) + numberOfCycles*data.getMaxValue();
+	}
+
+	/**
+	 * Returns the index for the position in the time series that follows the specified
+	 * position.
+	 * <p>
+	 * An index of -1 is returned if the specified position is a the end
+	 * of the time series data and a cycle time is not specified.
+	 * @param index - index for the specified position in the time series.
+	 * @return index for the next position in the time series.
+	 */
+	public int getIndexAfter(int index) {
+		if (index == -1)
+			return -1;
+
+		if (index == last)
+			return cyclic ? 0 : -1;
+
+		return index + 1;
+	}
+
+	/**
+	 * Returns the number of cycles for the position in the time series that follows the
+	 * specified position.
+	 * @param index - index for the specified position in the time series.
+	 * @param numberOfCycles - number of cycles for the specified position.
+	 * @return number of cycles for the next position in the time series.
+	 */
+	public long getCyclesAfter(int index, long numberOfCycles) {
+		if (index == last && cyclic)
+			return numberOfCycles + 1;
+		return numberOfCycles;
+	}
+
+	/**
+	 * Returns the time at which the cumulative value reaches the specified value, interpolating
+	 * between the entries in the time series.
+	 * @param val - cumulative value
+	 * @param cursor - cursor for the search
+	 * @return simulation time in clock ticks, or Long.MAX_VALUE if the value is never reached
+	 */
+	public long getInterpolatedTicksForValue(double val, TSPoint cursor) {
+
+		seekValue(val, cursor);
+		int indLow = cursor.index;
+		long cyclesLow = cursor.numberOfCycles;
+		int indHigh = getIndexAfter(indLow);
+		long cyclesHigh = getCyclesAfter(indLow, cyclesLow);
+		if (indHigh == -1)
+			return Long.MAX_VALUE;
+
+		long ticksLow = getTicks(indLow, cyclesLow);
+		long ticksHigh = getTicks(indHigh, cyclesHigh);
+		double valueLow = getCumulativeValue(indLow, cyclesLow);
+		double valueHigh = getCumulativeValue(indHigh, cyclesHigh);
+
+		// The value at the end of the cycle is equal to the value at the start of the next cycle
+		if (valueHigh == valueLow) {
+			cyclesHigh = getCyclesAfter(indHigh, cyclesHigh);
+			indHigh = getIndexAfter(indHigh);
+			ticksHigh = getTicks(indHigh, cyclesHigh);
+			valueHigh = getCumulativeValue(indHigh, cyclesHigh);
+		}
+
+		return ticksLow + Math.round((val - valueLow)*(ticksHigh - ticksLow)/(valueHigh - valueLow));
+	}
+
+	/**
+	 * Returns the cumulative value at the specified time, interpolating between the entries in
+	 * the time series.
+	 * @param ticks - simulation time in clock ticks
+	 * @param cursor - cursor for the search
+	 * @return cumulative value at the specified time
+	 */
+	public double getInterpolatedCumulativeValueForTicks(long ticks, TSPoint cursor) {
+
+		seekTicks(ticks, cursor);
+		int indLow = cursor.index;
+		long cyclesLow = cursor.numberOfCycles;
+		int indHigh = getIndexAfter(indLow);
+		long cyclesHigh = getCyclesAfter(indLow, cyclesLow);
+		if (indHigh == -1)
+			return data.getValue(last);
+
+		long ticksLow = getTicks(indLow, cyclesLow);
+		long ticksHigh = getTicks(indHigh, cyclesHigh);
+		double valueLow = getCumulativeValue(indLow, cyclesLow);
+		double valueHigh = getCumulativeValue(indHigh, cyclesHigh);
+
+		// The value at the end of the cycle is equal to the value at the start of the next cycle
+		if (valueHigh == valueLow) {
+			cyclesHigh = getCyclesAfter(indHigh, cyclesHigh);
+			indHigh = getIndexAfter(indHigh);
+			ticksHigh = getTicks(indHigh, cyclesHigh);
+			valueHigh = getCumulativeValue(indHigh, cyclesHigh);
+		}
+
+		return valueLow + (ticks - ticksLow)*(valueHigh - valueLow)/(ticksHigh - ticksLow);
+	}
+
+}
@@ -0,0 +1,221 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.Statistics;
+
+import java.util.Arrays;
+
+import com.jaamsim.math.Erf;
+
+/**
+ * Estimates a confidence interval for the steady-state mean of a sequence of values collected
+ * during a single simulation run.
+ * <p>
+ * The values are grouped into consecutive batches of equal weight and the mean of each batch
+ * is treated as an independent observation. The batch size is selected automatically: when
+ * the maximum number of batches is reached, adjacent batches are combined and the batch size
+ * is doubled. When the confidence interval is calculated, adjacent batches are combined
+ * further for as long as the batch means show significant lag-1 correlation.
+ */
+public class BatchMeans {
+
+	private static final int MAX_BATCHES = 64;  // must be even
+	private static final int MIN_BATCHES = 10;  // smallest number used for a confidence interval
+
+	private final double initialBatchSize;
+	private double batchSize;
+	private final double[] batchMean = new double[MAX_BATCHES];
+	private int numBatches;
+	private long numBatchesCompleted;  // used to detect changes to the batch means
+	private double curSum;  // weighted sum of the values in the present batch
+	private double curWeight;  // total weight of the values in the present batch
+
+	private long lastBatchesCompleted = -1L;
+	private double lastLevel = Double.NaN;
+	private double lastHalfWidth = Double.NaN;
+
+	/**
+	 * Creates a batch means estimator with the specified initial batch size.
+	 * @param size - initial batch size, expressed as the number of values or as the total weight
+	 */
+	public BatchMeans(double size) {
+		initialBatchSize = size;
+		batchSize = size;
+	}
+
+	public void clear() {
+		batchSize = initialBatchSize;
+		numBatches = 0;
+		numBatchesCompleted = 0L;
+		curSum = 0.0d;
+		curWeight = 0.0d;
+		lastBatchesCompleted = -1L;
+	}
+
+	public void addValue(double val) {
+		addValue(val, 1.0d);
+	}
+
+	/**
+	 * Records a value with the specified weight. A value whose weight spans the end of the
+	 * present batch is divided between the batches.
+	 * @param val - value to be recorded
+	 * @param w - weight for the value, such as the time for which the value was held
+	 */
+	public void addValue(double val, double w) {
+		if (Double.isNaN(val))
+			return;
+		while (w > 0.0d) {
+			double dw = Math.min(w, batchSize - curWeight);
+			curSum += val*dw;
+			curWeight += dw;
+			w -= dw;
+			if (curWeight >= batchSize*(1.0d - 1.0e-12d))
+				completeBatch();
+		}
+	}
+
+	private void completeBatch() {
+		batchMean[numBatches] = curSum/curWeight;
+		numBatches++;
+		numBatchesCompleted++;
+		curSum = 0.0d;
+		curWeight = 0.0d;
+
+		// Combine adjacent batches when the maximum number is reached
+		if (numBatches == MAX_BATCHES) {
+			numBatches = combine(batchMean, numBatches);
+			batchSize *= 2.0d;
+		}
+	}
+
+	private static int combine(double[] means, int n) {
+		int ret = n/2;
+		for (int i = 0; i < ret; i++) {
+			means[i] = 0.5d*(means[2*i] + means[2*i + 1]);
+		}
+		return ret;
+	}
+
+	public int getNumberOfBatches() {
+		return numBatches;
+	}
+
+	public double getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Returns the mean of the completed batches.
+	 * @return mean value, or NaN if no batches have been completed
+	 */
+	public double getMean() {
+		if (numBatches == 0)
+			return Double.NaN;
+		double sum = 0.0d;
+		for (int i = 0; i < numBatches; i++) {
+			sum += batchMean[i];
+		}
+		return sum/numBatches;
+	}
+
+	/**
+	 * Returns the half-width of the confidence interval for the mean.
+	 * @param level - confidence level, such as 0.95
+	 * @return half-width, or NaN if there are too few batches to estimate it
+	 */
+	public double getHalfWidth(double level) {
+		if (numBatchesCompleted == lastBatchesCompleted && level == lastLevel)
+			return lastHalfWidth;
+		lastBatchesCompleted = numBatchesCompleted;
+		lastLevel = level;
+		lastHalfWidth = calcHalfWidth(level);
+		return lastHalfWidth;
+	}
+
+	private double calcHalfWidth(double level) {
+		int n = numBatches;
+		if (n < MIN_BATCHES)
+			return Double.NaN;
+
+		// Combine adjacent batches while the batch means are correlated
+		double[] means = Arrays.copyOf(batchMean, n);
+		while (n >= 2*MIN_BATCHES && getLag1Correlation(means, n) > 1.645d/Math.sqrt(n)) {
+			n = combine(means, n);
+		}
+
+		double mean = 0.0d;
+		for (int i = 0; i < n; i++) {
+			mean += means[i];
+		}
+		mean /= n;
+		double sumSq = 0.0d;
+		for (int i = 0; i < n; i++) {
+			sumSq += (means[i] - mean)*(means[i] - mean);
+		}
+		double sd = Math.sqrt(sumSq/(n - 1));
+		return getStudentTQuantile(0.5d*(1.0d + level), n - 1) * sd/Math.sqrt(n);
+	}
+
+	/**
+	 * Returns the lag-1 autocorrelation of the completed batch means.
+	 * @return autocorrelation, or NaN if there are fewer than two batches
+	 */
+	public double getLag1Correlation() {
+		if (numBatches < 2)
+			return Double.NaN;
+		return getLag1Correlation(batchMean, numBatches);
+	}
+
+	private static double getLag1Correlation(double[] vals, int n) {
+		double mean = 0.0d;
+		for (int i = 0; i < n; i++) {
+			mean += vals[i];
+		}
+		mean /= n;
+		double num = 0.0d;
+		double den = 0.0d;
+		for (int i = 0; i < n; i++) {
+			double dev = vals[i] - mean;
+			den += dev*dev;
+			if (i < n - 1)
+				num += dev*(vals[i + 1] - mean);
+		}
+		if (den == 0.0d)
+			return 0.0d;
+		return num/den;
+	}
+
+	/**
+	 * Returns the inverse of the cumulative distribution function for the Student's t
+	 * distribution, calculated from the Cornish-Fisher expansion about the normal distribution.
+	 * (Abramowitz and Stegun 26.7.5).
+	 * @param p - cumulative probability
+	 * @param dof - degrees of freedom
+	 * @return t value
+	 */
+	public static double getStudentTQuantile(double p, int dof) {
+		double z = Erf.normalQuantile(p);
+		double z2 = z*z;
+		double g1 = z*(z2 + 1.0d)/4.0d;
+		double g2 = z*((5.0d*z2 + 16.0d)*z2 + 3.0d)/96.0d;
+		double g3 = z*(((3.0d*z2 + 19.0d)*z2 + 17.0d)*z2 - 15.0d)/384.0d;
+		double g4 = z*((((79.0d*z2 + 776.0d)*z2 + 1482.0d)*z2 - 1920.0d)*z2 - 945.0d)/92160.0d;
+		double v = dof;
+		return z + g1/v + g2/(v*v) + g3/(v*v*v) + g4/(v*v*v*v);
+	}
+
+}
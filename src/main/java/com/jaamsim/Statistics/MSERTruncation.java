@@ -0,0 +1,125 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.Statistics;
+
+/**
+ * Detects the end of the initial transient in a sequence of observations using the MSER-5 rule
+ * (Marginal Standard Error Rule applied to batches of five observations).
+ * <p>
+ * For each candidate truncation point d, the rule calculates the squared standard error of the
+ * mean of the batches that follow d. The truncation point is the value of d that minimises
+ * this quantity, provided that it lies in the first half of the data. Otherwise, the run is
+ * too short for the transient to have been identified. A truncation point is not accepted
+ * until there are enough batches to follow it, or if the batches that follow it are all equal.
+ * Observations that have not yet changed from their initial value give no evidence that the
+ * transient has ended.
+ * <p>
+ * The batch means are stored in a buffer of fixed size. When the buffer is full, adjacent
+ * batches are combined and the number of observations per batch is doubled.
+ */
+public class MSERTruncation {
+
+	private static final int BATCH_SIZE = 5;     // initial number of observations per batch
+	private static final int MAX_BATCHES = 1000; // must be even
+	private static final int MIN_BATCHES = 20;   // smallest number to follow a truncation point
+
+	private final double[] batchMean = new double[MAX_BATCHES];
+	private int numBatches;
+	private int obsPerBatch;
+	private double curSum;  // sum of the observations in the present batch
+	private int curCount;   // number of observations in the present batch
+
+	public MSERTruncation() {
+		clear();
+	}
+
+	public void clear() {
+		numBatches = 0;
+		obsPerBatch = BATCH_SIZE;
+		curSum = 0.0d;
+		curCount = 0;
+	}
+
+	public void addValue(double val) {
+		curSum += val;
+		curCount++;
+		if (curCount < obsPerBatch)
+			return;
+
+		batchMean[numBatches] = curSum/curCount;
+		numBatches++;
+		curSum = 0.0d;
+		curCount = 0;
+
+		// Combine adjacent batches when the buffer is full
+		if (numBatches == MAX_BATCHES) {
+			numBatches /= 2;
+			for (int i = 0; i < numBatches; i++) {
+				batchMean[i] = 0.5d*(batchMean[2*i] + batchMean[2*i + 1]);
+			}
+			obsPerBatch *= 2;
+		}
+	}
+
+	/**
+	 * Returns the number of observations that have been grouped into completed batches.
+	 * @return number of observations
+	 */
+	public long getNumberOfObservations() {
+		return (long) numBatches * obsPerBatch;
+	}
+
+	/**
+	 * Returns the number of initial observations that should be deleted to remove the
+	 * initialization bias.
+	 * @return number of observations to be deleted, or -1 if the truncation point cannot yet
+	 * be determined
+	 */
+	public long getTruncationPoint() {
+		int n = numBatches;
+		if (n < 2*MIN_BATCHES)
+			return -1L;
+
+		// Evaluate the statistic for each truncation point, working back from the last batch
+		double sum = 0.0d;
+		double sumSq = 0.0d;
+		double lo = Double.POSITIVE_INFINITY;
+		double hi = Double.NEGATIVE_INFINITY;
+		double minVal = Double.POSITIVE_INFINITY;
+		int best = -1;
+		boolean varies = false;
+		for (int d = n - 1; d >= 0; d--) {
+			sum += batchMean[d];
+			sumSq += batchMean[d]*batchMean[d];
+			lo = Math.min(lo, batchMean[d]);
+			hi = Math.max(hi, batchMean[d]);
+			int m = n - d;
+			double val = Math.max(sumSq - sum*sum/m, 0.0d)/((double) m*m);
+			if (d <= n/2 && val <= minVal) {
+				minVal = val;
+				best = d;
+				varies = hi > lo;
+			}
+		}
+
+		// A minimum at the end of the permitted range indicates that the transient continues
+		if (best >= n/2 || !varies)
+			return -1L;
+		return (long) best * obsPerBatch;
+	}
+
+}
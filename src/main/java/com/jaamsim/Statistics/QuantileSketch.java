@@ -0,0 +1,319 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.Statistics;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the quantiles of a sequence of values using a bounded amount of memory.
+ * <p>
+ * The values are summarised by a t-digest: a sorted list of centroids, each with a mean and a
+ * weight, whose size is limited by the compression parameter. The centroids near either end
+ * of the distribution are kept small so that extreme quantiles, such as the 99th percentile,
+ * remain accurate. Each value can be given a weight, which allows time-weighted quantiles to be
+ * estimated, and two sketches can be merged, which allows quantiles to be estimated for the
+ * combined results of several simulation runs.
+ */
+public class QuantileSketch {
+
+	private final double compression;
+
+	private double[] mean;    // centroid means in increasing order
+	private double[] weight;  // centroid weights
+	private int numCentroids;
+
+	private final double[] bufMean;    // values that have not been merged into the centroids
+	private final double[] bufWeight;
+	private int numBuf;
+
+	private double totalWeight;
+	private double minVal = Double.NaN;
+	private double maxVal = Double.NaN;
+
+	public QuantileSketch() {
+		this(100.0d);
+	}
+
+	/**
+	 * Creates a sketch with the specified compression. The number of centroids retained is
+	 * approximately one half of the compression value.
+	 * @param comp - compression value
+	 */
+	public QuantileSketch(double comp) {
+		compression = comp;
+		int size = (int) Math.ceil(compression) + 10;
+		mean = new double[size];
+		weight = new double[size];
+		bufMean = new double[5*size];
+		bufWeight = new double[5*size];
+	}
+
+	/**
+	 * Creates a copy of the specified sketch.
+	 * @param sketch - sketch to be copied
+	 */
+	public QuantileSketch(QuantileSketch sketch) {
+		this(sketch.compression);
+		this.merge(sketch);
+	}
+
+	public void clear() {
+		numCentroids = 0;
+		numBuf = 0;
+		totalWeight = 0.0d;
+		minVal = Double.NaN;
+		maxVal = Double.NaN;
+	}
+
+	public void addValue(double val) {
+		addValue(val, 1.0d);
+	}
+
+	/**
+	 * Records a value with the specified weight. Values with a weight of zero are ignored.
+	 * @param val - value to be recorded
+	 * @param w - weight for the value, such as the time for which the value was held
+	 */
+	public void addValue(double val, double w) {
+		if (w <= 0.0d || Double.isNaN(val))
+			return;
+
+		if (numBuf == bufMean.length)
+			compress();
+
+		bufMean[numBuf] = val;
+		bufWeight[numBuf] = w;
+		numBuf++;
+		totalWeight += w;
+
+		if (Double.isNaN(minVal) || val < minVal) {
+			minVal = val;
+		}
+		if (Double.isNaN(maxVal) || val > maxVal) {
+			maxVal = val;
+		}
+	}
+
+	/**
+	 * Adds the values recorded by another sketch to this one.
+	 * @param sketch - sketch to be merged
+	 */
+	public void merge(QuantileSketch sketch) {
+		sketch.compress();
+		for (int i = 0; i < sketch.numCentroids; i++) {
+			addValue(sketch.mean[i], sketch.weight[i]);
+		}
+		if (sketch.totalWeight == 0.0d)
+			return;
+		if (Double.isNaN(minVal) || sketch.minVal < minVal) {
+			minVal = sketch.minVal;
+		}
+		if (Double.isNaN(maxVal) || sketch.maxVal > maxVal) {
+			maxVal = sketch.maxVal;
+		}
+	}
+
+	public double getTotalWeight() {
+		return totalWeight;
+	}
+
+	public double getMin() {
+		return minVal;
+	}
+
+	public double getMax() {
+		return maxVal;
+	}
+
+	/**
+	 * Returns the number of centroids used to summarise the values.
+	 * @return number of centroids
+	 */
+	public int getCentroidCount() {
+		compress();
+		return numCentroids;
+	}
+
+	/**
+	 * Returns the estimated value below which the specified fraction of the total weight lies.
+	 * @param p - cumulative probability between 0 and 1
+	 * @return estimated quantile, or NaN if no values have been recorded
+	 */
+	public double getQuantile(double p) {
+		compress();
+		if (numCentroids == 0)
+			return Double.NaN;
+		if (p <= 0.0d)
+			return minVal;
+		if (p >= 1.0d)
+			return maxVal;
+
+		// Each centroid's mean is placed at the middle of its weight, with the minimum and
+		// maximum values at either end, and the quantile is interpolated between these points
+		double index = p * totalWeight;
+		double left = weight[0]/2.0d;
+		if (index < left)
+			return interpolate(index, 0.0d, minVal, left, mean[0]);
+
+		double cum = 0.0d;
+		for (int i = 0; i < numCentroids - 1; i++) {
+			double right = cum + weight[i] + weight[i + 1]/2.0d;
+			if (index < right)
+				return interpolate(index, left, mean[i], right, mean[i + 1]);
+			cum += weight[i];
+			left = right;
+		}
+
+		return interpolate(index, left, mean[numCentroids - 1], totalWeight, maxVal);
+	}
+
+	/**
+	 * Returns the estimated quantiles for each of the specified probabilities.
+	 * @param probs - cumulative probabilities between 0 and 1
+	 * @return estimated quantiles
+	 */
+	public double[] getQuantiles(double[] probs) {
+		double[] ret = new double[probs.length];
+		for (int i = 0; i < probs.length; i++) {
+			ret[i] = getQuantile(probs[i]);
+		}
+		return ret;
+	}
+
+	private static double interpolate(double x, double x0, double y0, double x1, double y1) {
+		if (x1 <= x0)
+			return y0;
+		return y0 + (y1 - y0)*(x - x0)/(x1 - x0);
+	}
+
+	/**
+	 * Merges the buffered values into the list of centroids.
+	 */
+	private void compress() {
+		if (numBuf == 0)
+			return;
+
+		// Merge the sorted buffer with the existing centroids
+		sort(bufMean, bufWeight, 0, numBuf - 1);
+		int n = numCentroids + numBuf;
+		double[] inMean = new double[n];
+		double[] inWeight = new double[n];
+		int i = 0, j = 0;
+		for (int k = 0; k < n; k++) {
+			if (j >= numBuf || (i < numCentroids && mean[i] <= bufMean[j])) {
+				inMean[k] = mean[i];
+				inWeight[k] = weight[i];
+				i++;
+			}
+			else {
+				inMean[k] = bufMean[j];
+				inWeight[k] = bufWeight[j];
+				j++;
+			}
+		}
+		numBuf = 0;
+
+		// Combine adjacent values as long as each centroid spans no more than one unit of the
+		// scale function
+		numCentroids = 0;
+		double curMean = inMean[0];
+		double curWeight = inWeight[0];
+		double weightSoFar = 0.0d;
+		double weightLimit = totalWeight * inverseScale(scale(0.0d) + 1.0d);
+		for (int k = 1; k < n; k++) {
+			if (weightSoFar + curWeight + inWeight[k] <= weightLimit) {
+				curWeight += inWeight[k];
+				curMean += (inMean[k] - curMean)*inWeight[k]/curWeight;
+				continue;
+			}
+			addCentroid(curMean, curWeight);
+			weightSoFar += curWeight;
+			weightLimit = totalWeight * inverseScale(scale(weightSoFar/totalWeight) + 1.0d);
+			curMean = inMean[k];
+			curWeight = inWeight[k];
+		}
+		addCentroid(curMean, curWeight);
+	}
+
+	private void addCentroid(double m, double w) {
+		if (numCentroids == mean.length) {
+			mean = Arrays.copyOf(mean, 2*mean.length);
+			weight = Arrays.copyOf(weight, 2*weight.length);
+		}
+		mean[numCentroids] = m;
+		weight[numCentroids] = w;
+		numCentroids++;
+	}
+
+	/**
+	 * Scale function that determines the maximum size of a centroid at the specified quantile.
+	 */
+	private double scale(double q) {
+		return compression/(2.0d*Math.PI) * Math.asin(2.0d*q - 1.0d);
+	}
+
+	private double inverseScale(double k) {
+		if (k >= compression/4.0d)
+			return 1.0d;
+		return (Math.sin(k*2.0d*Math.PI/compression) + 1.0d)/2.0d;
+	}
+
+	/**
+	 * Sorts the values and their weights in order of increasing value.
+	 */
+	private static void sort(double[] vals, double[] wts, int lo, int hi) {
+		while (hi - lo > 16) {
+			double pivot = vals[(lo + hi) >>> 1];
+			int i = lo, j = hi;
+			while (i <= j) {
+				while (vals[i] < pivot) i++;
+				while (vals[j] > pivot) j--;
+				if (i <= j) {
+					swap(vals, wts, i, j);
+					i++;
+					j--;
+				}
+			}
+
+			// Recurse on the smaller part to limit the stack depth
+			if (j - lo < hi - i) {
+				sort(vals, wts, lo, j);
+				lo = i;
+			}
+			else {
+				sort(vals, wts, i, hi);
+				hi = j;
+			}
+		}
+
+		for (int i = lo + 1; i <= hi; i++) {
+			for (int j = i; j > lo && vals[j - 1] > vals[j]; j--) {
+				swap(vals, wts, j - 1, j);
+			}
+		}
+	}
+
+	private static void swap(double[] vals, double[] wts, int i, int j) {
+		double v = vals[i];
+		vals[i] = vals[j];
+		vals[j] = v;
+		double w = wts[i];
+		wts[i] = wts[j];
+		wts[j] = w;
+	}
+
+}
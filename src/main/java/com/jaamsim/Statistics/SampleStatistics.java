@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,15 +23,37 @@ public class SampleStatistics {
 	private double sumSquared;
 	private double minVal = Double.NaN;
 	private double maxVal = Double.NaN;
+	private BatchMeans batchMeans;  // null unless a confidence interval is required
 
 	public SampleStatistics() {}
 
+	/**
+	 * Specifies whether the values are to be grouped into batches so that a confidence interval
+	 * for the steady-state mean can be estimated.
+	 * @param bool - true if batch means are required
+	 */
+	public void setBatchMeansEnabled(boolean bool) {
+		if (bool == (batchMeans != null))
+			return;
+		batchMeans = bool ? new BatchMeans(1.0d) : null;
+	}
+
+	/**
+	 * Returns the batch means for the values, or null if they have not been enabled.
+	 * @return batch means
+	 */
+	public BatchMeans getBatchMeans() {
+		return batchMeans;
+	}
+
 	public void clear() {
 		count = 0L;
 		sum = 0.0d;
 		sumSquared = 0.0d;
 		minVal = Double.NaN;
 		maxVal = Double.NaN;
+		if (batchMeans != null)
+			batchMeans.clear();
 	}
 
 	public void addValue(double val) {
@@ -44,6 +66,8 @@ public class SampleStatistics {
 		if (Double.isNaN(maxVal) || val > maxVal) {
 			maxVal = val;
 		}
+		if (batchMeans != null)
+			batchMeans.addValue(val);
 	}
 
 	public long getCount() {
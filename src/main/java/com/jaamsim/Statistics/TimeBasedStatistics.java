@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
  */
 package com.jaamsim.Statistics;
 
+import java.util.Arrays;
+
 public class TimeBasedStatistics {
 
 	private double startTime;
@@ -25,9 +27,41 @@ public class TimeBasedStatistics {
 	private double maxVal = Double.NaN;
 	private double weightedSum;
 	private double weightedSumSquared;
+	private QuantileSketch sketch;  // null unless quantiles are required
+	private BatchMeans batchMeans;  // null unless a confidence interval is required
 
 	public TimeBasedStatistics() {}
 
+	/**
+	 * Specifies whether the time-weighted quantiles of the values are to be estimated.
+	 * @param bool - true if quantiles are required
+	 */
+	public void setQuantilesEnabled(boolean bool) {
+		if (bool == (sketch != null))
+			return;
+		sketch = bool ? new QuantileSketch() : null;
+	}
+
+	/**
+	 * Specifies whether the values are to be grouped into batches of equal duration so that a
+	 * confidence interval for the steady-state time-weighted mean can be estimated.
+	 * @param bool - true if batch means are required
+	 * @param dt - initial batch duration
+	 */
+	public void setBatchMeansEnabled(boolean bool, double dt) {
+		if (bool == (batchMeans != null))
+			return;
+		batchMeans = bool ? new BatchMeans(dt) : null;
+	}
+
+	/**
+	 * Returns the batch means for the values, or null if they have not been enabled.
+	 * @return batch means
+	 */
+	public BatchMeans getBatchMeans() {
+		return batchMeans;
+	}
+
 	public void clear() {
 		startTime = 0.0d;
 		lastTime = 0.0d;
@@ -36,6 +70,10 @@ public class TimeBasedStatistics {
 		maxVal = Double.NaN;
 		weightedSum = 0.0d;
 		weightedSumSquared = 0.0d;
+		if (sketch != null)
+			sketch.clear();
+		if (batchMeans != null)
+			batchMeans.clear();
 	}
 
 	public void addValue(double t, double val) {
@@ -46,6 +84,10 @@ public class TimeBasedStatistics {
 			double dt = t - lastTime;
 			weightedSum += dt * lastVal;
 			weightedSumSquared += dt * lastVal * lastVal;
+			if (sketch != null)
+				sketch.addValue(lastVal, dt);
+			if (batchMeans != null)
+				batchMeans.addValue(lastVal, dt);
 		}
 		if (Double.isNaN(minVal) || val < minVal) {
 			minVal = val;
@@ -92,4 +134,34 @@ public class TimeBasedStatistics {
 		return Math.sqrt(getVariance(t));
 	}
 
+	/**
+	 * Returns a sketch of the time-weighted distribution of the values up to the specified time,
+	 * or null if quantiles have not been enabled.
+	 * @param t - present time
+	 * @return quantile sketch
+	 */
+	public QuantileSketch getQuantileSketch(double t) {
+		if (sketch == null)
+			return null;
+		QuantileSketch ret = new QuantileSketch(sketch);
+		if (!Double.isNaN(lastVal))
+			ret.addValue(lastVal, t - lastTime);
+		return ret;
+	}
+
+	/**
+	 * Returns the estimated time-weighted quantiles of the values up to the specified time.
+	 * @param t - present time
+	 * @param probs - cumulative probabilities between 0 and 1
+	 * @return estimated quantiles, or NaN values if quantiles have not been enabled
+	 */
+	public double[] getQuantiles(double t, double[] probs) {
+		if (sketch == null) {
+			double[] ret = new double[probs.length];
+			Arrays.fill(ret, Double.NaN);
+			return ret;
+		}
+		return getQuantileSketch(t).getQuantiles(probs);
+	}
+
 }
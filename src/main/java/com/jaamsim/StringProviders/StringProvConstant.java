@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
  */
 package com.jaamsim.StringProviders;
 
+import com.jaamsim.basicsim.LogWriter;
+import com.jaamsim.input.ExpResult;
+
 public class StringProvConstant implements StringProvider {
 
 	private final String val;
@@ -44,6 +47,16 @@ public class StringProvConstant implements StringProvider {
 		return String.format(fmt, val);
 	}
 
+	@Override
+	public void appendNextString(double simTime, LogWriter log) {
+		log.append(val);
+	}
+
+	@Override
+	public ExpResult getNextResult(double simTime) {
+		return ExpResult.makeStringResult(val);
+	}
+
 	@Override
 	public String toString() {
 		return val;
@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2016-2019 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,13 @@ package com.jaamsim.StringProviders;
 
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.basicsim.LogWriter;
 import com.jaamsim.input.ExpError;
 import com.jaamsim.input.ExpEvaluator;
 import com.jaamsim.input.ExpParser;
 import com.jaamsim.input.ExpResult;
 import com.jaamsim.input.ExpParser.Expression;
+import com.jaamsim.input.ExpResType;
 import com.jaamsim.units.Unit;
 
 public class StringProvExpression implements StringProvider {
@@ -51,42 +53,64 @@ public class StringProvExpression implements StringProvider {
 
 	@Override
 	public String getNextString(double simTime, double siFactor, boolean integerValue) {
-		String ret = "";
+		return getString(getNextResult(simTime), siFactor, integerValue);
+	}
+
+	@Override
+	public void appendNextString(double simTime, LogWriter log) {
+		ExpResult result = getNextResult(simTime);
+		if (result.type == ExpResType.NUMBER && result.unitType == unitType) {
+			log.append(result.value);
+			return;
+		}
+		if (result.type == ExpResType.ENTITY) {
+			log.append(result.entVal);
+			return;
+		}
+		log.append(getString(result, 1.0d, false));
+	}
+
+	@Override
+	public ExpResult getNextResult(double simTime) {
 		try {
-			ExpResult result = ExpEvaluator.evaluateExpression(exp, simTime);
-			switch (result.type) {
-			case STRING:
-				ret = result.stringVal;
-				break;
-			case ENTITY:
-				ret = "null";
-				if (result.entVal != null)
-					ret = result.entVal.getName();
-				break;
-			case NUMBER:
-				if (result.unitType != unitType) {
-					ret = result.toString();
-					break;
-				}
-				if (integerValue) {
-					ret = Double.toString((int)(result.value/siFactor));
-				}
-				else {
-					ret = Double.toString(result.value/siFactor);
-				}
-				break;
-			case COLLECTION:
-				ret = result.colVal.getOutputString();
-				break;
-			default:
-				assert(false);
-				ret = "???";
-				break;
-			}
+			return ExpEvaluator.evaluateExpression(exp, simTime);
 		}
 		catch(ExpError e) {
 			throw new ErrorException(thisEnt, e);
 		}
+	}
+
+	private String getString(ExpResult result, double siFactor, boolean integerValue) {
+		String ret = "";
+		switch (result.type) {
+		case STRING:
+			ret = result.stringVal;
+			break;
+		case ENTITY:
+			ret = "null";
+			if (result.entVal != null)
+				ret = result.entVal.getName();
+			break;
+		case NUMBER:
+			if (result.unitType != unitType) {
+				ret = result.toString();
+				break;
+			}
+			if (integerValue) {
+				ret = Double.toString((int)(result.value/siFactor));
+			}
+			else {
+				ret = Double.toString(result.value/siFactor);
+			}
+			break;
+		case COLLECTION:
+			ret = result.colVal.getOutputString();
+			break;
+		default:
+			assert(false);
+			ret = "???";
+			break;
+		}
 		return ret;
 	}
 
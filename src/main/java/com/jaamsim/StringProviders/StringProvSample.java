@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2015 Ausenco Engineering Canada Inc.
- * Copyright (C) 2017-2018 JaamSim Software Inc.
+ * Copyright (C) 2017-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@
 package com.jaamsim.StringProviders;
 
 import com.jaamsim.Samples.SampleProvider;
+import com.jaamsim.basicsim.LogWriter;
+import com.jaamsim.input.ExpResult;
 
 public class StringProvSample implements StringProvider {
 	private final SampleProvider samp;
@@ -51,6 +53,16 @@ public class StringProvSample implements StringProvider {
 		return String.format(fmt, samp.getNextSample(simTime)/siFactor);
 	}
 
+	@Override
+	public void appendNextString(double simTime, LogWriter log) {
+		log.append(samp.getNextSample(simTime));
+	}
+
+	@Override
+	public ExpResult getNextResult(double simTime) {
+		return ExpResult.makeNumResult(samp.getNextSample(simTime), samp.getUnitType());
+	}
+
 	@Override
 	public String toString() {
 		return samp.toString();
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2015 Ausenco Engineering Canada Inc.
- * Copyright (C) 2017-2018 JaamSim Software Inc.
+ * Copyright (C) 2017-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,9 @@
  */
 package com.jaamsim.StringProviders;
 
+import com.jaamsim.basicsim.LogWriter;
+import com.jaamsim.input.ExpResult;
+
 public interface StringProvider {
 
 	public String getNextString(double simTime);
@@ -24,4 +27,21 @@ public interface StringProvider {
 	public String getNextString(double simTime, double siFactor, boolean bool);
 
 	public String getNextString(double simTime, String fmt, double siFactor);
+
+	/**
+	 * Appends the string returned by getNextString(simTime) to the specified log. A number is
+	 * appended without being converted to text so that the conversion can be performed by the
+	 * thread that writes the log.
+	 * @param simTime - present simulation time
+	 * @param log - log to which the string is appended
+	 */
+	public void appendNextString(double simTime, LogWriter log);
+
+	/**
+	 * Returns the value whose string is returned by getNextString(simTime). A number is returned
+	 * in SI units together with its unit type.
+	 * @param simTime - present simulation time
+	 * @return value of the string provider
+	 */
+	public ExpResult getNextResult(double simTime);
 }
@@ -28,10 +28,14 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.math.Color4d;
 import com.jaamsim.states.StateEntity;
+import com.jaamsim.states.StateHandle;
 import com.jaamsim.units.DimensionlessUnit;
 
 public class Threshold extends StateEntity {
 
+	private static final StateHandle OPEN_HANDLE = StateHandle.get("Open");
+	private static final StateHandle CLOSED_HANDLE = StateHandle.get("Closed");
+
 	@Keyword(description = "The colour of the threshold graphic when the threshold is open.",
 	         exampleList = { "green" })
 	private final ColourInput openColour;
@@ -128,11 +132,11 @@ public class Threshold extends StateEntity {
 
 		open = bool;
 		if (open) {
-			setPresentState("Open");
+			setPresentState(OPEN_HANDLE);
 			openCount++;
 		}
 		else {
-			setPresentState("Closed");
+			setPresentState(CLOSED_HANDLE);
 			closedCount++;
 		}
 
@@ -183,8 +187,8 @@ public class Threshold extends StateEntity {
 	    sequence = 1)
 	public double getOpenFraction(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		long openTicks = this.getTicksInState(simTicks, getState("Open"));
-		long closedTicks = this.getTicksInState(simTicks, getState("Closed"));
+		long openTicks = this.getTicksInState(simTicks, getState(OPEN_HANDLE));
+		long closedTicks = this.getTicksInState(simTicks, getState(CLOSED_HANDLE));
 		long totTicks = openTicks + closedTicks;
 
 		return (double)openTicks / totTicks;
@@ -196,8 +200,8 @@ public class Threshold extends StateEntity {
 	    sequence = 2)
 	public double getClosedFraction(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		long openTicks = this.getTicksInState(simTicks, getState("Open"));
-		long closedTicks = this.getTicksInState(simTicks, getState("Closed"));
+		long openTicks = this.getTicksInState(simTicks, getState(OPEN_HANDLE));
+		long closedTicks = this.getTicksInState(simTicks, getState(CLOSED_HANDLE));
 		long totTicks = openTicks + closedTicks;
 
 		return (double)closedTicks / totTicks;
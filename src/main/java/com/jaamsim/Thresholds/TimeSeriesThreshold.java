@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
  */
 package com.jaamsim.Thresholds;
 
+import com.jaamsim.Samples.TSPoint;
 import com.jaamsim.Samples.TimeSeries;
 import com.jaamsim.Samples.TimeSeriesConstantDouble;
 import com.jaamsim.basicsim.EntityTarget;
@@ -165,6 +166,9 @@ public class TimeSeriesThreshold extends Threshold {
 
 	private final ProcessTarget doOpenClose = new DoOpenCloseTarget(this, "doOpenClose");
 
+	// Positions of the last lookups in TimeSeries, MaxOpenLimit, and MinOpenLimit
+	private final TSPoint[] simCursors = { new TSPoint(), new TSPoint(), new TSPoint() };
+
 	/**
 	 * The process loop that opens and closes the threshold.
 	 */
@@ -423,12 +427,26 @@ public class TimeSeriesThreshold extends Threshold {
 	 * @return the next time in clock ticks that a change will occur
 	 */
 	private long getNextChangeAfterTicks(long ticks) {
-		long firstChange = timeSeries.getValue().getNextChangeAfterTicks(ticks);
-		firstChange = Math.min(firstChange, maxOpenLimit.getValue().getNextChangeAfterTicks(ticks));
-		firstChange = Math.min(firstChange, minOpenLimit.getValue().getNextChangeAfterTicks(ticks));
+		TSPoint[] cursors = getCursors();
+		long firstChange = timeSeries.getValue().getNextChangeAfterTicks(ticks, cursors[0]);
+		firstChange = Math.min(firstChange, maxOpenLimit.getValue().getNextChangeAfterTicks(ticks, cursors[1]));
+		firstChange = Math.min(firstChange, minOpenLimit.getValue().getNextChangeAfterTicks(ticks, cursors[2]));
 		return firstChange;
 	}
 
+	/**
+	 * Returns the cursors used to look up times in the TimeSeries, MaxOpenLimit, and
+	 * MinOpenLimit time series. The cursors are retained between lookups made by the
+	 * simulation thread, which are usually for increasing times. Other threads, such as the
+	 * one that displays the outputs, use new cursors.
+	 * @return cursors for the three time series
+	 */
+	private TSPoint[] getCursors() {
+		if (EventManager.hasCurrent())
+			return simCursors;
+		return new TSPoint[] { new TSPoint(), new TSPoint(), new TSPoint() };
+	}
+
 	/**
 	 * Returns the largest time in TimeSeries, MaxOpenLimit, and MinOpenLimit time series.
 	 * This value is used to determine whether the series has cycled around once while finding the next open/close time.
@@ -449,9 +467,10 @@ public class TimeSeriesThreshold extends Threshold {
 	 */
 	private boolean isPointOpenAtTicks(long ticks) {
 
-		double value = timeSeries.getValue().getValueForTicks(ticks);
-		double minOpenLimitVal = minOpenLimit.getValue().getValueForTicks(ticks);
-		double maxOpenLimitVal = maxOpenLimit.getValue().getValueForTicks(ticks);
+		TSPoint[] cursors = getCursors();
+		double value = timeSeries.getValue().getValueForTicks(ticks, cursors[0]);
+		double minOpenLimitVal = minOpenLimit.getValue().getValueForTicks(ticks, cursors[2]);
+		double maxOpenLimitVal = maxOpenLimit.getValue().getValueForTicks(ticks, cursors[1]);
 
 		// Error check that threshold limits remain consistent
 		if (minOpenLimitVal > maxOpenLimitVal)
@@ -0,0 +1,267 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputErrorException;
+
+/**
+ * Records the event trace for a simulation run in a compact binary format.
+ * <p>
+ * The file starts with the integers MAGIC and VERSION, and is followed by one entry for each
+ * trace. An entry starts with its type, followed by the index of the EventManager's name and the
+ * change in the trace's simulation tick from the previous entry. Entries with an event tick and
+ * priority are followed by the difference between the event tick and the trace's tick, and by
+ * the priority. Entries with a description are followed by the index of the description.
+ * Names and descriptions are stored once, in a STRING entry that precedes the first entry that
+ * uses them, and are numbered in the order they appear. The number of strings held in the table
+ * is limited, since the descriptions include the names of generated entities. When the limit is
+ * reached, a RESET entry is written and the numbering starts again from zero. All the numbers
+ * are variable-length integers, with the signed values zig-zag encoded.
+ * <p>
+ * The trace callbacks are made by the EventManager while it holds its lock, so there is only one
+ * writer at any time and the entries are encoded directly to a buffer without further
+ * synchronization. The trace can be converted to the text format written by EventRecorder using
+ * BinaryEventTraceReader.
+ */
+public class BinaryEventRecorder implements EventTraceListener, Closeable {
+
+	static final int MAGIC = 0x4A455642;  // "JEVB"
+	static final int VERSION = 2;
+	public static final String EXTENSION = ".evb";
+
+	// Entry types
+	static final byte EVENT = 0;
+	static final byte WAIT = 1;
+	static final byte SCHED_PROCESS = 2;
+	static final byte PROCESS_START = 3;
+	static final byte PROCESS_END = 4;
+	static final byte INTERRUPT = 5;
+	static final byte KILL = 6;
+	static final byte WAIT_UNTIL = 7;
+	static final byte WAIT_UNTIL_ENDED = 8;
+	static final byte STRING = 9;
+	static final byte RESET = 10;
+
+	private static final int MAX_STRINGS = 1 << 16;  // maximum size of the string table
+
+	private final OutputStream out;
+	private final byte[] buf = new byte[1 << 16];
+	private int pos;
+
+	private final HashMap<String, Integer> stringIndex = new HashMap<>();
+	private final int maxStrings;
+	private long lastTick;
+
+	public BinaryEventRecorder(String fileName) {
+		this(fileName, MAX_STRINGS);
+	}
+
+	BinaryEventRecorder(String fileName, int maxStr) {
+		maxStrings = Math.max(maxStr, 2);
+		try {
+			out = new FileOutputStream(fileName);
+		}
+		catch (IOException | SecurityException e) {
+			throw new InputErrorException("Unable to open the event trace file: %s%n%s",
+					fileName, e.getMessage());
+		}
+		writeInt(MAGIC);
+		writeInt(VERSION);
+	}
+
+	/**
+	 * Returns true if entries of the specified type have an event tick and priority.
+	 */
+	static boolean hasTick(byte type) {
+		return type == EVENT || type == WAIT || type == SCHED_PROCESS || type == INTERRUPT
+				|| type == KILL;
+	}
+
+	/**
+	 * Returns true if entries of the specified type have a description.
+	 */
+	static boolean hasDescription(byte type) {
+		return hasTick(type) || type == PROCESS_START || type == WAIT_UNTIL_ENDED;
+	}
+
+	private void trace(byte type, String name, long curTick, long tick, int priority, String desc) {
+		// Start a new string table if the present one might not hold both strings
+		if (stringIndex.size() + 2 > maxStrings) {
+			stringIndex.clear();
+			ensureCapacity(1);
+			buf[pos++] = RESET;
+		}
+
+		int nameIndex = getStringIndex(name);
+		int descIndex = -1;
+		if (desc != null)
+			descIndex = getStringIndex(desc);
+
+		ensureCapacity(41);
+		buf[pos++] = type;
+		writeVarInt(nameIndex);
+		writeVarLong(zigZag(curTick - lastTick));
+		lastTick = curTick;
+		if (hasTick(type)) {
+			writeVarLong(zigZag(tick - curTick));
+			writeVarLong(zigZag(priority));
+		}
+		if (hasDescription(type))
+			writeVarInt(descIndex);
+	}
+
+	private int getStringIndex(String str) {
+		Integer ret = stringIndex.get(str);
+		if (ret != null)
+			return ret;
+
+		ret = stringIndex.size();
+		stringIndex.put(str, ret);
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		ensureCapacity(6);
+		buf[pos++] = STRING;
+		writeVarInt(bytes.length);
+		write(bytes);
+		return ret;
+	}
+
+	static long zigZag(long val) {
+		return (val << 1) ^ (val >> 63);
+	}
+
+	private void writeVarInt(int val) {
+		writeVarLong(val & 0xFFFFFFFFL);
+	}
+
+	private void writeVarLong(long val) {
+		while ((val & ~0x7FL) != 0L) {
+			buf[pos++] = (byte) ((val & 0x7F) | 0x80);
+			val >>>= 7;
+		}
+		buf[pos++] = (byte) val;
+	}
+
+	private void writeInt(int val) {
+		ensureCapacity(4);
+		buf[pos++] = (byte) (val >>> 24);
+		buf[pos++] = (byte) (val >>> 16);
+		buf[pos++] = (byte) (val >>> 8);
+		buf[pos++] = (byte) val;
+	}
+
+	private void write(byte[] bytes) {
+		if (bytes.length > buf.length - pos) {
+			flush();
+			if (bytes.length > buf.length) {
+				try {
+					out.write(bytes);
+				}
+				catch (IOException e) {
+					throw new ErrorException(e);
+				}
+				return;
+			}
+		}
+		System.arraycopy(bytes, 0, buf, pos, bytes.length);
+		pos += bytes.length;
+	}
+
+	private void ensureCapacity(int n) {
+		if (pos + n > buf.length)
+			flush();
+	}
+
+	/**
+	 * Writes the buffered entries to the file.
+	 */
+	public void flush() {
+		try {
+			out.write(buf, 0, pos);
+			pos = 0;
+		}
+		catch (IOException e) {
+			throw new ErrorException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		flush();
+		try {
+			out.close();
+		}
+		catch (IOException e) {
+			throw new ErrorException(e);
+		}
+	}
+
+	@Override
+	public void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.trace(EVENT, e.name, curTick, tick, priority, t.getDescription());
+	}
+
+	@Override
+	public void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.trace(WAIT, e.name, curTick, tick, priority, EventRecorder.getWaitDescription());
+	}
+
+	@Override
+	public void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.trace(SCHED_PROCESS, e.name, curTick, tick, priority, t.getDescription());
+	}
+
+	@Override
+	public void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
+		this.trace(PROCESS_START, e.name, tick, 0L, 0, t.getDescription());
+	}
+
+	@Override
+	public void traceProcessEnd(EventManager e, long tick) {
+		this.trace(PROCESS_END, e.name, tick, 0L, 0, null);
+	}
+
+	@Override
+	public void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.trace(INTERRUPT, e.name, curTick, tick, priority, t.getDescription());
+	}
+
+	@Override
+	public void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.trace(KILL, e.name, curTick, tick, priority, t.getDescription());
+	}
+
+	@Override
+	public void traceWaitUntil(EventManager e, long tick) {
+		this.trace(WAIT_UNTIL, e.name, tick, 0L, 0, null);
+	}
+
+	@Override
+	public void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
+		this.trace(WAIT_UNTIL_ENDED, e.name, curTick, 0L, 0, t.getDescription());
+	}
+
+}
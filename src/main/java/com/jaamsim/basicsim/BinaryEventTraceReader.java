@@ -0,0 +1,193 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Reads an event trace written by BinaryEventRecorder one entry at a time.
+ * <p>
+ * The trace can be converted to the text format written by EventRecorder by running this class
+ * with the binary trace file and the text file as arguments.
+ */
+public class BinaryEventTraceReader implements Closeable {
+
+	private final DataInputStream in;
+	private final ArrayList<String> strings = new ArrayList<>();
+
+	// Present entry
+	private byte type;
+	private String name;
+	private long curTick;
+	private long tick;
+	private int priority;
+	private String desc;
+
+	public BinaryEventTraceReader(File file) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		try {
+			if (in.readInt() != BinaryEventRecorder.MAGIC)
+				throw new IOException("Not a binary event trace file: " + file);
+			int ver = in.readInt();
+			if (ver != BinaryEventRecorder.VERSION)
+				throw new IOException("Unsupported binary event trace version: " + ver);
+		}
+		catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the next entry.
+	 * @return false if the end of the trace has been reached
+	 * @throws IOException if the file cannot be read or is not a valid trace
+	 */
+	public boolean next() throws IOException {
+		while (true) {
+			int b = in.read();
+			if (b == -1)
+				return false;
+			type = (byte) b;
+
+			if (type == BinaryEventRecorder.STRING) {
+				byte[] bytes = new byte[readVarInt()];
+				in.readFully(bytes);
+				strings.add(new String(bytes, StandardCharsets.UTF_8));
+				continue;
+			}
+
+			if (type == BinaryEventRecorder.RESET) {
+				strings.clear();
+				continue;
+			}
+
+			if (type < BinaryEventRecorder.EVENT || type > BinaryEventRecorder.WAIT_UNTIL_ENDED)
+				throw new IOException("Corrupt binary event trace");
+
+			name = getString(readVarInt());
+			curTick += unZigZag(readVarLong());
+			tick = 0L;
+			priority = 0;
+			desc = null;
+			if (BinaryEventRecorder.hasTick(type)) {
+				tick = curTick + unZigZag(readVarLong());
+				priority = (int) unZigZag(readVarLong());
+			}
+			if (BinaryEventRecorder.hasDescription(type))
+				desc = getString(readVarInt());
+			return true;
+		}
+	}
+
+	private String getString(int index) throws IOException {
+		if (index < 0 || index >= strings.size())
+			throw new IOException("Corrupt binary event trace");
+		return strings.get(index);
+	}
+
+	private int readVarInt() throws IOException {
+		return (int) readVarLong();
+	}
+
+	private long readVarLong() throws IOException {
+		long ret = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.read();
+			if (b == -1)
+				throw new EOFException("Incomplete binary event trace");
+			ret |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return ret;
+		}
+		throw new IOException("Corrupt binary event trace");
+	}
+
+	private static long unZigZag(long val) {
+		return (val >>> 1) ^ -(val & 1L);
+	}
+
+	byte getType() {
+		return type;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCurTick() {
+		return curTick;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	public int getPriority() {
+		return priority;
+	}
+
+	public String getDescription() {
+		return desc;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Converts a binary event trace to the text format written by EventRecorder.
+	 * @param binFile - binary event trace
+	 * @param textFile - text file to be written
+	 * @return number of entries converted
+	 * @throws IOException if the binary trace cannot be read
+	 */
+	public static long convert(File binFile, File textFile) throws IOException {
+		long ret = 0L;
+		EventRecorder rec = new EventRecorder(textFile.getPath());
+		try (BinaryEventTraceReader reader = new BinaryEventTraceReader(binFile)) {
+			while (reader.next()) {
+				rec.trace(reader.type, reader.name, reader.curTick, reader.tick,
+						reader.priority, reader.desc);
+				ret++;
+			}
+		}
+		finally {
+			rec.close();
+		}
+		return ret;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: BinaryEventTraceReader <binary trace file> <text trace file>");
+			return;
+		}
+		long n = convert(new File(args[0]), new File(args[1]));
+		System.out.format("Converted %d entries%n", n);
+	}
+
+}
@@ -0,0 +1,259 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Objects;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Compares the events for a simulation run with a binary event trace written by
+ * BinaryEventRecorder.
+ * <p>
+ * The traces are grouped into records in the same way as the text trace written by
+ * EventRecorder. Each record from the run is matched to a record from the file with the same
+ * EventManager, simulation tick, number of entries, and first description, and the remaining
+ * entries are then compared. The file is read only as far as the simulation tick of the record
+ * being matched, so that the unmatched records held in memory are limited to those for the
+ * present tick.
+ */
+class BinaryEventVerifier implements EventTraceListener, Closeable {
+
+	private BinaryEventTraceReader reader;
+	private final ArrayList<ArrayList<Entry>> expected = new ArrayList<>();
+	private final RecordBuilder fileRecord = new RecordBuilder();
+	private final RecordBuilder runRecord = new RecordBuilder();
+	private long bufferTick = -1L;  // simulation tick for the last record read from the file
+
+	public BinaryEventVerifier(String fileName) {
+		try {
+			reader = new BinaryEventTraceReader(new File(fileName));
+		}
+		catch (IOException e) {
+			InputAgent.logMessage("Unable to open an event verification file: %s", e.getMessage());
+		}
+	}
+
+	/**
+	 * One trace from a record.
+	 */
+	private static final class Entry {
+		final byte type;
+		final String name;
+		final long curTick;
+		final long tick;
+		final int priority;
+		final String desc;
+
+		Entry(byte tp, String nm, long ct, long t, int p, String d) {
+			type = tp;
+			name = nm;
+			curTick = ct;
+			tick = t;
+			priority = p;
+			desc = d;
+		}
+
+		boolean matches(Entry e) {
+			return type == e.type && tick == e.tick && priority == e.priority
+					&& Objects.equals(desc, e.desc);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s\t%s\t%s\t%s\t%s\t%s", name, curTick, type, tick, priority, desc);
+		}
+	}
+
+	/**
+	 * Assembles the traces into records using the nesting rules for EventRecorder.
+	 */
+	private static final class RecordBuilder {
+		private ArrayList<Entry> record = new ArrayList<>();
+		private int traceLevel;
+
+		/**
+		 * Adds a trace to the record.
+		 * @return the record if it is complete, or null
+		 */
+		ArrayList<Entry> add(Entry e) {
+			if (traceLevel == 0)
+				traceLevel++;
+			record.add(e);
+			switch (e.type) {
+			case BinaryEventRecorder.EVENT:
+			case BinaryEventRecorder.INTERRUPT:
+			case BinaryEventRecorder.PROCESS_START:
+				traceLevel++;
+				break;
+			case BinaryEventRecorder.WAIT:
+			case BinaryEventRecorder.WAIT_UNTIL:
+			case BinaryEventRecorder.PROCESS_END:
+				traceLevel--;
+				break;
+			default:
+				break;
+			}
+
+			if (traceLevel != 1)
+				return null;
+			traceLevel = 0;
+			ArrayList<Entry> ret = record;
+			record = new ArrayList<>();
+			return ret;
+		}
+	}
+
+	/**
+	 * Reads the records from the file up to and including the specified simulation tick.
+	 */
+	private void fillBufferUntil(long tick) {
+		if (reader == null)
+			return;
+		try {
+			while (bufferTick <= tick) {
+				if (!reader.next()) {
+					reader.close();
+					reader = null;
+					return;
+				}
+				Entry e = new Entry(reader.getType(), reader.getName(), reader.getCurTick(),
+						reader.getTick(), reader.getPriority(), reader.getDescription());
+				ArrayList<Entry> rec = fileRecord.add(e);
+				if (rec == null)
+					continue;
+				bufferTick = rec.get(0).curTick;
+				expected.add(rec);
+			}
+		}
+		catch (IOException e) {
+			InputAgent.logMessage("Unable to read the event verification file: %s", e.getMessage());
+			reader = null;
+		}
+	}
+
+	private void verify(EventManager evt, Entry e) {
+		ArrayList<Entry> rec = runRecord.add(e);
+		if (rec == null)
+			return;
+
+		Entry first = rec.get(0);
+		fillBufferUntil(first.curTick);
+
+		for (int i = 0; i < expected.size(); i++) {
+			ArrayList<Entry> each = expected.get(i);
+			Entry eachFirst = each.get(0);
+			if (each.size() != rec.size() || eachFirst.curTick != first.curTick
+					|| !eachFirst.name.equals(first.name)
+					|| !Objects.equals(eachFirst.desc, first.desc))
+				continue;
+
+			for (int j = 1; j < rec.size(); j++) {
+				if (!rec.get(j).matches(each.get(j))) {
+					System.out.println("Difference in event stream detected");
+					print("Received:", rec);
+					print("Expected:", each);
+					System.out.println("Entries:");
+					System.out.println("R:" + rec.get(j));
+					System.out.println("E:" + each.get(j));
+					evt.pause();
+					new Throwable().printStackTrace();
+					break;
+				}
+			}
+
+			// Found the record, remove it from the buffer
+			expected.remove(i);
+			return;
+		}
+
+		print("No matching event found for:", rec);
+		for (ArrayList<Entry> each : expected) {
+			print("Buffered Record:", each);
+			System.out.println();
+		}
+		evt.pause();
+	}
+
+	private static void print(String title, ArrayList<Entry> rec) {
+		System.out.println(title);
+		for (Entry e : rec) {
+			System.out.println(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (reader == null)
+			return;
+		reader.close();
+		reader = null;
+	}
+
+	@Override
+	public void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		verify(e, new Entry(BinaryEventRecorder.EVENT, e.name, curTick, tick, priority, t.getDescription()));
+	}
+
+	@Override
+	public void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		verify(e, new Entry(BinaryEventRecorder.WAIT, e.name, curTick, tick, priority, EventRecorder.getWaitDescription()));
+	}
+
+	@Override
+	public void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		verify(e, new Entry(BinaryEventRecorder.SCHED_PROCESS, e.name, curTick, tick, priority, t.getDescription()));
+	}
+
+	@Override
+	public void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
+		verify(e, new Entry(BinaryEventRecorder.PROCESS_START, e.name, tick, 0L, 0, t.getDescription()));
+	}
+
+	@Override
+	public void traceProcessEnd(EventManager e, long tick) {
+		verify(e, new Entry(BinaryEventRecorder.PROCESS_END, e.name, tick, 0L, 0, null));
+	}
+
+	@Override
+	public void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		verify(e, new Entry(BinaryEventRecorder.INTERRUPT, e.name, curTick, tick, priority, t.getDescription()));
+	}
+
+	@Override
+	public void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		verify(e, new Entry(BinaryEventRecorder.KILL, e.name, curTick, tick, priority, t.getDescription()));
+	}
+
+	@Override
+	public void traceWaitUntil(EventManager e, long tick) {
+		verify(e, new Entry(BinaryEventRecorder.WAIT_UNTIL, e.name, tick, 0L, 0, null));
+	}
+
+	@Override
+	public void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
+		verify(e, new Entry(BinaryEventRecorder.WAIT_UNTIL_ENDED, e.name, curTick, 0L, 0, t.getDescription()));
+	}
+
+}
@@ -0,0 +1,345 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a binary column file created by ColumnFileWriter one block at a time.
+ * <p>
+ * The file can be converted to tab-separated text from the command line:
+ * <pre>
+ * ColumnFileReader columnFile [textFile]
+ * </pre>
+ * The text is written to standard out if no text file is specified.
+ */
+public class ColumnFileReader {
+
+	private final File file;
+	private DataInputStream in;
+	private final ArrayList<String> columnNames;
+
+	// Contents of the present block
+	private int rows;
+	private final byte[] type;
+	private final double[][] num;
+	private final long[][] lng;
+	private final int[][] index;
+	private final long[][] dictIds;
+	private final String[][] dictNames;
+
+	private final Inflater inflater = new Inflater();
+	private byte[] compressed = new byte[1 << 16];
+	private byte[] payload = new byte[1 << 16];
+
+	public ColumnFileReader(File f) throws IOException {
+		file = f;
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		try {
+			if (in.readInt() != ColumnFileWriter.MAGIC)
+				throw new IOException("Not a column file: " + file.getPath());
+			int ver = in.readInt();
+			if (ver != ColumnFileWriter.VERSION)
+				throw new IOException(String.format("Unsupported column file version %s: %s",
+						ver, file.getPath()));
+			int numCols = in.readInt();
+			columnNames = new ArrayList<>(numCols);
+			for (int c = 0; c < numCols; c++) {
+				columnNames.add(readString(in));
+			}
+		}
+		catch (IOException e) {
+			in.close();
+			throw e;
+		}
+
+		int numCols = columnNames.size();
+		type = new byte[numCols];
+		num = new double[numCols][];
+		lng = new long[numCols][];
+		index = new int[numCols][];
+		dictIds = new long[numCols][];
+		dictNames = new String[numCols][];
+	}
+
+	public ArrayList<String> getColumnNames() {
+		return columnNames;
+	}
+
+	public int getColumnCount() {
+		return columnNames.size();
+	}
+
+	/**
+	 * Reads the next block of rows from the file.
+	 * @return false if the end of the file has been reached
+	 */
+	public boolean readBlock() throws IOException {
+		rows = 0;
+		int n;
+		try {
+			n = in.readInt();
+		}
+		catch (EOFException e) {
+			return false;
+		}
+		int len = in.readInt();
+		int compressedLen = in.readInt();
+		if (n <= 0 || len < 0 || compressedLen < 0)
+			throw new IOException("Corrupt column file: " + file.getPath());
+		if (compressed.length < compressedLen)
+			compressed = new byte[compressedLen];
+		if (payload.length < len)
+			payload = new byte[len];
+		in.readFully(compressed, 0, compressedLen);
+
+		inflater.reset();
+		inflater.setInput(compressed, 0, compressedLen);
+		try {
+			if (inflater.inflate(payload, 0, len) != len || !inflater.finished())
+				throw new IOException("Corrupt column file: " + file.getPath());
+		}
+		catch (DataFormatException e) {
+			throw new IOException("Corrupt column file: " + file.getPath(), e);
+		}
+
+		ByteBuffer buf = ByteBuffer.wrap(payload, 0, len);
+		for (int c = 0; c < columnNames.size(); c++) {
+			readColumn(buf, c, n);
+		}
+		rows = n;
+		return true;
+	}
+
+	private void readColumn(ByteBuffer buf, int c, int n) {
+		type[c] = buf.get();
+		switch (type[c]) {
+		case ColumnFileWriter.DOUBLE:
+			num[c] = ensureCapacity(num[c], n);
+			for (int r = 0; r < n; r++) {
+				num[c][r] = buf.getDouble();
+			}
+			break;
+
+		case ColumnFileWriter.LONG:
+			lng[c] = ensureCapacity(lng[c], n);
+			for (int r = 0; r < n; r++) {
+				lng[c][r] = buf.getLong();
+			}
+			break;
+
+		case ColumnFileWriter.ENTITY: {
+			int size = buf.getInt();
+			dictIds[c] = new long[size];
+			dictNames[c] = new String[size];
+			for (int i = 0; i < size; i++) {
+				dictIds[c][i] = buf.getLong();
+				dictNames[c][i] = readString(buf);
+			}
+			index[c] = ensureCapacity(index[c], n);
+			for (int r = 0; r < n; r++) {
+				index[c][r] = buf.getInt();
+			}
+			break;
+		}
+
+		default: {
+			int size = buf.getInt();
+			dictNames[c] = new String[size];
+			for (int i = 0; i < size; i++) {
+				dictNames[c][i] = readString(buf);
+			}
+			index[c] = ensureCapacity(index[c], n);
+			for (int r = 0; r < n; r++) {
+				index[c][r] = buf.getInt();
+			}
+			break;
+		}
+		}
+	}
+
+	/**
+	 * Returns the number of rows in the present block.
+	 */
+	public int getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * Returns the type of the specified column in the present block.
+	 */
+	public byte getColumnType(int col) {
+		return type[col];
+	}
+
+	public double getDouble(int col, int row) {
+		switch (type[col]) {
+		case ColumnFileWriter.DOUBLE:
+			return num[col][row];
+		case ColumnFileWriter.LONG:
+			return lng[col][row];
+		default:
+			return Double.NaN;
+		}
+	}
+
+	public long getLong(int col, int row) {
+		switch (type[col]) {
+		case ColumnFileWriter.LONG:
+			return lng[col][row];
+		case ColumnFileWriter.ENTITY:
+			return dictIds[col][index[col][row]];
+		default:
+			return (long) getDouble(col, row);
+		}
+	}
+
+	/**
+	 * Returns the value in the specified column and row as text, or null if the row has no value
+	 * for the column.
+	 */
+	public String getString(int col, int row) {
+		switch (type[col]) {
+		case ColumnFileWriter.DOUBLE:
+			return Double.toString(num[col][row]);
+		case ColumnFileWriter.LONG:
+			return Long.toString(lng[col][row]);
+		default:
+			int ind = index[col][row];
+			if (ind == -1)
+				return null;
+			return dictNames[col][ind];
+		}
+	}
+
+	/**
+	 * Writes the column names and the remaining rows of the file as tab-separated text.
+	 */
+	public void writeText(Writer out) throws IOException {
+		String newLine = System.lineSeparator();
+		out.write(String.join("\t", columnNames));
+		out.write(newLine);
+		StringBuilder sb = new StringBuilder();
+		while (readBlock()) {
+			for (int r = 0; r < rows; r++) {
+				sb.setLength(0);
+				int end = getColumnCount();
+				while (end > 0 && getString(end - 1, r) == null) {
+					end--;
+				}
+				for (int c = 0; c < end; c++) {
+					if (c > 0)
+						sb.append('\t');
+					String text = getString(c, r);
+					if (text != null)
+						sb.append(text);
+				}
+				sb.append(newLine);
+				out.write(sb.toString());
+			}
+		}
+		out.flush();
+	}
+
+	public void close() throws IOException {
+		if (in == null)
+			return;
+		in.close();
+		in = null;
+		inflater.end();
+	}
+
+	private static String readString(DataInputStream data) throws IOException {
+		byte[] bytes = new byte[data.readInt()];
+		data.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readString(ByteBuffer buf) {
+		int len = buf.getInt();
+		String ret = new String(buf.array(), buf.position(), len, StandardCharsets.UTF_8);
+		buf.position(buf.position() + len);
+		return ret;
+	}
+
+	private static double[] ensureCapacity(double[] array, int n) {
+		if (array == null || array.length < n)
+			return new double[n];
+		return array;
+	}
+
+	private static long[] ensureCapacity(long[] array, int n) {
+		if (array == null || array.length < n)
+			return new long[n];
+		return array;
+	}
+
+	private static int[] ensureCapacity(int[] array, int n) {
+		if (array == null || array.length < n)
+			return new int[n];
+		return array;
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			System.out.println("Usage: ColumnFileReader columnFile [textFile]");
+			return;
+		}
+
+		try {
+			ColumnFileReader reader = new ColumnFileReader(new File(args[0]));
+			try {
+				if (args.length > 1) {
+					Writer out = new BufferedWriter(new OutputStreamWriter(
+							new FileOutputStream(args[1]), StandardCharsets.UTF_8), 1 << 16);
+					try {
+						reader.writeText(out);
+					}
+					finally {
+						out.close();
+					}
+				}
+				else {
+					Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+					reader.writeText(out);
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+}
@@ -0,0 +1,389 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+/**
+ * Writes a table of values to a compressed binary file in which the values are stored by
+ * column.
+ * <p>
+ * The file starts with a header containing the column names. It is followed by a sequence of
+ * blocks, each holding up to BLOCK_ROWS rows. The values in a block are stored column by column
+ * and the block is compressed using a Deflater. Each column in a block has a single type: DOUBLE,
+ * LONG, STRING or ENTITY. Strings and entities are stored as indices to a dictionary that is
+ * written at the start of the column. A column whose values have different types within a block
+ * is stored as text. Only one block is held in memory at a time.
+ * <p>
+ * Rows are built one value at a time in the same way as a line of text: newRow starts a row,
+ * nextColumn moves to the next column, and the add methods set the value in the present column.
+ * A column that receives more than one value for a row is stored as the concatenated text.
+ * The file can be read with ColumnFileReader.
+ */
+public class ColumnFileWriter {
+
+	static final int MAGIC = 0x4A434F4C;  // "JCOL"
+	static final int VERSION = 1;
+	public static final String EXTENSION = ".jcol";
+
+	public static final byte NONE = 0;
+	public static final byte DOUBLE = 1;
+	public static final byte LONG = 2;
+	public static final byte STRING = 3;
+	public static final byte ENTITY = 4;
+
+	public static final int BLOCK_ROWS = 8192;
+
+	private final File file;
+	private final int numCols;
+	private DataOutputStream out;
+
+	// Values for the present block
+	private final byte[][] kind;
+	private final double[][] num;
+	private final long[][] lng;
+	private final String[][] str;
+	private int rows;      // number of completed rows
+	private boolean inRow;
+	private int col;
+
+	// Used to encode a block
+	private final PayloadBuffer payload = new PayloadBuffer();
+	private final DataOutputStream payloadOut = new DataOutputStream(payload);
+	private final Deflater deflater = new Deflater();
+	private byte[] compressed = new byte[1 << 16];
+	private final int[] index = new int[BLOCK_ROWS];
+	private final HashMap<String, Integer> stringIndex = new HashMap<>();
+	private final HashMap<Long, Integer> entityIndex = new HashMap<>();
+	private final ArrayList<String> dictNames = new ArrayList<>();
+	private final ArrayList<Long> dictIds = new ArrayList<>();
+
+	public ColumnFileWriter(String fileName, List<String> columnNames) {
+		this(new File(fileName), columnNames);
+	}
+
+	public ColumnFileWriter(File f, List<String> columnNames) {
+		file = f;
+		numCols = columnNames.size();
+		kind = new byte[numCols][BLOCK_ROWS];
+		num = new double[numCols][BLOCK_ROWS];
+		lng = new long[numCols][BLOCK_ROWS];
+		str = new String[numCols][BLOCK_ROWS];
+
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(numCols);
+			for (String name : columnNames) {
+				writeString(out, name);
+			}
+		}
+		catch (IOException | SecurityException e) {
+			throw new InputErrorException("Unable to open file: '%s'%n%s",
+					file.getPath(), e.getMessage());
+		}
+	}
+
+	public int getColumnCount() {
+		return numCols;
+	}
+
+	/**
+	 * Completes the present row, if any, and starts a new one.
+	 */
+	public void newRow() {
+		if (inRow)
+			endRow();
+		for (int c = 0; c < numCols; c++) {
+			kind[c][rows] = NONE;
+			str[c][rows] = null;
+		}
+		inRow = true;
+		col = 0;
+	}
+
+	/**
+	 * Moves to the next column of the present row.
+	 */
+	public void nextColumn() {
+		if (!inRow)
+			newRow();
+		col++;
+	}
+
+	public void add(double val) {
+		int r = startValue();
+		if (kind[col][r] != NONE) {
+			add(Double.toString(val));
+			return;
+		}
+		kind[col][r] = DOUBLE;
+		num[col][r] = val;
+	}
+
+	public void add(long val) {
+		int r = startValue();
+		if (kind[col][r] != NONE) {
+			add(Long.toString(val));
+			return;
+		}
+		kind[col][r] = LONG;
+		lng[col][r] = val;
+	}
+
+	/**
+	 * Sets the value in the present column to the specified text. A null string is recorded as
+	 * the text "null".
+	 */
+	public void add(String s) {
+		int r = startValue();
+		String text = String.valueOf(s);
+		if (kind[col][r] != NONE)
+			text = getText(col, r).concat(text);
+		kind[col][r] = STRING;
+		str[col][r] = text;
+	}
+
+	/**
+	 * Sets the value in the present column to the specified entity.
+	 * @param id - entity number, or -1 for a null entity
+	 * @param name - entity name
+	 */
+	public void addEntity(long id, String name) {
+		int r = startValue();
+		if (kind[col][r] != NONE) {
+			add(name);
+			return;
+		}
+		kind[col][r] = ENTITY;
+		lng[col][r] = id;
+		str[col][r] = name;
+	}
+
+	private int startValue() {
+		if (!inRow)
+			newRow();
+		if (col >= numCols)
+			throw new ErrorException("Row %s has more than %s values: %s",
+					rows + 1, numCols, file.getPath());
+		return rows;
+	}
+
+	private void endRow() {
+		inRow = false;
+		rows++;
+		if (rows == BLOCK_ROWS)
+			writeBlock();
+	}
+
+	private String getText(int c, int r) {
+		switch (kind[c][r]) {
+		case DOUBLE:
+			return Double.toString(num[c][r]);
+		case LONG:
+			return Long.toString(lng[c][r]);
+		case STRING:
+		case ENTITY:
+			return str[c][r];
+		default:
+			return "";
+		}
+	}
+
+	/**
+	 * Writes the rows received so far, including the present row, and flushes the file.
+	 */
+	public void flush() {
+		if (inRow)
+			endRow();
+		if (rows > 0)
+			writeBlock();
+		try {
+			out.flush();
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to flush file: %s%n%s", file.getPath(), e.getMessage());
+		}
+	}
+
+	public void close() {
+		if (out == null)
+			return;
+		flush();
+		try {
+			out.close();
+		}
+		catch (IOException e) {
+			InputAgent.logMessage("Unable to close file: " + file.getPath());
+		}
+		out = null;
+		deflater.end();
+	}
+
+	private void writeBlock() {
+		try {
+			payload.reset();
+			for (int c = 0; c < numCols; c++) {
+				writeColumn(c);
+			}
+
+			// Compress the block
+			deflater.reset();
+			deflater.setInput(payload.getBuffer(), 0, payload.size());
+			deflater.finish();
+			int len = 0;
+			while (!deflater.finished()) {
+				if (len == compressed.length)
+					compressed = Arrays.copyOf(compressed, compressed.length*2);
+				len += deflater.deflate(compressed, len, compressed.length - len);
+			}
+
+			out.writeInt(rows);
+			out.writeInt(payload.size());
+			out.writeInt(len);
+			out.write(compressed, 0, len);
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to write file: %s%n%s", file.getPath(), e.getMessage());
+		}
+
+		// Release the strings held by the block
+		for (int c = 0; c < numCols; c++) {
+			Arrays.fill(str[c], 0, rows, null);
+		}
+		rows = 0;
+	}
+
+	private void writeColumn(int c) throws IOException {
+		DataOutputStream data = payloadOut;
+
+		// A column is typed if all its values in the block have the same type
+		byte type = kind[c][0];
+		for (int r = 1; r < rows; r++) {
+			if (kind[c][r] != type) {
+				type = STRING;
+				break;
+			}
+		}
+		if (type == NONE)
+			type = STRING;
+		data.writeByte(type);
+
+		switch (type) {
+		case DOUBLE:
+			for (int r = 0; r < rows; r++) {
+				data.writeDouble(num[c][r]);
+			}
+			break;
+
+		case LONG:
+			for (int r = 0; r < rows; r++) {
+				data.writeLong(lng[c][r]);
+			}
+			break;
+
+		case ENTITY: {
+			entityIndex.clear();
+			dictIds.clear();
+			dictNames.clear();
+			for (int r = 0; r < rows; r++) {
+				Long id = lng[c][r];
+				Integer ind = entityIndex.get(id);
+				if (ind == null) {
+					ind = dictIds.size();
+					entityIndex.put(id, ind);
+					dictIds.add(id);
+					dictNames.add(str[c][r]);
+				}
+				index[r] = ind;
+			}
+			data.writeInt(dictIds.size());
+			for (int i = 0; i < dictIds.size(); i++) {
+				data.writeLong(dictIds.get(i));
+				writeString(data, dictNames.get(i));
+			}
+			for (int r = 0; r < rows; r++) {
+				data.writeInt(index[r]);
+			}
+			break;
+		}
+
+		default: {
+			// Values are written as text, a row without a value has the index -1
+			stringIndex.clear();
+			dictNames.clear();
+			for (int r = 0; r < rows; r++) {
+				if (kind[c][r] == NONE) {
+					index[r] = -1;
+					continue;
+				}
+				String text = getText(c, r);
+				Integer ind = stringIndex.get(text);
+				if (ind == null) {
+					ind = dictNames.size();
+					stringIndex.put(text, ind);
+					dictNames.add(text);
+				}
+				index[r] = ind;
+			}
+			data.writeInt(dictNames.size());
+			for (String text : dictNames) {
+				writeString(data, text);
+			}
+			for (int r = 0; r < rows; r++) {
+				data.writeInt(index[r]);
+			}
+			break;
+		}
+		}
+	}
+
+	static void writeString(DataOutputStream data, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	/**
+	 * Byte array stream whose contents can be read without copying.
+	 */
+	private static class PayloadBuffer extends ByteArrayOutputStream {
+		PayloadBuffer() {
+			super(1 << 16);
+		}
+
+		byte[] getBuffer() {
+			return buf;
+		}
+	}
+
+}
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2002-2011 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016-2019 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,8 @@ package com.jaamsim.basicsim;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventHandle;
@@ -81,11 +81,14 @@ public class Entity {
 
 	Entity parent;
 
-	private final ArrayList<Input<?>> inpList = new ArrayList<>();
+	// Sized for a typical DisplayEntity so that the list is not regrown during construction
+	private final ArrayList<Input<?>> inpList = new ArrayList<>(32);
 
-	private final HashMap<String, AttributeHandle> attributeMap = new LinkedHashMap<>();
-	private final HashMap<String, ExpressionHandle> customOutputMap = new LinkedHashMap<>();
-	private final HashMap<String, InOutHandle> inputOutputMap = new LinkedHashMap<>();
+	// Most entities, especially generated ones, have no attributes or custom outputs, so these
+	// maps share an immutable empty instance until the first entry is added
+	private Map<String, AttributeHandle> attributeMap = Collections.emptyMap();
+	private Map<String, ExpressionHandle> customOutputMap = Collections.emptyMap();
+	private Map<String, InOutHandle> inputOutputMap = Collections.emptyMap();
 
 	public static final String KEY_INPUTS = "Key Inputs";
 	public static final String OPTIONS = "Options";
@@ -310,6 +313,8 @@ public class Entity {
 	protected void addInputAsOutput(Input<?> input, String alias, int sequence, Class<? extends Unit> unitType) {
 
 		InOutHandle handle = new InOutHandle(this, input, alias, sequence, unitType);
+		if (inputOutputMap.isEmpty())
+			inputOutputMap = new LinkedHashMap<>();
 		inputOutputMap.put(alias, handle);
 
 	}
@@ -556,14 +561,14 @@ public class Entity {
 		}
 
 		if (in == attributeDefinitionList) {
-			attributeMap.clear();
+			attributeMap = Collections.emptyMap();
 			for (AttributeHandle h : attributeDefinitionList.getValue()) {
 				this.addAttribute(h.getName(), h);
 			}
 			return;
 		}
 		if (in == namedExpressionInput) {
-			customOutputMap.clear();
+			customOutputMap = Collections.emptyMap();
 			for (NamedExpression ne : namedExpressionInput.getValue()) {
 				addCustomOutput(ne.getName(), ne.getExpression(), ne.getUnitType());
 			}
@@ -762,6 +767,8 @@ public class Entity {
 	public void addCustomOutput(String name, Expression exp, Class<? extends Unit> unitType) {
 		ExpressionHandle eh = new ExpressionHandle(this, exp, name);
 		eh.setUnitType(unitType);
+		if (customOutputMap.isEmpty())
+			customOutputMap = new LinkedHashMap<>();
 		customOutputMap.put(name, eh);
 	}
 
@@ -781,6 +788,8 @@ public class Entity {
 	}
 
 	private void addAttribute(String name, AttributeHandle h) {
+		if (attributeMap.isEmpty())
+			attributeMap = new LinkedHashMap<>();
 		attributeMap.put(name, h);
 	}
 
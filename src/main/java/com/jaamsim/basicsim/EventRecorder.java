@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +18,7 @@
 package com.jaamsim.basicsim;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -28,7 +30,7 @@ import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputErrorException;
 
-public class EventRecorder implements EventTraceListener {
+public class EventRecorder implements EventTraceListener, Closeable {
 	private BufferedWriter outputStream;
 	private int traceLevel;
 	private final ArrayList<String> traces = new ArrayList<>();
@@ -71,7 +73,7 @@ public class EventRecorder implements EventTraceListener {
 		traceLevel++;
 	}
 
-	private void finish(EventManager e) {
+	private void finish() {
 		if(traceLevel != 1)
 			return;
 
@@ -129,74 +131,110 @@ public class EventRecorder implements EventTraceListener {
 		return String.format("%s:%s", elem.getClassName(), elem.getMethodName());
 	}
 
-	@Override
-	public synchronized void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		traceLevel--;
+	/**
+	 * Adds a trace to the record that is being assembled, and writes the record once it is
+	 * complete.
+	 * @param type - type of trace, as defined by BinaryEventRecorder
+	 * @param name - name of the EventManager
+	 * @param curTick - simulation tick at which the trace occurred
+	 * @param tick - simulation tick for the event
+	 * @param priority - priority for the event
+	 * @param desc - description of the ProcessTarget, or of the method that is waiting
+	 */
+	void trace(byte type, String name, long curTick, long tick, int priority, String desc) {
+		this.addHeader(name, curTick);
+		switch (type) {
+		case BinaryEventRecorder.WAIT:
+			traceLevel--;
+			this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, desc));
+			break;
+		case BinaryEventRecorder.EVENT:
+			this.append(String.format("Event\t%d\t%d\t%s", tick, priority, desc));
+			traceLevel++;
+			break;
+		case BinaryEventRecorder.INTERRUPT:
+			this.append(String.format("Int\t%d\t%d\t%s", tick, priority, desc));
+			traceLevel++;
+			break;
+		case BinaryEventRecorder.KILL:
+			this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, desc));
+			break;
+		case BinaryEventRecorder.WAIT_UNTIL:
+			traceLevel--;
+			this.append("WaitUntil");
+			break;
+		case BinaryEventRecorder.WAIT_UNTIL_ENDED:
+			this.append(String.format("WaitUntilEnded\t%s", desc));
+			break;
+		case BinaryEventRecorder.PROCESS_START:
+			this.append(String.format("StartProcess\t%s", desc));
+			traceLevel++;
+			break;
+		case BinaryEventRecorder.PROCESS_END:
+			traceLevel--;
+			this.append("Exit");
+			break;
+		case BinaryEventRecorder.SCHED_PROCESS:
+			this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, desc));
+			break;
+		default:
+			throw new ErrorException("Unknown event trace type: %s", type);
+		}
+		this.finish();
+	}
 
-		this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, getWaitDescription()));
+	/**
+	 * Closes the trace file.
+	 */
+	public void close() {
+		try {
+			outputStream.close();
+		}
+		catch (IOException e) {}
+	}
 
-		this.finish(e);
+	@Override
+	public synchronized void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.trace(BinaryEventRecorder.WAIT, e.name, curTick, tick, priority, getWaitDescription());
 	}
 
 	@Override
 	public synchronized void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Event\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.trace(BinaryEventRecorder.EVENT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Int\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.trace(BinaryEventRecorder.INTERRUPT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		this.trace(BinaryEventRecorder.KILL, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceWaitUntil(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("WaitUntil");
-		this.finish(e);
+		this.trace(BinaryEventRecorder.WAIT_UNTIL, e.name, tick, 0L, 0, null);
 	}
 
 	@Override
 	public synchronized void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("WaitUntilEnded\t%s", t.getDescription()));
-		this.finish(e);
+		this.trace(BinaryEventRecorder.WAIT_UNTIL_ENDED, e.name, curTick, 0L, 0, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
-		this.addHeader(e.name, tick);
-		this.append(String.format("StartProcess\t%s", t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.trace(BinaryEventRecorder.PROCESS_START, e.name, tick, 0L, 0, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceProcessEnd(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("Exit");
-		this.finish(e);
+		this.trace(BinaryEventRecorder.PROCESS_END, e.name, tick, 0L, 0, null);
 	}
 
 	@Override
 	public synchronized void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		this.trace(BinaryEventRecorder.SCHED_PROCESS, e.name, curTick, tick, priority, t.getDescription());
 	}
 }
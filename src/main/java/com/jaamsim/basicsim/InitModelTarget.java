@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,17 +44,26 @@ public class InitModelTarget extends ProcessTarget {
 		// Start each entity
 		simModel.startUp();
 
-		// Schedule the initialisation period
-		if (simulation.getInitializationTime() > 0.0) {
-			double clearTime = simulation.getStartTime() + simulation.getInitializationTime();
-			EventManager.scheduleSeconds(clearTime, 5, false, new ClearStatisticsTarget(simModel), null);
+		// Detect the end of the initialisation period, which also schedules the end of the run
+		if (simulation.isWarmUpDetectionSet()) {
+			simModel.startWarmUpDetection();
 		}
+		else {
+			// Schedule the initialisation period
+			if (simulation.getInitializationTime() > 0.0) {
+				double clearTime = simulation.getStartTime() + simulation.getInitializationTime();
+				EventManager.scheduleSeconds(clearTime, 5, false, new ClearStatisticsTarget(simModel), null);
+			}
 
-		// Schedule the end of the simulation run
-		double endTime = simulation.getEndTime();
-		EventManager.scheduleSeconds(endTime, 5, false, new EndModelTarget(simModel), null);
+			// Schedule the end of the simulation run
+			double endTime = simulation.getEndTime();
+			EventManager.scheduleSeconds(endTime, 5, false, new EndModelTarget(simModel), null);
+		}
 
 		// Start checking the pause condition
 		simModel.doPauseCondition();
+
+		// Start checking the precision of the estimated steady-state means
+		simModel.doPrecisionCondition();
 	}
 }
@@ -16,17 +16,22 @@
  */
 package com.jaamsim.basicsim;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.jaamsim.Samples.SampleExpression;
+import com.jaamsim.Samples.SampleProvider;
+import com.jaamsim.Statistics.MSERTruncation;
 import com.jaamsim.StringProviders.StringProvExpression;
 import com.jaamsim.Thresholds.ThresholdUser;
 import com.jaamsim.datatypes.IntegerVector;
@@ -34,12 +39,14 @@ import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.EventTimeListener;
+import com.jaamsim.events.EventTraceListener;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.ExpError;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
 import com.jaamsim.input.KeywordIndex;
+import com.jaamsim.input.ReportWriter;
 import com.jaamsim.states.StateEntity;
 import com.jaamsim.ui.EventViewer;
 import com.jaamsim.ui.LogBox;
@@ -72,10 +79,17 @@ public class JaamSimModel {
 	private File configFile;           // present configuration file
 	private File reportDir;         // directory for the output reports
 	private FileEntity reportFile;  // file to which the output report will be written
+	private ReportWriter reportWriter;  // writes the output report on a background thread
+	private EventTraceListener traceListener;  // records or verifies the event trace
 	private PrintStream outStream;  // location where the custom outputs will be written
+	private ColumnFileWriter outColumnFile;  // binary file to which the custom outputs will be written
+	private RunResultsWriter runResults;  // results file to which each run is appended
+	private LogWriter outLog;
 
 	private boolean batchRun;       // true if the run is to be terminated automatically
 	private boolean scriptMode;     // TRUE if script mode (command line) is specified
+	private boolean compileImage;   // TRUE if a model image is to be written for the configuration file
+	private boolean logLoadTimes;   // TRUE if the time taken by each stage of loading is to be logged
 	private boolean sessionEdited;  // TRUE if any inputs have been changed after loading a configuration file
 	private boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
 	private boolean recordEdits;       // TRUE if input changes are to be marked as edited
@@ -90,7 +104,7 @@ public class JaamSimModel {
 	private final HashMap<String, String> stringCache = new HashMap<>();
 
 	private final ArrayList<ObjectType> objectTypes = new ArrayList<>();
-	private final HashMap<Class<? extends Entity>, ObjectType> objectTypeMap = new HashMap<>();
+	private final ConcurrentHashMap<Class<? extends Entity>, ObjectType> objectTypeMap = new ConcurrentHashMap<>();
 
 	private final ArrayList<View> views = new ArrayList<>();
 	private int nextViewID = 1;
@@ -166,6 +180,8 @@ public class JaamSimModel {
 
 		configFile = null;
 		reportDir = null;
+		closeReportWriter();
+		closeTraceListener();
 		if (reportFile != null) {
 			reportFile.close();
 			reportFile = null;
@@ -174,6 +190,8 @@ public class JaamSimModel {
 			outStream.close();
 			outStream = null;
 		}
+		closeOutColumnFile();
+		closeRunResults();
 		setSessionEdited(false);
 		recordEditsFound = false;
 		numErrors = 0;
@@ -268,15 +286,23 @@ public class JaamSimModel {
 
 		// Set up any tracing to be performed
 		eventManager.setTraceListener(null);
+		closeTraceListener();
+		boolean binary = getSimulation().isBinaryEventTrace();
 		if (getSimulation().traceEvents()) {
-			String evtName = configFile.getParentFile() + File.separator + getRunName() + ".evt";
-			EventRecorder rec = new EventRecorder(evtName);
-			eventManager.setTraceListener(rec);
+			String evtName = getEventTraceFileName(binary);
+			if (binary)
+				traceListener = new BinaryEventRecorder(evtName);
+			else
+				traceListener = new EventRecorder(evtName);
+			eventManager.setTraceListener(traceListener);
 		}
 		else if (getSimulation().verifyEvents()) {
-			String evtName = configFile.getParentFile() + File.separator + getRunName() + ".evt";
-			EventTracer trc = new EventTracer(evtName);
-			eventManager.setTraceListener(trc);
+			String evtName = getEventTraceFileName(binary);
+			if (binary)
+				traceListener = new BinaryEventVerifier(evtName);
+			else
+				traceListener = new EventTracer(evtName);
+			eventManager.setTraceListener(traceListener);
 		}
 		else if (getSimulation().isEventViewerVisible()) {
 			eventManager.setTraceListener(EventViewer.getInstance());
@@ -342,6 +368,100 @@ public class JaamSimModel {
 
 	private final PauseModelTarget pauseModelTarget = new PauseModelTarget(this);
 
+	/**
+	 * Starts to sample the expressions used to detect the end of the initialization period.
+	 */
+	void startWarmUpDetection() {
+		warmUpList.clear();
+		for (int i = 0; i < getSimulation().getWarmUpOutputList().size(); i++) {
+			warmUpList.add(new MSERTruncation());
+		}
+		numWarmUpSamples = 0L;
+		double startTime = getSimulation().getStartTime();
+		EventManager.scheduleSeconds(startTime, 5, false, warmUpTarget, null);
+	}
+
+	/**
+	 * Records the present value of each warm-up expression and ends the initialization period
+	 * if a truncation point has been found for every expression or if the longest permitted
+	 * initialization period has been reached.
+	 */
+	void sampleWarmUp() {
+		Simulation simulation = getSimulation();
+		double simTime = EventManager.simSeconds();
+		double startTime = simulation.getStartTime();
+		double interval = simulation.getWarmUpSamplingInterval();
+		ArrayList<SampleProvider> list = simulation.getWarmUpOutputList();
+
+		// The warm-up is the longest one required by any of the expressions
+		double warmUp = 0.0d;
+		for (int i = 0; i < warmUpList.size(); i++) {
+			MSERTruncation mser = warmUpList.get(i);
+			mser.addValue(list.get(i).getNextSample(simTime));
+			long n = mser.getTruncationPoint();
+			if (n < 0L) {
+				warmUp = Double.NaN;
+				continue;
+			}
+			warmUp = Math.max(warmUp, n*interval);
+		}
+		numWarmUpSamples++;
+
+		// Schedule the next sample
+		double maxTime = startTime + simulation.getInitializationTime();
+		if (Double.isNaN(warmUp) && simTime < maxTime) {
+			double nextTime = Math.min(startTime + numWarmUpSamples*interval, maxTime);
+			EventManager.scheduleSeconds(nextTime - simTime, 5, false, warmUpTarget, null);
+			return;
+		}
+
+		// Clear the statistics and schedule the end of the run
+		simulation.setWarmUp(simTime - startTime, warmUp);
+		EventManager.scheduleSeconds(0.0d, 5, false, new ClearStatisticsTarget(this), null);
+		double dur = simulation.getEndTime() - simTime;
+		EventManager.scheduleSeconds(dur, 5, false, new EndModelTarget(this), null);
+	}
+
+	private final ArrayList<MSERTruncation> warmUpList = new ArrayList<>();
+	private long numWarmUpSamples;
+	private final WarmUpTarget warmUpTarget = new WarmUpTarget(this);
+
+	/**
+	 * Ends the run once every object with a target precision has reached it, provided that
+	 * the StopAtTargetPrecision input has been set.
+	 */
+	public void doPrecisionCondition() {
+		precisionTargets.clear();
+		if (!getSimulation().getStopAtTargetPrecision())
+			return;
+		for (Entity each : getClonesOfIterator(Entity.class, PrecisionTarget.class)) {
+			PrecisionTarget target = (PrecisionTarget) each;
+			if (!each.isActive() || !target.isTargetPrecisionSet())
+				continue;
+			precisionTargets.add(target);
+		}
+		if (precisionTargets.isEmpty())
+			return;
+		EventManager.scheduleUntil(new EndModelTarget(this), precisionCondition, null);
+	}
+
+	private final ArrayList<PrecisionTarget> precisionTargets = new ArrayList<>();
+
+	private final Conditional precisionCondition = new Conditional() {
+		@Override
+		public boolean evaluate() {
+			double simTime = EventManager.simSeconds();
+			Simulation simulation = getSimulation();
+			if (simTime < simulation.getStartTime() + simulation.getInitializationTime())
+				return false;
+			for (PrecisionTarget each : precisionTargets) {
+				if (!each.isTargetPrecisionReached(simTime))
+					return false;
+			}
+			return true;
+		}
+	};
+
 	private final Conditional pauseCondition = new Conditional() {
 		@Override
 		public boolean evaluate() {
@@ -416,6 +536,7 @@ public class JaamSimModel {
 		setRunIndexList();
 
 		// Close the output reports
+		closeReportWriter();
 		if (reportFile != null) {
 			reportFile.close();
 			reportFile = null;
@@ -424,6 +545,8 @@ public class JaamSimModel {
 			outStream.close();
 			outStream = null;
 		}
+		closeOutColumnFile();
+		closeRunResults();
 	}
 
 	/**
@@ -439,11 +562,25 @@ public class JaamSimModel {
 		}
 
 		// Print the output report
-		if (getSimulation().getPrintReport())
-			InputAgent.printReport(this, EventManager.simSeconds());
+		if (getSimulation().getPrintReport()) {
+			if (reportWriter == null)
+				reportWriter = new ReportWriter();
+			reportWriter.print(this, getReportFile(), EventManager.simSeconds(), isLastRun());
+		}
 
 		// Print the selected outputs
-		if (getSimulation().getRunOutputList().getValue() != null) {
+		if (getSimulation().getRunOutputList().getValue() != null
+				&& getSimulation().isRunOutputBinaryFormat()) {
+			if (outLog == null) {
+				String name = getReportFileName(getRunName()) + ColumnFileWriter.EXTENSION;
+				outColumnFile = new ColumnFileWriter(name, InputAgent.getRunOutputHeaders(this));
+				outLog = new LogWriter(outColumnFile, "RunOutputList");
+			}
+			InputAgent.recordRunOutputs(this, outLog, EventManager.simSeconds());
+			if (isLastRun())
+				closeOutColumnFile();
+		}
+		else if (getSimulation().getRunOutputList().getValue() != null) {
 			if (outStream == null) {
 				outStream = getOutStream();
 				InputAgent.printRunOutputHeaders(this, outStream);
@@ -451,6 +588,22 @@ public class JaamSimModel {
 			InputAgent.printRunOutputs(this, outStream, EventManager.simSeconds());
 		}
 
+		// Append the run to the results file
+		if (getSimulation().isRecordRunResults()) {
+			ArrayList<Object> values = new ArrayList<>();
+			ArrayList<Class<? extends Unit>> unitTypes = new ArrayList<>();
+			InputAgent.getRunResults(this, EventManager.simSeconds(), values, unitTypes);
+
+			// The units for the outputs are set by the first run
+			if (runResults == null)
+				runResults = new RunResultsWriter(getRunResultsFile(), runIndexList.size(),
+						InputAgent.getRunOutputHeaders(this), unitTypes);
+			runResults.write(getRunNumber(), runIndexList, EventManager.simSeconds(), values,
+					unitTypes);
+			if (isLastRun())
+				closeRunResults();
+		}
+
 		// Increment the run number and check for last run
 		if (isLastRun()) {
 			end();
@@ -493,6 +646,12 @@ public class JaamSimModel {
 	 */
 	public void end() {
 
+		// Wait for the output report to be written
+		closeReportWriter();
+
+		// Complete the event trace file
+		closeTraceListener();
+
 		// Close warning/error trace file
 		LogBox.logLine("Made it to do end at");
 		closeLogFile();
@@ -1084,14 +1243,16 @@ public class JaamSimModel {
 	public void addObjectType(ObjectType ot) {
 		synchronized (objectTypes) {
 			objectTypes.add(ot);
-			objectTypeMap.put(ot.getJavaClass(), ot);
+			if (ot.getJavaClass() != null)
+				objectTypeMap.put(ot.getJavaClass(), ot);
 		}
 	}
 
 	public void removeObjectType(ObjectType ot) {
 		synchronized (objectTypes) {
 			objectTypes.remove(ot);
-			objectTypeMap.remove(ot.getJavaClass());
+			if (ot.getJavaClass() != null)
+				objectTypeMap.remove(ot.getJavaClass());
 		}
 	}
 
@@ -1101,10 +1262,14 @@ public class JaamSimModel {
 		}
 	}
 
+	/**
+	 * Returns the ObjectType for the specified class. This method is called each time an entity
+	 * is created and does not need to lock the list of ObjectTypes.
+	 * @param klass - entity class
+	 * @return ObjectType for the class, or null if none has been defined.
+	 */
 	public ObjectType getObjectTypeForClass(Class<? extends Entity> klass) {
-		synchronized (objectTypes) {
-			return objectTypeMap.get(klass);
-		}
+		return objectTypeMap.get(klass);
 	}
 
 	public void addView(View v) {
@@ -1223,6 +1388,72 @@ public class JaamSimModel {
 		return reportFile;
 	}
 
+	private void closeReportWriter() {
+		if (reportWriter == null)
+			return;
+		ReportWriter writer = reportWriter;
+		reportWriter = null;
+		try {
+			writer.waitForReport();
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private String getEventTraceFileName(boolean binary) {
+		String ext = binary ? BinaryEventRecorder.EXTENSION : ".evt";
+		return configFile.getParentFile() + File.separator + getRunName() + ext;
+	}
+
+	private void closeTraceListener() {
+		if (traceListener == null)
+			return;
+		eventManager.setTraceListener(null);
+		EventTraceListener listener = traceListener;
+		traceListener = null;
+		if (!(listener instanceof Closeable))
+			return;
+		try {
+			((Closeable) listener).close();
+		}
+		catch (IOException e) {
+			InputAgent.logMessage(this, "Unable to close the event trace file: %s", e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the file to which the results for each run are appended.
+	 */
+	public File getRunResultsFile() {
+		return new File(getReportFileName(getRunName()) + RunResultsWriter.EXTENSION);
+	}
+
+	/**
+	 * Opens the results that have been recorded for the simulation runs.
+	 * @return reader used to query the results
+	 * @throws IOException if the results file cannot be read
+	 */
+	public RunResultsReader openRunResults() throws IOException {
+		return new RunResultsReader(getRunResultsFile());
+	}
+
+	private void closeRunResults() {
+		if (runResults == null)
+			return;
+		runResults.close();
+		runResults = null;
+	}
+
+	private void closeOutColumnFile() {
+		if (outLog == null)
+			return;
+		outLog.close();
+		outColumnFile.close();
+		outLog = null;
+		outColumnFile = null;
+	}
+
 	public PrintStream getOutStream() {
 		if (outStream == null) {
 
@@ -1264,6 +1495,32 @@ public class JaamSimModel {
 		return scriptMode;
 	}
 
+	/**
+	 * Specifies whether the configuration file is to be read as text and a model image written
+	 * for it, instead of using an existing model image.
+	 * @param bool - TRUE if a model image is to be written.
+	 */
+	public void setCompileImage(boolean bool) {
+		compileImage = bool;
+	}
+
+	public boolean isCompileImage() {
+		return compileImage;
+	}
+
+	/**
+	 * Specifies whether the time taken to read, tokenize, apply, and validate the inputs is to
+	 * be written to the log each time a configuration file is loaded.
+	 * @param bool - TRUE if the load times are to be logged.
+	 */
+	public void setLogLoadTimes(boolean bool) {
+		logLoadTimes = bool;
+	}
+
+	public boolean isLogLoadTimes() {
+		return logLoadTimes;
+	}
+
 	public void setSessionEdited(boolean bool) {
 		sessionEdited = bool;
 	}
@@ -0,0 +1,307 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the entries for a log file on a background thread.
+ * <p>
+ * The simulation thread appends the strings and numbers for each entry to a ring buffer of
+ * fixed size without converting the numbers to text. The entries are passed to the
+ * background thread in batches, which it converts to text and writes to the file in large
+ * blocks. The text is identical to that produced by FileEntity.format using the "%s"
+ * conversion.
+ * <p>
+ * If the buffer is full, the simulation thread waits for the background thread to release
+ * space. The flush method must be called before the FileEntity is written to directly or is
+ * closed.
+ * <p>
+ * The entries can be written to a ColumnFileWriter instead of a text file. In this case, each
+ * line of the log is a row, the tab characters separate the columns, and the numbers and
+ * entities keep their types.
+ */
+public class LogWriter {
+
+	private static final int CAPACITY = 1 << 14;  // number of items, must be a power of two
+	private static final int MASK = CAPACITY - 1;
+	private static final int BATCH_SIZE = CAPACITY/4;  // number of items passed to the writer at once
+	private static final long IDLE_NANOS = 50000000L;
+
+	private static final byte STRING = 0;
+	private static final byte DOUBLE = 1;
+	private static final byte CHAR = 2;
+	private static final byte LONG = 3;
+	private static final byte ENTITY = 4;
+	private static final byte NEWLINE = 5;
+
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	private final FileEntity file;
+	private final ColumnFileWriter columnFile;
+	private final Thread thread;
+
+	// Ring buffer containing the items to be written
+	private final byte[] kind = new byte[CAPACITY];
+	private final double[] num = new double[CAPACITY];
+	private final long[] lng = new long[CAPACITY];
+	private final String[] str = new String[CAPACITY];
+
+	// Used only by the simulation thread
+	private long tail;           // position of the next item
+	private long lastPublished;  // number of items passed to the writer
+	private long lastConsumed;   // number of items known to have been written
+
+	private volatile long published;  // number of items that can be written
+	private volatile long consumed;   // number of items that have been written
+	private volatile Thread waitingThread;  // simulation thread waiting for the writer
+	private volatile boolean closed;
+
+	public LogWriter(FileEntity f, String name) {
+		this(f, null, name);
+	}
+
+	public LogWriter(ColumnFileWriter f, String name) {
+		this(null, f, name);
+	}
+
+	private LogWriter(FileEntity f, ColumnFileWriter cf, String name) {
+		file = f;
+		columnFile = cf;
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeItems();
+			}
+		}, "LogWriter-" + name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Appends a string to the log.
+	 */
+	public void append(String s) {
+		int k = nextSlot();
+		kind[k] = STRING;
+		str[k] = s;
+	}
+
+	/**
+	 * Appends a number to the log. The number is converted to text in the same way as by
+	 * Double.toString.
+	 */
+	public void append(double val) {
+		int k = nextSlot();
+		kind[k] = DOUBLE;
+		num[k] = val;
+	}
+
+	/**
+	 * Appends an integer to the log.
+	 */
+	public void append(long val) {
+		int k = nextSlot();
+		kind[k] = LONG;
+		lng[k] = val;
+	}
+
+	/**
+	 * Appends an entity to the log. The entity is written as its name, or as "null" if there
+	 * is no entity.
+	 */
+	public void append(Entity ent) {
+		int k = nextSlot();
+		kind[k] = ENTITY;
+		if (ent == null) {
+			lng[k] = -1L;
+			str[k] = "null";
+			return;
+		}
+		lng[k] = ent.getEntityNumber();
+		str[k] = ent.getName();
+	}
+
+	/**
+	 * Appends a single character to the log.
+	 */
+	public void append(char c) {
+		int k = nextSlot();
+		kind[k] = CHAR;
+		num[k] = c;
+	}
+
+	/**
+	 * Appends the line separator to the log.
+	 */
+	public void newLine() {
+		int k = nextSlot();
+		kind[k] = NEWLINE;
+	}
+
+	/**
+	 * Marks the end of an entry. The items appended to the log are passed to the background
+	 * thread once a full batch has accumulated.
+	 */
+	public void endRecord() {
+		if (tail - lastPublished >= BATCH_SIZE)
+			publish();
+	}
+
+	private void publish() {
+		published = tail;
+		lastPublished = tail;
+		LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Waits for all the items appended to the log to be written to the FileEntity and then
+	 * flushes the FileEntity.
+	 */
+	public void flush() {
+		publish();
+		waitForConsumed(tail);
+		if (file != null)
+			file.flush();
+		else
+			columnFile.flush();
+	}
+
+	/**
+	 * Writes any remaining items and stops the background thread. The FileEntity or
+	 * ColumnFileWriter is not closed.
+	 */
+	public void close() {
+		flush();
+		closed = true;
+		LockSupport.unpark(thread);
+	}
+
+	private int nextSlot() {
+		if (tail - lastConsumed >= CAPACITY) {
+			lastConsumed = consumed;
+			if (tail - lastConsumed >= CAPACITY) {
+				publish();
+				waitForConsumed(tail - CAPACITY + 1);
+			}
+		}
+		return (int) (tail++ & MASK);
+	}
+
+	private void waitForConsumed(long pos) {
+		while (consumed < pos) {
+			if (!thread.isAlive())
+				throw new ErrorException("The log writer has stopped unexpectedly: %s", thread.getName());
+			waitingThread = Thread.currentThread();
+			if (consumed < pos)
+				LockSupport.park(this);
+			waitingThread = null;
+		}
+		lastConsumed = consumed;
+	}
+
+	/**
+	 * Converts the items in the buffer to text and writes them to the FileEntity. Executed by
+	 * the background thread.
+	 */
+	private void writeItems() {
+		StringBuilder sb = new StringBuilder();
+		long pos = 0L;
+		while (true) {
+			long end = published;
+
+			// Wait for the next batch of items
+			if (pos == end) {
+				if (closed)
+					return;
+				LockSupport.parkNanos(this, IDLE_NANOS);
+				continue;
+			}
+
+			if (file != null)
+				writeText(pos, end, sb);
+			else
+				writeColumns(pos, end);
+
+			// Release the space in the buffer and wake the simulation thread if it is waiting
+			pos = end;
+			consumed = pos;
+			Thread waiting = waitingThread;
+			if (waiting != null)
+				LockSupport.unpark(waiting);
+		}
+	}
+
+	private void writeText(long pos, long end, StringBuilder sb) {
+		sb.setLength(0);
+		for (long i = pos; i < end; i++) {
+			int k = (int) (i & MASK);
+			switch (kind[k]) {
+			case STRING:
+			case ENTITY:
+				sb.append(str[k]);
+				str[k] = null;
+				break;
+			case DOUBLE:
+				sb.append(num[k]);
+				break;
+			case CHAR:
+				sb.append((char) num[k]);
+				break;
+			case LONG:
+				sb.append(lng[k]);
+				break;
+			case NEWLINE:
+				sb.append(LINE_SEPARATOR);
+				break;
+			}
+		}
+		file.write(sb.toString());
+	}
+
+	private void writeColumns(long pos, long end) {
+		for (long i = pos; i < end; i++) {
+			int k = (int) (i & MASK);
+			switch (kind[k]) {
+			case STRING:
+				columnFile.add(str[k]);
+				str[k] = null;
+				break;
+			case ENTITY:
+				columnFile.addEntity(lng[k], str[k]);
+				str[k] = null;
+				break;
+			case DOUBLE:
+				columnFile.add(num[k]);
+				break;
+			case CHAR:
+				if ((char) num[k] == '\t')
+					columnFile.nextColumn();
+				else
+					columnFile.add(String.valueOf((char) num[k]));
+				break;
+			case LONG:
+				columnFile.add(lng[k]);
+				break;
+			case NEWLINE:
+				columnFile.newRow();
+				break;
+			}
+		}
+	}
+
+}
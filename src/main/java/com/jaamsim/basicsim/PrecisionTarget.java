@@ -0,0 +1,38 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+/**
+ * An object that estimates a steady-state mean and can report when the estimate has reached a
+ * specified precision. Used by the StopAtTargetPrecision input to Simulation.
+ */
+public interface PrecisionTarget {
+
+	/**
+	 * Returns whether a target precision has been specified for this object.
+	 * @return true if a target precision has been specified
+	 */
+	public boolean isTargetPrecisionSet();
+
+	/**
+	 * Returns whether the estimate has reached the target precision.
+	 * @param simTime - present simulation time
+	 * @return true if the target precision has been reached
+	 */
+	public boolean isTargetPrecisionReached(double simTime);
+
+}
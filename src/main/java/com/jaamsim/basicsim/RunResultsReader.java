@@ -0,0 +1,390 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Queries the simulation run results written by RunResultsWriter.
+ * <p>
+ * The index file is read when the reader is opened. The runs are selected using the index and
+ * only the records for the selected runs are read from the results file. Runs that were
+ * recorded after the reader was opened are found by calling refresh.
+ * <p>
+ * The results can be queried from the command line:
+ * <pre>
+ * RunResultsReader resultsFile [output [index=value ...]]
+ * </pre>
+ * The value of the output is printed for each run whose run indices match the specified values,
+ * e.g. 'RunResultsReader model.jres "[Queue1].AverageQueueTime" 2=5' prints the output for the
+ * runs with a value of 5 for the second run index. All the outputs are printed if no output is
+ * specified.
+ */
+public class RunResultsReader {
+
+	private final File file;
+	private RandomAccessFile data;
+	private final int numIndices;
+	private final ArrayList<String> outputNames;
+	private final ArrayList<String> outputUnits;
+
+	// Contents of the index file
+	private int numRuns;
+	private int[] runNumbers = new int[64];
+	private int[][] runIndices;
+	private long[] positions = new long[64];
+	private int[] lengths = new int[64];
+	private long indexPos;  // position of the next entry in the index file
+
+	// Present record
+	private int recordNum = -1;
+	private double simTime;
+	private final Object[] values;
+
+	public RunResultsReader(File f) throws IOException {
+		file = f;
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != RunResultsWriter.MAGIC)
+				throw new IOException("Not a run results file: " + file.getPath());
+			int ver = in.readInt();
+			if (ver != RunResultsWriter.VERSION)
+				throw new IOException(String.format("Unsupported run results file version %s: %s",
+						ver, file.getPath()));
+			numIndices = in.readInt();
+			int numOutputs = in.readInt();
+			outputNames = new ArrayList<>(numOutputs);
+			outputUnits = new ArrayList<>(numOutputs);
+			for (int i = 0; i < numOutputs; i++) {
+				outputNames.add(readString(in));
+				outputUnits.add(readString(in));
+			}
+		}
+		finally {
+			in.close();
+		}
+		runIndices = new int[64][];
+		values = new Object[outputNames.size()];
+		data = new RandomAccessFile(file, "r");
+		try {
+			refresh();
+		}
+		catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the index entries for any runs that have been recorded since the index was last read.
+	 */
+	public void refresh() throws IOException {
+		File indexFile = RunResultsWriter.getIndexFile(file);
+		int entrySize = 4*(numIndices + 1) + 8 + 4;
+		try (RandomAccessFile index = new RandomAccessFile(indexFile, "r")) {
+			if (indexPos == 0L) {
+				if (index.readInt() != RunResultsWriter.INDEX_MAGIC
+						|| index.readInt() != RunResultsWriter.VERSION
+						|| index.readInt() != numIndices)
+					throw new IOException("Invalid run results index file: " + indexFile.getPath());
+				indexPos = index.getFilePointer();
+			}
+
+			// Read the complete entries only
+			int n = (int) ((index.length() - indexPos) / entrySize);
+			if (n <= 0)
+				return;
+			byte[] bytes = new byte[n*entrySize];
+			index.seek(indexPos);
+			index.readFully(bytes);
+			indexPos += bytes.length;
+
+			ensureCapacity(numRuns + n);
+			ByteBuffer buf = ByteBuffer.wrap(bytes);
+			for (int k = 0; k < n; k++) {
+				runNumbers[numRuns] = buf.getInt();
+				int[] inds = new int[numIndices];
+				for (int i = 0; i < numIndices; i++) {
+					inds[i] = buf.getInt();
+				}
+				runIndices[numRuns] = inds;
+				positions[numRuns] = buf.getLong();
+				lengths[numRuns] = buf.getInt();
+				numRuns++;
+			}
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private void ensureCapacity(int n) {
+		if (n <= runNumbers.length)
+			return;
+		int size = Math.max(n, runNumbers.length*2);
+		runNumbers = Arrays.copyOf(runNumbers, size);
+		runIndices = Arrays.copyOf(runIndices, size);
+		positions = Arrays.copyOf(positions, size);
+		lengths = Arrays.copyOf(lengths, size);
+	}
+
+	public ArrayList<String> getOutputNames() {
+		return outputNames;
+	}
+
+	/**
+	 * Returns the SI unit for each output, or an empty string if the output is not a number
+	 * or is dimensionless.
+	 */
+	public ArrayList<String> getOutputUnits() {
+		return outputUnits;
+	}
+
+	public int getIndexCount() {
+		return numIndices;
+	}
+
+	/**
+	 * Returns the number of runs in the index.
+	 */
+	public int getRunCount() {
+		return numRuns;
+	}
+
+	/**
+	 * Returns the run number for the specified entry in the index.
+	 */
+	public int getRunNumber(int k) {
+		return runNumbers[k];
+	}
+
+	/**
+	 * Returns the run indices for the specified entry in the index.
+	 */
+	public int[] getRunIndices(int k) {
+		return runIndices[k].clone();
+	}
+
+	/**
+	 * Returns the position of the specified output in the file, or -1 if it was not recorded.
+	 */
+	public int getOutputIndex(String name) {
+		return outputNames.indexOf(name);
+	}
+
+	/**
+	 * Returns the entries in the index whose run indices match the specified values.
+	 * @param indices - values for the run indices, where zero matches any value
+	 * @return list of entries in the index
+	 */
+	public ArrayList<Integer> findRuns(int... indices) {
+		if (indices.length > numIndices)
+			throw new ErrorException("The results have %s run indices, but %s were specified",
+					numIndices, indices.length);
+		ArrayList<Integer> ret = new ArrayList<>();
+		for (int k = 0; k < numRuns; k++) {
+			if (matches(runIndices[k], indices))
+				ret.add(k);
+		}
+		return ret;
+	}
+
+	private static boolean matches(int[] runInds, int[] indices) {
+		for (int i = 0; i < indices.length; i++) {
+			if (indices[i] != 0 && indices[i] != runInds[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the values of the specified output for the runs whose run indices match the
+	 * specified values.
+	 * @param name - output name, as entered in the RunOutputList input
+	 * @param indices - values for the run indices, where zero matches any value
+	 * @return list of output values, each of which is a Double in SI units, a String, or a
+	 *         RunResultsWriter.OutputError
+	 */
+	public ArrayList<Object> query(String name, int... indices) throws IOException {
+		int col = getOutputIndex(name);
+		if (col == -1)
+			throw new ErrorException("Output not found in the run results: %s", name);
+		ArrayList<Integer> runs = findRuns(indices);
+		ArrayList<Object> ret = new ArrayList<>(runs.size());
+		for (int k : runs) {
+			readRecord(k);
+			ret.add(values[col]);
+		}
+		return ret;
+	}
+
+	/**
+	 * Reads the record for the specified entry in the index.
+	 */
+	public void readRecord(int k) throws IOException {
+		if (k == recordNum)
+			return;
+		byte[] bytes = new byte[lengths[k]];
+		data.seek(positions[k]);
+		data.readFully(bytes);
+
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		if (buf.getInt() != runNumbers[k])
+			throw new IOException("Corrupt run results file: " + file.getPath());
+		buf.position(buf.position() + 4*numIndices);
+		simTime = buf.getDouble();
+		for (int i = 0; i < values.length; i++) {
+			byte type = buf.get();
+			switch (type) {
+			case RunResultsWriter.DOUBLE:
+				values[i] = buf.getDouble();
+				break;
+			case RunResultsWriter.STRING:
+				values[i] = getString(buf, bytes);
+				break;
+			case RunResultsWriter.ERROR:
+				values[i] = new RunResultsWriter.OutputError(getString(buf, bytes));
+				break;
+			default:
+				throw new IOException("Corrupt run results file: " + file.getPath());
+			}
+		}
+		recordNum = k;
+	}
+
+	private static String getString(ByteBuffer buf, byte[] bytes) {
+		int len = buf.getInt();
+		String ret = new String(bytes, buf.position(), len, StandardCharsets.UTF_8);
+		buf.position(buf.position() + len);
+		return ret;
+	}
+
+	/**
+	 * Returns the simulation time at which the results were recorded for the present record.
+	 */
+	public double getSimTime() {
+		return simTime;
+	}
+
+	/**
+	 * Returns the value of the specified output for the present record.
+	 * @param col - position of the output in the file
+	 * @return output value as a Double in SI units, a String, or a RunResultsWriter.OutputError
+	 */
+	public Object getValue(int col) {
+		return values[col];
+	}
+
+	public void close() throws IOException {
+		if (data == null)
+			return;
+		data.close();
+		data = null;
+	}
+
+	private static String getRunCode(int[] indices) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < indices.length; i++) {
+			if (i > 0)
+				sb.append('-');
+			sb.append(indices[i]);
+		}
+		return sb.toString();
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage: RunResultsReader resultsFile [output [index=value ...]]");
+			return;
+		}
+
+		try {
+			RunResultsReader reader = new RunResultsReader(new File(args[0]));
+			try {
+				// Select the outputs
+				ArrayList<Integer> cols = new ArrayList<>();
+				if (args.length > 1) {
+					int col = reader.getOutputIndex(args[1]);
+					if (col == -1)
+						throw new IOException("Output not found in the run results: " + args[1]);
+					cols.add(col);
+				}
+				else {
+					for (int i = 0; i < reader.getOutputNames().size(); i++) {
+						cols.add(i);
+					}
+				}
+
+				// Select the runs
+				int[] indices = new int[reader.getIndexCount()];
+				for (int i = 2; i < args.length; i++) {
+					String[] pair = args[i].split("=");
+					int ind;
+					try {
+						ind = Integer.parseInt(pair[0]);
+						if (pair.length != 2 || ind < 1 || ind > indices.length)
+							throw new NumberFormatException();
+						indices[ind - 1] = Integer.parseInt(pair[1]);
+					}
+					catch (NumberFormatException e) {
+						throw new IOException("Invalid run index selection: " + args[i]);
+					}
+				}
+
+				// Print the results
+				StringBuilder sb = new StringBuilder("RunNumber\tRunIndices");
+				for (int col : cols) {
+					sb.append('\t').append(reader.getOutputNames().get(col));
+					String unit = reader.getOutputUnits().get(col);
+					if (!unit.isEmpty())
+						sb.append(" [").append(unit).append(']');
+				}
+				System.out.println(sb.toString());
+				for (int k : reader.findRuns(indices)) {
+					reader.readRecord(k);
+					sb.setLength(0);
+					sb.append(reader.getRunNumber(k));
+					sb.append('\t').append(getRunCode(reader.runIndices[k]));
+					for (int col : cols) {
+						sb.append('\t').append(reader.getValue(col));
+					}
+					System.out.println(sb.toString());
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jaamsim.datatypes.IntegerVector;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Appends the results for each simulation run to a binary results file and its index file.
+ * <p>
+ * The results file starts with a header containing the number of run indices, and the name and
+ * SI unit of each output. It is followed by one record for each run containing the run number,
+ * the run indices, the simulation time at which the results were recorded, and the value of
+ * each output. A number is stored as a DOUBLE value in the SI unit given in the header and any
+ * other value as a STRING. An output that could not be evaluated is stored as an ERROR value
+ * holding the error message. The unit for each output is set by the first run, so a number
+ * with a different unit in a later run is stored as an ERROR.
+ * <p>
+ * The index file contains a fixed-length entry for each run holding the run number, the run
+ * indices, and the position and length of the run's record in the results file. A query can
+ * therefore select the runs using the index file alone and then read only the records it needs.
+ * Both files are flushed at the end of each run so that the results can be queried while the
+ * remaining runs are in progress. The files can be read with RunResultsReader.
+ */
+public class RunResultsWriter {
+
+	static final int MAGIC = 0x4A524553;  // "JRES"
+	static final int INDEX_MAGIC = 0x4A524958;  // "JRIX"
+	static final int VERSION = 2;
+	public static final String EXTENSION = ".jres";
+	public static final String INDEX_EXTENSION = ".jrix";
+
+	static final byte DOUBLE = 1;
+	static final byte STRING = 2;
+	static final byte ERROR = 3;
+
+	private final File file;
+	private final int numIndices;
+	private final int numOutputs;
+	private final ArrayList<Class<? extends Unit>> unitTypes;  // unit for each numeric output
+	private DataOutputStream out;
+	private DataOutputStream indexOut;
+	private long pos;  // position of the next record in the results file
+
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+	private final DataOutputStream recordOut = new DataOutputStream(record);
+
+	/**
+	 * Opens the results file and writes its header.
+	 * @param f - results file
+	 * @param nIndices - number of run indices
+	 * @param outputNames - name for each output
+	 * @param uts - unit type for each output, or null if the output is not a number
+	 */
+	public RunResultsWriter(File f, int nIndices, List<String> outputNames,
+			List<Class<? extends Unit>> uts) {
+		file = f;
+		numIndices = nIndices;
+		numOutputs = outputNames.size();
+		unitTypes = new ArrayList<>(uts);
+		if (unitTypes.size() != numOutputs)
+			throw new ErrorException("There are %s units for %s outputs: %s",
+					unitTypes.size(), numOutputs, file.getPath());
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(numIndices);
+			out.writeInt(numOutputs);
+			for (int i = 0; i < numOutputs; i++) {
+				ColumnFileWriter.writeString(out, outputNames.get(i));
+				ColumnFileWriter.writeString(out, getUnitString(unitTypes.get(i)));
+			}
+
+			indexOut = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(getIndexFile(file))));
+			indexOut.writeInt(INDEX_MAGIC);
+			indexOut.writeInt(VERSION);
+			indexOut.writeInt(numIndices);
+			out.flush();
+			indexOut.flush();
+		}
+		catch (IOException | SecurityException e) {
+			close();
+			throw new InputErrorException("Unable to open file: '%s'%n%s",
+					file.getPath(), e.getMessage());
+		}
+		pos = out.size();
+	}
+
+	/**
+	 * Returns the index file for the specified results file.
+	 */
+	public static File getIndexFile(File f) {
+		String name = f.getName();
+		if (name.endsWith(EXTENSION))
+			name = name.substring(0, name.length() - EXTENSION.length());
+		return new File(f.getParentFile(), name + INDEX_EXTENSION);
+	}
+
+	/**
+	 * Returns the text stored in the header for the specified unit type.
+	 */
+	static String getUnitString(Class<? extends Unit> ut) {
+		if (ut == null || ut == DimensionlessUnit.class)
+			return "";
+		return Unit.getSIUnit(ut);
+	}
+
+	/**
+	 * Appends the results for a simulation run to the file.
+	 * @param runNumber - run number
+	 * @param runIndices - run indices for the run
+	 * @param simTime - simulation time at which the outputs were evaluated
+	 * @param values - output values, as Double in SI units, String, or OutputError
+	 * @param uts - unit type for each numeric value
+	 */
+	public void write(int runNumber, IntegerVector runIndices, double simTime, List<Object> values,
+			List<Class<? extends Unit>> uts) {
+		if (runIndices.size() != numIndices)
+			throw new ErrorException("Run %s has %s run indices instead of %s: %s",
+					runNumber, runIndices.size(), numIndices, file.getPath());
+		if (values.size() != numOutputs || uts.size() != numOutputs)
+			throw new ErrorException("Run %s has %s outputs instead of %s: %s",
+					runNumber, values.size(), numOutputs, file.getPath());
+
+		try {
+			record.reset();
+			recordOut.writeInt(runNumber);
+			for (int i = 0; i < numIndices; i++) {
+				recordOut.writeInt(runIndices.get(i));
+			}
+			recordOut.writeDouble(simTime);
+			for (int i = 0; i < numOutputs; i++) {
+				Object val = values.get(i);
+				if (val instanceof Double && uts.get(i) != unitTypes.get(i)) {
+					val = new OutputError(String.format("Expected a number with unit '%s': %s %s",
+							getUnitString(unitTypes.get(i)), val, getUnitString(uts.get(i))));
+				}
+				if (val instanceof Double) {
+					recordOut.writeByte(DOUBLE);
+					recordOut.writeDouble((Double) val);
+					continue;
+				}
+				if (val instanceof OutputError) {
+					recordOut.writeByte(ERROR);
+					ColumnFileWriter.writeString(recordOut, ((OutputError) val).getMessage());
+					continue;
+				}
+				recordOut.writeByte(STRING);
+				ColumnFileWriter.writeString(recordOut, String.valueOf(val));
+			}
+			record.writeTo(out);
+			out.flush();
+
+			// The index entry is written once the record is complete
+			indexOut.writeInt(runNumber);
+			for (int i = 0; i < numIndices; i++) {
+				indexOut.writeInt(runIndices.get(i));
+			}
+			indexOut.writeLong(pos);
+			indexOut.writeInt(record.size());
+			indexOut.flush();
+			pos += record.size();
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to write file: %s%n%s", file.getPath(), e.getMessage());
+		}
+	}
+
+	public void close() {
+		try {
+			if (out != null)
+				out.close();
+			if (indexOut != null)
+				indexOut.close();
+		}
+		catch (IOException e) {
+			InputAgent.logMessage("Unable to close file: " + file.getPath());
+		}
+		out = null;
+		indexOut = null;
+	}
+
+	/**
+	 * Marks an output that could not be evaluated for a run.
+	 */
+	public static final class OutputError {
+		private final String message;
+
+		public OutputError(String msg) {
+			message = msg == null ? "" : msg;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof OutputError && ((OutputError) obj).message.equals(message);
+		}
+
+		@Override
+		public int hashCode() {
+			return message.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "ERROR: " + message;
+		}
+	}
+
+}
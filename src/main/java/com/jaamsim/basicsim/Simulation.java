@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2002-2011 Ausenco Engineering Canada Inc.
- * Copyright (C) 2016-2019 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,8 @@ import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.ProbabilityDistributions.RandomStreamUser;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
+import com.jaamsim.Samples.SampleListInput;
+import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.StringProviders.StringProvListInput;
 import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.events.EventManager;
@@ -40,6 +42,7 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.KeywordIndex;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.RunNumberInput;
+import com.jaamsim.input.StringListInput;
 import com.jaamsim.input.UnitTypeListInput;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.math.Vec3d;
@@ -66,10 +69,28 @@ public class Simulation extends Entity {
 	                     + "run for the InitializationDuration interval and then clear the "
 	                     + "statistics and execute for the specified RunDuration interval. "
 	                     + "The total length of the simulation run will be the sum of the "
-	                     + "InitializationDuration and RunDuration inputs.",
+	                     + "InitializationDuration and RunDuration inputs. "
+	                     + "If the WarmUpOutputList input is specified, the initialization "
+	                     + "period is detected automatically and this input is the longest "
+	                     + "initialization period that will be used.",
 	         exampleList = {"720 h"})
 	private final ValueInput initializationTime;
 
+	@Keyword(description = "An optional list of expressions whose values are used to detect the "
+	                     + "end of the initialization period automatically. Each expression is "
+	                     + "evaluated at the interval given by the WarmUpSamplingInterval input "
+	                     + "and the MSER-5 rule is applied to its values. The statistics are "
+	                     + "cleared as soon as a truncation point has been found for every "
+	                     + "expression, and the run then continues for the RunDuration interval. "
+	                     + "Each expression must return a dimensionless number.",
+	         exampleList = {"{ [Queue1].QueueLength } { '[Server1].Utilisation' }"})
+	private final SampleListInput warmUpOutputList;
+
+	@Keyword(description = "The interval between evaluations of the expressions in the "
+	                     + "WarmUpOutputList input.",
+	         exampleList = {"1 h"})
+	private final ValueInput warmUpSamplingInterval;
+
 	@Keyword(description = "If TRUE, the simulation uses the standard Gregorian calendar that "
 	                     + "includes leap years. "
 	                     + "If FALSE, the simulation uses a simplified calendar that has a fixed "
@@ -93,6 +114,14 @@ public class Simulation extends Entity {
 	         exampleList = {"TRUE"})
 	private final BooleanInput exitAtPauseCondition;
 
+	@Keyword(description = "If TRUE, the simulation run will be terminated once every object "
+	                     + "with a TargetPrecision input has estimated its steady-state mean to "
+	                     + "the specified precision. The run will not be terminated before the "
+	                     + "end of the initialization period and will not continue beyond the "
+	                     + "RunDuration.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput stopAtTargetPrecision;
+
 	@Keyword(description = "If TRUE, the program will be closed on completion of the last "
 	                     + "simulation run. Otherwise, the last run will be paused.",
 	         exampleList = {"TRUE"})
@@ -114,6 +143,17 @@ public class Simulation extends Entity {
 	         exampleList = {"TRUE"})
 	private final BooleanInput printReport;
 
+	@Keyword(description = "The object types whose entities are included in the output report. "
+	                     + "If not specified, every object type with reportable outputs is "
+	                     + "included.",
+	         exampleList = {"Simulation Server Queue"})
+	private final EntityListInput<ObjectType> reportClassList;
+
+	@Keyword(description = "The names of the outputs that are included in the output report. "
+	                     + "If not specified, every reportable output is included.",
+	         exampleList = {"NumberAdded Utilisation AverageQueueTime"})
+	private final StringListInput reportOutputList;
+
 	@Keyword(description = "The directory in which to place the output report. Defaults to the "
 	                     + "directory containing the configuration file for the run.",
 	         exampleList = {"'c:/reports/'"})
@@ -138,6 +178,24 @@ public class Simulation extends Entity {
 	         exampleList = {"{ [Simulation].RunNumber } { '[Queue1].AverageQueueTime / 1[h]' }"})
 	protected final StringProvListInput runOutputList;
 
+	@Keyword(description = "If TRUE, the outputs selected by the RunOutputList input are written "
+	                     + "to a compressed binary file <configuration file name>.jcol instead of "
+	                     + "a text file. The file can be converted to tab-separated text using "
+	                     + "com.jaamsim.basicsim.ColumnFileReader.",
+	         exampleList = { "TRUE" })
+	private final BooleanInput runOutputBinaryFormat;
+
+	@Keyword(description = "If TRUE, the run number, run indices, and the outputs selected by the "
+	                     + "RunOutputList input are appended to a binary results file "
+	                     + "<configuration file name>.jres at the end of each run, together with "
+	                     + "an index file <configuration file name>.jrix. The index allows the "
+	                     + "results for the runs with selected run indices to be retrieved without "
+	                     + "reading the whole file. Numbers are stored in SI units and the unit "
+	                     + "for each output is recorded with its name. The results can be queried "
+	                     + "using com.jaamsim.basicsim.RunResultsReader.",
+	         exampleList = { "TRUE" })
+	private final BooleanInput recordRunResults;
+
 	@Keyword(description = "The maximum number of entities to display in the view windows. "
 	                     + "A model can contain more than this number of entities, but only this "
 	                     + "number will be displayed.",
@@ -333,8 +391,18 @@ public class Simulation extends Entity {
 	         exampleList = {"TRUE"})
 	private final BooleanInput verifyEventsInput;
 
+	@Keyword(description = "If TRUE, the event trace written by TraceEvents and read by "
+	                     + "VerifyEvents uses a compact binary format (.evb file) instead of "
+	                     + "text (.evt file). A binary trace can be converted to the text "
+	                     + "format using BinaryEventTraceReader.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput binaryEventTraceInput;
+
 	private String modelName = "JaamSim";
 
+	private double autoInitializationTime;  // initialization period selected by warm-up detection
+	private double detectedWarmUp;  // truncation point found by warm-up detection
+
 	{
 		// Key Inputs tab
 		runDuration = new ValueInput("RunDuration", KEY_INPUTS, 31536000.0d);
@@ -347,6 +415,15 @@ public class Simulation extends Entity {
 		initializationTime.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(initializationTime);
 
+		warmUpOutputList = new SampleListInput("WarmUpOutputList", KEY_INPUTS, null);
+		warmUpOutputList.setUnitType(DimensionlessUnit.class);
+		this.addInput(warmUpOutputList);
+
+		warmUpSamplingInterval = new ValueInput("WarmUpSamplingInterval", KEY_INPUTS, null);
+		warmUpSamplingInterval.setUnitType(TimeUnit.class);
+		warmUpSamplingInterval.setValidRange(1e-15d, Double.POSITIVE_INFINITY);
+		this.addInput(warmUpSamplingInterval);
+
 		gregorianCalendar = new BooleanInput("GregorianCalendar", OPTIONS, false);
 		this.addInput(gregorianCalendar);
 
@@ -360,6 +437,9 @@ public class Simulation extends Entity {
 		exitAtPauseCondition = new BooleanInput("ExitAtPauseCondition", OPTIONS, false);
 		this.addInput(exitAtPauseCondition);
 
+		stopAtTargetPrecision = new BooleanInput("StopAtTargetPrecision", OPTIONS, false);
+		this.addInput(stopAtTargetPrecision);
+
 		exitAtStop = new BooleanInput("ExitAtStop", KEY_INPUTS, false);
 		this.addInput(exitAtStop);
 
@@ -371,6 +451,12 @@ public class Simulation extends Entity {
 		printReport = new BooleanInput("PrintReport", KEY_INPUTS, false);
 		this.addInput(printReport);
 
+		reportClassList = new EntityListInput<>(ObjectType.class, "ReportClassList", KEY_INPUTS, null);
+		this.addInput(reportClassList);
+
+		reportOutputList = new StringListInput("ReportOutputList", KEY_INPUTS, null);
+		this.addInput(reportOutputList);
+
 		reportDirectory = new DirInput("ReportDirectory", KEY_INPUTS, null);
 		reportDirectory.setDefaultText("Configuration File Directory");
 		this.addInput(reportDirectory);
@@ -382,6 +468,12 @@ public class Simulation extends Entity {
 		runOutputList = new StringProvListInput("RunOutputList", KEY_INPUTS, null);
 		this.addInput(runOutputList);
 
+		runOutputBinaryFormat = new BooleanInput("RunOutputBinaryFormat", KEY_INPUTS, false);
+		this.addInput(runOutputBinaryFormat);
+
+		recordRunResults = new BooleanInput("RecordRunResults", KEY_INPUTS, false);
+		this.addInput(recordRunResults);
+
 		maxEntitiesToDisplay = new IntegerInput("MaxEntitiesToDisplay", OPTIONS, 10000);
 		maxEntitiesToDisplay.setValidRange(0, Integer.MAX_VALUE);
 		this.addInput(maxEntitiesToDisplay);
@@ -615,6 +707,10 @@ public class Simulation extends Entity {
 		verifyEventsInput.setHidden(true);
 		this.addInput(verifyEventsInput);
 
+		binaryEventTraceInput = new BooleanInput("BinaryEventTrace", KEY_INPUTS, false);
+		binaryEventTraceInput.setHidden(true);
+		this.addInput(binaryEventTraceInput);
+
 		printInputReport = new BooleanInput("PrintInputReport", KEY_INPUTS, false);
 		printInputReport.setHidden(true);
 		this.addInput(printInputReport);
@@ -803,6 +899,23 @@ public class Simulation extends Entity {
 					+ "Present value: %g seconds.",
 					maxRunDuration, runDuration.getValue(), tickLengthInput.getValue());
 		}
+
+		if (isWarmUpDetectionSet()) {
+			if (warmUpSamplingInterval.getValue() == null)
+				throw new ErrorException("The WarmUpSamplingInterval input must be specified "
+						+ "when the WarmUpOutputList input is used.");
+			if (initializationTime.getValue() <= 0.0d)
+				throw new ErrorException("The InitializationDuration input must be greater than "
+						+ "zero when the WarmUpOutputList input is used. It sets the longest "
+						+ "initialization period that will be used.");
+		}
+	}
+
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+		autoInitializationTime = Double.NaN;
+		detectedWarmUp = Double.NaN;
 	}
 
 	/**
@@ -868,6 +981,14 @@ public class Simulation extends Entity {
 		return printReport.getValue();
 	}
 
+	public ArrayList<ObjectType> getReportClassList() {
+		return reportClassList.getValue();
+	}
+
+	public ArrayList<String> getReportOutputList() {
+		return reportOutputList.getValue();
+	}
+
 	public boolean traceEvents() {
 		return traceEventsInput.getValue();
 	}
@@ -876,6 +997,10 @@ public class Simulation extends Entity {
 		return verifyEventsInput.getValue();
 	}
 
+	public boolean isBinaryEventTrace() {
+		return binaryEventTraceInput.getValue();
+	}
+
 	public double getTickLength() {
 		return tickLengthInput.getValue();
 	}
@@ -915,9 +1040,38 @@ public class Simulation extends Entity {
 	 * Returns the duration of the initialization period
 	 */
 	public double getInitializationTime() {
+		if (!Double.isNaN(autoInitializationTime))
+			return autoInitializationTime;
 		return initializationTime.getValue();
 	}
 
+	/**
+	 * Returns whether the end of the initialization period is to be detected automatically.
+	 * @return true if the WarmUpOutputList input has been specified
+	 */
+	public boolean isWarmUpDetectionSet() {
+		return warmUpOutputList.getValue() != null;
+	}
+
+	public ArrayList<SampleProvider> getWarmUpOutputList() {
+		return warmUpOutputList.getValue();
+	}
+
+	public double getWarmUpSamplingInterval() {
+		return warmUpSamplingInterval.getValue();
+	}
+
+	/**
+	 * Sets the initialization period for the present run once it has been determined by
+	 * warm-up detection.
+	 * @param initTime - time at which the statistics were cleared, relative to the start time
+	 * @param warmUp - truncation point found by the MSER-5 rule, or NaN if none was found
+	 */
+	void setWarmUp(double initTime, double warmUp) {
+		autoInitializationTime = initTime;
+		detectedWarmUp = warmUp;
+	}
+
 	/**
 	 * Returns whether a Gregorian calendar with leap years and leap seconds is used.
 	 * @return true if the calendar is Gregorian
@@ -937,6 +1091,14 @@ public class Simulation extends Entity {
 		return runOutputList;
 	}
 
+	public boolean isRunOutputBinaryFormat() {
+		return runOutputBinaryFormat.getValue();
+	}
+
+	public boolean isRecordRunResults() {
+		return recordRunResults.getValue();
+	}
+
 	public int getMaxEntitiesToDisplay() {
 		return maxEntitiesToDisplay.getValue();
 	}
@@ -973,6 +1135,10 @@ public class Simulation extends Entity {
 		return exitAtPauseCondition.getValue();
 	}
 
+	public boolean getStopAtTargetPrecision() {
+		return stopAtTargetPrecision.getValue();
+	}
+
 	public boolean isPauseConditionSet() {
 		return pauseConditionInput.getValue() != null;
 	}
@@ -1382,14 +1548,27 @@ public class Simulation extends Entity {
 	  reportable = true,
 	    sequence = 6)
 	public double getInitializationDuration(double simTime) {
-		return initializationTime.getValue();
+		return getInitializationTime();
+	}
+
+	@Output(name = "DetectedWarmUp",
+	 description = "The length of the initial transient found by the MSER-5 rule for the "
+	             + "present run when the WarmUpOutputList input is used. The statistics are "
+	             + "cleared at the time the transient is detected, which is given by the "
+	             + "Initialization Duration output. NaN is returned if no truncation point was "
+	             + "found before the InitializationDuration input was reached.",
+	    unitType = TimeUnit.class,
+	  reportable = true,
+	    sequence = 7)
+	public double getDetectedWarmUp(double simTime) {
+		return detectedWarmUp;
 	}
 
 	@Output(name = "Run Duration",
 	 description = "The length of time over which statistics were collected.",
 	    unitType = TimeUnit.class,
 	  reportable = true,
-	    sequence = 7)
+	    sequence = 8)
 	public double getRunDuration(double simTime) {
 		return runDuration.getValue();
 	}
@@ -1398,7 +1577,7 @@ public class Simulation extends Entity {
 	 description = "The value for the simulation clock at the present time.",
 	    unitType = TimeUnit.class,
 	  reportable = true,
-	    sequence = 8)
+	    sequence = 9)
 	public double getPresentSimulationTime(double simTime) {
 		return simTime;
 	}
@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2002-2011 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -220,6 +221,13 @@ public class DoubleVector {
 		numElements = entries;
 	}
 
+	/**
+	 * Return the doubles in this vector as an array.
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(storage, numElements);
+	}
+
 	/**
 	 * Return the number of doubles in this vector.
 	 */
@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,37 +44,42 @@ class EventNode {
 			head = e;
 			tail = e;
 			e.next = null;
+			e.prev = null;
 			return;
 		}
 
 		if (fifo) {
 			tail.next = e;
-			tail = e;
+			e.prev = tail;
 			e.next = null;
+			tail = e;
 		}
 		else {
+			head.prev = e;
 			e.next = head;
+			e.prev = null;
 			head = e;
 		}
 	}
 
+	/**
+	 * Unlinks the specified event from this node's list of events. The list is doubly linked so
+	 * that an event can be removed without searching for its predecessor.
+	 * @param evt - event to be removed
+	 */
 	final void removeEvent(Event evt) {
-		// quick case where we are the head event
-		if (this.head == evt) {
+		if (evt.prev == null)
 			this.head = evt.next;
-			if (evt.next == null)
-				this.tail = null;
-		}
-		else {
-			Event prev = this.head;
-			while (prev.next != evt) {
-				prev = prev.next;
-			}
-
-			prev.next = evt.next;
-			if (evt.next == null)
-				this.tail = prev;
-		}
+		else
+			evt.prev.next = evt.next;
+
+		if (evt.next == null)
+			this.tail = evt.prev;
+		else
+			evt.next.prev = evt.prev;
+
+		evt.next = null;
+		evt.prev = null;
 	}
 
 	final int compareToNode(EventNode other) {
@@ -0,0 +1,565 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.jaamsim.basicsim.JaamSimModel;
+
+/**
+ * Reads the records in a configuration file and its included files, and applies them to a
+ * simulation model.
+ * <p>
+ * When the loader is created with worker threads, each file is read on a worker thread and its
+ * lines are tokenized in chunks of CHUNK_LINES lines that are processed in parallel. The records
+ * are assembled from the tokenized lines and applied to the model in their original order by the
+ * calling thread, which can start on the first chunk of a file while the rest is still being
+ * read. Any file named by an Include record is read in advance as soon as the record has been
+ * tokenized, so that included files are read concurrently with each other and with the
+ * application of the preceding records.
+ * <p>
+ * Entity definitions and keyword inputs are always applied in the order they appear, since an
+ * input can depend on any entity, attribute, or type defined before it.
+ */
+public class ConfigFileLoader {
+
+	static final int CHUNK_LINES = 4096;
+
+	private static final Object END = new Object();
+
+	private final JaamSimModel simModel;
+	private final ExecutorService pool;
+	private final ConcurrentHashMap<URI, SourceFile> prefetched = new ConcurrentHashMap<>();
+	private ModelImage image;  // receives the records that are applied, or null
+
+	// Elapsed time for each phase in nanoseconds
+	private final AtomicLong readNanos = new AtomicLong();
+	private final AtomicLong tokenizeNanos = new AtomicLong();
+	private long applyNanos;
+	private long waitNanos;
+	private int numFiles;
+	private int numRecords;
+
+	/**
+	 * Creates a loader for the specified model.
+	 * @param sim - model to receive the inputs
+	 * @param parallel - if true, files are read and tokenized on worker threads
+	 */
+	public ConfigFileLoader(JaamSimModel sim, boolean parallel) {
+		simModel = sim;
+		if (!parallel) {
+			pool = null;
+			return;
+		}
+
+		int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		pool = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "ConfigFileLoader-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Stops the worker threads once any files that were read in advance have been completed.
+	 */
+	public void close() {
+		if (pool != null)
+			pool.shutdown();
+		prefetched.clear();
+	}
+
+	/**
+	 * Sets the model image that will receive the source files that are read and the records
+	 * that are applied to the model.
+	 */
+	public void setImage(ModelImage img) {
+		image = img;
+	}
+
+	/**
+	 * Applies the records stored in the specified model image file to the model, provided that
+	 * the image is up to date.
+	 * @param file - model image file
+	 * @return false if the image does not exist or is out of date
+	 */
+	public boolean applyImage(File file) {
+		long startNanos = System.nanoTime();
+		ModelImage img = ModelImage.read(file);
+		boolean current = img != null && img.isCurrent();
+		readNanos.addAndGet(System.nanoTime() - startNanos);
+		if (!current)
+			return false;
+		apply(img);
+		return true;
+	}
+
+	/**
+	 * Applies the records stored in the specified model image to the model.
+	 */
+	public void apply(ModelImage img) {
+		long startNanos = System.nanoTime();
+		numFiles += img.getSourceCount();
+		ArrayList<String> record = new ArrayList<>();
+		for (int i = 0; i < img.getRecordCount(); i++) {
+			ParseContext pc = img.getRecord(i, record);
+			applyRecord(pc, record);
+		}
+		applyNanos += System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Reads the specified file and applies its records to the model.
+	 * @param root - folder that the file is restricted to
+	 * @param path - folder used to resolve a relative file path
+	 * @param file - file path
+	 * @return false if the file could not be opened
+	 * @throws URISyntaxException
+	 */
+	public boolean readStream(String root, URI path, String file) throws URISyntaxException {
+		URI resolved = InputAgent.getFileURI(path, file, root);
+
+		// Use the file if it has been read in advance
+		SourceFile src = prefetched.remove(resolved);
+		if (src == null) {
+			URL url = null;
+			try {
+				url = resolved.normalize().toURL();
+			}
+			catch (MalformedURLException e) {
+				InputAgent.rethrowWrapped(e);
+			}
+
+			if (url == null) {
+				InputAgent.logError(simModel,
+						"Unable to resolve path %s%s - %s", root, path.toString(), file);
+				return false;
+			}
+
+			src = new SourceFile(url, null, resolved, root);
+			start(src);
+		}
+		return process(src);
+	}
+
+	/**
+	 * Applies the records from the specified reader to the model.
+	 * @param buf - source of the records, closed when all the records have been read
+	 * @param resolved - location of the source used to resolve included files
+	 * @param root - folder that included files are restricted to
+	 */
+	public void readBufferedStream(BufferedReader buf, URI resolved, String root) {
+		SourceFile src = new SourceFile(null, buf, resolved, root);
+		start(src);
+		process(src);
+	}
+
+	private void start(SourceFile src) {
+		if (pool == null) {
+			src.run();
+			return;
+		}
+		pool.execute(src);
+	}
+
+	private void execute(FutureTask<Chunk> task) {
+		if (pool == null || pool.isShutdown()) {
+			task.run();
+			return;
+		}
+		try {
+			pool.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Starts reading an included file on a worker thread.
+	 */
+	private void prefetch(ParseContext pc, String file) {
+		try {
+			URI resolved = InputAgent.getFileURI(pc.context, file.replaceAll("\\\\", "/"), pc.jail);
+			URL url = resolved.normalize().toURL();
+			SourceFile src = new SourceFile(url, null, resolved, pc.jail);
+			if (prefetched.putIfAbsent(resolved, src) == null)
+				pool.execute(src);
+		}
+		catch (URISyntaxException | MalformedURLException | IllegalArgumentException e) {
+			// The error is reported when the Include record is processed
+		}
+		catch (RejectedExecutionException e) {
+			// The loader has been closed
+		}
+	}
+
+	/**
+	 * Assembles the tokenized lines from the specified source into records and applies them to
+	 * the model in order.
+	 * @return false if the source could not be opened
+	 */
+	private boolean process(SourceFile src) {
+		long startNanos = System.nanoTime();
+		long startWait = waitNanos;
+		numFiles++;
+		try {
+			Object first = src.take();
+			if (first instanceof IOException) {
+				InputAgent.logError(simModel,
+						"Could not read from url: '%s'%n%s", src.url.toString(),
+						((IOException) first).getMessage());
+				return false;
+			}
+			if (image != null)
+				image.addSource(src.pc.context);
+
+			ArrayList<String> record = new ArrayList<>();
+			int braceDepth = 0;
+			Chunk chunk = null;
+			int ind = 0;
+
+			while (true) {
+				// end of file, stop reading
+				if (chunk == null || ind == chunk.lines.size()) {
+					chunk = src.nextChunk();
+					ind = 0;
+					if (chunk == null)
+						break;
+				}
+
+				String line = chunk.lines.get(ind);
+				int previousRecordSize = record.size();
+				record.addAll(chunk.tokens.get(ind));
+				boolean quoted = chunk.quoted[ind];
+				ind++;
+
+				// Keep reading lines if the end of line was hit while in quoted context
+				while (quoted) {
+
+					// Append the next line to the line
+					if (chunk == null || ind == chunk.lines.size()) {
+						chunk = src.nextChunk();
+						ind = 0;
+						if (chunk == null)  // end of file
+							break;
+					}
+					String nextLine = chunk.lines.get(ind);
+					ind++;
+					StringBuilder sb = new StringBuilder(line);
+					sb.append(nextLine);
+					line = sb.toString();
+
+					// Clear the record and tokenize the now longer line
+					record.clear();
+					quoted = Parser.tokenize(record, line, true);
+				}
+
+				braceDepth = InputAgent.getBraceDepth(simModel, record, braceDepth, previousRecordSize);
+				if( braceDepth != 0 )
+					continue;
+
+				if (record.size() == 0)
+					continue;
+
+				if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
+					numRecords++;
+					InputAgent.echoInputRecord(simModel, record);
+					long includeNanos = System.nanoTime();
+					long includeWait = waitNanos;
+					try {
+						processIncludeRecord(src.pc, record);
+					}
+					catch (URISyntaxException ex) {
+						InputAgent.rethrowWrapped(ex);
+					}
+					// The times for the included file have already been counted
+					startNanos += System.nanoTime() - includeNanos;
+					startWait += waitNanos - includeWait;
+					record.clear();
+					continue;
+				}
+
+				applyRecord(src.pc, record);
+				record.clear();
+			}
+
+			// Leftover Input at end of file
+			if (record.size() > 0)
+				InputAgent.logBadInput(simModel, record, "Leftover input at end of file");
+			return true;
+		}
+		finally {
+			applyNanos += System.nanoTime() - startNanos - (waitNanos - startWait);
+		}
+	}
+
+	/**
+	 * Applies a Define, RecordEdits, or keyword record to the model.
+	 */
+	private void applyRecord(ParseContext pc, ArrayList<String> record) {
+		numRecords++;
+		InputAgent.echoInputRecord(simModel, record);
+		if (image != null)
+			image.addRecord(pc, record);
+
+		if ("DEFINE".equalsIgnoreCase(record.get(0))) {
+			InputAgent.processDefineRecord(simModel, record);
+			return;
+		}
+
+		if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
+			simModel.setRecordEditsFound(true);
+			simModel.setRecordEdits(true);
+			return;
+		}
+
+		// Otherwise assume it is a Keyword record
+		InputAgent.processKeywordRecord(simModel, record, pc);
+	}
+
+	private void processIncludeRecord(ParseContext pc, ArrayList<String> record) throws URISyntaxException {
+		if (record.size() != 2) {
+			InputAgent.logError(simModel,
+					"Bad Include record, should be: Include <File>");
+			return;
+		}
+		readStream(pc.jail, pc.context, record.get(1).replaceAll("\\\\", "/"));
+	}
+
+	/**
+	 * Returns the total time in seconds spent reading lines from the files.
+	 */
+	public double getReadTime() {
+		return readNanos.get() * 1.0e-9d;
+	}
+
+	/**
+	 * Returns the total time in seconds spent tokenizing the lines.
+	 */
+	public double getTokenizeTime() {
+		return tokenizeNanos.get() * 1.0e-9d;
+	}
+
+	/**
+	 * Returns the time in seconds spent applying the records to the model.
+	 */
+	public double getApplyTime() {
+		return applyNanos * 1.0e-9d;
+	}
+
+	/**
+	 * Returns the time in seconds that the records could not be applied because they had not
+	 * yet been read and tokenized.
+	 */
+	public double getWaitTime() {
+		return waitNanos * 1.0e-9d;
+	}
+
+	public int getFileCount() {
+		return numFiles;
+	}
+
+	public int getRecordCount() {
+		return numRecords;
+	}
+
+	/**
+	 * Reads the lines from a file and divides them into chunks for tokenizing.
+	 * The first entry in the queue is either the SourceFile itself or the IOException thrown
+	 * when the file was opened. It is followed by the chunks in order and then by END.
+	 */
+	private class SourceFile implements Runnable {
+		final URL url;
+		final ParseContext pc;
+		private BufferedReader buf;
+		private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+		private boolean finished;
+
+		SourceFile(URL u, BufferedReader b, URI resolved, String root) {
+			url = u;
+			buf = b;
+			pc = new ParseContext(resolved, root);
+		}
+
+		@Override
+		public void run() {
+			long startNanos = System.nanoTime();
+			long chunkNanos = 0L;
+			try {
+				if (buf == null) {
+					InputStream in = url.openStream();
+					buf = new BufferedReader(new InputStreamReader(in));
+				}
+			}
+			catch (IOException e) {
+				queue.add(e);
+				return;
+			}
+			queue.add(this);
+
+			ArrayList<String> lines = new ArrayList<>(CHUNK_LINES);
+			try {
+				while (true) {
+					String line = buf.readLine();
+					if (line == null)
+						break;
+					lines.add(line);
+					if (lines.size() == CHUNK_LINES) {
+						long t0 = System.nanoTime();
+						submit(lines);
+						chunkNanos += System.nanoTime() - t0;
+						lines = new ArrayList<>(CHUNK_LINES);
+					}
+				}
+			}
+			catch (IOException e) {}
+			finally {
+				// Make best effort to ensure it closes
+				try { buf.close(); } catch (IOException e2) {}
+			}
+
+			long t0 = System.nanoTime();
+			if (!lines.isEmpty())
+				submit(lines);
+			chunkNanos += System.nanoTime() - t0;
+			readNanos.addAndGet(System.nanoTime() - startNanos - chunkNanos);
+			queue.add(END);
+		}
+
+		private void submit(ArrayList<String> lines) {
+			Chunk chunk = new Chunk(lines, pool == null ? null : pc);
+			FutureTask<Chunk> task = new FutureTask<>(chunk, chunk);
+			queue.add(task);
+			execute(task);
+		}
+
+		/**
+		 * Waits for the next entry in the queue.
+		 */
+		Object take() {
+			long startNanos = System.nanoTime();
+			try {
+				return queue.take();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				InputAgent.rethrowWrapped(e);
+				return null;
+			}
+			finally {
+				waitNanos += System.nanoTime() - startNanos;
+			}
+		}
+
+		/**
+		 * Returns the next chunk of tokenized lines, or null if the end of the file has been
+		 * reached.
+		 */
+		@SuppressWarnings("unchecked")
+		Chunk nextChunk() {
+			if (finished)
+				return null;
+
+			Object obj = take();
+			if (obj == END) {
+				finished = true;
+				return null;
+			}
+
+			long startNanos = System.nanoTime();
+			try {
+				return ((FutureTask<Chunk>) obj).get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				InputAgent.rethrowWrapped(e);
+				return null;
+			}
+			catch (ExecutionException e) {
+				InputAgent.rethrowWrapped(e);
+				return null;
+			}
+			finally {
+				waitNanos += System.nanoTime() - startNanos;
+			}
+		}
+	}
+
+	/**
+	 * Tokenizes a set of consecutive lines from a file. A line that ends in quoted context is
+	 * tokenized again together with the following lines when its record is assembled.
+	 */
+	private class Chunk implements Runnable {
+		final ArrayList<String> lines;
+		final ArrayList<ArrayList<String>> tokens;
+		final boolean[] quoted;
+		private final ParseContext pc;  // context for included files, or null
+
+		Chunk(ArrayList<String> l, ParseContext context) {
+			lines = l;
+			tokens = new ArrayList<>(lines.size());
+			quoted = new boolean[lines.size()];
+			pc = context;
+		}
+
+		@Override
+		public void run() {
+			long startNanos = System.nanoTime();
+			for (int i = 0; i < lines.size(); i++) {
+				ArrayList<String> toks = new ArrayList<>();
+				quoted[i] = Parser.tokenize(toks, lines.get(i), true);
+				tokens.add(toks);
+			}
+			tokenizeNanos.addAndGet(System.nanoTime() - startNanos);
+
+			// Start reading any included files
+			if (pc == null)
+				return;
+			for (int i = 0; i < lines.size(); i++) {
+				ArrayList<String> toks = tokens.get(i);
+				if (quoted[i] || toks.size() != 2 || !"INCLUDE".equalsIgnoreCase(toks.get(0)))
+					continue;
+				prefetch(pc, toks.get(1));
+			}
+		}
+	}
+
+}
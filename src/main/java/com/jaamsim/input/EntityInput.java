@@ -28,14 +28,13 @@ public class EntityInput<T extends Entity> extends Input<T> {
 	private Class<T> entClass;
 	private Class<? extends T> entSubClass;  // a particular sub-class that can be set at runtime
 	private boolean includeSubclasses;  // flag to determine if subclasses are valid
-	private ArrayList<Class<? extends Entity>> invalidClasses; // list of invalid classes (including subclasses).  if empty, then all classes are valid
+	private ArrayList<Class<? extends Entity>> invalidClasses; // list of invalid classes (including subclasses).  if null, then all classes are valid
 
 	public EntityInput(Class<T> aClass, String key, String cat, T def) {
 		super(key, cat, def);
 		entClass = aClass;
 		entSubClass = aClass;
 		includeSubclasses = true;
-		invalidClasses = new ArrayList<>();
 	}
 
 	public void setSubClass(Class<? extends T> aClass) {
@@ -95,6 +94,9 @@ public class EntityInput<T extends Entity> extends Input<T> {
 			}
 		}
 
+		if (invalidClasses == null)
+			return true;
+
 		for( Class<? extends Entity> c : invalidClasses ) {
 			if( c.isAssignableFrom( ent.getClass() ) ) {
 				return false;
@@ -109,6 +111,8 @@ public class EntityInput<T extends Entity> extends Input<T> {
 	}
 
 	public void addInvalidClass(Class<? extends Entity> aClass ) {
+		if (invalidClasses == null)
+			invalidClasses = new ArrayList<>(1);
 		invalidClasses.add(aClass);
 	}
 
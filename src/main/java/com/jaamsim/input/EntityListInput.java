@@ -28,7 +28,7 @@ public class EntityListInput<T extends Entity> extends ListInput<ArrayList<T>> {
 	private boolean even;  // flag to determine if there must be an even number of entries
 	private boolean includeSubclasses;  // flag to determine if subclasses are valid
 	private boolean includeSelf; // flag to determine whether to include the calling entity in the entityList
-	private ArrayList<Class<? extends Entity>> validClasses; // list of valid classes (including subclasses).  if empty, then all classes are valid
+	private ArrayList<Class<? extends Entity>> validClasses; // list of valid classes (including subclasses).  if null or empty, then all classes are valid
 	private ArrayList<Class<? extends Entity>> invalidClasses; // list of invalid classes (including subclasses).
 
 	public EntityListInput(Class<T> aClass, String key, String cat, ArrayList<T> def) {
@@ -38,8 +38,6 @@ public class EntityListInput<T extends Entity> extends ListInput<ArrayList<T>> {
 		even = false;
 		includeSubclasses = true;
 		includeSelf = true;
-		validClasses = new ArrayList<>();
-		invalidClasses = new ArrayList<>();
 	}
 
 	@Override
@@ -215,13 +213,15 @@ public class EntityListInput<T extends Entity> extends ListInput<ArrayList<T>> {
 
 	public boolean isValidClass( Entity ent ) {
 
-		for (Class<? extends Entity> c : invalidClasses) {
-			if (c.isAssignableFrom( ent.getClass() )) {
-				return false;
+		if (invalidClasses != null) {
+			for (Class<? extends Entity> c : invalidClasses) {
+				if (c.isAssignableFrom( ent.getClass() )) {
+					return false;
+				}
 			}
 		}
 
-		if( validClasses.size() == 0 )
+		if( validClasses == null || validClasses.size() == 0 )
 			return true;
 
 		for( Class<? extends Entity> c : validClasses ) {
@@ -234,18 +234,24 @@ public class EntityListInput<T extends Entity> extends ListInput<ArrayList<T>> {
 	}
 
 	public void addValidClass(Class<? extends Entity> aClass ) {
-		invalidClasses.remove(aClass);
+		if (invalidClasses != null)
+			invalidClasses.remove(aClass);
+		if (validClasses == null)
+			validClasses = new ArrayList<>(1);
 		validClasses.add(aClass);
 	}
 
 	public void addInvalidClass(Class<? extends Entity> aClass ) {
-		validClasses.remove(aClass);
+		if (validClasses != null)
+			validClasses.remove(aClass);
+		if (invalidClasses == null)
+			invalidClasses = new ArrayList<>(1);
 		invalidClasses.add(aClass);
 	}
 
 	public void clearValidClasses() {
-		validClasses.clear();
-		invalidClasses.clear();
+		validClasses = null;
+		invalidClasses = null;
 	}
 
 	@Override
@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2016 JaamSim Software Inc.
+ * Copyright (C) 2016-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -87,6 +87,56 @@ public class ExpCollections {
 		return null;
 	}
 
+	/**
+	 * Wrap a range of an array of numbers in an expression collection without copying it
+	 * @param vals - array of numbers
+	 * @param start - position of the first number in the collection
+	 * @param end - position after the last number in the collection
+	 * @param ut - unit type
+	 * @return - Read-only ExpResult representing the collection
+	 */
+	public static ExpResult wrapDoubleRange(double[] vals, int start, int end, Class<? extends Unit> ut) {
+		return ExpResult.makeCollectionResult(new DoubleRangeCollection(vals, start, end, ut));
+	}
+
+	/**
+	 * Wrap a table of numbers in an expression collection whose elements are the rows of the
+	 * table.
+	 * @param vals - numbers for all the rows in sequence
+	 * @param rowStart - position of the first number in each row, followed by the total number
+	 * @param ut - unit type
+	 * @return - Read-only ExpResult representing the collection
+	 */
+	public static ExpResult wrapDoubleRows(double[] vals, int[] rowStart, Class<? extends Unit> ut) {
+		return ExpResult.makeCollectionResult(new DoubleRowsCollection(vals, rowStart, ut));
+	}
+
+	/**
+	 * Wrap a table of numbers in an expression collection whose elements are the rows of the
+	 * table indexed by a string key.
+	 * @param rowMap - row number for each key in iteration order
+	 * @param vals - numbers for all the rows in sequence
+	 * @param rowStart - position of the first number in each row, followed by the total number
+	 * @param ut - unit type
+	 * @return - Read-only ExpResult representing the collection
+	 */
+	public static ExpResult wrapDoubleRowMap(Map<String, Integer> rowMap, double[] vals, int[] rowStart,
+			Class<? extends Unit> ut) {
+		return ExpResult.makeCollectionResult(new DoubleRowMapCollection(rowMap, vals, rowStart, ut));
+	}
+
+	/**
+	 * Returns the result for an index that is outside a collection of numbers. The collections
+	 * that wrap a table of numbers return zero, as do the list and map collections that hold
+	 * the same table when it is read as expressions, so that an expression gives the same
+	 * result however its data was read.
+	 * @param ut - unit type
+	 * @return zero in the specified unit type
+	 */
+	private static ExpResult getMissingEntry(Class<? extends Unit> ut) {
+		return ExpResult.makeNumResult(0, ut);
+	}
+
 	/**
 	 * Create an expression collection that may be assigned into (aka: written).
 	 * This obeys a single level of copy-on-write semantics if the original object is marked as constant
@@ -491,6 +541,245 @@ public class ExpCollections {
 		}
 	}
 
+	private static class IndexIter implements ExpResult.Iterator {
+
+		private int next = 0;
+		private final int size;
+
+		public IndexIter(int s) {
+			size = s;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public ExpResult nextKey() throws ExpError {
+			ExpResult ret = ExpResult.makeNumResult(next + 1, DimensionlessUnit.class);
+			next++;
+			return ret;
+		}
+	}
+
+	private static class DoubleRangeCollection implements ExpResult.Collection {
+
+		private final double[] vals;
+		private final int start;
+		private final int end;
+		private final Class<? extends Unit> unitType;
+
+		public DoubleRangeCollection(double[] v, int s, int e, Class<? extends Unit> ut) {
+			this.vals = v;
+			this.start = s;
+			this.end = e;
+			this.unitType = ut;
+		}
+
+		@Override
+		public Iterator getIter() {
+			return new IndexIter(end - start);
+		}
+
+		@Override
+		public ExpResult index(ExpResult index) throws ExpError {
+			if (index.type != ExpResType.NUMBER) {
+				throw new ExpError(null, 0, "ArrayList  is not being indexed by a number");
+			}
+
+			int indexVal = (int)index.value - 1; // Expressions use 1-base arrays
+
+			if (indexVal >= end - start || indexVal < 0) {
+				return getMissingEntry(unitType);
+			}
+			return ExpResult.makeNumResult(vals[start + indexVal], unitType);
+		}
+
+		@Override
+		public int getSize() {
+			return end - start;
+		}
+
+		@Override
+		public ExpResult.Collection assign(ExpResult key, ExpResult value) throws ExpError {
+			throw new ExpError(null, 0, "Can not assign to built in collection");
+		}
+
+		@Override
+		public String getOutputString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("{");
+			for (int i = start; i < end; ++i) {
+				sb.append(ExpResult.makeNumResult(vals[i], unitType).getOutputString());
+				if (i < end - 1) {
+					sb.append(", ");
+				}
+			}
+			sb.append("}");
+			return sb.toString();
+		}
+
+		@Override
+		public ExpResult.Collection getCopy() {
+			return this;
+		}
+	}
+
+	private static class DoubleRowsCollection implements ExpResult.Collection {
+
+		private final double[] vals;
+		private final int[] rowStart;
+		private final Class<? extends Unit> unitType;
+
+		public DoubleRowsCollection(double[] v, int[] rs, Class<? extends Unit> ut) {
+			this.vals = v;
+			this.rowStart = rs;
+			this.unitType = ut;
+		}
+
+		@Override
+		public Iterator getIter() {
+			return new IndexIter(getSize());
+		}
+
+		@Override
+		public ExpResult index(ExpResult index) throws ExpError {
+			if (index.type != ExpResType.NUMBER) {
+				throw new ExpError(null, 0, "ArrayList  is not being indexed by a number");
+			}
+
+			int indexVal = (int)index.value - 1; // Expressions use 1-base arrays
+
+			if (indexVal >= getSize() || indexVal < 0) {
+				return getMissingEntry(unitType);
+			}
+			return wrapDoubleRange(vals, rowStart[indexVal], rowStart[indexVal + 1], unitType);
+		}
+
+		@Override
+		public int getSize() {
+			return rowStart.length - 1;
+		}
+
+		@Override
+		public ExpResult.Collection assign(ExpResult key, ExpResult value) throws ExpError {
+			throw new ExpError(null, 0, "Can not assign to built in collection");
+		}
+
+		@Override
+		public String getOutputString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("{");
+			for (int i = 0; i < getSize(); ++i) {
+				sb.append(new DoubleRangeCollection(vals, rowStart[i], rowStart[i + 1], unitType).getOutputString());
+				if (i < getSize() - 1) {
+					sb.append(", ");
+				}
+			}
+			sb.append("}");
+			return sb.toString();
+		}
+
+		@Override
+		public ExpResult.Collection getCopy() {
+			return this;
+		}
+	}
+
+	private static class DoubleRowMapCollection implements ExpResult.Collection {
+
+		private final Map<String, Integer> rowMap;
+		private final double[] vals;
+		private final int[] rowStart;
+		private final Class<? extends Unit> unitType;
+
+		public DoubleRowMapCollection(Map<String, Integer> m, double[] v, int[] rs, Class<? extends Unit> ut) {
+			this.rowMap = m;
+			this.vals = v;
+			this.rowStart = rs;
+			this.unitType = ut;
+		}
+
+		private static class Iter implements ExpResult.Iterator {
+
+			private final java.util.Iterator<String> keySetIt;
+
+			public Iter(Map<String, Integer> map) {
+				keySetIt = map.keySet().iterator();
+			}
+
+			@Override
+			public boolean hasNext() {
+				return keySetIt.hasNext();
+			}
+
+			@Override
+			public ExpResult nextKey() throws ExpError {
+				return ExpResult.makeStringResult(keySetIt.next());
+			}
+		}
+
+		@Override
+		public Iterator getIter() {
+			return new Iter(rowMap);
+		}
+
+		@Override
+		public ExpResult index(ExpResult index) throws ExpError {
+			switch (index.type) {
+			case ENTITY:
+				if (index.entVal == null) {
+					throw new ExpError(null, 0, "Trying use a null entity as a key");
+				}
+				break;
+			case COLLECTION:
+				throw new ExpError(null, 0, "Can not index with a collection");
+			default:
+				break;
+			}
+			Integer row = (index.type == ExpResType.STRING) ? rowMap.get(index.stringVal) : null;
+			if (row == null) {
+				return getMissingEntry(unitType);
+			}
+			return wrapDoubleRange(vals, rowStart[row], rowStart[row + 1], unitType);
+		}
+
+		@Override
+		public int getSize() {
+			return rowMap.size();
+		}
+
+		@Override
+		public ExpResult.Collection assign(ExpResult key, ExpResult value) throws ExpError {
+			throw new ExpError(null, 0, "Can not assign to built in collection");
+		}
+
+		@Override
+		public String getOutputString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("{");
+			java.util.Iterator<Map.Entry<String, Integer>> it = rowMap.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<String, Integer> entry = it.next();
+				int row = entry.getValue();
+				sb.append(ExpResult.makeStringResult(entry.getKey()).getOutputString());
+				sb.append(" = ");
+				sb.append(new DoubleRangeCollection(vals, rowStart[row], rowStart[row + 1], unitType).getOutputString());
+				if (it.hasNext()) {
+					sb.append(", ");
+				}
+			}
+			sb.append("}");
+			return sb.toString();
+		}
+
+		@Override
+		public ExpResult.Collection getCopy() {
+			return this;
+		}
+	}
+
 	private static class MapCollection implements ExpResult.Collection {
 
 		private final Map<?,?> map;
@@ -22,12 +22,10 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
@@ -48,7 +46,9 @@ import com.jaamsim.basicsim.FileEntity;
 import com.jaamsim.basicsim.GUIListener;
 import com.jaamsim.basicsim.Group;
 import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.LogWriter;
 import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.basicsim.RunResultsWriter;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.events.EventManager;
@@ -84,7 +84,7 @@ public class InputAgent {
 		gui.storeAndExecute(cmd);
 	}
 
-	private static int getBraceDepth(JaamSimModel simModel, ArrayList<String> tokens, int startingBraceDepth, int startingIndex) {
+	static int getBraceDepth(JaamSimModel simModel, ArrayList<String> tokens, int startingBraceDepth, int startingIndex) {
 		int braceDepth = startingBraceDepth;
 		for (int i = startingIndex; i < tokens.size(); i++) {
 			String token = tokens.get(i);
@@ -124,7 +124,7 @@ public class InputAgent {
 		catch (URISyntaxException e) {}
 	}
 
-	private static void rethrowWrapped(Exception ex) {
+	static void rethrowWrapped(Exception ex) {
 		StringBuilder causedStack = new StringBuilder();
 		for (StackTraceElement elm : ex.getStackTrace())
 			causedStack.append(elm.toString()).append("\n");
@@ -145,128 +145,16 @@ public class InputAgent {
 	}
 
 	public static final boolean readStream(JaamSimModel simModel, String root, URI path, String file) throws URISyntaxException {
-		URI resolved = getFileURI(path, file, root);
-
-		URL url = null;
-		try {
-			url = resolved.normalize().toURL();
-		}
-		catch (MalformedURLException e) {
-			rethrowWrapped(e);
-		}
-
-		if (url == null) {
-			InputAgent.logError(simModel,
-					"Unable to resolve path %s%s - %s", root, path.toString(), file);
-			return false;
-		}
-
-		BufferedReader buf = null;
-		try {
-			InputStream in = url.openStream();
-			buf = new BufferedReader(new InputStreamReader(in));
-		} catch (IOException e) {
-			InputAgent.logError(simModel,
-					"Could not read from url: '%s'%n%s", url.toString(), e.getMessage());
-			return false;
-		}
-
-		InputAgent.readBufferedStream(simModel, buf, resolved, root);
-		return true;
+		ConfigFileLoader loader = new ConfigFileLoader(simModel, false);
+		return loader.readStream(root, path, file);
 	}
 
 	public static final void readBufferedStream(JaamSimModel simModel, BufferedReader buf, URI resolved, String root) {
-
-		try {
-			ArrayList<String> record = new ArrayList<>();
-			int braceDepth = 0;
-
-			ParseContext pc = new ParseContext(resolved, root);
-
-			while (true) {
-				String line = buf.readLine();
-				// end of file, stop reading
-				if (line == null)
-					break;
-
-				int previousRecordSize = record.size();
-				boolean quoted = Parser.tokenize(record, line, true);
-
-				// Keep reading lines if the end of line was hit while in quoted context
-				while (quoted) {
-
-					// Append the next line to the line
-					String nextLine = buf.readLine();
-					if (nextLine == null)  // end of file
-						break;
-					StringBuilder sb = new StringBuilder(line);
-					sb.append(nextLine);
-					line = sb.toString();
-
-					// Clear the record and tokenize the now longer line
-					record.clear();
-					quoted = Parser.tokenize(record, line, true);
-				}
-
-				braceDepth = InputAgent.getBraceDepth(simModel, record, braceDepth, previousRecordSize);
-				if( braceDepth != 0 )
-					continue;
-
-				if (record.size() == 0)
-					continue;
-
-				InputAgent.echoInputRecord(simModel, record);
-
-				if ("DEFINE".equalsIgnoreCase(record.get(0))) {
-					InputAgent.processDefineRecord(simModel, record);
-					record.clear();
-					continue;
-				}
-
-				if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
-					try {
-						InputAgent.processIncludeRecord(simModel, pc, record);
-					}
-					catch (URISyntaxException ex) {
-						rethrowWrapped(ex);
-					}
-					record.clear();
-					continue;
-				}
-
-				if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
-					simModel.setRecordEditsFound(true);
-					simModel.setRecordEdits(true);
-					record.clear();
-					continue;
-				}
-
-				// Otherwise assume it is a Keyword record
-				InputAgent.processKeywordRecord(simModel, record, pc);
-				record.clear();
-			}
-
-			// Leftover Input at end of file
-			if (record.size() > 0)
-				InputAgent.logBadInput(simModel, record, "Leftover input at end of file");
-			buf.close();
-		}
-		catch (IOException e) {
-			// Make best effort to ensure it closes
-			try { buf.close(); } catch (IOException e2) {}
-		}
+		ConfigFileLoader loader = new ConfigFileLoader(simModel, false);
+		loader.readBufferedStream(buf, resolved, root);
 	}
 
-	private static void processIncludeRecord(JaamSimModel simModel, ParseContext pc, ArrayList<String> record) throws URISyntaxException {
-		if (record.size() != 2) {
-			InputAgent.logError(simModel,
-					"Bad Include record, should be: Include <File>");
-			return;
-		}
-		InputAgent.readStream(simModel, pc.jail, pc.context, record.get(1).replaceAll("\\\\", "/"));
-	}
-
-	private static void processDefineRecord(JaamSimModel simModel, ArrayList<String> record) {
+	static void processDefineRecord(JaamSimModel simModel, ArrayList<String> record) {
 		if (record.size() < 5 ||
 		    !record.get(2).equals("{") ||
 		    !record.get(record.size() - 1).equals("}")) {
@@ -489,12 +377,31 @@ public class InputAgent {
 
 		// Load the input file
 		URI dirURI = file.getParentFile().toURI();
-		InputAgent.readStream(simModel, "", dirURI, file.getName());
+		ConfigFileLoader loader = new ConfigFileLoader(simModel, true);
+		File imageFile = ModelImage.getImageFile(file);
+		ModelImage image = null;
+		boolean fromImage = false;
+		try {
+			// Use the model image if it is up to date
+			fromImage = !simModel.isCompileImage() && loader.applyImage(imageFile);
+
+			if (!fromImage) {
+				if (simModel.isCompileImage())
+					image = new ModelImage();
+				loader.setImage(image);
+				loader.readStream("", dirURI, file.getName());
+			}
+		}
+		finally {
+			loader.close();
+		}
 
 		// Perform any actions that are required after loading the input file
+		long postLoadNanos = System.nanoTime();
 		simModel.postLoad();
 
 		// Validate the inputs
+		long validateNanos = System.nanoTime();
 		for (Entity each : simModel.getClonesOfIterator(Entity.class)) {
 			try {
 				each.validate();
@@ -505,6 +412,29 @@ public class InputAgent {
 						"Validation Error - %s: %s", each, e.getMessage());
 			}
 		}
+		long endNanos = System.nanoTime();
+
+		if (simModel.isLogLoadTimes()) {
+			LogBox.logLine(String.format("Loaded %s%s: %d files, %d records - read %.3f s, "
+					+ "tokenize %.3f s, apply %.3f s (waiting %.3f s), post-load %.3f s, validate %.3f s",
+					file.getName(), fromImage ? " from model image" : "",
+					loader.getFileCount(), loader.getRecordCount(),
+					loader.getReadTime(), loader.getTokenizeTime(), loader.getApplyTime(),
+					loader.getWaitTime(), (validateNanos - postLoadNanos)*1.0e-9d,
+					(endNanos - validateNanos)*1.0e-9d));
+		}
+
+		// Save the model image
+		if (image != null && simModel.getNumErrors() == 0) {
+			try {
+				image.write(imageFile);
+				LogBox.logLine(String.format("Model image written: %s", imageFile.getPath()));
+			}
+			catch (IOException e) {
+				InputAgent.logWarning(simModel, "Unable to write model image: %s%n%s",
+						imageFile.getPath(), e.getMessage());
+			}
+		}
 
 		//  Check for found errors
 		if (simModel.getNumErrors() > 0 )
@@ -828,7 +758,7 @@ public class InputAgent {
 	private static final String inpErrPrefix = "*** INPUT ERROR *** %s%n";
 	private static final String wrnPrefix = "***WARNING*** %s%n";
 
-	private static void echoInputRecord(JaamSimModel simModel, ArrayList<String> tokens) {
+	static void echoInputRecord(JaamSimModel simModel, ArrayList<String> tokens) {
 		FileEntity logFile = simModel.getLogFile();
 		if (logFile == null)
 			return;
@@ -848,7 +778,7 @@ public class InputAgent {
 		logFile.flush();
 	}
 
-	private static void logBadInput(JaamSimModel simModel, ArrayList<String> tokens, String msg) {
+	static void logBadInput(JaamSimModel simModel, ArrayList<String> tokens, String msg) {
 		InputAgent.echoInputRecord(simModel, tokens);
 		InputAgent.logError(simModel, "%s", msg);
 	}
@@ -1196,16 +1126,11 @@ public class InputAgent {
 	}
 
 	public static void printRunOutputHeaders(JaamSimModel simModel, PrintStream outStream) {
-		Simulation simulation = simModel.getSimulation();
 
 		// Write the header line for the expressions
 		StringBuilder sb = new StringBuilder();
-		ArrayList<String> toks = new ArrayList<>();
-		simulation.getRunOutputList().getValueTokens(toks);
 		boolean first = true;
-		for (String str : toks) {
-			if (str.equals("{") || str.equals("}"))
-				continue;
+		for (String str : getRunOutputHeaders(simModel)) {
 			if (first)
 				first = false;
 			else
@@ -1215,6 +1140,83 @@ public class InputAgent {
 		outStream.println(sb.toString());
 	}
 
+	/**
+	 * Returns the expressions for the selected outputs.
+	 */
+	public static ArrayList<String> getRunOutputHeaders(JaamSimModel simModel) {
+		ArrayList<String> toks = new ArrayList<>();
+		simModel.getSimulation().getRunOutputList().getValueTokens(toks);
+		ArrayList<String> ret = new ArrayList<>(toks.size());
+		for (String str : toks) {
+			if (str.equals("{") || str.equals("}"))
+				continue;
+			ret.add(str);
+		}
+		return ret;
+	}
+
+	/**
+	 * Evaluates the selected outputs for the simulation run so that they can be appended to a
+	 * results file. A number is returned as a Double in SI units, and any other value as a
+	 * String. An output that cannot be evaluated is returned as a RunResultsWriter.OutputError.
+	 * @param simTime - simulation time at which the outputs are evaluated
+	 * @param values - list to which the output values are added
+	 * @param unitTypes - list to which the unit type for each number is added, or null for any
+	 *                    other value
+	 */
+	public static void getRunResults(JaamSimModel simModel, double simTime, ArrayList<Object> values,
+			ArrayList<Class<? extends Unit>> unitTypes) {
+		Simulation simulation = simModel.getSimulation();
+		for (int i = 0; i < simulation.getRunOutputList().getListSize(); i++) {
+			StringProvider samp = simulation.getRunOutputList().getValue().get(i);
+			ExpResult result;
+			try {
+				result = samp.getNextResult(simTime);
+			} catch (Exception e) {
+				values.add(new RunResultsWriter.OutputError(e.getMessage()));
+				unitTypes.add(null);
+				continue;
+			}
+
+			switch (result.type) {
+			case NUMBER:
+				values.add(result.value);
+				unitTypes.add(result.unitType);
+				continue;
+			case STRING:
+				values.add(result.stringVal);
+				break;
+			case ENTITY:
+				values.add(result.entVal == null ? "null" : result.entVal.getName());
+				break;
+			default:
+				values.add(result.getFormatString());
+				break;
+			}
+			unitTypes.add(null);
+		}
+	}
+
+	/**
+	 * Records the selected outputs for the simulation run as a single entry in a log.
+	 * @param simTime - simulation time at which the outputs are recorded.
+	 */
+	public static void recordRunOutputs(JaamSimModel simModel, LogWriter log, double simTime) {
+		Simulation simulation = simModel.getSimulation();
+		log.newLine();
+		for (int i = 0; i < simulation.getRunOutputList().getListSize(); i++) {
+			if (i > 0)
+				log.append('\t');
+			StringProvider samp = simulation.getRunOutputList().getValue().get(i);
+			try {
+				samp.appendNextString(simTime, log);
+			} catch (Exception e) {
+				log.append(e.getMessage());
+			}
+		}
+		log.endRecord();
+	}
+
 	/**
 	 * Prints selected outputs for the simulation run to stdout or a file.
 	 * @param simTime - simulation time at which the outputs are printed.
@@ -1246,164 +1248,15 @@ public class InputAgent {
 	}
 
 
-	private static final String OUTPUT_FORMAT = "%s\t%s\t%s\t%s%n";
-	private static final String LIST_OUTPUT_FORMAT = "%s\t%s[%s]\t%s\t%s%n";
-
 	/**
 	 * Writes the entry in the output report for this entity.
 	 * @param file - the file in which the outputs are written
 	 * @param simTime - simulation time at which the outputs are evaluated
 	 */
 	public static void printReport(Entity ent, FileEntity file, double simTime) {
-
-		// Loop through the outputs
-		ArrayList<OutputHandle> handles = OutputHandle.getOutputHandleList(ent);
-		for (OutputHandle out : handles) {
-
-			// Should this output appear in the report?
-			if (!out.isReportable())
-				continue;
-
-			// Determine the preferred unit for this output
-			Class<? extends Unit> ut = out.getUnitType();
-			double factor = Unit.getDisplayedUnitFactor(ut);
-			String unitString = Unit.getDisplayedUnit(ut);
-			if (ut == Unit.class || ut == DimensionlessUnit.class)
-				unitString = "-";
-
-			// Numerical output
-			if (out.isNumericValue()) {
-				try {
-					double val = out.getValueAsDouble(simTime, Double.NaN)/factor;
-					file.format(OUTPUT_FORMAT,
-							ent.getName(), out.getName(), val, unitString);
-				}
-				catch (Exception e) {
-					file.format(OUTPUT_FORMAT,
-							ent.getName(), out.getName(), Double.NaN, unitString);
-				}
-			}
-
-			// double[] output
-			else if (out.getReturnType() == double[].class) {
-				double[] vec = out.getValue(simTime, double[].class);
-				for (int i = 0; i < vec.length; i++) {
-					file.format(LIST_OUTPUT_FORMAT,
-							ent.getName(), out.getName(), i, vec[i]/factor, unitString);
-				}
-			}
-
-			// DoubleVector output
-			else if (out.getReturnType() == DoubleVector.class) {
-				DoubleVector vec = out.getValue(simTime, DoubleVector.class);
-				for (int i=0; i<vec.size(); i++) {
-					double val = vec.get(i);
-					file.format(LIST_OUTPUT_FORMAT,
-							ent.getName(), out.getName(), i, val/factor, unitString);
-				}
-			}
-
-			// ArrayList output
-			else if (out.getReturnType() == ArrayList.class) {
-				ArrayList<?> array = out.getValue(simTime, ArrayList.class);
-				for (int i=0; i<array.size(); i++) {
-					Object obj = array.get(i);
-					if (obj instanceof Double) {
-						double val = (Double)obj;
-						file.format(LIST_OUTPUT_FORMAT,
-								ent.getName(), out.getName(), i, val/factor, unitString);
-					}
-					else {
-						file.format(LIST_OUTPUT_FORMAT,
-							ent.getName(), out.getName(), i, obj, unitString);
-					}
-				}
-			}
-
-			// Keyed output
-			else if (out.getReturnType() == LinkedHashMap.class) {
-				LinkedHashMap<?, ?> map = out.getValue(simTime, LinkedHashMap.class);
-				for (Entry<?, ?> mapEntry : map.entrySet()) {
-					Object obj = mapEntry.getValue();
-					if (obj instanceof Double) {
-						double val = (Double)obj;
-						file.format(LIST_OUTPUT_FORMAT,
-								ent.getName(), out.getName(), mapEntry.getKey(), val/factor, unitString);
-					}
-					else {
-						file.format(LIST_OUTPUT_FORMAT,
-								ent.getName(), out.getName(), mapEntry.getKey(), obj, unitString);
-					}
-				}
-			}
-			// Expression based custom outputs
-			else if (out.getReturnType() == ExpResult.class) {
-				String val = InputAgent.getValueAsString(out, simTime, "%s", factor);
-				file.format(OUTPUT_FORMAT,
-						ent.getName(), out.getName(), val, unitString);
-			}
-
-			// All other outputs
-			else {
-				if (ut != Unit.class && ut != DimensionlessUnit.class)
-					unitString = Unit.getSIUnit(ut);  // other outputs are not converted to preferred units
-				String str = out.getValue(simTime, out.getReturnType()).toString();
-				file.format(OUTPUT_FORMAT,
-						ent.getName(), out.getName(), str, unitString);
-			}
-		}
-	}
-
-	/**
-	 * Prints the output report for the simulation run.
-	 * @param simTime - simulation time at which the report is printed.
-	 */
-	public static void printReport(JaamSimModel simModel, double simTime) {
-
-		// Create the report file
-		FileEntity reportFile = simModel.getReportFile();
-
-		// Print run number header when multiple runs are to be performed
-		if (simModel.isMultipleRuns())
-			reportFile.format("%s%n%n", simModel.getRunHeader());
-
-		// Prepare a sorted list of entities
-		ArrayList<Entity> entList = new ArrayList<>();
-		for (Entity ent : simModel.getClonesOfIterator(Entity.class)) {
-
-			if (!ent.isRegistered())
-				continue;
-
-			if (!ent.isReportable())
-				continue;
-
-			entList.add(ent);
-		}
-		Collections.sort(entList, uiEntitySortOrder);
-
-		// Loop through the entities
-		Class<? extends Entity> entClass = null;
-		for (Entity ent : entList) {
-
-			// Print a header if the entity class is new
-			if (ent.getClass() != entClass) {
-				entClass = ent.getClass();
-				if (entClass != Simulation.class) {
-					ObjectType ot = simModel.getObjectTypeForClass(entClass);
-					reportFile.format("*** %s ***%n%n", ot);
-				}
-			}
-
-			// Print the report for the entity
-			InputAgent.printReport(ent, reportFile, simTime);
-			reportFile.format("%n");
-		}
-
-		// Close the report file
-		if (simModel.isLastRun()) {
-			reportFile.close();
-			reportFile = null;
-		}
+		ReportWriter.Report rep = new ReportWriter.Report();
+		rep.addEntity(ent, simTime, null);
+		rep.write(file);
 	}
 
 	private static class EntityComparator implements Comparator<Entity> {
@@ -0,0 +1,369 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary image of the records read from a configuration file and the files it includes.
+ * <p>
+ * The image holds the tokens for each Define, RecordEdits, and keyword record in the order they
+ * were applied to the model, together with the context needed to resolve any file names they
+ * contain, and a fingerprint for each source file. Applying the records from the image has the
+ * same effect as loading the configuration file, but avoids reading, tokenizing, and
+ * assembling the records. The image is valid only while every source file has the same
+ * fingerprint: the size and CRC-32 checksum of its contents. The contents are used instead of
+ * the last-modified time so that an edit that preserves the size and time stamp of a file,
+ * such as one made by a version control checkout, is not missed.
+ * <p>
+ * The image is written next to the configuration file using the run name with the extension
+ * EXTENSION. Tokens are stored as indices to a table of distinct strings, and everything after
+ * the version number is compressed.
+ */
+public class ModelImage {
+
+	static final int MAGIC = 0x4A494D47;  // "JIMG"
+	static final int VERSION = 2;
+	public static final String EXTENSION = ".jimg";
+
+	private final ArrayList<Source> sources = new ArrayList<>();
+	private final ArrayList<ParseContext> contexts = new ArrayList<>();
+	private final ArrayList<String> strings = new ArrayList<>();
+
+	// Records stored as a context index followed by the token indices
+	private int[] recordStart = new int[1 << 10];
+	private int[] data = new int[1 << 14];
+	private int numRecords;
+	private int dataSize;
+
+	// Used while recording
+	private final IdentityHashMap<ParseContext, Integer> contextIndex = new IdentityHashMap<>();
+	private final HashMap<String, Integer> stringIndex = new HashMap<>();
+
+	/**
+	 * Creates an empty image to receive the records read by a ConfigFileLoader.
+	 */
+	public ModelImage() {}
+
+	/**
+	 * Returns the image file for the specified configuration file.
+	 */
+	public static File getImageFile(File configFile) {
+		String name = configFile.getName();
+		int index = name.lastIndexOf('.');
+		if (index != -1)
+			name = name.substring(0, index);
+		return new File(configFile.getParentFile(), name + EXTENSION);
+	}
+
+	/**
+	 * Records a source file that has been read.
+	 */
+	void addSource(URI uri) {
+		if (uri == null)
+			return;
+		Source src = Source.getSource(uri.toString());
+
+		// A source without a fingerprint makes the image out of date
+		if (src == null)
+			src = new Source(uri.toString(), -1L, -1L);
+		sources.add(src);
+	}
+
+	/**
+	 * Records a Define, RecordEdits, or keyword record.
+	 */
+	void addRecord(ParseContext pc, ArrayList<String> record) {
+		Integer ctx = contextIndex.get(pc);
+		if (ctx == null) {
+			ctx = contexts.size();
+			contextIndex.put(pc, ctx);
+			contexts.add(pc);
+		}
+
+		if (numRecords + 1 >= recordStart.length)
+			recordStart = Arrays.copyOf(recordStart, recordStart.length*2);
+		if (dataSize + record.size() + 1 > data.length)
+			data = Arrays.copyOf(data, Math.max(data.length*2, dataSize + record.size() + 1));
+
+		recordStart[numRecords] = dataSize;
+		data[dataSize++] = ctx;
+		for (String tok : record) {
+			Integer ind = stringIndex.get(tok);
+			if (ind == null) {
+				ind = strings.size();
+				stringIndex.put(tok, ind);
+				strings.add(tok);
+			}
+			data[dataSize++] = ind;
+		}
+		numRecords++;
+		recordStart[numRecords] = dataSize;
+	}
+
+	public int getSourceCount() {
+		return sources.size();
+	}
+
+	public int getRecordCount() {
+		return numRecords;
+	}
+
+	/**
+	 * Sets the tokens for the specified record.
+	 * @param i - index of the record
+	 * @param record - list to receive the tokens
+	 * @return context for resolving any file names in the record
+	 */
+	ParseContext getRecord(int i, ArrayList<String> record) {
+		record.clear();
+		int start = recordStart[i];
+		int end = recordStart[i + 1];
+		for (int j = start + 1; j < end; j++) {
+			record.add(strings.get(data[j]));
+		}
+		return contexts.get(data[start]);
+	}
+
+	/**
+	 * Returns true if every source file has the same fingerprint as when the image was created.
+	 */
+	public boolean isCurrent() {
+		for (Source src : sources) {
+			if (!src.equals(Source.getSource(src.uri)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the image to the specified file. The image is written to a temporary file that
+	 * replaces the specified file once it is complete, so that a partial image is never read.
+	 */
+	public void write(File file) throws IOException {
+		File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.flush();
+
+				DeflaterOutputStream def = new DeflaterOutputStream(out, true);
+				DataOutputStream body = new DataOutputStream(new BufferedOutputStream(def, 1 << 16));
+				writeBody(body);
+				body.close();
+			}
+			finally {
+				out.close();
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			temp.delete();
+		}
+	}
+
+	private void writeBody(DataOutputStream out) throws IOException {
+		out.writeInt(sources.size());
+		for (Source src : sources) {
+			writeString(out, src.uri);
+			out.writeLong(src.size);
+			out.writeLong(src.checksum);
+		}
+
+		out.writeInt(contexts.size());
+		for (ParseContext pc : contexts) {
+			writeString(out, pc.context == null ? null : pc.context.toString());
+			writeString(out, pc.jail);
+		}
+
+		out.writeInt(strings.size());
+		for (String str : strings) {
+			writeString(out, str);
+		}
+
+		out.writeInt(numRecords);
+		for (int i = 0; i < numRecords; i++) {
+			out.writeInt(recordStart[i + 1] - recordStart[i]);
+		}
+		for (int i = 0; i < dataSize; i++) {
+			out.writeInt(data[i]);
+		}
+	}
+
+	/**
+	 * Reads the image from the specified file.
+	 * @return image, or null if the file does not exist or is not a valid image of the present
+	 * version
+	 */
+	public static ModelImage read(File file) {
+		if (!file.isFile())
+			return null;
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				return null;
+			DataInputStream body = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in), 1 << 16));
+			ModelImage ret = new ModelImage();
+			ret.readBody(body);
+			return ret;
+		}
+		catch (IOException | URISyntaxException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private void readBody(DataInputStream in) throws IOException, URISyntaxException {
+		int n = in.readInt();
+		for (int i = 0; i < n; i++) {
+			sources.add(new Source(readString(in), in.readLong(), in.readLong()));
+		}
+
+		n = in.readInt();
+		for (int i = 0; i < n; i++) {
+			String uri = readString(in);
+			String jail = readString(in);
+			contexts.add(new ParseContext(uri == null ? null : new URI(uri), jail));
+		}
+
+		n = in.readInt();
+		strings.ensureCapacity(n);
+		for (int i = 0; i < n; i++) {
+			strings.add(readString(in));
+		}
+
+		numRecords = in.readInt();
+		recordStart = new int[numRecords + 1];
+		for (int i = 0; i < numRecords; i++) {
+			recordStart[i + 1] = recordStart[i] + in.readInt();
+		}
+		dataSize = recordStart[numRecords];
+		data = new int[dataSize];
+		for (int i = 0; i < dataSize; i++) {
+			data[i] = in.readInt();
+		}
+
+		// Check the indices so that a corrupt image is rejected before it is applied
+		for (int i = 0; i < numRecords; i++) {
+			int start = recordStart[i];
+			if (start >= recordStart[i + 1] || data[start] < 0 || data[start] >= contexts.size())
+				throw new IOException("Corrupt model image");
+			for (int j = start + 1; j < recordStart[i + 1]; j++) {
+				if (data[j] < 0 || data[j] >= strings.size())
+					throw new IOException("Corrupt model image");
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int len = in.readInt();
+		if (len == -1)
+			return null;
+		byte[] bytes = new byte[len];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Fingerprint for a source file.
+	 */
+	private static class Source {
+		final String uri;
+		final long size;
+		final long checksum;
+
+		Source(String u, long s, long c) {
+			uri = u;
+			size = s;
+			checksum = c;
+		}
+
+		/**
+		 * Returns the present fingerprint for the specified source file, or null if the file
+		 * cannot be read.
+		 */
+		static Source getSource(String uri) {
+			try {
+				URI u = new URI(uri);
+				if ("file".equals(u.getScheme()) && !new File(u).isFile())
+					return null;
+
+				CRC32 crc = new CRC32();
+				long size = 0L;
+				byte[] buf = new byte[1 << 13];
+				try (InputStream in = u.toURL().openStream()) {
+					while (true) {
+						int n = in.read(buf);
+						if (n < 0)
+							break;
+						crc.update(buf, 0, n);
+						size += n;
+					}
+				}
+				return new Source(uri, size, crc.getValue());
+			}
+			catch (IOException | URISyntaxException | IllegalArgumentException e) {
+				return null;
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Source))
+				return false;
+			Source src = (Source) obj;
+			return uri.equals(src.uri) && size == src.size && checksum == src.checksum;
+		}
+
+		@Override
+		public int hashCode() {
+			return uri.hashCode();
+		}
+	}
+
+}
@@ -0,0 +1,392 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Table of numbers read from a text file whose records contain only plain numbers, optionally
+ * preceded by a key.
+ * <p>
+ * The file is memory-mapped and divided into ranges of whole lines that are parsed in parallel.
+ * The numbers are stored in a single array in the order they appear in the file, and the
+ * position of the first number in each record is held in a second array. Blank lines and
+ * comments are skipped in the same way as by FileInput.getTokensFromURI.
+ * <p>
+ * A number has the same form as a number literal in an expression: an optional minus sign
+ * followed by digits with an optional decimal point and exponent, and without a unit. Its value
+ * is identical to that obtained by evaluating the entry as an expression. If an entry has any
+ * other form, or the file cannot be mapped, no table is returned and the file must be read by
+ * the general method.
+ */
+public class NumericTable {
+
+	private static final long MIN_BYTES_PER_THREAD = 1L << 20;
+	private static final long MAX_RANGE_BYTES = 1L << 30;
+
+	private final double[] values;
+	private final int[] rowStart;
+	private final String[] keys;
+
+	private NumericTable(double[] vals, int[] start, String[] k) {
+		values = vals;
+		rowStart = start;
+		keys = k;
+	}
+
+	/**
+	 * Returns the number of records in the table.
+	 */
+	public int getRowCount() {
+		return rowStart.length - 1;
+	}
+
+	/**
+	 * Returns the numbers for all the records in the order they appear in the file.
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Returns the position in the values array of the first number for each record, followed
+	 * by the total number of values.
+	 */
+	public int[] getRowStart() {
+		return rowStart;
+	}
+
+	/**
+	 * Returns the key for each record, or null if the file was read without keys.
+	 */
+	public String[] getKeys() {
+		return keys;
+	}
+
+	/**
+	 * Reads the specified file.
+	 * @param uri - file to be read
+	 * @param keyed - if true, the first entry in each record is a key instead of a number
+	 * @return table of numbers, or null if the file cannot be read in this way
+	 */
+	public static NumericTable read(URI uri, boolean keyed) {
+		if (uri == null || !"file".equals(uri.getScheme()))
+			return null;
+
+		try (FileChannel channel = FileChannel.open(new File(uri).toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+
+			// Divide the file into ranges that start at the beginning of a line
+			int numRanges = (int) Math.min(Runtime.getRuntime().availableProcessors(),
+					Math.max(1L, size / MIN_BYTES_PER_THREAD));
+			numRanges = (int) Math.max(numRanges, (size + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES);
+			long[] bounds = new long[numRanges + 1];
+			bounds[numRanges] = size;
+			for (int i = 1; i < numRanges; i++) {
+				long pos = Math.max(bounds[i - 1], size * i / numRanges);
+				bounds[i] = findLineStart(channel, pos, size);
+			}
+
+			// Parse each range on its own thread
+			final RangeParser[] parsers = new RangeParser[numRanges];
+			for (int i = 0; i < numRanges; i++) {
+				MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY,
+						bounds[i], bounds[i + 1] - bounds[i]);
+				parsers[i] = new RangeParser(buf, keyed);
+			}
+			Thread[] threads = new Thread[numRanges - 1];
+			for (int i = 1; i < numRanges; i++) {
+				threads[i - 1] = new Thread(parsers[i], "NumericTable-" + i);
+				threads[i - 1].start();
+			}
+			parsers[0].run();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+
+			// Combine the results
+			long numValues = 0L;
+			long numRows = 0L;
+			for (RangeParser p : parsers) {
+				if (!p.valid)
+					return null;
+				numValues += p.numValues;
+				numRows += p.numRows;
+			}
+			if (numValues > Integer.MAX_VALUE - 8 || numRows > Integer.MAX_VALUE - 8)
+				return null;
+
+			double[] vals = new double[(int) numValues];
+			int[] start = new int[(int) numRows + 1];
+			String[] k = keyed ? new String[(int) numRows] : null;
+			int valPos = 0;
+			int rowPos = 0;
+			for (RangeParser p : parsers) {
+				System.arraycopy(p.values, 0, vals, valPos, p.numValues);
+				for (int r = 0; r < p.numRows; r++) {
+					start[rowPos + r] = valPos + p.rowStart[r];
+				}
+				if (keyed) {
+					for (int r = 0; r < p.numRows; r++) {
+						k[rowPos + r] = p.keys.get(r);
+					}
+				}
+				valPos += p.numValues;
+				rowPos += p.numRows;
+			}
+			start[rowPos] = valPos;
+			return new NumericTable(vals, start, k);
+		}
+		catch (IOException | UnsupportedOperationException | IllegalArgumentException
+				| SecurityException e) {
+			return null;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the position of the first line that starts at or after the specified position.
+	 */
+	private static long findLineStart(FileChannel channel, long pos, long size) throws IOException {
+		if (pos == 0L)
+			return 0L;
+		ByteBuffer buf = ByteBuffer.allocate(1 << 12);
+		long p = pos - 1;
+		while (p < size) {
+			buf.clear();
+			int n = channel.read(buf, p);
+			if (n <= 0)
+				break;
+			for (int i = 0; i < n; i++) {
+				byte b = buf.get(i);
+				if (b == '\n' || b == '\r')
+					return p + i + 1;
+			}
+			p += n;
+		}
+		return size;
+	}
+
+	/**
+	 * Parses the lines in one range of the file.
+	 */
+	private static class RangeParser implements Runnable {
+		private final ByteBuffer buf;
+		private final boolean keyed;
+
+		double[] values = new double[1 << 10];
+		int[] rowStart = new int[1 << 8];
+		ArrayList<String> keys;
+		int numValues;
+		int numRows;
+		boolean valid;
+
+		private final byte[] token = new byte[64];
+
+		RangeParser(ByteBuffer b, boolean k) {
+			buf = b;
+			keyed = k;
+			if (keyed)
+				keys = new ArrayList<>();
+		}
+
+		@Override
+		public void run() {
+			try {
+				valid = parse();
+			}
+			catch (RuntimeException e) {
+				valid = false;
+			}
+		}
+
+		private boolean parse() {
+			int end = buf.limit();
+			int pos = 0;
+			boolean rowStarted = false;
+			while (pos < end) {
+				byte b = buf.get(pos);
+
+				// End of line
+				if (b == '\n' || b == '\r') {
+					rowStarted = false;
+					pos++;
+					continue;
+				}
+
+				// Delimiters
+				if (b == ' ' || b == '\t') {
+					pos++;
+					continue;
+				}
+
+				// Comment
+				if (b == '#') {
+					while (pos < end && buf.get(pos) != '\n' && buf.get(pos) != '\r') {
+						pos++;
+					}
+					continue;
+				}
+
+				// Find the end of the entry
+				int tokEnd = pos;
+				while (tokEnd < end) {
+					byte c = buf.get(tokEnd);
+					if (c == ' ' || c == '\t' || c == '#' || c == '\n' || c == '\r')
+						break;
+					if (c == '\'' || c == '{' || c == '}' || c < 0x20 || c >= 0x7F)
+						return false;
+					tokEnd++;
+				}
+
+				// Start a new record
+				if (!rowStarted) {
+					rowStarted = true;
+					if (numRows == rowStart.length)
+						rowStart = Arrays.copyOf(rowStart, numRows*2);
+					rowStart[numRows++] = numValues;
+					if (keyed) {
+						byte[] bytes = new byte[tokEnd - pos];
+						for (int i = 0; i < bytes.length; i++) {
+							bytes[i] = buf.get(pos + i);
+						}
+						keys.add(new String(bytes, StandardCharsets.US_ASCII));
+						pos = tokEnd;
+						continue;
+					}
+				}
+
+				// Parse the number
+				if (numValues == values.length)
+					values = Arrays.copyOf(values, numValues*2);
+				double val = parseNumber(pos, tokEnd);
+				if (Double.isNaN(val))
+					return false;
+				values[numValues++] = val;
+				pos = tokEnd;
+			}
+			return true;
+		}
+
+		/**
+		 * Returns the value of a number literal, or NaN if the entry is not a number literal.
+		 */
+		private double parseNumber(int start, int end) {
+			int pos = start;
+			boolean neg = false;
+			if (buf.get(pos) == '-') {
+				neg = true;
+				pos++;
+			}
+			if (pos == end || !isDigit(buf.get(pos)))
+				return Double.NaN;
+
+			// Digits and decimal point
+			long mant = 0L;
+			int scale = 0;
+			boolean point = false;
+			boolean exact = true;
+			for (; pos < end; pos++) {
+				byte b = buf.get(pos);
+				if (b == '.') {
+					if (point)
+						return Double.NaN;
+					point = true;
+					continue;
+				}
+				if (!isDigit(b))
+					break;
+				if (mant < 100000000000000L) {
+					mant = mant*10 + (b - '0');
+					if (point)
+						scale++;
+				}
+				else {
+					exact = false;
+				}
+			}
+
+			// Exponent
+			int exp = 0;
+			if (pos < end && (buf.get(pos) == 'e' || buf.get(pos) == 'E')) {
+				pos++;
+				boolean expNeg = false;
+				if (pos < end && buf.get(pos) == '-') {
+					expNeg = true;
+					pos++;
+				}
+				if (pos == end)
+					return Double.NaN;
+				for (; pos < end; pos++) {
+					byte b = buf.get(pos);
+					if (!isDigit(b))
+						return Double.NaN;
+					if (exp < 10000)
+						exp = exp*10 + (b - '0');
+				}
+				if (expNeg)
+					exp = -exp;
+			}
+			if (pos != end)
+				return Double.NaN;
+
+			// Both the digits and the power of ten are exact doubles, so a single operation gives
+			// the correctly rounded result
+			double val;
+			int pow = exp - scale;
+			if (exact && pow >= -22 && pow <= 22) {
+				val = mant;
+				if (pow < 0)
+					val /= POWERS_OF_TEN[-pow];
+				else
+					val *= POWERS_OF_TEN[pow];
+			}
+			else {
+				int first = neg ? start + 1 : start;
+				int len = end - first;
+				byte[] bytes = len <= token.length ? token : new byte[len];
+				for (int i = 0; i < len; i++) {
+					bytes[i] = buf.get(first + i);
+				}
+				val = Double.parseDouble(new String(bytes, 0, len, StandardCharsets.US_ASCII));
+			}
+			return neg ? -val : val;
+		}
+	}
+
+	private static boolean isDigit(byte b) {
+		return b >= '0' && b <= '9';
+	}
+
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+}
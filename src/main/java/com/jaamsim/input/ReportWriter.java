@@ -0,0 +1,393 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.datatypes.DoubleVector;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Writes the output report for each simulation run on a background thread.
+ * <p>
+ * The report is prepared in two stages. The output values are first evaluated on the
+ * simulation thread and saved in a Report, which holds the numbers and the names of the
+ * entities, outputs, and units without any formatting. The Report is then formatted and written
+ * to the report file by a background thread, while the next simulation run proceeds. The report
+ * for one run must be finished before the report for the next run is started, so that at most
+ * one Report is held in memory while it is being written.
+ */
+public class ReportWriter {
+
+	private final ExecutorService executor;
+	private Future<?> pending;  // report that is being written
+
+	public ReportWriter() {
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "ReportWriter");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Saves the output report for the present simulation run and writes it to the specified
+	 * file on the background thread.
+	 * @param simModel - simulation model
+	 * @param file - report file
+	 * @param simTime - simulation time at which the outputs are evaluated
+	 * @param close - if true, the file is closed once the report has been written
+	 */
+	public void print(JaamSimModel simModel, final FileEntity file, double simTime, final boolean close) {
+		final Report rep = getReport(simModel, simTime);
+		waitForReport();
+		pending = executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				rep.write(file);
+				if (close)
+					file.close();
+				else
+					file.flush();
+			}
+		});
+	}
+
+	/**
+	 * Waits for the report that is being written to be completed.
+	 * @throws ErrorException if the report could not be written
+	 */
+	public void waitForReport() {
+		if (pending == null)
+			return;
+		Future<?> fut = pending;
+		pending = null;
+		try {
+			fut.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ErrorException("Interrupted while writing the output report");
+		}
+		catch (ExecutionException e) {
+			throw new ErrorException(e.getCause());
+		}
+	}
+
+	/**
+	 * Stops the background thread once the report that is being written has been completed.
+	 */
+	public void close() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Returns the output report for the present simulation run. The entities and outputs are
+	 * selected by the ReportClassList and ReportOutputList inputs for Simulation.
+	 * @param simModel - simulation model
+	 * @param simTime - simulation time at which the outputs are evaluated
+	 */
+	public static Report getReport(JaamSimModel simModel, double simTime) {
+		Simulation simulation = simModel.getSimulation();
+
+		// Classes and outputs to include
+		HashSet<Class<? extends Entity>> classSet = null;
+		if (simulation.getReportClassList() != null) {
+			classSet = new HashSet<>();
+			for (ObjectType ot : simulation.getReportClassList()) {
+				classSet.add(ot.getJavaClass());
+			}
+		}
+		HashSet<String> outputSet = null;
+		if (simulation.getReportOutputList() != null)
+			outputSet = new HashSet<>(simulation.getReportOutputList());
+
+		Report rep = new Report();
+
+		// Print run number header when multiple runs are to be performed
+		if (simModel.isMultipleRuns()) {
+			rep.addLine(simModel.getRunHeader());
+			rep.addLine("");
+		}
+
+		// Prepare a sorted list of entities
+		ArrayList<Entity> entList = new ArrayList<>();
+		for (Entity ent : simModel.getClonesOfIterator(Entity.class)) {
+
+			if (!ent.isRegistered())
+				continue;
+
+			if (!ent.isReportable())
+				continue;
+
+			if (classSet != null && !classSet.contains(ent.getClass()))
+				continue;
+
+			entList.add(ent);
+		}
+		Collections.sort(entList, InputAgent.uiEntitySortOrder);
+
+		// Loop through the entities
+		Class<? extends Entity> entClass = null;
+		for (Entity ent : entList) {
+
+			// Print a header if the entity class is new
+			int mark = rep.getSize();
+			if (ent.getClass() != entClass && ent.getClass() != Simulation.class) {
+				ObjectType ot = simModel.getObjectTypeForClass(ent.getClass());
+				rep.addLine("*** " + ot + " ***");
+				rep.addLine("");
+			}
+
+			// Print the report for the entity
+			int start = rep.getSize();
+			rep.addEntity(ent, simTime, outputSet);
+
+			// Omit an entity that has none of the selected outputs
+			if (rep.getSize() == start) {
+				rep.truncate(mark);
+				continue;
+			}
+			entClass = ent.getClass();
+			rep.addLine("");
+		}
+		return rep;
+	}
+
+	/**
+	 * Output values for a report, held until they are formatted and written to a file.
+	 */
+	public static class Report {
+		private static final byte LINE = 0;        // line of text
+		private static final byte VALUE = 1;       // numerical output
+		private static final byte TEXT = 2;        // non-numerical output
+		private static final byte LIST_VALUE = 3;  // numerical element of a list or map
+		private static final byte LIST_TEXT = 4;   // non-numerical element of a list or map
+
+		private int size;
+		private byte[] types = new byte[64];
+		private String[] entNames = new String[64];
+		private String[] outNames = new String[64];
+		private Object[] keys = new Object[64];
+		private String[] texts = new String[64];
+		private double[] values = new double[64];
+		private String[] units = new String[64];
+
+		public Report() {}
+
+		/**
+		 * Returns the number of lines in the report.
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * Removes the lines that follow the specified number of lines.
+		 */
+		void truncate(int n) {
+			for (int i = n; i < size; i++) {
+				entNames[i] = null;
+				outNames[i] = null;
+				keys[i] = null;
+				texts[i] = null;
+				units[i] = null;
+			}
+			size = n;
+		}
+
+		private void add(byte type, String entName, String outName, Object key, String text,
+				double val, String unit) {
+			if (size == types.length) {
+				int len = types.length * 2;
+				types = Arrays.copyOf(types, len);
+				entNames = Arrays.copyOf(entNames, len);
+				outNames = Arrays.copyOf(outNames, len);
+				keys = Arrays.copyOf(keys, len);
+				texts = Arrays.copyOf(texts, len);
+				values = Arrays.copyOf(values, len);
+				units = Arrays.copyOf(units, len);
+			}
+			types[size] = type;
+			entNames[size] = entName;
+			outNames[size] = outName;
+			keys[size] = key;
+			texts[size] = text;
+			values[size] = val;
+			units[size] = unit;
+			size++;
+		}
+
+		void addLine(String text) {
+			add(LINE, null, null, null, text, 0.0d, null);
+		}
+
+		private void addValue(String entName, String outName, Object key, Object obj, String unit, double factor) {
+			if (obj instanceof Double) {
+				double val = (Double)obj;
+				add(LIST_VALUE, entName, outName, key, null, val/factor, unit);
+			}
+			else {
+				add(LIST_TEXT, entName, outName, key, String.valueOf(obj), 0.0d, unit);
+			}
+		}
+
+		/**
+		 * Saves the values of the reportable outputs for the specified entity.
+		 * @param ent - entity whose outputs are to be saved
+		 * @param simTime - simulation time at which the outputs are evaluated
+		 * @param outputSet - names of the outputs to include, or null for every output
+		 */
+		public void addEntity(Entity ent, double simTime, Collection<String> outputSet) {
+			String entName = ent.getName();
+
+			// Loop through the outputs
+			ArrayList<OutputHandle> handles = OutputHandle.getOutputHandleList(ent);
+			for (OutputHandle out : handles) {
+
+				// Should this output appear in the report?
+				if (!out.isReportable())
+					continue;
+
+				if (outputSet != null && !outputSet.contains(out.getName()))
+					continue;
+
+				// Determine the preferred unit for this output
+				Class<? extends Unit> ut = out.getUnitType();
+				double factor = Unit.getDisplayedUnitFactor(ut);
+				String unitString = Unit.getDisplayedUnit(ut);
+				if (ut == Unit.class || ut == DimensionlessUnit.class)
+					unitString = "-";
+
+				// Numerical output
+				if (out.isNumericValue()) {
+					double val;
+					try {
+						val = out.getValueAsDouble(simTime, Double.NaN)/factor;
+					}
+					catch (Exception e) {
+						val = Double.NaN;
+					}
+					add(VALUE, entName, out.getName(), null, null, val, unitString);
+				}
+
+				// double[] output
+				else if (out.getReturnType() == double[].class) {
+					double[] vec = out.getValue(simTime, double[].class);
+					for (int i = 0; i < vec.length; i++) {
+						add(LIST_VALUE, entName, out.getName(), i, null, vec[i]/factor, unitString);
+					}
+				}
+
+				// DoubleVector output
+				else if (out.getReturnType() == DoubleVector.class) {
+					DoubleVector vec = out.getValue(simTime, DoubleVector.class);
+					for (int i = 0; i < vec.size(); i++) {
+						add(LIST_VALUE, entName, out.getName(), i, null, vec.get(i)/factor, unitString);
+					}
+				}
+
+				// ArrayList output
+				else if (out.getReturnType() == ArrayList.class) {
+					ArrayList<?> array = out.getValue(simTime, ArrayList.class);
+					for (int i = 0; i < array.size(); i++) {
+						addValue(entName, out.getName(), i, array.get(i), unitString, factor);
+					}
+				}
+
+				// Keyed output
+				else if (out.getReturnType() == LinkedHashMap.class) {
+					LinkedHashMap<?, ?> map = out.getValue(simTime, LinkedHashMap.class);
+					for (Entry<?, ?> mapEntry : map.entrySet()) {
+						addValue(entName, out.getName(), String.valueOf(mapEntry.getKey()),
+								mapEntry.getValue(), unitString, factor);
+					}
+				}
+
+				// Expression based custom outputs
+				else if (out.getReturnType() == ExpResult.class) {
+					String val = InputAgent.getValueAsString(out, simTime, "%s", factor);
+					add(TEXT, entName, out.getName(), null, val, 0.0d, unitString);
+				}
+
+				// All other outputs
+				else {
+					if (ut != Unit.class && ut != DimensionlessUnit.class)
+						unitString = Unit.getSIUnit(ut);  // other outputs are not converted to preferred units
+					String str = out.getValue(simTime, out.getReturnType()).toString();
+					add(TEXT, entName, out.getName(), null, str, 0.0d, unitString);
+				}
+			}
+		}
+
+		/**
+		 * Formats the report and writes it to the specified file.
+		 * <p>
+		 * Each output is written as a tab-separated line containing the entity name, the output
+		 * name, the value, and the unit. For an element of a list or map, the index or key is
+		 * appended to the output name in square brackets.
+		 */
+		public void write(FileEntity file) {
+			String newLine = System.lineSeparator();
+			StringBuilder sb = new StringBuilder(1 << 16);
+			for (int i = 0; i < size; i++) {
+				if (types[i] == LINE) {
+					sb.append(texts[i]).append(newLine);
+				}
+				else {
+					sb.append(entNames[i]).append('\t').append(outNames[i]);
+					if (types[i] == LIST_VALUE || types[i] == LIST_TEXT)
+						sb.append('[').append(keys[i]).append(']');
+					sb.append('\t');
+					if (types[i] == TEXT || types[i] == LIST_TEXT)
+						sb.append(texts[i]);
+					else
+						sb.append(values[i]);
+					sb.append('\t').append(units[i]).append(newLine);
+				}
+
+				if (sb.length() >= 1 << 15) {
+					file.write(sb.toString());
+					sb.setLength(0);
+				}
+			}
+			file.write(sb.toString());
+		}
+	}
+
+}
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018-2019 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -87,29 +87,8 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 				each.add(kw.getArg(j));
 			}
 
-			// Time input in RFC8601 date/time format
-			long recordus;
-			if (Input.isRFC8601DateTime(each.get(0))) {
-				Input.assertCountRange(each, 2, 3);
-				double simTime = Input.parseRFC8601DateTime(simModel, each.get(0));
-				recordus = EventManager.secsToNearestTick(simTime);
-				each.remove(0);
-			}
-			// Time input in number/unit format
-			else {
-				// Parse the unit portion of the time input
-				Input.assertCountRange(each, 3, 4);
-				String unitName = Parser.removeEnclosure("[", each.get(1), "]");
-				TimeUnit unit = Input.tryParseUnit(thisEnt.getJaamSimModel(), unitName, TimeUnit.class);
-				if (unit == null)
-					throw new InputErrorException(INP_ERR_NOUNITFOUND, each.get(1), "TimeUnit");
-
-				// Parse the numeric portion of the time input
-				double factor = unit.getConversionFactorToSI();
-				recordus = (long) (Input.parseDouble(each.get(0), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, factor)*1e6);
-				each.remove(0);
-				each.remove(0);
-			}
+			// Time portion of the record
+			long recordus = parseRecordTime(simModel, each);
 
 			// Make sure the times are in increasing order
 			if (recordus <= lastTime)
@@ -144,6 +123,41 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 		value = new TimeSeriesData( times, values );
 	}
 
+	/**
+	 * Parses the time stamp for a time series record and removes its tokens from the record,
+	 * leaving the tokens for the value.
+	 * @param simModel - simulation model
+	 * @param each - tokens for the record
+	 * @return time stamp in microseconds
+	 * @throws InputErrorException if the time stamp is invalid
+	 */
+	public static long parseRecordTime(JaamSimModel simModel, ArrayList<String> each)
+	throws InputErrorException {
+
+		// Time input in RFC8601 date/time format
+		if (Input.isRFC8601DateTime(each.get(0))) {
+			Input.assertCountRange(each, 2, 3);
+			double simTime = Input.parseRFC8601DateTime(simModel, each.get(0));
+			each.remove(0);
+			return EventManager.secsToNearestTick(simTime);
+		}
+
+		// Time input in number/unit format
+		// Parse the unit portion of the time input
+		Input.assertCountRange(each, 3, 4);
+		String unitName = Parser.removeEnclosure("[", each.get(1), "]");
+		TimeUnit unit = Input.tryParseUnit(simModel, unitName, TimeUnit.class);
+		if (unit == null)
+			throw new InputErrorException(INP_ERR_NOUNITFOUND, each.get(1), "TimeUnit");
+
+		// Parse the numeric portion of the time input
+		double factor = unit.getConversionFactorToSI();
+		long recordus = (long) (Input.parseDouble(each.get(0), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, factor)*1e6);
+		each.remove(0);
+		each.remove(0);
+		return recordus;
+	}
+
 	public void setUnitType(Class<? extends Unit> u) {
 		if (u != unitType)
 			this.reset();
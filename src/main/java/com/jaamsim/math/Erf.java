@@ -0,0 +1,122 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.math;
+
+/**
+ * The error function and the cumulative distribution function for the standard normal
+ * distribution, together with their inverses.
+ * <p>
+ * The error function is evaluated from the regularized gamma functions, since
+ * erf(x) = P(1/2, x^2) and erfc(x) = Q(1/2, x^2) for x &ge; 0.
+ */
+public class Erf {
+
+	private static final double EPSILON = 1.0e-15d;
+	private static final int MAX_ITERATIONS = 10000;
+	private static final double SQRT2 = Math.sqrt(2.0d);
+	private static final double SQRT_TWO_PI = Math.sqrt(2.0d*Math.PI);
+
+	private Erf() {}
+
+	/**
+	 * Returns the error function erf(x).
+	 * @param x - value
+	 * @return erf(x)
+	 */
+	public static double erf(double x) {
+		if (Math.abs(x) > 40.0d)
+			return x > 0.0d ? 1.0d : -1.0d;
+		double ret = Gamma.regularizedGammaP(0.5d, x*x, EPSILON, MAX_ITERATIONS);
+		return x < 0.0d ? -ret : ret;
+	}
+
+	/**
+	 * Returns the complementary error function erfc(x) = 1 - erf(x). The result is accurate
+	 * for large positive values of x, where erf(x) is indistinguishable from one.
+	 * @param x - value
+	 * @return erfc(x)
+	 */
+	public static double erfc(double x) {
+		if (Math.abs(x) > 40.0d)
+			return x > 0.0d ? 0.0d : 2.0d;
+		double ret = Gamma.regularizedGammaQ(0.5d, x*x, EPSILON, MAX_ITERATIONS);
+		return x < 0.0d ? 2.0d - ret : ret;
+	}
+
+	/**
+	 * Returns the cumulative distribution function for the standard normal distribution.
+	 * @param z - value
+	 * @return probability of a value less than or equal to z
+	 */
+	public static double normalCDF(double z) {
+		return 0.5d*erfc(-z/SQRT2);
+	}
+
+	/**
+	 * Returns the inverse of the cumulative distribution function for the standard normal
+	 * distribution. The rational approximation by P. J. Acklam, which has a relative error of
+	 * less than 1.15e-9, is refined by one step of Halley's method to obtain full precision.
+	 * @param p - cumulative probability
+	 * @return z value
+	 */
+	public static double normalQuantile(double p) {
+		if (p <= 0.0d)
+			return Double.NEGATIVE_INFINITY;
+		if (p >= 1.0d)
+			return Double.POSITIVE_INFINITY;
+
+		// Work in the lower tail where the probability can be represented accurately
+		if (p > 0.5d)
+			return -normalQuantile(1.0d - p);
+
+		double z = acklam(p);
+		double e = normalCDF(z) - p;
+		double u = e*SQRT_TWO_PI*Math.exp(0.5d*z*z);
+		return z - u/(1.0d + 0.5d*z*u);
+	}
+
+	private static double acklam(double p) {
+		final double plow = 0.02425d;
+		if (p < plow) {
+			double q = Math.sqrt(-2.0d*Math.log(p));
+			return (((((C[0]*q + C[1])*q + C[2])*q + C[3])*q + C[4])*q + C[5])
+					/ ((((D[0]*q + D[1])*q + D[2])*q + D[3])*q + 1.0d);
+		}
+		double q = p - 0.5d;
+		double r = q*q;
+		return (((((A[0]*r + A[1])*r + A[2])*r + A[3])*r + A[4])*r + A[5])*q
+				/ (((((B[0]*r + B[1])*r + B[2])*r + B[3])*r + B[4])*r + 1.0d);
+	}
+
+	private static final double[] A = {
+		-3.969683028665376e+01,  2.209460984245205e+02, -2.759285104469687e+02,
+		 1.383577518672690e+02, -3.066479806614716e+01,  2.506628277459239e+00
+	};
+	private static final double[] B = {
+		-5.447609879822406e+01,  1.615858368580409e+02, -1.556989798598866e+02,
+		 6.680131188771972e+01, -1.328068155288572e+01
+	};
+	private static final double[] C = {
+		-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+		-2.549732539343734e+00,  4.374664141464968e+00,  2.938163982698783e+00
+	};
+	private static final double[] D = {
+		 7.784695709041462e-03,  3.224671290700398e-01,  2.445134137142996e+00,
+		 3.754408364286564e+00
+	};
+
+}
@@ -465,4 +465,167 @@ public class Gamma {
 		}
 		return ret;
 	}
+
+	/**
+	 * Returns the regularized gamma function P(a, x).
+	 *
+	 * The implementation of this method is based on:
+	 * <ul>
+	 * <li>
+	 * <a href="http://mathworld.wolfram.com/RegularizedGammaFunction.html">
+	 * Regularized Gamma Function</a>, equation (1)
+	 * </li>
+	 * <li>
+	 * <a href="http://mathworld.wolfram.com/IncompleteGammaFunction.html">
+	 * Incomplete Gamma Function</a>, equation (4).
+	 * </li>
+	 * <li>
+	 * <a href="http://mathworld.wolfram.com/ConfluentHypergeometricFunctionoftheFirstKind.html">
+	 * Confluent Hypergeometric Function of the First Kind</a>, equation (1).
+	 * </li>
+	 * </ul>
+	 *
+	 * @param a
+	 *            the a parameter.
+	 * @param x
+	 *            the value.
+	 * @param epsilon
+	 *            When the absolute value of the nth item in the series is less
+	 *            than epsilon the approximation ceases to calculate further
+	 *            elements in the series.
+	 * @param maxIterations
+	 *            Maximum number of "iterations" to complete.
+	 * @return the regularized gamma function P(a, x)
+	 * @throws RuntimeException
+	 *             if the algorithm fails to converge.
+	 */
+	public static double regularizedGammaP(double a, double x, double epsilon,
+			int maxIterations) {
+		double ret;
+
+		if (Double.isNaN(a) || Double.isNaN(x) || (a <= 0.0) || (x < 0.0)) {
+			ret = Double.NaN;
+		} else if (x == 0.0) {
+			ret = 0.0;
+		} else if (x >= a + 1) {
+			// use regularizedGammaQ because it should converge faster in this
+			// case.
+			ret = 1.0 - regularizedGammaQ(a, x, epsilon, maxIterations);
+		} else {
+			// calculate series
+			double n = 0.0; // current element index
+			double an = 1.0 / a; // n-th element in the series
+			double sum = an; // partial sum
+			while (Math.abs(an / sum) > epsilon && n < maxIterations
+					&& sum < Double.POSITIVE_INFINITY) {
+				// compute next element in the series
+				n += 1.0;
+				an *= x / (a + n);
+
+				// update partial sum
+				sum += an;
+			}
+			if (n >= maxIterations) {
+				throw new RuntimeException("Maximum number of iterations exceeded");
+			} else if (Double.isInfinite(sum)) {
+				ret = 1.0;
+			} else {
+				ret = Math.exp(-x + (a * Math.log(x)) - logGamma(a)) * sum;
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Returns the regularized gamma function Q(a, x) = 1 - P(a, x).
+	 *
+	 * The implementation of this method is based on:
+	 * <ul>
+	 * <li>
+	 * <a href="http://mathworld.wolfram.com/RegularizedGammaFunction.html">
+	 * Regularized Gamma Function</a>, equation (1).
+	 * </li>
+	 * <li>
+	 * <a href="http://functions.wolfram.com/GammaBetaErf/GammaRegularized/10/0003/">
+	 * Regularized incomplete gamma function: Continued fraction representations
+	 * (formula 06.08.10.0003)</a>
+	 * </li>
+	 * </ul>
+	 *
+	 * @param a
+	 *            the a parameter.
+	 * @param x
+	 *            the value.
+	 * @param epsilon
+	 *            When the absolute value of the nth item in the series is less
+	 *            than epsilon the approximation ceases to calculate further
+	 *            elements in the series.
+	 * @param maxIterations
+	 *            Maximum number of "iterations" to complete.
+	 * @return the regularized gamma function P(a, x)
+	 * @throws RuntimeException
+	 *             if the algorithm fails to converge.
+	 */
+	public static double regularizedGammaQ(final double a, double x,
+			double epsilon, int maxIterations) {
+		double ret;
+
+		if (Double.isNaN(a) || Double.isNaN(x) || (a <= 0.0) || (x < 0.0)) {
+			ret = Double.NaN;
+		} else if (x == 0.0) {
+			ret = 1.0;
+		} else if (x < a + 1.0) {
+			// use regularizedGammaP because it should converge faster in this
+			// case.
+			ret = 1.0 - regularizedGammaP(a, x, epsilon, maxIterations);
+		} else {
+			// evaluate the continued fraction using the modified Lentz method
+			final double small = 1e-50;
+			double hPrev = x + 1.0 - a;
+			if (Math.abs(hPrev) < small) {
+				hPrev = small;
+			}
+			int n = 1;
+			double dPrev = 0.0;
+			double cPrev = hPrev;
+			double hN = hPrev;
+			while (n < maxIterations) {
+				final double an = ((2.0 * n) + 1.0) - a + x;
+				final double bn = n * (a - n);
+
+				double dN = an + bn * dPrev;
+				if (Math.abs(dN) < small) {
+					dN = small;
+				}
+				double cN = an + bn / cPrev;
+				if (Math.abs(cN) < small) {
+					cN = small;
+				}
+
+				dN = 1 / dN;
+				final double deltaN = cN * dN;
+				hN = hPrev * deltaN;
+
+				if (Double.isInfinite(hN) || Double.isNaN(hN)) {
+					throw new RuntimeException("Continued fraction diverged");
+				}
+				if (Math.abs(deltaN - 1.0) < epsilon) {
+					break;
+				}
+
+				dPrev = dN;
+				cPrev = cN;
+				hPrev = hN;
+				n++;
+			}
+			if (n >= maxIterations) {
+				throw new RuntimeException("Maximum number of iterations exceeded");
+			}
+
+			ret = Math.exp(-x + (a * Math.log(x)) - logGamma(a)) / hN;
+		}
+
+		return ret;
+	}
 }
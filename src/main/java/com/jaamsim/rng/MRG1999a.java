@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,14 +20,17 @@ package com.jaamsim.rng;
 /**
  * Combined MRG based on L'Ecuyer (1999a), implementation ported from the ANSI C
  * version provided in Simulation Modeling and Analysis 5th Ed. Averill M. Law. (Appendix 7B)
+ * <p>
+ * Streams and substreams are selected by multiplying the initial seed by powers of the
+ * stream and substream advance matrices, which are pre-computed for each power of two.
  */
 public class MRG1999a {
 	private static final long m1 = 4294967087l;
 	private static final long m2 = 4294944443l;
 	private static final double norm   = 2.328306549295727688e-10d; // 1.0 / (m1 + 1)
 
-	// The internal state machine is held in 6 integer values (treat as unsigned)
-	int s0, s1, s2, s3, s4, s5;
+	// The internal state machine is held in 6 values, each less than the modulus
+	long s0, s1, s2, s3, s4, s5;
 
 	// Saved initial state
 	int stream = -1;
@@ -52,20 +55,16 @@ public class MRG1999a {
 		{ 3859662829L, 4292754251L, 3708466080L }
 	};
 
-	private static final int seedCacheSize = 20;
-	private static final int seedCacheIncrement = 5000;
-	private static final long seedCache[][] = new long[seedCacheSize][6];  // seeds after calling advanceStream
+	// Advance matrices raised to the power 2^k for k = 0 to 30, for the first and second halves
+	// of the state
+	private static final long streamJump1[][][] = new long[31][][];
+	private static final long streamJump2[][][] = new long[31][][];
+	private static final long substreamJump1[][][] = new long[31][][];
+	private static final long substreamJump2[][][] = new long[31][][];
 
 	static {
-		long seeds[] = { 12345, 12345, 12345, 12345, 12345, 12345 };
-		for (int i = 0; i <= (seedCacheSize - 1) * seedCacheIncrement; i++) {
-			if (i % seedCacheIncrement == 0) {
-				int seedIdx = i / seedCacheIncrement;
-				for (int j = 0; j < seeds.length; j++)
-					seedCache[seedIdx][j] = seeds[j];
-			}
-			advanceStream(seeds);
-		}
+		initJumpTable(streamAdvance, streamJump1, streamJump2);
+		initJumpTable(substreamAdvance, substreamJump1, substreamJump2);
 	}
 
 	/**
@@ -97,15 +96,6 @@ public class MRG1999a {
 		setSeed(s0, s1, s2, s3, s4, s5);
 	}
 
-	/**
-	 * Return an integer as a long, treating the int as unsigned
-	 * @param i
-	 * @return
-	 */
-	private long uint(int i) {
-		return i & 0xffffffffl;
-	}
-
 	/**
 	 * Seed the MRG with values form the given stream number.
 	 * @param stream
@@ -117,30 +107,20 @@ public class MRG1999a {
 		if (substream < 0)
 			throw new IllegalArgumentException("Substream numbers must be positive");
 
-		long seeds[] = new long[6];
-		int initSubstream = 0;
-
 		// If the same stream is used, start with the saved substream
+		long seeds[];
 		if (stream == this.stream && substream >= this.substream) {
-			initSubstream = this.substream;
-			seeds = initSeeds;
+			seeds = initSeeds.clone();
+			jump(substreamJump1, substreamJump2, substream - this.substream, seeds);
 		}
 
-		// Otherwise, start from the cached stream data
+		// Otherwise, jump ahead from the initial seed
 		else {
-
-			// Find the cached seed with stream closest to, but not exceeding this stream
-			int cacheSeedIdx = Math.min(stream / seedCacheIncrement, seedCacheSize - 1);
-			for (int j = 0; j < seeds.length; j++)
-				seeds[j] = seedCache[cacheSeedIdx][j];
-
-			for (int i = cacheSeedIdx * seedCacheIncrement; i < stream; i++)
-				advanceStream(seeds);
+			seeds = new long[]{ 12345, 12345, 12345, 12345, 12345, 12345 };
+			jump(streamJump1, streamJump2, stream, seeds);
+			jump(substreamJump1, substreamJump2, substream, seeds);
 		}
 
-		for (int i = initSubstream; i < substream; i++)
-			advanceSubstream(seeds);
-
 		setSeed(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
 
 		// Save the initial state for the generator
@@ -160,8 +140,8 @@ public class MRG1999a {
 			throw new IllegalArgumentException("The last three seeds must be < " + m2);
 		if (s0 < 0 || s1 < 0 || s2 < 0 || s3 < 0 || s4 < 0 || s5 < 0)
 			throw new IllegalArgumentException("All seeds must be > 0");
-		this.s0 = (int)s0; this.s1 = (int)s1; this.s2 = (int)s2;
-		this.s3 = (int)s3; this.s4 = (int)s4; this.s5 = (int)s5;
+		this.s0 = s0; this.s1 = s1; this.s2 = s2;
+		this.s3 = s3; this.s4 = s4; this.s5 = s5;
 	}
 
 	/**
@@ -170,26 +150,40 @@ public class MRG1999a {
 	 */
 	public double nextUniform() {
 		// Mix the first half of the state
-		long p1 = 1403580l * uint(s1) - 810728l * uint(s0);
-		p1 = p1 % m1;
-		if (p1 < 0) p1 += m1;
-		s0 = s1; s1 = s2; s2 = (int)p1;
+		long p1 = mod1(1403580l * s1 - 810728l * s0);
+		s0 = s1; s1 = s2; s2 = p1;
 
 		// Mix the second half of the state
-		long p2 = 527612l * uint(s5) - 1370589l * uint(s3);
-		p2 = p2 % m2;
-		if (p2 < 0) p2 += m2;
-		s3 = s4; s4 = s5; s5 = (int)p2;
+		long p2 = mod2(527612l * s5 - 1370589l * s3);
+		s3 = s4; s4 = s5; s5 = p2;
+
+		return combine(p1, p2);
+	}
 
+	/**
+	 * Returns the value of x modulo m1 in the range [0, m1). The remainder operator with a
+	 * constant divisor is compiled to a multiplication, and the sign is corrected without
+	 * branches.
+	 */
+	private static long mod1(long x) {
+		long r = x % m1;
+		return r + ((r >> 63) & m1);
+	}
+
+	private static long mod2(long x) {
+		long r = x % m2;
+		return r + ((r >> 63) & m2);
+	}
+
+	private static double combine(long p1, long p2) {
 		long p = p1 - p2;
-		if (p <= 0) p += m1;
+		p += ((p - 1) >> 63) & m1;
 		return p * norm;
 	}
 
 	@Override
 	public String toString() {
-		return String.format("%d, %d, %d, %d, %d, %d",
-		                     uint(s0), uint(s1), uint(s2), uint(s3), uint(s4), uint(s5));
+		return String.format("%d, %d, %d, %d, %d, %d", s0, s1, s2, s3, s4, s5);
 	}
 
 	private static long ulong_mod(long val, long mod) {
@@ -242,4 +236,51 @@ public class MRG1999a {
 		seeds[0] = s0; seeds[1] = s1; seeds[2] = s2;
 		seeds[3] = s3; seeds[4] = s4; seeds[5] = s5;
 	}
+
+	/**
+	 * Advances the seeds by the specified number of streams or substreams.
+	 * @param jump1 - jump matrices for the first half of the state
+	 * @param jump2 - jump matrices for the second half of the state
+	 * @param n - number of streams or substreams
+	 * @param seeds - seeds to be advanced
+	 */
+	private static void jump(long[][][] jump1, long[][][] jump2, int n, long[] seeds) {
+		for (int k = 0; n != 0; k++, n >>>= 1) {
+			if ((n & 1) == 0)
+				continue;
+			long s0 = mixHalf1(jump1[k][0], seeds);
+			long s1 = mixHalf1(jump1[k][1], seeds);
+			long s2 = mixHalf1(jump1[k][2], seeds);
+
+			long s3 = mixHalf2(jump2[k][0], seeds);
+			long s4 = mixHalf2(jump2[k][1], seeds);
+			long s5 = mixHalf2(jump2[k][2], seeds);
+
+			seeds[0] = s0; seeds[1] = s1; seeds[2] = s2;
+			seeds[3] = s3; seeds[4] = s4; seeds[5] = s5;
+		}
+	}
+
+	private static void initJumpTable(long[][] advance, long[][][] jump1, long[][][] jump2) {
+		jump1[0] = new long[][]{ advance[0], advance[1], advance[2] };
+		jump2[0] = new long[][]{ advance[3], advance[4], advance[5] };
+		for (int k = 1; k < jump1.length; k++) {
+			jump1[k] = matrixSquare(jump1[k - 1], m1);
+			jump2[k] = matrixSquare(jump2[k - 1], m2);
+		}
+	}
+
+	private static long[][] matrixSquare(long[][] a, long mod) {
+		long[][] ret = new long[3][3];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				long tmp;
+				tmp = ulong_mod(a[i][0] * a[0][j]      , mod);
+				tmp = ulong_mod(a[i][1] * a[1][j] + tmp, mod);
+				tmp = ulong_mod(a[i][2] * a[2][j] + tmp, mod);
+				ret[i][j] = tmp;
+			}
+		}
+		return ret;
+	}
 }
@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018-2019 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,12 +18,10 @@
 package com.jaamsim.states;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.Map.Entry;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Entity;
@@ -56,7 +54,8 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	protected final StringListInput workingStateListInput;
 
 	private StateRecord presentState; // The present state of the entity
-	private final HashMap<String, StateRecord> states;
+	private StateRecord[] states;  // Records for the states used so far, in order of first use
+	private int numStates;
 	private final ArrayList<StateEntityListener> stateListeners;
 
 	private long lastStateCollectionTick;
@@ -69,6 +68,10 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	protected static final String STATE_WORKING = "Working";
 	protected static final String STATE_INACTIVE = "Inactive";
 
+	protected static final StateHandle IDLE_HANDLE = StateHandle.get(STATE_IDLE);
+	protected static final StateHandle WORKING_HANDLE = StateHandle.get(STATE_WORKING);
+	protected static final StateHandle INACTIVE_HANDLE = StateHandle.get(STATE_INACTIVE);
+
 	protected static final Color4d COL_IDLE = ColourInput.LIGHT_GREY;
 	protected static final Color4d COL_WORKING = ColourInput.GREEN;
 	protected static final Color4d COL_INACTIVE = ColourInput.WHITE;
@@ -87,7 +90,7 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	}
 
 	public StateEntity() {
-		states = new HashMap<>();
+		states = new StateRecord[4];
 		stateListeners = new ArrayList<>();
 	}
 
@@ -125,13 +128,13 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 		if (EventManager.hasCurrent())
 			lastStateCollectionTick = getSimTicks();
 		workingTicks = 0;
-		states.clear();
+		Arrays.fill(states, 0, numStates, null);
+		numStates = 0;
 		useCurrentCycle = false;
 
-		StateRecord init = this.createRecord(getInitialState());
+		StateRecord init = this.createRecord(StateHandle.get(getInitialState()));
 		init.setStartTick(lastStateCollectionTick);
 		presentState = init;
-		states.put(init.getName(), init);
 
 		this.setGraphicsForState(init.getName());
 	}
@@ -174,22 +177,30 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 
 	@Override
 	public final void setPresentState( String state ) {
+		this.setPresentState(StateHandle.get(state));
+	}
+
+	/**
+	 * Sets the state of this entity to the specified state. No hashing or string comparison is
+	 * performed unless the state has not been used previously by this entity.
+	 * @param state - new state for the entity
+	 */
+	public final void setPresentState(StateHandle state) {
 		if (presentState == null)
 			this.initStateData();
 
-		if (presentState.getName().equals(state))
+		if (presentState.getHandle() == state)
 			return;
 
-		StateRecord nextState = states.get(state);
+		StateRecord nextState = this.findRecord(state);
 		if (nextState == null) {
-			if (!isValidState(state))
+			if (!isValidState(state.getName()))
 				error("Specified state: %s is not valid", state);
 
 			nextState = this.createRecord(state);
-			states.put(nextState.getName(), nextState);
 		}
 
-		this.setGraphicsForState(state);
+		this.setGraphicsForState(state.getName());
 
 		updateStateStats();
 		nextState.setStartTick(lastStateCollectionTick);
@@ -262,8 +273,8 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	 */
 	public void collectInitializationStats() {
 		updateStateStats();
-		for (StateRecord each : states.values()) {
-			each.finishWarmUp();
+		for (int i = 0; i < numStates; i++) {
+			states[i].finishWarmUp();
 		}
 	}
 
@@ -272,8 +283,8 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	 */
 	public void clearReportStats() {
 		updateStateStats();
-		for (StateRecord each : states.values()) {
-			each.clearStats();
+		for (int i = 0; i < numStates; i++) {
+			states[i].clearStats();
 		}
 	}
 
@@ -282,8 +293,8 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	 */
 	public void clearCurrentCycleStats() {
 		updateStateStats();
-		for (StateRecord each : states.values()) {
-			each.clearCurrentCycleStats();
+		for (int i = 0; i < numStates; i++) {
+			states[i].clearCurrentCycleStats();
 		}
 	}
 
@@ -293,28 +304,53 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	public void collectCycleStats() {
 		updateStateStats();
 		useCurrentCycle = true;
-		for (StateRecord each : states.values()) {
-			each.finishCycle();
+		for (int i = 0; i < numStates; i++) {
+			states[i].finishCycle();
 		}
 	}
 
-	private StateRecord createRecord(String state) {
-		String stateName = getJaamSimModel().internString(state);
-		return new StateRecord(stateName, isValidWorkingState(stateName));
+	/**
+	 * Creates a record for the specified state and adds it to the list of states.
+	 */
+	private StateRecord createRecord(StateHandle state) {
+		StateRecord rec = new StateRecord(state, isValidWorkingState(state.getName()));
+		if (numStates == states.length)
+			states = Arrays.copyOf(states, numStates * 2);
+		states[numStates++] = rec;
+		return rec;
+	}
+
+	/**
+	 * Returns the record for the specified state, or null if this entity has not used it.
+	 * Entities use only a handful of states, so a scan by reference is faster than a hash lookup.
+	 */
+	private StateRecord findRecord(StateHandle state) {
+		for (int i = 0; i < numStates; i++) {
+			if (states[i].getHandle() == state)
+				return states[i];
+		}
+		return null;
 	}
 
 	public void addState(String str) {
-		if (states.get(str) != null)
+		StateHandle state = StateHandle.get(str);
+		if (findRecord(state) != null)
 			return;
 		if (!isValidState(str))
 			error("Specified state: %s is not valid", str);
 
-		StateRecord stateRec = this.createRecord(str);
-		states.put(stateRec.getName(), stateRec);
+		this.createRecord(state);
 	}
 
 	public StateRecord getState(String state) {
-		return states.get(state);
+		StateHandle handle = StateHandle.find(state);
+		if (handle == null)
+			return null;
+		return findRecord(handle);
+	}
+
+	public StateRecord getState(StateHandle state) {
+		return findRecord(state);
 	}
 
 	public StateRecord getState() {
@@ -329,9 +365,9 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	}
 
 	public ArrayList<StateRecord> getStateRecs() {
-		ArrayList<StateRecord> recs = new ArrayList<>(states.size());
-		for (StateRecord rec : states.values())
-			recs.add(rec);
+		ArrayList<StateRecord> recs = new ArrayList<>(numStates);
+		for (int i = 0; i < numStates; i++)
+			recs.add(states[i]);
 		Collections.sort(recs, new StateRecSort());
 		return recs;
 	}
@@ -415,7 +451,7 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	 */
 	public double getTimeInState(double simTime, String state) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		StateRecord rec = states.get(state);
+		StateRecord rec = getState(state);
 		if (rec == null)
 			return 0.0;
 		long ticks = getTicksInState(simTicks, rec);
@@ -432,11 +468,9 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	public double getTotalTimeInState(double simTime, String state) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
 		long ticks = 0L;
-		Iterator<Entry<String, StateRecord>> itr = states.entrySet().iterator();
-		while (itr.hasNext()) {
-			Entry<String, StateRecord> pair = itr.next();
-			if (pair.getKey().endsWith(state)) {
-				ticks += getTicksInState(simTicks, pair.getValue());
+		for (int i = 0; i < numStates; i++) {
+			if (states[i].getName().endsWith(state)) {
+				ticks += getTicksInState(simTicks, states[i]);
 			}
 		}
 		return EventManager.ticksToSecs(ticks);
@@ -451,8 +485,8 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	public double getTotalTime(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
 		long ticks = 0L;
-		for (StateRecord rec : states.values()) {
-			ticks += getTicksInState(simTicks, rec);
+		for (int i = 0; i < numStates; i++) {
+			ticks += getTicksInState(simTicks, states[i]);
 		}
 		return EventManager.ticksToSecs(ticks);
 	}
@@ -501,7 +535,7 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	    sequence = 3)
 	public LinkedHashMap<String, Double> getStateTimes(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		LinkedHashMap<String, Double> ret = new LinkedHashMap<>(states.size());
+		LinkedHashMap<String, Double> ret = new LinkedHashMap<>(numStates);
 		for (StateRecord stateRec : this.getStateRecs()) {
 			long ticks = getTicksInState(simTicks, stateRec);
 			if (useCurrentCycle)
@@ -522,7 +556,8 @@ public abstract class StateEntity extends DisplayEntity implements StateUser {
 	public double getTotalTimeInCycle(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
 		long ticks = 0L;
-		for (StateRecord stateRec : states.values()) {
+		for (int i = 0; i < numStates; i++) {
+			StateRecord stateRec = states[i];
 			if (useCurrentCycle) {
 				ticks += getCurrentCycleTicks(simTicks, stateRec);
 			}
@@ -0,0 +1,118 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.states;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An interned state name. There is exactly one StateHandle for each state name in use, so a
+ * StateEntity can identify a state by reference comparison instead of hashing or comparing
+ * strings. Entity classes should resolve the handles for their fixed states once, in a static
+ * field, and pass them to StateEntity.setPresentState(StateHandle).
+ * <p>
+ * The handles are shared by every JaamSimModel, including models that run concurrently on
+ * separate threads. This is safe because a handle holds only its immutable name: the state
+ * times and other records for a state are kept by each StateEntity, so a handle created by one
+ * model carries no information into another. A single table is also required for the static
+ * handles, which are created before any model exists.
+ * <p>
+ * The table holds its handles by weak reference. A handle that is no longer used by a static
+ * field or by a state record, for example one for a state name from a model that has been
+ * closed, is discarded along with its entry in the table.
+ */
+public final class StateHandle {
+	private static final ConcurrentHashMap<String, HandleRef> handles = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<StateHandle> staleRefs = new ReferenceQueue<>();
+
+	private final String name;
+
+	private StateHandle(String name) {
+		this.name = name;
+	}
+
+	private static final class HandleRef extends WeakReference<StateHandle> {
+		final String name;
+
+		HandleRef(StateHandle handle) {
+			super(handle, staleRefs);
+			name = handle.name;
+		}
+	}
+
+	/**
+	 * Returns the unique handle for the specified state name, creating it if necessary.
+	 * @param name - state name
+	 * @return interned state handle
+	 */
+	public static StateHandle get(String name) {
+		StateHandle ret = find(name);
+		if (ret != null)
+			return ret;
+
+		removeStaleEntries();
+		StateHandle handle = new StateHandle(name);
+		HandleRef ref = new HandleRef(handle);
+		while (true) {
+			HandleRef old = handles.putIfAbsent(name, ref);
+			if (old == null)
+				return handle;
+
+			// Use the handle created by another thread, unless it has already been discarded
+			ret = old.get();
+			if (ret != null)
+				return ret;
+			if (handles.replace(name, old, ref))
+				return handle;
+		}
+	}
+
+	/**
+	 * Returns the handle for the specified state name, or null if no entity is using this
+	 * state name.
+	 * @param name - state name
+	 * @return interned state handle or null
+	 */
+	public static StateHandle find(String name) {
+		HandleRef ref = handles.get(name);
+		if (ref == null)
+			return null;
+		return ref.get();
+	}
+
+	/**
+	 * Removes the table entries for the handles that have been discarded.
+	 */
+	private static void removeStaleEntries() {
+		Reference<? extends StateHandle> ref;
+		while ((ref = staleRefs.poll()) != null) {
+			HandleRef handleRef = (HandleRef) ref;
+			handles.remove(handleRef.name, handleRef);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
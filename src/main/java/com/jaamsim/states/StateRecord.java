@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,7 @@
 package com.jaamsim.states;
 
 public class StateRecord {
-	private final String name;
+	private final StateHandle handle;
 	private final boolean working;
 	private long initTicks;
 	private long totalTicks;
@@ -26,8 +26,8 @@ public class StateRecord {
 	private long currentCycleTicks;
 	private long startTick;  // clock ticks at which the entity was last set to this state
 
-	StateRecord(String state, boolean work) {
-		name = state;
+	StateRecord(StateHandle state, boolean work) {
+		handle = state;
 		working = work;
 	}
 
@@ -57,7 +57,11 @@ public class StateRecord {
 	}
 
 	public String getName() {
-		return name;
+		return handle.getName();
+	}
+
+	public StateHandle getHandle() {
+		return handle;
 	}
 
 	public boolean isWorking() {
@@ -90,6 +94,6 @@ public class StateRecord {
 
 	@Override
 	public String toString() {
-		return name;
+		return handle.getName();
 	}
 }
@@ -4225,6 +4225,8 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, GUIListe
 		boolean quiet = false;
 		boolean scriptMode = false;
 		boolean headless = false;
+		boolean compile = false;
+		boolean loadTimes = false;
 
 		for (String each : args) {
 			// Batch mode
@@ -4264,6 +4266,18 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, GUIListe
 				quiet = true;
 				continue;
 			}
+			// Write a model image for the configuration file
+			if (each.equalsIgnoreCase("-c") ||
+			    each.equalsIgnoreCase("-compile")) {
+				compile = true;
+				continue;
+			}
+			// Log the time taken to load the configuration file
+			if (each.equalsIgnoreCase("-lt") ||
+			    each.equalsIgnoreCase("-load_times")) {
+				loadTimes = true;
+				continue;
+			}
 			if (each.equalsIgnoreCase("-sg") ||
 			    each.equalsIgnoreCase("-safe_graphics")) {
 				SAFE_GRAPHICS = true;
@@ -4318,6 +4332,8 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, GUIListe
 
 		sim.setBatchRun(batch);
 		sim.setScriptMode(scriptMode);
+		sim.setCompileImage(compile);
+		sim.setLogLoadTimes(loadTimes);
 
 		// Load the autoload file
 		sim.autoLoad();
@@ -46,8 +46,17 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.input.TestExpParser.class,
 	com.jaamsim.input.TestParser.class,
 	com.jaamsim.input.TestOutput.class,
+	com.jaamsim.input.TestConfigFileLoader.class,
+	com.jaamsim.input.TestModelImage.class,
+	com.jaamsim.input.TestReportWriter.class,
 	com.jaamsim.basicsim.TestSimulation.class,
+	com.jaamsim.basicsim.TestEntity.class,
 	com.jaamsim.basicsim.TestSimCalendar.class,
+	com.jaamsim.basicsim.TestColumnFile.class,
+	com.jaamsim.basicsim.TestLogWriter.class,
+	com.jaamsim.basicsim.TestEventTrace.class,
+	com.jaamsim.basicsim.TestRunResults.class,
+	com.jaamsim.states.TestStateHandle.class,
 	com.jaamsim.probability.TestContinuousDistribution.class,
 	com.jaamsim.probability.TestDiscreteDistribution.class,
 	com.jaamsim.probability.TestErlangDistribution.class,
@@ -62,11 +71,17 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.probability.TestWeibullDistribution.class,
 	com.jaamsim.probability.TestEntitlementSelector.class,
 	com.jaamsim.probability.TestBooleanSelector.class,
+	com.jaamsim.probability.TestFastSampling.class,
+	com.jaamsim.probability.TestNonStatExponentialDist.class,
+	com.jaamsim.ProcessFlow.TestEntityGenerator.class,
+	com.jaamsim.ProcessFlow.TestMatchValueIndex.class,
+	com.jaamsim.Samples.TestTimeSeries.class,
 	com.jaamsim.MeshFiles.TestVertexMap.class,
 	com.jaamsim.MeshFiles.TestDataBlocks.class,
 	com.jaamsim.Statistics.TestStatistics.class,
 	com.jaamsim.BasicObjects.TestFileToVector.class,
 	com.jaamsim.BasicObjects.TestFileToMatrix.class,
 	com.jaamsim.BasicObjects.TestFileToHashMap.class,
+	com.jaamsim.BasicObjects.TestExternalProgram.class,
 })
 public class AllTests {}
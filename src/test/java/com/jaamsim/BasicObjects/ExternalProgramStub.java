@@ -0,0 +1,75 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * External program used to test the persistent mode for ExternalProgram.
+ * <p>
+ * Each line read from standard input is a list of numbers separated by tab characters. The
+ * response is the sum of the numbers followed by the number of requests received by this
+ * process. The optional argument is the path to a file containing "crash" or "hang". When the
+ * third request is received, the program terminates or stops responding unless it has done so
+ * before, which is recorded by creating a marker file next to the argument file.
+ */
+public class ExternalProgramStub {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		String mode = "";
+		File marker = null;
+		if (args.length > 0) {
+			BufferedReader file = new BufferedReader(new FileReader(args[0]));
+			mode = file.readLine().trim();
+			file.close();
+			marker = new File(args[0] + ".done");
+		}
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+		int count = 0;
+		while (true) {
+			String line = in.readLine();
+			if (line == null)
+				break;
+			count++;
+
+			if (count == 3 && marker != null && marker.createNewFile()) {
+				if (mode.equals("crash")) {
+					System.err.println("Crashed");
+					System.exit(1);
+				}
+				if (mode.equals("hang")) {
+					Thread.sleep(60000L);
+				}
+			}
+
+			double sum = 0.0d;
+			if (!line.isEmpty()) {
+				for (String str : line.split("\t")) {
+					sum += Double.parseDouble(str);
+				}
+			}
+			System.out.println(sum + "\t" + count);
+			System.out.flush();
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.jaamsim.input.ExpResult;
+import com.jaamsim.input.FileInput;
+import com.jaamsim.input.NumericTable;
+
+public class FileToArrayHelpers {
+
+	/**
+	 * Checks that the numbers in the specified text are read directly into a NumericTable and
+	 * give the same value for the FileToArray as the general method, and that a file with an
+	 * entry that is not a number is left to the general method.
+	 * @param ent - FileToVector, FileToMatrix, or FileToHashMap to be tested
+	 * @param text - contents of the data file
+	 */
+	public static void testNumericFile(FileToArray ent, String text) throws IOException {
+		File file = File.createTempFile("jaamsim", ".txt");
+		try {
+			Files.write(file.toPath(), text.getBytes(StandardCharsets.US_ASCII));
+			URI uri = file.toURI();
+
+			// The numbers read directly must give the same value as the general method
+			NumericTable table = NumericTable.read(uri, ent.isKeyed());
+			assertTrue(table != null);
+			ExpResult val = ent.getValueForTable(table, 0.0d);
+			ExpResult ref = ent.getValueForTokens(FileInput.getTokensFromURI(uri), 0.0d);
+			assertTrue(val.getOutputString().equals(ref.getOutputString()));
+
+			// Entries that are not numbers require the general method
+			Files.write(file.toPath(), "1 2 abc\n".getBytes(StandardCharsets.US_ASCII));
+			assertTrue(NumericTable.read(uri, false) == null);
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.SimModelHelpers;
+
+public class TestExternalProgram {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	File launcher;
+
+	@Before
+	public void setupTests() throws IOException {
+		// Script that runs ExternalProgramStub using the present Java installation
+		String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+		String cp = System.getProperty("java.class.path");
+		String cls = ExternalProgramStub.class.getName();
+		if (System.getProperty("os.name").startsWith("Windows")) {
+			launcher = tmp.newFile("stub.bat");
+			PrintWriter out = new PrintWriter(launcher);
+			out.format("@echo off\r\n\"%s\" -cp \"%s\" %s %%*\r\n", java, cp, cls);
+			out.close();
+		}
+		else {
+			launcher = tmp.newFile("stub.sh");
+			PrintWriter out = new PrintWriter(launcher);
+			out.format("#!/bin/sh%nexec \"%s\" -cp \"%s\" %s \"$@\"%n", java, cp, cls);
+			out.close();
+			launcher.setExecutable(true);
+		}
+	}
+
+	private File getControlFile(String mode) throws IOException {
+		File file = tmp.newFile(mode + ".txt");
+		PrintWriter out = new PrintWriter(file);
+		out.println(mode);
+		out.close();
+		return file;
+	}
+
+	private JaamSimModel getModel(int timeOut) {
+		JaamSimModel simModel = SimModelHelpers.getGenSinkModel(tmp.getRoot(), "1 s");
+		simModel.defineEntity("ExternalProgram", "Ext");
+
+		simModel.setInput("Gen", "NextComponent", "Ext");
+		simModel.setInput("Ext", "ProgramFile", "'" + launcher.getPath() + "'");
+		simModel.setInput("Ext", "DataSource", "{ [Gen].NumberGenerated } { 10 }");
+		simModel.setInput("Ext", "PersistentMode", "TRUE");
+		simModel.setInput("Ext", "TimeOut", Integer.toString(timeOut));
+		simModel.setInput("Ext", "NextComponent", "Sink");
+		simModel.setInput("Simulation", "RunDuration", "10.5 s");
+		return simModel;
+	}
+
+	@Test
+	public void testPersistent() {
+		JaamSimModel simModel = getModel(10000);
+		SimModelHelpers.run(simModel, 60000L);
+
+		// Every entity is processed by the same process
+		assertTrue(simModel.getDoubleValue("[Sink].NumberAdded") == 11.0d);
+		assertTrue(simModel.getDoubleValue("[Ext].Value(1)") == 21.0d);
+		assertTrue(simModel.getDoubleValue("[Ext].Value(2)") == 11.0d);
+	}
+
+	@Test
+	public void testPipelining() {
+		JaamSimModel simModel = getModel(10000);
+		simModel.setInput("Gen", "EntitiesPerArrival", "4");
+		simModel.setInput("Ext", "MaxOutstandingRequests", "10");
+		simModel.setInput("Simulation", "RunDuration", "2.5 s");
+		SimModelHelpers.run(simModel, 60000L);
+
+		assertTrue(simModel.getDoubleValue("[Sink].NumberAdded") == 12.0d);
+		assertTrue(simModel.getDoubleValue("[Ext].Value(1)") == 22.0d);
+		assertTrue(simModel.getDoubleValue("[Ext].Value(2)") == 12.0d);
+	}
+
+	@Test
+	public void testRestart() throws IOException {
+		// The first process terminates when it receives its third request
+		JaamSimModel simModel = getModel(10000);
+		simModel.setInput("Ext", "InputFile", "'" + getControlFile("crash").getPath() + "'");
+		SimModelHelpers.run(simModel, 60000L);
+
+		assertTrue(simModel.getDoubleValue("[Sink].NumberAdded") == 11.0d);
+		assertTrue(simModel.getDoubleValue("[Ext].Value(1)") == 21.0d);
+		assertTrue(simModel.getDoubleValue("[Ext].Value(2)") == 9.0d);
+	}
+
+	@Test
+	public void testTimeOut() throws IOException {
+		// The first process stops responding when it receives its third request
+		JaamSimModel simModel = getModel(4000);
+		simModel.setInput("Ext", "InputFile", "'" + getControlFile("hang").getPath() + "'");
+		SimModelHelpers.run(simModel, 60000L);
+
+		assertTrue(simModel.getDoubleValue("[Sink].NumberAdded") == 11.0d);
+		assertTrue(simModel.getDoubleValue("[Ext].Value(2)") == 9.0d);
+	}
+
+	@Test
+	public void testStartError() throws IOException {
+		// The program file exists but cannot be executed
+		JaamSimModel simModel = getModel(10000);
+		File file = getControlFile("crash");
+		file.setExecutable(false);
+		simModel.setInput("Ext", "ProgramFile", "'" + file.getPath() + "'");
+		Throwable t = SimModelHelpers.run(simModel, 60000L);
+
+		// The reason the program could not be started is reported
+		assertTrue(t != null);
+		assertTrue(t.getMessage().contains("Unable to start the external program"));
+		assertTrue(t.getMessage().contains(file.getName()));
+	}
+
+}
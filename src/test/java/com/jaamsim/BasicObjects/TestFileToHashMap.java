@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.jaamsim.BasicObjects;
 
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 
@@ -78,4 +79,11 @@ public class TestFileToHashMap {
 		}
 	}
 
+	@Test
+	public void testNumericFile() throws IOException {
+		FileToHashMap fileToHashMap = InputAgent.defineEntityWithUniqueName(simModel, FileToHashMap.class, "FileToHashMap1", "", true);
+		FileToArrayHelpers.testNumericFile(fileToHashMap,
+				"Fred 1 2.5 -3\n# comment\n\nGeorge 4e3 -5.25e-2\t6. # tail\r\nmax 7 123456789012345678901\nFred 0.1 -0\nEmpty\n");
+	}
+
 }
@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.jaamsim.BasicObjects;
 
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import org.junit.Before;
@@ -79,4 +80,11 @@ public class TestFileToVector {
 		}
 	}
 
+	@Test
+	public void testNumericFile() throws IOException {
+		FileToVector fileToVector = InputAgent.defineEntityWithUniqueName(simModel, FileToVector.class, "FileToVector1", "", true);
+		FileToArrayHelpers.testNumericFile(fileToVector,
+				"1 2.5 -3\n# comment\n\n4e3 -5.25e-2\t6. # tail\r\n7 123456789012345678901 0.1 -0\n");
+	}
+
 }
@@ -0,0 +1,126 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.TestSimulation.WaitForPauseListener;
+
+public class TestEntityGenerator {
+
+	JaamSimModel simModel;
+
+	@Before
+	public void setupTests() {
+		simModel = new JaamSimModel();
+		simModel.autoLoad();
+		simModel.defineEntity("SimEntity", "Proto");
+		simModel.defineEntity("EntityGenerator", "Gen");
+		simModel.defineEntity("Queue", "Queue1");
+
+		simModel.setInput("Gen", "PrototypeEntity", "Proto");
+		simModel.setInput("Gen", "NextComponent", "Queue1");
+		simModel.setInput("Gen", "InterArrivalTime", "1 s");
+		simModel.setInput("Simulation", "RunDuration", "10 s");
+		simModel.setInput("Simulation", "PauseTime", "2.5 s");
+	}
+
+	@Test
+	public void testBaseName() {
+		assertTrue(getNames().equals(names("Gen_")));
+
+		// A new name for the generator is used by the next run
+		simModel.reset();
+		simModel.getNamedEntity("Gen").setName("Source");
+		assertTrue(getNames().equals(names("Source_")));
+
+		// The BaseName input replaces the generator's name
+		simModel.reset();
+		simModel.setInput("Source", "BaseName", "Part");
+		assertTrue(getNames().equals(names("Part")));
+
+		simModel.reset();
+		simModel.setInput("Source", "BaseName", "Box");
+		assertTrue(getNames().equals(names("Box")));
+	}
+
+	@Test
+	public void testChangeWhilePaused() {
+		assertTrue(getNames().equals(names("Gen_")));
+
+		// A new name for the generator is used as soon as the run is resumed
+		simModel.getNamedEntity("Gen").setName("Source");
+		resume(4.5d);
+		ArrayList<String> expected = names("Gen_");
+		expected.add("Source_4");
+		expected.add("Source_5");
+		assertTrue(getQueueNames().equals(expected));
+
+		// So is a new BaseName input
+		simModel.setInput("Source", "BaseName", "Part");
+		resume(6.5d);
+		expected.add("Part6");
+		expected.add("Part7");
+		assertTrue(getQueueNames().equals(expected));
+	}
+
+	/**
+	 * Runs the model to the pause time and returns the names of the generated entities.
+	 */
+	private ArrayList<String> getNames() {
+		WaitForPauseListener listener = new WaitForPauseListener(simModel);
+		simModel.setTimeListener(listener);
+		simModel.start();
+		listener.waitForPause(1000L);
+		return getQueueNames();
+	}
+
+	/**
+	 * Resumes the paused model and runs it to the specified time.
+	 */
+	private void resume(double pauseTime) {
+		WaitForPauseListener listener = new WaitForPauseListener(simModel);
+		simModel.setTimeListener(listener);
+		simModel.resume(pauseTime);
+		listener.waitForPause(1000L);
+	}
+
+	private ArrayList<String> getQueueNames() {
+		Queue queue = (Queue) simModel.getNamedEntity("Queue1");
+		ArrayList<String> ret = new ArrayList<>();
+		for (DisplayEntity ent : queue.getQueueList(0.0d)) {
+			ret.add(ent.getName());
+		}
+		return ret;
+	}
+
+	private static ArrayList<String> names(String baseName) {
+		ArrayList<String> ret = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			ret.add(baseName + i);
+		}
+		return ret;
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.datatypes.IntegerVector;
+
+public class TestMatchValueIndex {
+
+	Queue q1, q2;
+	MatchValueIndex index;
+
+	@Before
+	public void setupTests() {
+		JaamSimModel simModel = new JaamSimModel();
+		simModel.autoLoad();
+		simModel.defineEntity("Queue", "Queue1");
+		simModel.defineEntity("Queue", "Queue2");
+		q1 = (Queue) simModel.getNamedEntity("Queue1");
+		q2 = (Queue) simModel.getNamedEntity("Queue2");
+		ArrayList<Queue> queueList = new ArrayList<>();
+		queueList.add(q1);
+		queueList.add(q2);
+		index = new MatchValueIndex(queueList);
+	}
+
+	@Test
+	public void testAdd() {
+		assertTrue(index.selectMatchValue(null) == null);
+
+		// A match value is ready once it is present in every queue
+		index.entityChanged(q1, "A", 1);
+		index.entityChanged(q1, "B", 1);
+		assertTrue(index.getReadyCount() == 0);
+		assertTrue(index.selectMatchValue(null) == null);
+
+		index.entityChanged(q2, "B", 1);
+		assertTrue(index.getReadyCount() == 1);
+		assertTrue(index.selectMatchValue(null).equals("B"));
+
+		// Entities without a match value are ignored
+		index.entityChanged(q2, null, 1);
+		assertTrue(index.getReadyCount() == 1);
+	}
+
+	@Test
+	public void testRemove() {
+		index.entityChanged(q1, "A", 1);
+		index.entityChanged(q2, "A", 1);
+		index.entityChanged(q2, "A", 1);
+		assertTrue(index.selectMatchValue(null).equals("A"));
+
+		// Removing one of two entities from the second queue leaves the value ready
+		index.entityChanged(q2, "A", -1);
+		assertTrue(index.selectMatchValue(null).equals("A"));
+
+		index.entityChanged(q1, "A", -1);
+		assertTrue(index.getReadyCount() == 0);
+		assertTrue(index.selectMatchValue(null) == null);
+
+		// A value that becomes ready again is placed at the end of the order
+		index.entityChanged(q1, "B", 1);
+		index.entityChanged(q2, "B", 1);
+		index.entityChanged(q1, "A", 1);
+		assertTrue(index.selectMatchValue(null).equals("B"));
+	}
+
+	@Test
+	public void testReadyOrder() {
+		// Values are selected in the order in which they became ready
+		for (String m : new String[]{"C", "A", "B"}) {
+			index.entityChanged(q1, m, 1);
+		}
+		index.entityChanged(q2, "B", 1);
+		index.entityChanged(q2, "C", 1);
+		index.entityChanged(q2, "A", 1);
+		assertTrue(index.getReadyCount() == 3);
+		assertTrue(index.selectMatchValue(null).equals("B"));
+
+		index.entityChanged(q1, "B", -1);
+		assertTrue(index.selectMatchValue(null).equals("C"));
+		index.entityChanged(q2, "C", -1);
+		assertTrue(index.selectMatchValue(null).equals("A"));
+	}
+
+	@Test
+	public void testNumberRequired() {
+		index.entityChanged(q1, "A", 1);
+		index.entityChanged(q2, "A", 1);
+		index.entityChanged(q1, "B", 1);
+		index.entityChanged(q1, "B", 1);
+		index.entityChanged(q2, "B", 1);
+
+		// Two entities are required from the first queue and one from the second
+		IntegerVector numList = new IntegerVector();
+		numList.add(2);
+		numList.add(1);
+		assertTrue(index.selectMatchValue(numList).equals("B"));
+		assertTrue(index.getReadyCount() == 1);
+
+		// The last number is used for the remaining queues
+		numList.clear();
+		numList.add(1);
+		assertTrue(index.getReadyCount() == 1);
+		assertTrue(index.selectMatchValue(numList) != null);
+		assertTrue(index.getReadyCount() == 2);
+
+		numList.clear();
+		numList.add(2);
+		assertTrue(index.selectMatchValue(numList) == null);
+	}
+
+	@Test
+	public void testIsIndexFor() {
+		ArrayList<Queue> queueList = new ArrayList<>();
+		queueList.add(q1);
+		queueList.add(q2);
+		assertTrue(index.isIndexFor(queueList));
+
+		queueList.remove(1);
+		assertTrue(!index.isIndexFor(queueList));
+		index.unregister();
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.Samples;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.rng.MRG1999a;
+import com.jaamsim.units.DimensionlessUnit;
+
+public class TestTimeSeries {
+
+	JaamSimModel simModel;
+	TimeSeries ts;
+
+	@Before
+	public void setupTests() {
+		simModel = new JaamSimModel();
+		simModel.autoLoad();
+
+		ts = InputAgent.defineEntityWithUniqueName(simModel, TimeSeries.class, "TS", "-", true);
+		InputAgent.applyArgs(ts, "UnitType", "DimensionlessUnit");
+		InputAgent.applyArgs(ts, "Value", "{", "0", "h", "0", "}", "{", "1", "h", "2", "}",
+				"{", "3", "h", "5", "}", "{", "6", "h", "9", "}");
+	}
+
+	private static long hours(double h) {
+		return EventManager.secsToNearestTick(h*3600.0d);
+	}
+
+	@Test
+	public void testLookups() {
+		TSPoint cursor = new TSPoint();
+		assertTrue(ts.getValueForTicks(hours(0.0d), cursor) == 0.0d);
+		assertTrue(ts.getValueForTicks(hours(2.5d), cursor) == 2.0d);
+		assertTrue(ts.getValueForTicks(hours(3.0d), cursor) == 5.0d);
+		assertTrue(ts.getNextChangeAfterTicks(hours(3.0d), cursor) == hours(6.0d));
+		assertTrue(ts.getNextChangeAfterTicks(hours(7.0d), cursor) == Long.MAX_VALUE);
+		assertTrue(ts.getInterpolatedCumulativeValueForTicks(hours(2.0d), cursor) == 3.5d);
+		assertTrue(ts.getInterpolatedTicksForValue(7.0d, cursor) == hours(4.5d));
+
+		// Repeating series
+		InputAgent.applyArgs(ts, "CycleTime", "8", "h");
+		cursor = new TSPoint();
+		assertTrue(ts.getValueForTicks(hours(8.5d), cursor) == 0.0d);
+		assertTrue(ts.getValueForTicks(hours(15.0d), cursor) == 9.0d);
+		assertTrue(ts.getNextChangeAfterTicks(hours(15.0d), cursor) == hours(16.0d));
+		assertTrue(ts.getInterpolatedCumulativeValueForTicks(hours(10.0d), cursor) == 12.5d);
+	}
+
+	@Test
+	public void testCursor() {
+		InputAgent.applyArgs(ts, "CycleTime", "8", "h");
+
+		// Results obtained with a cursor must match those for a new cursor, which uses a binary
+		// search, for increasing times and for times selected at random
+		MRG1999a rng = new MRG1999a(0, 0);
+		TSPoint cursor = new TSPoint();
+		long ticks = 0L;
+		for (int i = 0; i < 100000; i++) {
+			if (i % 1000 == 999)
+				ticks = (long) (rng.nextUniform()*hours(100.0d));
+			else
+				ticks += (long) (rng.nextUniform()*hours(0.5d));
+
+			assertTrue(ts.getValueForTicks(ticks, cursor) == ts.getValueForTicks(ticks, new TSPoint()));
+			assertTrue(ts.getNextChangeAfterTicks(ticks, cursor) == ts.getNextChangeAfterTicks(ticks, new TSPoint()));
+			double val = ts.getInterpolatedCumulativeValueForTicks(ticks, cursor);
+			assertTrue(val == ts.getInterpolatedCumulativeValueForTicks(ticks, new TSPoint()));
+			assertTrue(ts.getInterpolatedTicksForValue(val, cursor) == ts.getInterpolatedTicksForValue(val, new TSPoint()));
+		}
+	}
+
+	@Test
+	public void testDataFile() throws IOException {
+		File dir = File.createTempFile("jaamsim", "");
+		dir.delete();
+		dir.mkdir();
+		File textFile = new File(dir, "data.txt");
+		try {
+			// Records in the same format as the Value input, with and without braces
+			try (PrintWriter out = new PrintWriter(textFile)) {
+				out.println("# test data");
+				out.println("{ 0 h 0 }");
+				out.println("1 h 2");
+				out.println("");
+				out.println("{ 180 min 5 }");
+				out.println("6 h 9");
+			}
+
+			TimeSeries tsFile = InputAgent.defineEntityWithUniqueName(simModel, TimeSeries.class, "TSFile", "-", true);
+			InputAgent.applyArgs(tsFile, "UnitType", "DimensionlessUnit");
+			InputAgent.applyArgs(tsFile, "DataFile", textFile.getAbsolutePath());
+			InputAgent.applyArgs(tsFile, "CycleTime", "8", "h");
+			InputAgent.applyArgs(ts, "CycleTime", "8", "h");
+			tsFile.validate();
+			double tickLength = simModel.getSimulation().getTickLength();
+			File cache = TimeSeriesFile.getCacheFile(textFile, DimensionlessUnit.class, tickLength, true);
+			assertTrue(cache.isFile());
+			assertTrue(tsFile.getMinValue() == 0.0d && tsFile.getMaxValue() == 9.0d);
+			assertTrue(tsFile.isMonotonic(1) && !tsFile.isMonotonic(-1));
+
+			// The memory-mapped series must give the same results as the Value input
+			MRG1999a rng = new MRG1999a(1, 0);
+			for (int i = 0; i < 10000; i++) {
+				long ticks = (long) (rng.nextUniform()*hours(100.0d));
+				assertTrue(tsFile.getValueForTicks(ticks) == ts.getValueForTicks(ticks));
+				assertTrue(tsFile.getNextChangeAfterTicks(ticks) == ts.getNextChangeAfterTicks(ticks));
+				double val = tsFile.getInterpolatedCumulativeValueForTicks(ticks);
+				assertTrue(val == ts.getInterpolatedCumulativeValueForTicks(ticks));
+				assertTrue(tsFile.getInterpolatedTicksForValue(val) == ts.getInterpolatedTicksForValue(val));
+			}
+
+			// The series file can be used directly
+			TimeSeriesData data = TimeSeriesFile.map(cache, DimensionlessUnit.class, tickLength);
+			assertTrue(data.size() == 4);
+			assertTrue(data.getTicks(2) == hours(3.0d) && data.getValue(2) == 5.0d);
+			assertTrue(data.binarySearchTicks(hours(6.0d)) == 3);
+			assertTrue(data.binarySearchTicks(hours(2.0d)) == -3);
+
+			// A series file written for a different tick length is rejected
+			boolean rejected = false;
+			try {
+				TimeSeriesFile.map(cache, DimensionlessUnit.class, 2.0d*tickLength);
+			}
+			catch (IOException e) {
+				rejected = true;
+			}
+			assertTrue(rejected);
+
+			// The file is read again only when the inputs used to convert it are changed
+			TimeSeriesData fileData = tsFile.getData();
+			tsFile.validate();
+			assertTrue(tsFile.getData() == fileData);
+			InputAgent.applyArgs(tsFile, "OffsetToFirst", "FALSE");
+			tsFile.validate();
+			assertTrue(tsFile.getData() != fileData);
+
+			// The new version is written to a new file instead of replacing the mapped one
+			File cache2 = TimeSeriesFile.getCacheFile(textFile, DimensionlessUnit.class, tickLength, false);
+			assertTrue(!cache2.equals(cache));
+			assertTrue(cache.isFile() && cache2.isFile());
+			assertTrue(fileData.getValue(3) == 9.0d);
+
+			// An existing series file is kept unless it is to be replaced
+			File seriesFile = new File(dir, "explicit." + TimeSeriesFile.FILE_EXTENSION);
+			try (PrintWriter out = new PrintWriter(textFile)) {
+				out.println("0 h 1");
+			}
+			TimeSeriesFile.convert(simModel, textFile, seriesFile, DimensionlessUnit.class, tickLength, true, true);
+			try (PrintWriter out = new PrintWriter(textFile)) {
+				out.println("0 h 2");
+			}
+			TimeSeriesFile.convert(simModel, textFile, seriesFile, DimensionlessUnit.class, tickLength, true, false);
+			assertTrue(TimeSeriesFile.map(seriesFile, DimensionlessUnit.class, tickLength).getValue(0) == 1.0d);
+			TimeSeriesFile.convert(simModel, textFile, seriesFile, DimensionlessUnit.class, tickLength, true, true);
+			assertTrue(TimeSeriesFile.map(seriesFile, DimensionlessUnit.class, tickLength).getValue(0) == 2.0d);
+			assertTrue(dir.listFiles().length == 4);
+		}
+		finally {
+			for (File file : dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+	}
+
+}
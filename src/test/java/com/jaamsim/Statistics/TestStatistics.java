@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,13 @@ package com.jaamsim.Statistics;
 
 import static org.junit.Assert.assertTrue;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import com.jaamsim.Statistics.SampleStatistics;
 import com.jaamsim.Statistics.TimeBasedStatistics;
+import com.jaamsim.math.Erf;
 import com.jaamsim.math.MathUtils;
 
 public class TestStatistics {
@@ -130,4 +133,156 @@ public class TestStatistics {
 		assertTrue(MathUtils.near(freq.getBinFractions(22.0d)[9], 0.15d));
 	}
 
+	@Test
+	public void testQuantileSketch() {
+		QuantileSketch sketch = new QuantileSketch();
+		assertTrue(Double.isNaN(sketch.getQuantile(0.5d)));
+
+		// Small samples are represented exactly
+		sketch.addValue(5.0d);
+		sketch.addValue(3.0d);
+		sketch.addValue(8.0d);
+		sketch.addValue(-1.0d);
+		sketch.addValue(2.0d);
+		assertTrue(sketch.getQuantile(0.0d) == -1.0d);
+		assertTrue(sketch.getQuantile(0.5d) == 3.0d);
+		assertTrue(sketch.getQuantile(1.0d) == 8.0d);
+
+		// Values 1 to 100,000 in a scrambled order
+		sketch.clear();
+		QuantileSketch lower = new QuantileSketch();
+		QuantileSketch upper = new QuantileSketch();
+		int n = 100000;
+		for (int i = 0; i < n; i++) {
+			double val = (i * 7919L) % n + 1;
+			sketch.addValue(val);
+			if (val <= n/2)
+				lower.addValue(val);
+			else
+				upper.addValue(val);
+		}
+		assertTrue(sketch.getCentroidCount() <= 100);
+		assertTrue(Math.abs(sketch.getQuantile(0.5d) - 50000.0d) < 500.0d);
+		assertTrue(Math.abs(sketch.getQuantile(0.95d) - 95000.0d) < 200.0d);
+		assertTrue(Math.abs(sketch.getQuantile(0.99d) - 99000.0d) < 100.0d);
+		assertTrue(Math.abs(sketch.getQuantile(0.999d) - 99900.0d) < 30.0d);
+
+		// Merged sketches give the same result as a single sketch
+		QuantileSketch merged = new QuantileSketch(lower);
+		merged.merge(upper);
+		assertTrue(merged.getTotalWeight() == n);
+		assertTrue(merged.getMin() == 1.0d);
+		assertTrue(merged.getMax() == n);
+		assertTrue(Math.abs(merged.getQuantile(0.5d) - 50000.0d) < 500.0d);
+		assertTrue(Math.abs(merged.getQuantile(0.99d) - 99000.0d) < 100.0d);
+	}
+
+	@Test
+	public void testTimeBasedQuantiles() {
+		TimeBasedStatistics stats = new TimeBasedStatistics();
+		stats.setQuantilesEnabled(true);
+		stats.addValue(0.0d, 1.0d);
+		stats.addValue(6.0d, 2.0d);
+		stats.addValue(9.0d, 3.0d);
+
+		// Value 1 for 6 s, value 2 for 3 s, and value 3 for 1 s
+		double[] probs = {0.3d, 0.75d, 0.95d};
+		double[] vals = stats.getQuantiles(10.0d, probs);
+		assertTrue(vals[0] == 1.0d);
+		assertTrue(vals[1] == 2.0d);
+		assertTrue(vals[2] == 3.0d);
+
+		stats.setQuantilesEnabled(false);
+		assertTrue(Double.isNaN(stats.getQuantiles(10.0d, probs)[0]));
+	}
+
+	@Test
+	public void testBatchMeans() {
+		assertTrue(Math.abs(Erf.normalQuantile(0.975d) - 1.959964d) < 1.0e-6d);
+		assertTrue(Math.abs(Erf.normalQuantile(0.5d)) < 1.0e-9d);
+		assertTrue(Math.abs(BatchMeans.getStudentTQuantile(0.975d, 9) - 2.262157d) < 0.002d);
+		assertTrue(Math.abs(BatchMeans.getStudentTQuantile(0.975d, 30) - 2.042272d) < 0.0001d);
+
+		// Independent values
+		Random rng = new Random(1);
+		SampleStatistics stats = new SampleStatistics();
+		stats.setBatchMeansEnabled(true);
+		BatchMeans bm = stats.getBatchMeans();
+		assertTrue(Double.isNaN(bm.getHalfWidth(0.95d)));
+		for (int i = 0; i < 100000; i++) {
+			stats.addValue(rng.nextDouble());
+		}
+		assertTrue(bm.getNumberOfBatches() >= 32 && bm.getNumberOfBatches() < 64);
+		double hw = bm.getHalfWidth(0.95d);
+		double naive = 1.96d * stats.getStandardDeviation() / Math.sqrt(stats.getCount());
+		assertTrue(hw > 0.5d*naive && hw < 2.0d*naive);
+		assertTrue(Math.abs(stats.getMean() - 0.5d) < hw);
+
+		// Positively correlated values give a wider interval than the independent estimate
+		stats.clear();
+		assertTrue(bm.getNumberOfBatches() == 0);
+		double x = 0.0d;
+		for (int i = 0; i < 100000; i++) {
+			x = 0.9d*x + rng.nextGaussian();
+			stats.addValue(x);
+		}
+		hw = bm.getHalfWidth(0.95d);
+		naive = 1.96d * stats.getStandardDeviation() / Math.sqrt(stats.getCount());
+		assertTrue(hw > 2.0d*naive);
+		assertTrue(Math.abs(stats.getMean()) < hw);
+
+		// Time-weighted values are divided between batches of equal duration
+		TimeBasedStatistics timeStats = new TimeBasedStatistics();
+		timeStats.setBatchMeansEnabled(true, 1.0d);
+		for (int i = 0; i < 20; i++) {
+			timeStats.addValue(4.0d*i, 1.0d);
+			timeStats.addValue(4.0d*i + 1.0d, 3.0d);
+		}
+		bm = timeStats.getBatchMeans();
+		assertTrue(bm.getNumberOfBatches() == 38);
+		assertTrue(bm.getBatchSize() == 2.0d);
+		assertTrue(bm.getMean() == 2.5d);
+	}
+
+	@Test
+	public void testMSERTruncation() {
+		MSERTruncation mser = new MSERTruncation();
+		Random rng = new Random(1);
+		for (int i = 0; i < 199; i++) {
+			mser.addValue(rng.nextGaussian());
+		}
+		assertTrue(mser.getNumberOfObservations() == 195L);
+		assertTrue(mser.getTruncationPoint() == -1L);
+
+		// At least 20 batches must follow the truncation point
+		mser.addValue(rng.nextGaussian());
+		assertTrue(mser.getTruncationPoint() >= 0L);
+
+		// Constant values give no evidence that the transient has ended
+		mser.clear();
+		for (int i = 0; i < 1000; i++) {
+			mser.addValue(0.0d);
+		}
+		assertTrue(mser.getTruncationPoint() == -1L);
+
+		// Transient that decays from an initial value of 50 to a steady state of zero
+		mser.clear();
+		double x = 50.0d;
+		for (int i = 0; i < 200; i++) {
+			x = 0.95d*x + rng.nextGaussian();
+			mser.addValue(x);
+		}
+		long n = mser.getTruncationPoint();
+		assertTrue(n >= 20L && n <= 100L);
+
+		// Batches are combined when the buffer is full
+		for (int i = 0; i < 10000; i++) {
+			x = 0.95d*x + rng.nextGaussian();
+			mser.addValue(x);
+		}
+		assertTrue(mser.getNumberOfObservations() == 10200L);
+		n = mser.getTruncationPoint();
+		assertTrue(n >= 20L && n <= 200L);
+	}
+
 }
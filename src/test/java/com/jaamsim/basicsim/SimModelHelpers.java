@@ -0,0 +1,64 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.File;
+
+import com.jaamsim.basicsim.TestSimulation.WaitForPauseListener;
+
+/**
+ * Builds and runs the small process flow models used by the tests.
+ */
+public class SimModelHelpers {
+
+	/**
+	 * Returns a model in which an EntityGenerator 'Gen' sends copies of the SimEntity 'Proto'
+	 * to an EntitySink 'Sink'. Other objects can be inserted by changing Gen's NextComponent.
+	 * @param dir - directory for the reports and other output files
+	 * @param interArrivalTime - input for Gen's InterArrivalTime keyword
+	 * @return new model
+	 */
+	public static JaamSimModel getGenSinkModel(File dir, String interArrivalTime) {
+		JaamSimModel simModel = new JaamSimModel();
+		simModel.autoLoad();
+		simModel.setReportDirectory(dir);
+
+		simModel.defineEntity("SimEntity", "Proto");
+		simModel.defineEntity("EntityGenerator", "Gen");
+		simModel.defineEntity("EntitySink", "Sink");
+
+		simModel.setInput("Gen", "PrototypeEntity", "Proto");
+		simModel.setInput("Gen", "NextComponent", "Sink");
+		simModel.setInput("Gen", "InterArrivalTime", interArrivalTime);
+		return simModel;
+	}
+
+	/**
+	 * Starts the model and waits for it to pause or to stop with an error.
+	 * @param simModel - model to run
+	 * @param timeoutMS - maximum time to wait in milliseconds
+	 * @return error that stopped the model, or null if there was none
+	 */
+	public static Throwable run(JaamSimModel simModel, long timeoutMS) {
+		WaitForPauseListener listener = new WaitForPauseListener(simModel);
+		simModel.setTimeListener(listener);
+		simModel.start();
+		listener.waitForPause(timeoutMS);
+		return listener.getError();
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.jaamsim.rng.MRG1999a;
+
+public class TestColumnFile {
+
+	@Test
+	public void testTypedValues() throws IOException {
+		File file = File.createTempFile("jaamsim", ColumnFileWriter.EXTENSION);
+		try {
+			ArrayList<String> names = new ArrayList<>(Arrays.asList("Time", "Count", "Name", "Mixed"));
+			ColumnFileWriter writer = new ColumnFileWriter(file, names);
+			int n = ColumnFileWriter.BLOCK_ROWS + 100;
+			for (int i = 0; i < n; i++) {
+				writer.newRow();
+				writer.add(i * 0.5d);
+				writer.nextColumn();
+				writer.add((long) i);
+				writer.nextColumn();
+				writer.addEntity(i % 3, "Ent" + (i % 3));
+				writer.nextColumn();
+				if (i == n - 1)
+					writer.add("Last");
+				else
+					writer.add(i * 2.0d);
+			}
+			writer.close();
+
+			ColumnFileReader reader = new ColumnFileReader(file);
+			assertTrue(reader.getColumnNames().equals(names));
+
+			// First block is full and typed
+			assertTrue(reader.readBlock());
+			assertTrue(reader.getRowCount() == ColumnFileWriter.BLOCK_ROWS);
+			assertTrue(reader.getColumnType(0) == ColumnFileWriter.DOUBLE);
+			assertTrue(reader.getColumnType(1) == ColumnFileWriter.LONG);
+			assertTrue(reader.getColumnType(2) == ColumnFileWriter.ENTITY);
+			assertTrue(reader.getColumnType(3) == ColumnFileWriter.DOUBLE);
+			assertTrue(reader.getDouble(0, 7) == 3.5d);
+			assertTrue(reader.getLong(1, 7) == 7L);
+			assertTrue(reader.getLong(2, 7) == 1L);
+			assertTrue(reader.getString(2, 7).equals("Ent1"));
+
+			// Second block has a column with mixed types that is stored as text
+			assertTrue(reader.readBlock());
+			assertTrue(reader.getRowCount() == 100);
+			assertTrue(reader.getColumnType(3) == ColumnFileWriter.STRING);
+			assertTrue(reader.getString(3, 0).equals(Double.toString(ColumnFileWriter.BLOCK_ROWS * 2.0d)));
+			assertTrue(reader.getString(3, 99).equals("Last"));
+			assertTrue(!reader.readBlock());
+			reader.close();
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testTextConversion() throws IOException {
+		File textFile = File.createTempFile("jaamsim", ".log");
+		File file = File.createTempFile("jaamsim", ColumnFileWriter.EXTENSION);
+		try {
+			// Write the same entries as text and as a column file
+			String[] names = {"Time", "Value", "Name", "Flag"};
+			FileEntity ref = new FileEntity(textFile);
+			LogWriter textLog = new LogWriter(ref, "Text");
+			ColumnFileWriter writer = new ColumnFileWriter(file, Arrays.asList(names));
+			LogWriter columnLog = new LogWriter(writer, "Column");
+			ref.format("%s\t%s\t%s\t%s", (Object[]) names);
+
+			MRG1999a rng = new MRG1999a(0, 0);
+			for (int i = 0; i < 30000; i++) {
+				double val = (rng.nextUniform() - 0.5d) * Math.pow(10.0d, i % 40 - 20);
+				String str = (i % 7 == 0) ? null : "Entity" + (i % 100);
+				for (LogWriter log : new LogWriter[] {textLog, columnLog}) {
+					log.newLine();
+					log.append(i * 0.25d);
+					log.append('\t');
+					log.append(val);
+					log.append('\t');
+					log.append(str);
+					log.append('\t');
+					log.append((long) (i % 2));
+					log.endRecord();
+				}
+			}
+			textLog.close();
+			columnLog.close();
+			ref.format("%n");
+			ref.close();
+			writer.close();
+
+			// Convert the column file back to text
+			StringWriter out = new StringWriter();
+			ColumnFileReader reader = new ColumnFileReader(file);
+			reader.writeText(out);
+			reader.close();
+
+			String text = new String(Files.readAllBytes(textFile.toPath()), StandardCharsets.UTF_8);
+			assertTrue(text.length() > 0);
+			assertTrue(file.length() < text.length());
+			assertTrue(out.toString().equals(text));
+		}
+		finally {
+			textFile.delete();
+			file.delete();
+		}
+	}
+
+}
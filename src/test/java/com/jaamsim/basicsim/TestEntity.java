@@ -0,0 +1,118 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.ProcessFlow.Queue;
+import com.jaamsim.ProcessFlow.SimEntity;
+import com.jaamsim.input.EntityInput;
+import com.jaamsim.input.EntityListInput;
+
+public class TestEntity {
+
+	JaamSimModel simModel;
+
+	@Before
+	public void setupTests() {
+		simModel = new JaamSimModel();
+		simModel.autoLoad();
+		simModel.defineEntity("SimEntity", "Ent1");
+		simModel.defineEntity("SimEntity", "Ent2");
+		simModel.defineEntity("Queue", "Queue1");
+	}
+
+	@Test
+	public void testAttributeMap() {
+		Entity ent1 = simModel.getNamedEntity("Ent1");
+		Entity ent2 = simModel.getNamedEntity("Ent2");
+		assertTrue(ent1.getAttributeNames().isEmpty());
+		assertTrue(ent2.getAttributeNames().isEmpty());
+
+		// The first attribute replaces the shared empty map for this entity only
+		simModel.setInput("Ent1", "AttributeDefinitionList", "{ A 1 } { B 2 }");
+		assertTrue(ent1.getAttributeNames().equals(Arrays.asList("A", "B")));
+		assertTrue(ent1.hasAttribute("A"));
+		assertTrue(ent2.getAttributeNames().isEmpty());
+		assertTrue(!ent2.hasAttribute("A"));
+
+		// Removing the attributes and adding new ones
+		simModel.setInput("Ent1", "AttributeDefinitionList", "");
+		assertTrue(ent1.getAttributeNames().isEmpty());
+		simModel.setInput("Ent1", "AttributeDefinitionList", "{ C 3 }");
+		assertTrue(ent1.getAttributeNames().equals(Arrays.asList("C")));
+		assertTrue(ent2.getAttributeNames().isEmpty());
+	}
+
+	@Test
+	public void testCustomOutputMap() {
+		Entity ent1 = simModel.getNamedEntity("Ent1");
+		Entity ent2 = simModel.getNamedEntity("Ent2");
+		assertTrue(ent1.getCustomOutputNames().isEmpty());
+
+		// Removing an output that does not exist from the shared empty map
+		ent1.removeCustomOutput("Out1");
+
+		simModel.setInput("Ent1", "CustomOutputList", "{ Out1 '1 + 1' }");
+		assertTrue(ent1.getCustomOutputNames().equals(Arrays.asList("Out1")));
+		assertTrue(ent1.hasOutput("Out1"));
+		assertTrue(ent2.getCustomOutputNames().isEmpty());
+		assertTrue(!ent2.hasOutput("Out1"));
+
+		ent1.removeCustomOutput("Out1");
+		assertTrue(ent1.getCustomOutputNames().isEmpty());
+	}
+
+	@Test
+	public void testClassLists() {
+		Entity ent1 = simModel.getNamedEntity("Ent1");
+		Entity queue = simModel.getNamedEntity("Queue1");
+
+		// Inputs without class restrictions accept every class
+		EntityInput<Entity> in1 = new EntityInput<>(Entity.class, "In1", "", null);
+		EntityInput<Entity> in2 = new EntityInput<>(Entity.class, "In2", "", null);
+		EntityListInput<Entity> list1 = new EntityListInput<>(Entity.class, "List1", "", null);
+		EntityListInput<Entity> list2 = new EntityListInput<>(Entity.class, "List2", "", null);
+		assertTrue(list1.isValidClass(ent1) && list1.isValidClass(queue));
+
+		// A restriction applies only to the input to which it was added
+		in1.addInvalidClass(Queue.class);
+		list1.addValidClass(SimEntity.class);
+		assertTrue(list1.isValidClass(ent1));
+		assertTrue(!list1.isValidClass(queue));
+		assertTrue(list2.isValidClass(ent1) && list2.isValidClass(queue));
+
+		list2.addInvalidClass(SimEntity.class);
+		assertTrue(!list2.isValidClass(ent1));
+		assertTrue(list2.isValidClass(queue));
+		assertTrue(!list1.isValidClass(queue));
+
+		list1.clearValidClasses();
+		assertTrue(list1.isValidClass(ent1) && list1.isValidClass(queue));
+
+		// The invalid classes for an EntityInput restrict its options
+		assertTrue(!in1.getValidOptions(ent1).contains("Queue1"));
+		assertTrue(in1.getValidOptions(ent1).contains("Ent1"));
+		assertTrue(in2.getValidOptions(ent1).contains("Queue1"));
+	}
+
+}
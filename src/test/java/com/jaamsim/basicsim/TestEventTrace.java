@@ -0,0 +1,131 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+
+public class TestEventTrace {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private JaamSimModel run(String... inputs) {
+		JaamSimModel simModel = SimModelHelpers.getGenSinkModel(tmp.getRoot(), "2 s");
+		simModel.defineEntity("Queue", "Queue1");
+		simModel.defineEntity("Server", "Server1");
+
+		simModel.setInput("Gen", "NextComponent", "Server1");
+		simModel.setInput("Server1", "WaitQueue", "Queue1");
+		simModel.setInput("Server1", "ServiceTime", "3 s");
+		simModel.setInput("Server1", "NextComponent", "Sink");
+		simModel.setInput("Simulation", "RunDuration", "100 s");
+		for (int i = 0; i < inputs.length; i += 2) {
+			simModel.setInput("Simulation", inputs[i], inputs[i + 1]);
+		}
+		simModel.save(new File(tmp.getRoot(), "trace.cfg"));
+
+		SimModelHelpers.run(simModel, 10000L);
+		simModel.end();
+		return simModel;
+	}
+
+	@Test
+	public void testConvert() throws IOException {
+		run("TraceEvents", "TRUE");
+		File textFile = new File(tmp.getRoot(), "trace.evt");
+		List<String> expected = Files.readAllLines(textFile.toPath(), StandardCharsets.UTF_8);
+
+		run("TraceEvents", "TRUE", "BinaryEventTrace", "TRUE");
+		File binFile = new File(tmp.getRoot(), "trace.evb");
+		assertTrue(binFile.length() > 0L);
+		assertTrue(binFile.length() < textFile.length() / 3L);
+
+		File convFile = new File(tmp.getRoot(), "conv.evt");
+		long n = BinaryEventTraceReader.convert(binFile, convFile);
+		List<String> lines = Files.readAllLines(convFile.toPath(), StandardCharsets.UTF_8);
+		assertTrue(n > 100L);
+		assertTrue(lines.size() > 100);
+		assertTrue(lines.equals(expected));
+	}
+
+	@Test
+	public void testVerify() {
+		run("TraceEvents", "TRUE", "BinaryEventTrace", "TRUE");
+
+		// A run that matches the trace is not paused before its end
+		JaamSimModel simModel = run("VerifyEvents", "TRUE", "BinaryEventTrace", "TRUE");
+		assertTrue(simModel.getSimTime() == 100.0d);
+
+		// A run that differs from the trace is paused when the difference is detected
+		simModel = run("VerifyEvents", "TRUE", "BinaryEventTrace", "TRUE",
+				"InitializationDuration", "10 s");
+		assertTrue(simModel.getSimTime() < 100.0d);
+	}
+
+	@Test
+	public void testStringLimit() throws IOException {
+		// Every event has a different description, as for the events of generated entities
+		File file = tmp.newFile("limit" + BinaryEventRecorder.EXTENSION);
+		EventManager evt = new EventManager("Model");
+		BinaryEventRecorder rec = new BinaryEventRecorder(file.getPath(), 8);
+		for (int i = 0; i < 100; i++) {
+			rec.traceEvent(evt, i, i + 5L, 11, new Target("Ent_" + i + ".process"));
+		}
+		rec.close();
+
+		// The string table is restarted when it is full
+		BinaryEventTraceReader reader = new BinaryEventTraceReader(file);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(reader.next());
+			assertTrue(reader.getName().equals("Model"));
+			assertTrue(reader.getCurTick() == i && reader.getTick() == i + 5L);
+			assertTrue(reader.getDescription().equals("Ent_" + i + ".process"));
+		}
+		assertTrue(!reader.next());
+		reader.close();
+	}
+
+	private static class Target extends ProcessTarget {
+		private final String desc;
+
+		Target(String str) {
+			desc = str;
+		}
+
+		@Override
+		public String getDescription() {
+			return desc;
+		}
+
+		@Override
+		public void process() {}
+	}
+
+}
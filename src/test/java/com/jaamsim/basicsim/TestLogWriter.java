@@ -0,0 +1,78 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.jaamsim.rng.MRG1999a;
+
+public class TestLogWriter {
+
+	@Test
+	public void testIdenticalOutput() throws IOException {
+		File file1 = File.createTempFile("jaamsim", ".log");
+		File file2 = File.createTempFile("jaamsim", ".log");
+		try {
+			FileEntity ref = new FileEntity(file1);
+			FileEntity out = new FileEntity(file2);
+			LogWriter log = new LogWriter(out, "Test");
+
+			// Enough entries to fill the buffer several times, with a header written directly
+			// to the file part way through
+			MRG1999a rng = new MRG1999a(0, 0);
+			for (int i = 0; i < 100000; i++) {
+				if (i == 50000) {
+					log.flush();
+					ref.format("%n%s", "Header");
+					out.format("%n%s", "Header");
+				}
+				double val = (rng.nextUniform() - 0.5d) * Math.pow(10.0d, i % 40 - 20);
+				String str = (i % 7 == 0) ? null : "Entity" + i;
+				ref.format("%n%s\t%s\t%s\t%s", val, str, i % 2 == 0, Double.NaN);
+				log.newLine();
+				log.append(val);
+				log.append('\t');
+				log.append(str);
+				log.append('\t');
+				log.append(String.valueOf(i % 2 == 0));
+				log.append('\t');
+				log.append(Double.NaN);
+				log.endRecord();
+			}
+			log.close();
+			ref.close();
+			out.close();
+
+			byte[] bytes1 = Files.readAllBytes(file1.toPath());
+			byte[] bytes2 = Files.readAllBytes(file2.toPath());
+			assertTrue(bytes1.length > 0);
+			assertTrue(Arrays.equals(bytes1, bytes2));
+		}
+		finally {
+			file1.delete();
+			file2.delete();
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.datatypes.IntegerVector;
+import com.jaamsim.units.DistanceUnit;
+import com.jaamsim.units.TimeUnit;
+import com.jaamsim.units.Unit;
+
+public class TestRunResults {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testQuery() throws IOException {
+		File file = tmp.newFile("test" + RunResultsWriter.EXTENSION);
+		ArrayList<Class<? extends Unit>> unitTypes = new ArrayList<>();
+		unitTypes.add(TimeUnit.class);
+		unitTypes.add(null);
+		RunResultsWriter writer = new RunResultsWriter(file, 2, Arrays.asList("Out1", "Out2"),
+				unitTypes);
+
+		// Record the first three runs and open the results while the remaining runs are in progress
+		IntegerVector indices = new IntegerVector();
+		for (int run = 1; run <= 3; run++) {
+			write(writer, run, indices, unitTypes);
+		}
+		RunResultsReader reader = new RunResultsReader(file);
+		assertTrue(reader.getRunCount() == 3);
+		assertTrue(reader.getOutputNames().equals(Arrays.asList("Out1", "Out2")));
+		assertTrue(reader.getOutputUnits().equals(Arrays.asList("s", "")));
+
+		for (int run = 4; run <= 20; run++) {
+			write(writer, run, indices, unitTypes);
+		}
+		writer.close();
+		reader.refresh();
+		assertTrue(reader.getRunCount() == 20);
+
+		// Output across the runs where the second run index is 3
+		ArrayList<Object> vals = reader.query("Out1", 0, 3);
+		assertTrue(vals.equals(Arrays.asList((Object) 3.5d, 8.5d, 13.5d, 18.5d)));
+		vals = reader.query("Out2", 0, 3);
+		assertTrue(vals.equals(Arrays.asList((Object) "run3", "run8", "run13", "run18")));
+
+		// Output for a single combination of run indices
+		vals = reader.query("Out2", 2, 5);
+		assertTrue(vals.equals(Arrays.asList((Object) "run10")));
+
+		// Errors and numbers with the wrong unit are stored as errors
+		vals = reader.query("Out2", 3, 5);
+		assertTrue(vals.equals(Arrays.asList((Object) new RunResultsWriter.OutputError("bad"))));
+		vals = reader.query("Out1", 4, 5);
+		assertTrue(vals.size() == 1 && vals.get(0) instanceof RunResultsWriter.OutputError);
+		ArrayList<Integer> runs = reader.findRuns(2, 5);
+		assertTrue(reader.getRunNumber(runs.get(0)) == 10);
+		assertTrue(Arrays.equals(reader.getRunIndices(runs.get(0)), new int[]{2, 5}));
+		reader.readRecord(runs.get(0));
+		assertTrue(reader.getSimTime() == 100.0d);
+
+		// All the runs
+		assertTrue(reader.query("Out1").size() == 20);
+		reader.close();
+	}
+
+	private static void write(RunResultsWriter writer, int run, IntegerVector indices,
+			ArrayList<Class<? extends Unit>> unitTypes) {
+		indices.clear();
+		indices.add((run - 1)/5 + 1);
+		indices.add((run - 1)%5 + 1);
+		ArrayList<Object> values = new ArrayList<>();
+		values.add(run + 0.5d);
+		values.add(run == 15 ? new RunResultsWriter.OutputError("bad") : "run" + run);
+
+		// Run 20 returns the first output with a different unit
+		ArrayList<Class<? extends Unit>> uts = unitTypes;
+		if (run == 20) {
+			uts = new ArrayList<>(unitTypes);
+			uts.set(0, DistanceUnit.class);
+		}
+		writer.write(run, indices, 100.0d, values, uts);
+	}
+
+	@Test
+	public void testModel() throws IOException, InterruptedException {
+		File dir = tmp.getRoot();
+		JaamSimModel simModel = SimModelHelpers.getGenSinkModel(dir, "2 s");
+		simModel.setInput("Simulation", "RunDuration", "9 s");
+		simModel.setInput("Simulation", "RunIndexDefinitionList", "2 3");
+		simModel.setInput("Simulation", "EndingRunNumber", "6");
+		simModel.setInput("Simulation", "RunOutputList",
+				"{ [Simulation].RunNumber } { [Sink].NumberAdded } { [Simulation].SimTime } "
+				+ "{ '[Simulation].RunNumber < 4 ? 1 : {1, 2}([Gen].Name)' }");
+		simModel.setInput("Simulation", "RecordRunResults", "TRUE");
+		simModel.save(new File(dir, "results.cfg"));
+
+		SimModelHelpers.run(simModel, 10000L);
+
+		// Wait for the remaining runs to be recorded
+		RunResultsReader reader = simModel.openRunResults();
+		for (int i = 0; i < 100 && reader.getRunCount() < 6; i++) {
+			Thread.sleep(100L);
+			reader.refresh();
+		}
+		assertTrue(reader.getRunCount() == 6);
+		assertTrue(reader.getIndexCount() == 2);
+
+		ArrayList<Object> vals = reader.query("[Simulation].RunNumber", 0, 2);
+		assertTrue(vals.equals(Arrays.asList((Object) 2.0d, 5.0d)));
+		vals = reader.query("[Sink].NumberAdded", 2);
+		assertTrue(vals.equals(Arrays.asList((Object) 5.0d, 5.0d, 5.0d)));
+
+		// An output with a unit is stored as a number in SI units
+		assertTrue(reader.getOutputUnits().equals(Arrays.asList("", "", "s", "")));
+		vals = reader.query("[Simulation].SimTime", 1, 1);
+		assertTrue(vals.equals(Arrays.asList((Object) 9.0d)));
+
+		// An output that cannot be evaluated is stored as an error
+		String name = "[Simulation].RunNumber < 4 ? 1 : {1, 2}([Gen].Name)";
+		vals = reader.query(name, 1);
+		assertTrue(vals.equals(Arrays.asList((Object) 1.0d, 1.0d, 1.0d)));
+		vals = reader.query(name, 2);
+		assertTrue(vals.size() == 3 && vals.get(0) instanceof RunResultsWriter.OutputError);
+		reader.close();
+	}
+
+}
@@ -1,6 +1,6 @@
 /*
  * JaamSim Discrete Event Simulation
- * Copyright (C) 2018-2019 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -175,9 +175,10 @@ public class TestSimulation {
 		assert(simModel2.getDoubleValue("[Sink].NumberAdded") == 500.0d);
 	}
 
-	static class WaitForPauseListener implements EventTimeListener {
+	public static class WaitForPauseListener implements EventTimeListener {
 		private final JaamSimModel simModel;
 		private final CountDownLatch countDownLatch;
+		private volatile Throwable error;
 
 		public WaitForPauseListener(JaamSimModel mod) {
 			simModel = mod;
@@ -199,6 +200,7 @@ public class TestSimulation {
 
 		@Override
 		public void handleError(Throwable t) {
+			error = t;
 			countDownLatch.countDown();
 			System.out.format("%s.handleError: %s%n", simModel, t.getMessage());
 			t.printStackTrace();
@@ -223,5 +225,12 @@ public class TestSimulation {
 				e.printStackTrace();
 			}
 		}
+
+		/**
+		 * Returns the error that stopped the simulation model, or null if there was none.
+		 */
+		public Throwable getError() {
+			return error;
+		}
 	}
 }
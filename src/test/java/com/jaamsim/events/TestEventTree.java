@@ -84,4 +84,34 @@ public void testRBTree() {
 		assertTrue((20000-2-2*i) == nodeCount);
 	}
 }
+
+@Test
+public void testRemoveEvent() {
+	EventNode node = new EventNode(0, 0);
+	Event[] evts = new Event[6];
+	for (int i = 0; i < evts.length; i++) {
+		evts[i] = new Event();
+		node.addEvent(evts[i], true);
+	}
+
+	// Remove from the middle, the head, and the tail of the list
+	node.removeEvent(evts[2]);
+	node.removeEvent(evts[0]);
+	node.removeEvent(evts[5]);
+	assertTrue(node.head == evts[1]);
+	assertTrue(node.tail == evts[4]);
+	assertTrue(evts[1].prev == null && evts[1].next == evts[3]);
+	assertTrue(evts[3].prev == evts[1] && evts[3].next == evts[4]);
+	assertTrue(evts[4].prev == evts[3] && evts[4].next == null);
+
+	// LIFO insertion at the head
+	node.addEvent(evts[0], false);
+	assertTrue(node.head == evts[0] && evts[1].prev == evts[0]);
+
+	node.removeEvent(evts[0]);
+	node.removeEvent(evts[1]);
+	node.removeEvent(evts[3]);
+	node.removeEvent(evts[4]);
+	assertTrue(node.head == null && node.tail == null);
+}
 }
@@ -0,0 +1,107 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
+
+public class TestConfigFileLoader {
+
+	@Test
+	public void testParallelLoad() throws IOException, URISyntaxException {
+		File dir = Files.createTempDirectory("jaamsim").toFile();
+		File mainFile = new File(dir, "main.cfg");
+		File incFile = new File(dir, "inc.cfg");
+		try {
+			// Included file with enough records to fill several chunks
+			int n = ConfigFileLoader.CHUNK_LINES;
+			PrintWriter out = new PrintWriter(incFile);
+			out.println("Define SimEntity {");
+			for (int i = 0; i < n; i++) {
+				out.println("  Inc" + i);
+			}
+			out.println("}");
+			for (int i = 0; i < n; i++) {
+				out.format("Inc%s Description { 'Included entity %s' } # comment%n", i, i);
+				out.format("Inc%s Position { %s 0 0 m }%n", i, i * 0.5d);
+			}
+			out.close();
+
+			// Main file with a quoted value that spans a chunk boundary
+			out = new PrintWriter(mainFile);
+			out.println("Define SimEntity { A B }");
+			for (int i = 1; i < n - 1; i++) {
+				out.println("A Description { 'Line" + i + "' }");
+			}
+			out.println("B Description { 'First line");
+			out.println("second line' }");
+			out.println("Include inc.cfg");
+			out.println("A Size { 2 3 4 m }");
+			out.close();
+
+			ArrayList<String> seq = load(mainFile, false);
+			ArrayList<String> par = load(mainFile, true);
+			assertTrue(seq.contains("B Description 'First linesecond line'"));
+			assertTrue(seq.contains("Inc" + (n - 1) + " Description 'Included entity " + (n - 1) + "'"));
+			assertTrue(seq.contains("A Size 2  3  4  m"));
+			assertTrue(par.equals(seq));
+		}
+		finally {
+			mainFile.delete();
+			incFile.delete();
+			dir.delete();
+		}
+	}
+
+	private static ArrayList<String> load(File file, boolean parallel) throws URISyntaxException {
+		JaamSimModel simModel = new JaamSimModel();
+		simModel.autoLoad();
+		ConfigFileLoader loader = new ConfigFileLoader(simModel, parallel);
+		try {
+			loader.readStream("", file.getParentFile().toURI(), file.getName());
+		}
+		finally {
+			loader.close();
+		}
+		assertTrue(simModel.getNumErrors() == 0);
+		assertTrue(loader.getFileCount() == 2);
+
+		// Record the inputs that have been set for each entity
+		ArrayList<String> ret = new ArrayList<>();
+		for (Entity ent : simModel.getClonesOfIterator(Entity.class)) {
+			ret.add(ent.getName());
+			for (Input<?> in : ent.getEditableInputs()) {
+				if (in.isDefault())
+					continue;
+				ret.add(ent.getName() + " " + in.getKeyword() + " " + in.getValueString());
+			}
+		}
+		return ret;
+	}
+
+}
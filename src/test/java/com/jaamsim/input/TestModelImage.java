@@ -0,0 +1,126 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.JaamSimModel;
+
+public class TestModelImage {
+
+	@Test
+	public void testImage() throws IOException, URISyntaxException {
+		File dir = Files.createTempDirectory("jaamsim").toFile();
+		File mainFile = new File(dir, "main.cfg");
+		File incFile = new File(dir, "inc.cfg");
+		File imageFile = ModelImage.getImageFile(mainFile);
+		try {
+			PrintWriter out = new PrintWriter(incFile);
+			out.println("Define SimEntity { C }");
+			out.println("C Description { 'Included entity' }");
+			out.close();
+
+			out = new PrintWriter(mainFile);
+			out.println("Define SimEntity { A B }");
+			out.println("A Description { 'Multi-line");
+			out.println("description' }");
+			out.println("Include inc.cfg");
+			out.println("B Position { 1 2 3 m }  Size { 2 3 4 m }");
+			out.println("RecordEdits");
+			out.println("Define SimEntity { D }");
+			out.close();
+
+			// Load the text files and record the image
+			JaamSimModel simModel = new JaamSimModel();
+			simModel.autoLoad();
+			ConfigFileLoader loader = new ConfigFileLoader(simModel, false);
+			ModelImage image = new ModelImage();
+			loader.setImage(image);
+			loader.readStream("", dir.toURI(), mainFile.getName());
+			loader.close();
+			assertTrue(simModel.getNumErrors() == 0);
+			assertTrue(image.getSourceCount() == 2);
+			assertTrue(image.getRecordCount() == 7);
+			image.write(imageFile);
+			ArrayList<String> text = getInputs(simModel);
+
+			// Load the model from the image
+			ModelImage image2 = ModelImage.read(imageFile);
+			assertTrue(image2 != null);
+			assertTrue(image2.isCurrent());
+			simModel = new JaamSimModel();
+			simModel.autoLoad();
+			loader = new ConfigFileLoader(simModel, false);
+			loader.apply(image2);
+			loader.close();
+			assertTrue(simModel.getNumErrors() == 0);
+			assertTrue(simModel.isRecordEditsFound());
+			assertTrue(getInputs(simModel).equals(text));
+			assertTrue(simModel.getNamedEntity("D").isAdded());
+			assertTrue(!simModel.getNamedEntity("C").isAdded());
+
+			// A new time stamp alone does not make the image out of date
+			long modified = incFile.lastModified();
+			assertTrue(incFile.setLastModified(modified + 10000L));
+			assertTrue(ModelImage.read(imageFile).isCurrent());
+
+			// An edit that keeps the size and time stamp of a file makes the image out of date
+			out = new PrintWriter(incFile);
+			out.println("Define SimEntity { X }");
+			out.println("X Description { 'Included entity' }");
+			out.close();
+			assertTrue(incFile.setLastModified(modified + 10000L));
+			assertTrue(!ModelImage.read(imageFile).isCurrent());
+
+			// Changing an included file makes the image out of date
+			out = new PrintWriter(incFile);
+			out.println("Define SimEntity { C E }");
+			out.close();
+			assertTrue(!ModelImage.read(imageFile).isCurrent());
+		}
+		finally {
+			mainFile.delete();
+			incFile.delete();
+			imageFile.delete();
+			dir.delete();
+		}
+	}
+
+	private static ArrayList<String> getInputs(JaamSimModel simModel) {
+		ArrayList<String> ret = new ArrayList<>();
+		for (Entity ent : simModel.getClonesOfIterator(Entity.class)) {
+			ret.add(ent.getName());
+			for (Input<?> in : ent.getEditableInputs()) {
+				if (in.isDefault())
+					continue;
+				ret.add(ent.getName() + " " + in.getKeyword() + " " + in.getValueString());
+			}
+		}
+		return ret;
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.SimModelHelpers;
+
+public class TestReportWriter {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private JaamSimModel getModel() {
+		JaamSimModel simModel = SimModelHelpers.getGenSinkModel(tmp.getRoot(), "2 s");
+		simModel.setInput("Simulation", "RunDuration", "9 s");
+		simModel.setInput("Simulation", "PrintReport", "TRUE");
+		return simModel;
+	}
+
+	private List<String> run(JaamSimModel simModel) throws IOException {
+		SimModelHelpers.run(simModel, 10000L);
+
+		// The report has been completed when the last run ends
+		File file = new File(simModel.getReportFileName(simModel.getRunName()) + ".rep");
+		if (!file.exists())
+			return null;
+		return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testWriter() throws IOException {
+		JaamSimModel simModel = getModel();
+		simModel.setInput("Simulation", "PrintReport", "FALSE");
+		simModel.setInput("Simulation", "ReportOutputList", "NumberAdded RunNumber");
+		run(simModel);
+		double simTime = simModel.getSimTime();
+
+		// Write three reports on the background thread
+		File file = tmp.newFile("async.rep");
+		FileEntity out = new FileEntity(file);
+		ReportWriter writer = new ReportWriter();
+		for (int i = 0; i < 3; i++) {
+			writer.print(simModel, out, simTime, i == 2);
+		}
+		writer.waitForReport();
+		writer.close();
+
+		// Write the same reports on this thread
+		File file2 = tmp.newFile("sync.rep");
+		FileEntity out2 = new FileEntity(file2);
+		for (int i = 0; i < 3; i++) {
+			ReportWriter.getReport(simModel, simTime).write(out2);
+		}
+		out2.close();
+
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertTrue(lines.equals(Files.readAllLines(file2.toPath(), StandardCharsets.UTF_8)));
+		assertTrue(lines.size() == 3*10);
+		assertTrue(lines.get(0).equals("Simulation\tRunNumber\t1.0\t-"));
+		assertTrue(lines.get(10).equals("Simulation\tRunNumber\t1.0\t-"));
+		assertTrue(lines.get(9).isEmpty());
+		assertTrue(lines.get(28).equals("Sink\tNumberAdded\t5.0\t-"));
+	}
+
+	@Test
+	public void testFilters() throws IOException {
+		JaamSimModel simModel = getModel();
+		simModel.setInput("Simulation", "ReportClassList", "EntitySink EntityGenerator");
+		simModel.setInput("Simulation", "ReportOutputList", "NumberAdded");
+		List<String> lines = run(simModel);
+
+		assertTrue(lines.size() == 8);
+		assertTrue(lines.get(0).equals("*** EntityGenerator ***"));
+		assertTrue(lines.get(1).isEmpty());
+		assertTrue(lines.get(2).equals("Gen\tNumberAdded\t5.0\t-"));
+		assertTrue(lines.get(4).equals("*** EntitySink ***"));
+		assertTrue(lines.get(6).equals("Sink\tNumberAdded\t5.0\t-"));
+	}
+
+	@Test
+	public void testGolden() throws IOException, URISyntaxException {
+		// Report written for the same model by the formatter used before ReportWriter
+		URL url = TestReportWriter.class.getResource("TestReportWriter.rep");
+		List<String> expected = Files.readAllLines(Paths.get(url.toURI()), StandardCharsets.UTF_8);
+
+		List<String> lines = run(getModel());
+		assertTrue(lines.size() == expected.size());
+		for (int i = 0; i < lines.size(); i++) {
+			if (lines.get(i).startsWith("Simulation\tPresent Time and Date\t"))
+				continue;
+			assertTrue(lines.get(i).equals(expected.get(i)));
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.probability;
+
+import com.jaamsim.ProbabilityDistributions.BetaDistribution;
+import com.jaamsim.ProbabilityDistributions.Distribution;
+import com.jaamsim.ProbabilityDistributions.ErlangDistribution;
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.ProbabilityDistributions.GammaDistribution;
+import com.jaamsim.ProbabilityDistributions.LogNormalDistribution;
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Compares the number of samples per second generated by each distribution with and without
+ * the FastSampling input. This is not one of the unit tests and is run from the command line:
+ * <pre>
+ * FastSamplingBenchmark [numSamples]
+ * </pre>
+ */
+public class FastSamplingBenchmark {
+
+	public static void main(String[] args) {
+		int n = 2000000;
+		if (args.length > 0)
+			n = Integer.parseInt(args[0]);
+
+		JaamSimModel simModel = new JaamSimModel();
+		simModel.createInstance(Simulation.class);
+		ObjectType unitType = InputAgent.defineEntityWithUniqueName(simModel, ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(unitType, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		NormalDistribution norm = createDistribution(simModel, unitType, NormalDistribution.class, "Norm");
+		LogNormalDistribution logNorm = createDistribution(simModel, unitType, LogNormalDistribution.class, "LogNorm");
+		ExponentialDistribution exp = createDistribution(simModel, unitType, ExponentialDistribution.class, "Exp");
+		GammaDistribution gamma = createDistribution(simModel, unitType, GammaDistribution.class, "Gamma");
+		InputAgent.applyArgs(gamma, "Shape", "2.5");
+		ErlangDistribution erlang = createDistribution(simModel, unitType, ErlangDistribution.class, "Erlang");
+		InputAgent.applyArgs(erlang, "Shape", "3");
+		BetaDistribution beta = createDistribution(simModel, unitType, BetaDistribution.class, "Beta");
+		InputAgent.applyArgs(beta, "AlphaParam", "2.0");
+		InputAgent.applyArgs(beta, "BetaParam", "3.0");
+		Distribution[] dists = {norm, logNorm, exp, gamma, erlang, beta};
+
+		// The first pass warms up the JVM
+		for (int rep = 0; rep < 2; rep++) {
+			if (rep == 1)
+				System.out.format("Distribution Throughput - %,d samples%n", n);
+			for (Distribution dist : dists) {
+				double[] rate = new double[2];
+				for (int fast = 0; fast < 2; fast++) {
+					InputAgent.applyArgs(dist, "FastSampling", fast == 1 ? "TRUE" : "FALSE");
+					dist.validate();
+					dist.earlyInit();
+					long t0 = System.nanoTime();
+					TestContinuousDistribution.sampleDistribution(dist, n);
+					rate[fast] = n/((System.nanoTime() - t0)*1.0e-9d);
+				}
+				if (rep == 1)
+					System.out.format("  %-24s - %,12.0f samples/s, FastSampling %,12.0f samples/s%n",
+							dist.getClass().getSimpleName(), rate[0], rate[1]);
+			}
+		}
+
+		// The threads that run the events are not daemon threads
+		System.exit(0);
+	}
+
+	private static <T extends Distribution> T createDistribution(JaamSimModel simModel,
+			ObjectType unitType, Class<T> klass, String name) {
+		T ret = InputAgent.defineEntityWithUniqueName(simModel, klass, name, "-", true);
+		InputAgent.applyArgs(ret, "UnitType", unitType.getName());
+		InputAgent.applyArgs(ret, "RandomSeed", "6");
+		return ret;
+	}
+
+}
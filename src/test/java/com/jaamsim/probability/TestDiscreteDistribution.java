@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.jaamsim.ProbabilityDistributions.AliasTable;
 import com.jaamsim.ProbabilityDistributions.DiscreteDistribution;
 import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.ObjectType;
@@ -59,4 +60,48 @@ public class TestDiscreteDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	public void AliasMethod() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(simModel, ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		DiscreteDistribution dist = InputAgent.defineEntityWithUniqueName(simModel, DiscreteDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "ValueList", "1.0", "3.0", "10.0", "12.0");
+		InputAgent.applyArgs(dist, "ProbabilityList", "0.5", "0.3", "0.2", "0.0");
+		InputAgent.applyArgs(dist, "RandomSeed", "1");
+		InputAgent.applyArgs(dist, "UseAliasMethod", "TRUE");
+		dist.validate();
+		dist.earlyInit();
+
+		int numSamples = 1000000;
+		double total = TestContinuousDistribution.sampleDistribution(dist, numSamples);
+		double mean = total / numSamples;
+
+		assertTrue( Math.abs( dist.getSampleMean(0.0) - mean ) < 0.001 );
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
+		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
+		assertTrue( dist.getSampleCount(0.0).get(3) == 0.0d );
+	}
+
+	@Test
+	public void AliasTableProbabilities() {
+		int n = 1000;
+		double[] probs = new double[n];
+		double total = 0.0d;
+		for (int i = 0; i < n; i++) {
+			probs[i] = (i % 7 == 0) ? 0.0d : (i % 13) + 0.5d;
+			total += probs[i];
+		}
+		for (int i = 0; i < n; i++) {
+			probs[i] /= total;
+		}
+
+		AliasTable table = new AliasTable(probs);
+		assertTrue( table.size() == n );
+		for (int i = 0; i < n; i++) {
+			assertTrue( Math.abs( table.getProbability(i) - probs[i] ) < 1.0e-12 );
+		}
+	}
 }
@@ -0,0 +1,281 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.probability;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.ProbabilityDistributions.BetaDistribution;
+import com.jaamsim.ProbabilityDistributions.Distribution;
+import com.jaamsim.ProbabilityDistributions.ErlangDistribution;
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.ProbabilityDistributions.GammaDistribution;
+import com.jaamsim.ProbabilityDistributions.LogNormalDistribution;
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.ProbabilityDistributions.Ziggurat;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.math.Erf;
+import com.jaamsim.math.Gamma;
+import com.jaamsim.rng.MRG1999a;
+
+public class TestFastSampling {
+
+	JaamSimModel simModel;
+	ObjectType unitType;
+
+	// Kolmogorov-Smirnov critical value for a significance level of 0.001
+	private static final double KS_CRITICAL = 1.95d;
+	private static final int NUM_SAMPLES = 200000;
+
+	@Before
+	public void setupTests() {
+		simModel = new JaamSimModel();
+		simModel.createInstance(Simulation.class);
+		unitType = InputAgent.defineEntityWithUniqueName(simModel, ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(unitType, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+	}
+
+	private interface CDF {
+		public double value(double x);
+	}
+
+	/**
+	 * Returns the Kolmogorov-Smirnov statistic sqrt(n)*D for the samples and the specified
+	 * cumulative distribution function.
+	 */
+	private static double getKSStatistic(double[] vals, CDF cdf) {
+		double[] sorted = vals.clone();
+		Arrays.sort(sorted);
+		int n = sorted.length;
+		double d = 0.0d;
+		for (int i = 0; i < n; i++) {
+			double p = cdf.value(sorted[i]);
+			d = Math.max(d, Math.max(p - (double) i/n, (double) (i + 1)/n - p));
+		}
+		return d*Math.sqrt(n);
+	}
+
+	@Test
+	public void testNormalGoodnessOfFit() {
+		MRG1999a rng = new MRG1999a(0, 0);
+		double[] vals = new double[NUM_SAMPLES];
+		for (int i = 0; i < vals.length; i++) {
+			vals[i] = Ziggurat.nextNormal(rng);
+		}
+		double ks = getKSStatistic(vals, new CDF() {
+			@Override
+			public double value(double x) {
+				return Erf.normalCDF(x);
+			}
+		});
+		assertTrue(ks < KS_CRITICAL);
+	}
+
+	@Test
+	public void testNormalTails() {
+		// About 0.0576% of samples lie beyond the base of the ziggurat at |x| = 3.4426
+		MRG1999a rng = new MRG1999a(1, 0);
+		int n = 2000000;
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			if (Math.abs(Ziggurat.nextNormal(rng)) > 3.442619855899d)
+				count++;
+		}
+		double p = 2.0d*Erf.normalCDF(-3.442619855899d);
+		double sd = Math.sqrt(n*p*(1.0d - p));
+		assertTrue(Math.abs(count - n*p) < 4.0d*sd);
+	}
+
+	@Test
+	public void testExponentialGoodnessOfFit() {
+		MRG1999a rng = new MRG1999a(2, 0);
+		double[] vals = new double[NUM_SAMPLES];
+		for (int i = 0; i < vals.length; i++) {
+			vals[i] = Ziggurat.nextExponential(rng);
+		}
+		double ks = getKSStatistic(vals, new CDF() {
+			@Override
+			public double value(double x) {
+				return -Math.expm1(-x);
+			}
+		});
+		assertTrue(ks < KS_CRITICAL);
+	}
+
+	@Test
+	public void testGammaGoodnessOfFit() {
+		double[] shapes = {0.3d, 1.0d, 2.5d, 10.0d};
+		for (int j = 0; j < shapes.length; j++) {
+			final double shape = shapes[j];
+			MRG1999a rng1 = new MRG1999a(3, j);
+			MRG1999a rng2 = new MRG1999a(4, j);
+			double[] vals = new double[NUM_SAMPLES];
+			for (int i = 0; i < vals.length; i++) {
+				vals[i] = Ziggurat.nextGamma(shape, rng1, rng2);
+			}
+			double ks = getKSStatistic(vals, new CDF() {
+				@Override
+				public double value(double x) {
+					return Gamma.regularizedGammaP(shape, x, 1.0e-15d, 10000);
+				}
+			});
+			assertTrue(ks < KS_CRITICAL);
+		}
+	}
+
+	@Test
+	public void testErlangGoodnessOfFit() {
+		int[] shapes = {1, 3, 12};
+		for (int j = 0; j < shapes.length; j++) {
+			final int shape = shapes[j];
+			ErlangDistribution erlang = createDistribution(ErlangDistribution.class, "Erlang");
+			InputAgent.applyArgs(erlang, "Mean", "5.0");
+			InputAgent.applyArgs(erlang, "Shape", Integer.toString(shape));
+			double[] vals = getFastSamples(erlang, j);
+			double ks = getKSStatistic(vals, new CDF() {
+				@Override
+				public double value(double x) {
+					return Gamma.regularizedGammaP(shape, x*shape/5.0d, 1.0e-15d, 10000);
+				}
+			});
+			assertTrue(ks < KS_CRITICAL);
+		}
+	}
+
+	@Test
+	public void testBetaGoodnessOfFit() {
+		final double[][] params = {{2.0d, 0.7d}, {0.5d, 0.5d}, {3.0d, 5.0d}};
+		for (int j = 0; j < params.length; j++) {
+			final double alpha = params[j][0];
+			final double beta = params[j][1];
+			BetaDistribution dist = createDistribution(BetaDistribution.class, "Beta");
+			InputAgent.applyArgs(dist, "AlphaParam", Double.toString(alpha));
+			InputAgent.applyArgs(dist, "BetaParam", Double.toString(beta));
+			double[] vals = getFastSamples(dist, j);
+			double ks = getKSStatistic(vals, new CDF() {
+				@Override
+				public double value(double x) {
+					if (x <= 0.0d)
+						return 0.0d;
+					if (x >= 1.0d)
+						return 1.0d;
+					return BetaDistribution.regularizedBeta(x, alpha, beta, 1.0e-14d, 10000);
+				}
+			});
+			assertTrue(ks < KS_CRITICAL);
+		}
+	}
+
+	/**
+	 * Returns the samples generated by the fast sampling method for the specified distribution.
+	 */
+	private static double[] getFastSamples(Distribution dist, int seed) {
+		InputAgent.applyArgs(dist, "FastSampling", "TRUE");
+		InputAgent.applyArgs(dist, "RandomSeed", Integer.toString(seed));
+		dist.validate();
+		dist.earlyInit();
+
+		CollectSamples target = new CollectSamples(dist, NUM_SAMPLES);
+		EventManager evt = new EventManager("FastSamplingUnitTest");
+		evt.clear();
+		evt.scheduleProcessExternal(0, 0, false, target, null);
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 100000000);
+		return target.vals;
+	}
+
+	private static class CollectSamples extends ProcessTarget {
+		final Distribution dist;
+		final double[] vals;
+
+		CollectSamples(Distribution dist, int numSamples) {
+			this.dist = dist;
+			vals = new double[numSamples];
+		}
+
+		@Override
+		public String getDescription() {
+			return "FastSamplingUnitTest";
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < vals.length; i++) {
+				vals[i] = dist.getNextSample(0.0d);
+			}
+		}
+	}
+
+	@Test
+	public void testDistributionMoments() {
+		NormalDistribution norm = createDistribution(NormalDistribution.class, "Norm");
+		InputAgent.applyArgs(norm, "Mean", "10.0");
+		InputAgent.applyArgs(norm, "StandardDeviation", "2.0");
+		testMoments(norm, 0.001d);
+
+		LogNormalDistribution logNorm = createDistribution(LogNormalDistribution.class, "LogNorm");
+		InputAgent.applyArgs(logNorm, "NormalStandardDeviation", "0.5");
+		testMoments(logNorm, 0.005d);
+
+		ExponentialDistribution exp = createDistribution(ExponentialDistribution.class, "Exp");
+		InputAgent.applyArgs(exp, "Mean", "5.0");
+		testMoments(exp, 0.005d);
+
+		GammaDistribution gamma = createDistribution(GammaDistribution.class, "Gamma");
+		InputAgent.applyArgs(gamma, "Mean", "5.0");
+		InputAgent.applyArgs(gamma, "Shape", "0.5");
+		testMoments(gamma, 0.005d);
+
+		ErlangDistribution erlang = createDistribution(ErlangDistribution.class, "Erlang");
+		InputAgent.applyArgs(erlang, "Mean", "5.0");
+		InputAgent.applyArgs(erlang, "Shape", "3");
+		testMoments(erlang, 0.005d);
+
+		BetaDistribution beta = createDistribution(BetaDistribution.class, "Beta");
+		InputAgent.applyArgs(beta, "AlphaParam", "2.0");
+		InputAgent.applyArgs(beta, "BetaParam", "0.7");
+		testMoments(beta, 0.005d);
+	}
+
+	private <T extends Distribution> T createDistribution(Class<T> klass, String name) {
+		T ret = InputAgent.defineEntityWithUniqueName(simModel, klass, name, "-", true);
+		InputAgent.applyArgs(ret, "UnitType", unitType.getName());
+		return ret;
+	}
+
+	private void testMoments(Distribution dist, double tol) {
+		InputAgent.applyArgs(dist, "FastSampling", "TRUE");
+		InputAgent.applyArgs(dist, "RandomSeed", "5");
+		dist.validate();
+		dist.earlyInit();
+
+		int numSamples = 1000000;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < tol );
+		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < tol );
+	}
+
+}
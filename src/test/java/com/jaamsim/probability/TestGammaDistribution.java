@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.ObjectType;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.math.Gamma;
 
 public class TestGammaDistribution {
 
@@ -83,4 +84,50 @@ public class TestGammaDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.005 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.005 );
 	}
+
+	@Test
+	public void IncompleteGammaFunctions() {
+		double eps = 1.0e-15d;
+		int maxIter = 10000;
+
+		// P(1, x) = 1 - exp(-x)
+		assertTrue( Math.abs( Gamma.regularizedGammaP(1.0d, 2.0d, eps, maxIter) + Math.expm1(-2.0d) ) < 1.0e-15d );
+		assertTrue( Math.abs( Gamma.regularizedGammaQ(1.0d, 30.0d, eps, maxIter)/Math.exp(-30.0d) - 1.0d ) < 1.0e-13d );
+
+		// Inverse functions
+		double[] shapes = {0.3d, 1.0d, 5.0d, 50.0d};
+		double[] probs = {1.0e-12d, 1.0e-4d, 0.1d, 0.5d, 0.9d};
+		for (double a : shapes) {
+			for (double p : probs) {
+				double x = GammaDistribution.inverseRegularizedGamma(a, p, false);
+				assertTrue( Math.abs( Gamma.regularizedGammaP(a, x, eps, maxIter)/p - 1.0d ) < 1.0e-10d );
+				x = GammaDistribution.inverseRegularizedGamma(a, p, true);
+				assertTrue( Math.abs( Gamma.regularizedGammaQ(a, x, eps, maxIter)/p - 1.0d ) < 1.0e-10d );
+			}
+		}
+	}
+
+	@Test
+	public void ExactTruncation() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(simModel, ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		GammaDistribution dist = InputAgent.defineEntityWithUniqueName(simModel, GammaDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "Mean", "1.0");
+		InputAgent.applyArgs(dist, "Shape", "2.0");
+		InputAgent.applyArgs(dist, "MinValue", "10.0");
+		InputAgent.applyArgs(dist, "ExactTruncation", "TRUE");
+		InputAgent.applyArgs(dist, "RandomSeed", "1");
+		dist.earlyInit();
+
+		int numSamples = 100000;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+		assertTrue( dist.getSampleMin(0.0) >= 10.0d );
+
+		// For Shape = 2, the mean beyond x is scale * (z^2 + 2z + 2)/(z + 1), where z = x/scale
+		double z = 10.0d/0.5d;
+		double mean = 0.5d * (z*z + 2.0d*z + 2.0d)/(z + 1.0d);
+		assertTrue( Math.abs( dist.getSampleMean(0.0) - mean ) < 0.005d );
+	}
 }
@@ -0,0 +1,109 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.probability;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jaamsim.Samples.TSPoint;
+import com.jaamsim.Samples.TimeSeries;
+import com.jaamsim.Samples.TimeSeriesSearch;
+import com.jaamsim.basicsim.JaamSimModel;
+import com.jaamsim.basicsim.TestSimulation.WaitForPauseListener;
+import com.jaamsim.rng.MRG1999a;
+
+public class TestNonStatExponentialDist {
+
+	JaamSimModel simModel;
+
+	@Before
+	public void setupTests() {
+		simModel = new JaamSimModel();
+		simModel.autoLoad();
+	}
+
+	@Test
+	public void CursorSearch() {
+		simModel.defineEntity("TimeSeries", "TS");
+		simModel.setInput("TS", "UnitType", "DimensionlessUnit");
+		simModel.setInput("TS", "Value", "{ 0 h 0 } { 2 h 10 } { 5 h 10 } { 8 h 40 }");
+		simModel.setInput("TS", "CycleTime", "10 h");
+		TimeSeries ts = (TimeSeries) simModel.getNamedEntity("TS");
+		ts.validate();
+
+		// A search that keeps its cursor must give the same arrival times as a new search
+		TimeSeriesSearch search = new TimeSeriesSearch(ts, ts.getData(), ts.getCycleTime());
+		TSPoint cursor = new TSPoint();
+		MRG1999a rng = new MRG1999a(0, 0);
+		long ticks = 0L;
+		for (int i = 0; i < 100000; i++) {
+			double val = search.getInterpolatedCumulativeValueForTicks(ticks, cursor);
+			assertTrue(val == ts.getInterpolatedCumulativeValueForTicks(ticks, new TSPoint()));
+			val -= Math.log(rng.nextUniform());
+			long ticksNext = search.getInterpolatedTicksForValue(val, cursor);
+			assertTrue(ticksNext == ts.getInterpolatedTicksForValue(val, new TSPoint()));
+			assertTrue(ticksNext >= ticks);
+			ticks = ticksNext;
+		}
+	}
+
+	@Test
+	public void ArrivalCounts() {
+		simModel.defineEntity("SimEntity", "Proto");
+		simModel.defineEntity("EntitySink", "Sink");
+
+		// Expected arrivals given by a time series with an average rate of 20 per hour
+		simModel.defineEntity("TimeSeries", "TS");
+		simModel.setInput("TS", "UnitType", "DimensionlessUnit");
+		simModel.setInput("TS", "Value", "{ 0 h 0 } { 4 h 20 } { 10 h 200 }");
+		simModel.setInput("TS", "CycleTime", "10 h");
+		simModel.defineEntity("NonStatExponentialDist", "Dist1");
+		simModel.setInput("Dist1", "ExpectedArrivals", "TS");
+		simModel.setInput("Dist1", "RandomSeed", "1");
+
+		// Arrival rate of 10 per hour for 500 hours followed by 30 per hour
+		simModel.defineEntity("NonStatExponentialDist", "Dist2");
+		simModel.setInput("Dist2", "ArrivalRate", "'this.SimTime < 500[h] ? 10/1[h] : 30/1[h]'");
+		simModel.setInput("Dist2", "MaxArrivalRate", "30 /h");
+		simModel.setInput("Dist2", "RandomSeed", "2");
+
+		String[] dists = {"Dist1", "Dist2"};
+		for (int i = 0; i < dists.length; i++) {
+			String gen = "Gen" + (i + 1);
+			simModel.defineEntity("EntityGenerator", gen);
+			simModel.setInput(gen, "PrototypeEntity", "Proto");
+			simModel.setInput(gen, "NextComponent", "Sink");
+			simModel.setInput(gen, "InterArrivalTime", dists[i]);
+		}
+		simModel.setInput("Simulation", "RunDuration", "1000 h");
+
+		WaitForPauseListener listener = new WaitForPauseListener(simModel);
+		simModel.setTimeListener(listener);
+		simModel.start();
+		listener.waitForPause(10000L);
+
+		// The number of arrivals is Poisson distributed with a mean of 20000 for each generator
+		double sd = Math.sqrt(20000.0d);
+		double num1 = simModel.getDoubleValue("[Gen1].NumberGenerated");
+		double num2 = simModel.getDoubleValue("[Gen2].NumberGenerated");
+		assertTrue(Math.abs(num1 - 20000.0d) < 4.0d*sd);
+		assertTrue(Math.abs(num2 - 20000.0d) < 4.0d*sd);
+	}
+
+}
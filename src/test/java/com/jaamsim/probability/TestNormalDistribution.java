@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2013 Ausenco Engineering Canada Inc.
- * Copyright (C) 2019 JaamSim Software Inc.
+ * Copyright (C) 2019-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,10 +23,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.ProbabilityDistributions.UniformDistribution;
 import com.jaamsim.basicsim.JaamSimModel;
 import com.jaamsim.basicsim.ObjectType;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.math.Erf;
 
 public class TestNormalDistribution {
 
@@ -59,4 +61,100 @@ public class TestNormalDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	public void NormalFunctions() {
+		assertTrue( Math.abs( Erf.erf(0.5d) - 0.5204998778130465d ) < 1.0e-15d );
+		assertTrue( Math.abs( Erf.erfc(3.0d)/2.209049699858544e-5d - 1.0d ) < 1.0e-12d );
+		assertTrue( Math.abs( Erf.normalCDF(-4.0d)/3.167124183311992e-5d - 1.0d ) < 1.0e-12d );
+		assertTrue( Math.abs( Erf.normalQuantile(1.0e-10d) + 6.361340902404056d ) < 1.0e-12d );
+		assertTrue( Math.abs( Erf.normalQuantile(0.975d) - 1.959963984540054d ) < 1.0e-14d );
+		for (double p = 0.001d; p < 1.0d; p += 0.001d) {
+			assertTrue( Math.abs( Erf.normalCDF(Erf.normalQuantile(p)) - p ) < 1.0e-15d );
+		}
+	}
+
+	@Test
+	public void ExactTruncation() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(simModel, ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		// Less than one sample in 35,000 lies between 4 and 4.5 standard deviations
+		NormalDistribution dist = InputAgent.defineEntityWithUniqueName(simModel, NormalDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "Mean", "0.0");
+		InputAgent.applyArgs(dist, "StandardDeviation", "1.0");
+		InputAgent.applyArgs(dist, "MinValue", "4.0");
+		InputAgent.applyArgs(dist, "MaxValue", "4.5");
+		InputAgent.applyArgs(dist, "ExactTruncation", "TRUE");
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		dist.earlyInit();
+
+		int numSamples = 100000;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+		assertTrue( dist.getSampleMin(0.0) >= 4.0d );
+		assertTrue( dist.getSampleMax(0.0) <= 4.5d );
+
+		// Mean of the truncated normal distribution
+		double a = 4.0d;
+		double b = 4.5d;
+		double pdfA = Math.exp(-0.5d*a*a)/Math.sqrt(2.0d*Math.PI);
+		double pdfB = Math.exp(-0.5d*b*b)/Math.sqrt(2.0d*Math.PI);
+		double mean = (pdfA - pdfB)/(Erf.normalCDF(-a) - Erf.normalCDF(-b));
+		assertTrue( Math.abs( dist.getSampleMean(0.0) - mean ) < 0.002 );
+	}
+
+	@Test
+	public void RandomMeanTruncation() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(simModel, ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		UniformDistribution meanDist = InputAgent.defineEntityWithUniqueName(simModel, UniformDistribution.class, "MeanDist", "-", true);
+		InputAgent.applyArgs(meanDist, "UnitType", t.getName());
+		InputAgent.applyArgs(meanDist, "MinValue", "0.0");
+		InputAgent.applyArgs(meanDist, "MaxValue", "2.0");
+		InputAgent.applyArgs(meanDist, "RandomSeed", "1");
+		meanDist.validate();
+		meanDist.earlyInit();
+
+		NormalDistribution dist = InputAgent.defineEntityWithUniqueName(simModel, NormalDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "Mean", meanDist.getName());
+		InputAgent.applyArgs(dist, "StandardDeviation", "1.0");
+		InputAgent.applyArgs(dist, "MinValue", "4.0");
+		InputAgent.applyArgs(dist, "MaxValue", "4.5");
+		InputAgent.applyArgs(dist, "ExactTruncation", "TRUE");
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		dist.earlyInit();
+
+		// The mean is sampled once for each truncated sample
+		int numSamples = 10000;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+		assertTrue( dist.getNumberOfSamples(0.0) == numSamples );
+		assertTrue( meanDist.getNumberOfSamples(0.0) == numSamples );
+		assertTrue( dist.getSampleMin(0.0) >= 4.0d );
+		assertTrue( dist.getSampleMax(0.0) <= 4.5d );
+	}
+
+	@Test
+	public void RejectionFallback() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(simModel, ObjectType.class, "TestType", "-", true);
+		InputAgent.applyArgs(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		// Rejection sampling cannot find a value greater than 7 standard deviations
+		NormalDistribution dist = InputAgent.defineEntityWithUniqueName(simModel, NormalDistribution.class, "Dist", "-", true);
+		InputAgent.applyArgs(dist, "UnitType", t.getName());
+		InputAgent.applyArgs(dist, "MinValue", "7.0");
+		InputAgent.applyArgs(dist, "RandomSeed", "0");
+		dist.validate();
+		dist.earlyInit();
+
+		int numSamples = 100;
+		TestContinuousDistribution.sampleDistribution(dist, numSamples);
+		assertTrue( dist.getNumberOfSamples(0.0) == numSamples );
+		assertTrue( dist.getSampleMin(0.0) >= 7.0d );
+		assertTrue( dist.getSampleMax(0.0) < 9.0d );
+	}
 }
@@ -0,0 +1,60 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.rng;
+
+/**
+ * Compares the time to generate a value with MRG1999a and with the original implementation of
+ * the recursion. This is not one of the unit tests and is run from the command line:
+ * <pre>
+ * MRG1999aBenchmark [numValues]
+ * </pre>
+ */
+public class MRG1999aBenchmark {
+
+	public static void main(String[] args) {
+		int n = 20000000;
+		if (args.length > 0)
+			n = Integer.parseInt(args[0]);
+
+		// The first two passes warm up the JVM
+		for (int rep = 0; rep < 3; rep++) {
+			TestMRG1999a.ReferenceMRG ref = new TestMRG1999a.ReferenceMRG(new long[]{ 12345, 12345, 12345, 12345, 12345, 12345 });
+			MRG1999a test = new MRG1999a(0, 0);
+
+			long t0 = System.nanoTime();
+			double sum0 = 0.0d;
+			for (int i = 0; i < n; i++) {
+				sum0 += ref.nextUniform();
+			}
+			long t1 = System.nanoTime();
+			double sum1 = 0.0d;
+			for (int i = 0; i < n; i++) {
+				sum1 += test.nextUniform();
+			}
+			long t2 = System.nanoTime();
+
+			if (sum0 != sum1)
+				throw new IllegalStateException("The generators returned different values");
+			if (rep < 2)
+				continue;
+			System.out.format("MRG1999a Throughput - %,d values%n", n);
+			System.out.format("  Reference   - %.2f ns/value%n", (t1 - t0)/(double)n);
+			System.out.format("  nextUniform - %.2f ns/value%n", (t2 - t1)/(double)n);
+		}
+	}
+
+}
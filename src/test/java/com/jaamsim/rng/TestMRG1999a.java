@@ -1,7 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
- * Copyright (C) 2018 JaamSim Software Inc.
+ * Copyright (C) 2018-2020 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -225,4 +225,93 @@ public class TestMRG1999a {
 
 		assertTrue(test1.toString().equals(test2.toString()));
 	}
+
+	@Test
+	public void testJumpAhead() {
+		long[] seeds = { 12345, 12345, 12345, 12345, 12345, 12345 };
+		for (int i = 0; i <= 1100; i++) {
+			if (i % 50 == 0 || i == 1023 || i == 1024) {
+				MRG1999a test1 = new MRG1999a(i, 0);
+				MRG1999a test2 = new MRG1999a(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
+				assertTrue(test1.toString().equals(test2.toString()));
+			}
+			MRG1999a.advanceStream(seeds);
+		}
+
+		long[] subSeeds = { 12345, 12345, 12345, 12345, 12345, 12345 };
+		for (int i = 0; i < 777; i++) {
+			MRG1999a.advanceStream(subSeeds);
+		}
+		for (int i = 0; i <= 1100; i++) {
+			if (i % 50 == 0 || i == 1023 || i == 1024) {
+				MRG1999a test1 = new MRG1999a(777, i);
+				MRG1999a test2 = new MRG1999a(subSeeds[0], subSeeds[1], subSeeds[2], subSeeds[3], subSeeds[4], subSeeds[5]);
+				assertTrue(test1.toString().equals(test2.toString()));
+			}
+			MRG1999a.advanceSubstream(subSeeds);
+		}
+
+		// Very large stream and substream numbers are reached directly
+		MRG1999a test1 = new MRG1999a(Integer.MAX_VALUE, Integer.MAX_VALUE);
+		MRG1999a test2 = new MRG1999a(Integer.MAX_VALUE, 12);
+		test2.setSeedStream(Integer.MAX_VALUE, Integer.MAX_VALUE);
+		assertTrue(test1.toString().equals(test2.toString()));
+	}
+
+	@Test
+	public void testReferenceRecursion() {
+		long max1 = 4294967087L - 1L;
+		long max2 = 4294944443L - 1L;
+		long[][] initSeeds = {
+			{ 12345, 12345, 12345, 12345, 12345, 12345 },
+			{ 0, 0, 1, 0, 0, 1 },
+			{ max1, max1, max1, max2, max2, max2 },
+			{ 0, max1, 0, max2, 0, max2 },
+			{ max1, 0, 1, 1, 0, max2 },
+		};
+		for (long[] seeds : initSeeds) {
+			MRG1999a test = new MRG1999a(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
+			ReferenceMRG ref = new ReferenceMRG(seeds);
+			for (int i = 0; i < 1000000; i++) {
+				assertTrue(test.nextUniform() == ref.nextUniform());
+			}
+			assertTrue(test.toString().equals(ref.toString()));
+		}
+	}
+
+	/**
+	 * Original implementation of the recursion using the remainder operator.
+	 */
+	static class ReferenceMRG {
+		private static final long m1 = 4294967087l;
+		private static final long m2 = 4294944443l;
+		private static final double norm = 2.328306549295727688e-10d;
+		long s0, s1, s2, s3, s4, s5;
+
+		ReferenceMRG(long[] seeds) {
+			s0 = seeds[0]; s1 = seeds[1]; s2 = seeds[2];
+			s3 = seeds[3]; s4 = seeds[4]; s5 = seeds[5];
+		}
+
+		double nextUniform() {
+			long p1 = 1403580l * s1 - 810728l * s0;
+			p1 = p1 % m1;
+			if (p1 < 0) p1 += m1;
+			s0 = s1; s1 = s2; s2 = p1;
+
+			long p2 = 527612l * s5 - 1370589l * s3;
+			p2 = p2 % m2;
+			if (p2 < 0) p2 += m2;
+			s3 = s4; s4 = s5; s5 = p2;
+
+			long p = p1 - p2;
+			if (p <= 0) p += m1;
+			return p * norm;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d, %d, %d, %d, %d, %d", s0, s1, s2, s3, s4, s5);
+		}
+	}
 }
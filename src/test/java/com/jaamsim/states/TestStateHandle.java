@@ -0,0 +1,80 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2020 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.states;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.basicsim.JaamSimModel;
+
+public class TestStateHandle {
+
+	@Test
+	public void testGet() {
+		StateHandle handle = StateHandle.get("TestStateHandle-Get");
+		assertTrue(handle.getName().equals("TestStateHandle-Get"));
+		assertTrue(StateHandle.get(new String("TestStateHandle-Get")) == handle);
+		assertTrue(StateHandle.find("TestStateHandle-Get") == handle);
+		assertTrue(StateHandle.find("TestStateHandle-Unused") == null);
+	}
+
+	@Test
+	public void testUnusedHandle() throws InterruptedException {
+		StateHandle.get("TestStateHandle-Discarded");
+
+		// A handle that is no longer referenced is removed from the table
+		for (int i = 0; i < 100 && StateHandle.find("TestStateHandle-Discarded") != null; i++) {
+			System.gc();
+			Thread.sleep(10L);
+		}
+		assertTrue(StateHandle.find("TestStateHandle-Discarded") == null);
+
+		StateHandle handle = StateHandle.get("TestStateHandle-Discarded");
+		assertTrue(StateHandle.get("TestStateHandle-Discarded") == handle);
+	}
+
+	@Test
+	public void testSharedHandles() {
+		StateEntity ent1 = createEntity();
+		StateEntity ent2 = createEntity();
+
+		// Each model keeps its own record for a state whose handle is shared
+		ent1.addState("TestStateHandle-Shared");
+		assertTrue(ent1.getState("TestStateHandle-Shared") != null);
+		assertTrue(ent2.getState("TestStateHandle-Shared") == null);
+
+		ent2.addState("TestStateHandle-Shared");
+		StateRecord rec1 = ent1.getState("TestStateHandle-Shared");
+		StateRecord rec2 = ent2.getState(StateHandle.get("TestStateHandle-Shared"));
+		assertTrue(rec1 != null && rec2 != null && rec1 != rec2);
+		assertTrue(rec1.getHandle() == rec2.getHandle());
+
+		// Adding time to the record in one model does not affect the other
+		rec1.addTicks(10L);
+		assertTrue(rec1.getTotalTicks() == 10L);
+		assertTrue(rec2.getTotalTicks() == 0L);
+	}
+
+	private static StateEntity createEntity() {
+		JaamSimModel simModel = new JaamSimModel();
+		simModel.autoLoad();
+		simModel.defineEntity("SimEntity", "Ent");
+		return (StateEntity) simModel.getNamedEntity("Ent");
+	}
+
+}